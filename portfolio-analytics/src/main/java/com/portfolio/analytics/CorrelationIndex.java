@@ -0,0 +1,53 @@
+package com.portfolio.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Hedge candidates for one series from a row of its correlation matrix: the k most negatively correlated other
+ * series, and the k least correlated ones (smallest |ρ|) as diversifiers.
+ *
+ * Selection keeps a sorted buffer of at most k entries while scanning the row, so a row costs O(n·k) with no
+ * sort of the full universe; k is small (a handful of suggestions per ticker).
+ */
+public final class CorrelationIndex {
+
+    private CorrelationIndex() {
+    }
+
+    /**
+     * Indices of up to k series with ρ below 0, most negative first. {@code self} is skipped.
+     */
+    public static int[] mostNegative(double[] row, int self, int k) {
+        return lowest(row, self, k, false);
+    }
+
+    /**
+     * Indices of the k series with the smallest |ρ|, least correlated first. {@code self} is skipped.
+     */
+    public static int[] leastCorrelated(double[] row, int self, int k) {
+        return lowest(row, self, k, true);
+    }
+
+    private static int[] lowest(double[] row, int self, int k, boolean absolute) {
+        int[] idx = new int[Math.max(0, k)];
+        double[] key = new double[idx.length];
+        int size = 0;
+        for (int j = 0; j < row.length; j++) {
+            double r = row[j];
+            if (j == self || Double.isNaN(r) || (!absolute && r >= 0)) continue;
+            double s = absolute ? Math.abs(r) : r;
+            if (size == idx.length && (size == 0 || s >= key[size - 1])) continue;
+
+            // Insertion into the sorted buffer, dropping its largest entry when full
+            int p = size < idx.length ? size++ : size - 1;
+            while (p > 0 && key[p - 1] > s) {
+                key[p] = key[p - 1];
+                idx[p] = idx[p - 1];
+                p--;
+            }
+            key[p] = s;
+            idx[p] = j;
+        }
+        return size == idx.length ? idx : Arrays.copyOf(idx, size);
+    }
+}
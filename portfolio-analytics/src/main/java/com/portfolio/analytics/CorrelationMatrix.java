@@ -0,0 +1,164 @@
+package com.portfolio.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pearson correlation matrix as a product of standardized returns (FR-CH-001).
+ *
+ * Each series is centred and scaled to unit length once, {@code z_i = (x_i - mean_i) / ||x_i - mean_i||}, into
+ * one row-major buffer; {@code corr(i, j)} is then the dot product {@code z_i · z_j} and the matrix is
+ * {@code Z Zᵀ}. The product is built in {@code TILE x TILE} output tiles over {@code SLICE}-date passes, so the
+ * rows a tile reuses stay in cache, and the upper-triangle tiles are spread over a fork/join pool. Each tile
+ * writes only its own cells (and their mirror), so no synchronization is needed.
+ */
+public final class CorrelationMatrix {
+
+    /** Series per tile edge. */
+    static final int TILE = 32;
+
+    /** Dates per pass over a tile; TILE rows of this many doubles fit comfortably in L2. */
+    static final int SLICE = 512;
+
+    private CorrelationMatrix() {
+    }
+
+    public static double[][] compute(double[][] series, int[] offsets, int length) {
+        return compute(series, offsets, length, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Correlations of N aligned series, each read as {@code series[i][offsets[i] + t]} for t in [0, length).
+     * The diagonal is 1; a series with no variance has correlation 0 with every other series.
+     */
+    public static double[][] compute(double[][] series, int[] offsets, int length, ForkJoinPool pool) {
+        int n = series.length;
+        double[][] out = new double[n][n];
+        double[] z = standardize(series, offsets, length);
+
+        int tiles = (n + TILE - 1) / TILE;
+        int pairs = tiles * (tiles + 1) / 2;
+        TileTask task = new TileTask(z, n, length, out, tiles, 0, pairs);
+        if (pairs == 1) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        for (int i = 0; i < n; i++) {
+            out[i][i] = 1.0;
+        }
+        return out;
+    }
+
+    /**
+     * Copy of a correlation matrix rounded half-up to {@code decimals} places, as served to clients.
+     */
+    public static double[][] round(double[][] matrix, int decimals) {
+        double scale = Math.pow(10, decimals);
+        double[][] rounded = new double[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            rounded[i] = new double[matrix[i].length];
+            for (int j = 0; j < matrix[i].length; j++) {
+                rounded[i][j] = Math.round(matrix[i][j] * scale) / scale;
+            }
+        }
+        return rounded;
+    }
+
+    /**
+     * Row-major n x length buffer of centred, unit-length series; all zeros for a series with no variance.
+     */
+    static double[] standardize(double[][] series, int[] offsets, int length) {
+        int n = series.length;
+        double[] z = new double[n * length];
+        if (length < 2) return z;
+        for (int i = 0; i < n; i++) {
+            double[] x = series[i];
+            int off = offsets[i];
+            int row = i * length;
+            double sum = 0;
+            for (int t = 0; t < length; t++) sum += x[off + t];
+            double mean = sum / length;
+            double ss = 0;
+            for (int t = 0; t < length; t++) {
+                double d = x[off + t] - mean;
+                z[row + t] = d;
+                ss += d * d;
+            }
+            double inv = ss > 0 ? 1 / Math.sqrt(ss) : 0;
+            for (int t = 0; t < length; t++) z[row + t] *= inv;
+        }
+        return z;
+    }
+
+    /**
+     * Accumulates one output tile, rows [i0, i1) by columns [j0, j1), over all dates.
+     */
+    private static void tile(double[] z, int n, int length, double[][] out, int bi, int bj) {
+        int i0 = bi * TILE, i1 = Math.min(n, i0 + TILE);
+        int j0 = bj * TILE, j1 = Math.min(n, j0 + TILE);
+        double[] acc = new double[TILE * TILE];
+
+        for (int t0 = 0; t0 < length; t0 += SLICE) {
+            int t1 = Math.min(length, t0 + SLICE);
+            for (int i = i0; i < i1; i++) {
+                int ri = i * length;
+                int a = (i - i0) * TILE;
+                for (int j = bi == bj ? i + 1 : j0; j < j1; j++) {
+                    int rj = j * length;
+                    double s = 0;
+                    for (int t = t0; t < t1; t++) s += z[ri + t] * z[rj + t];
+                    acc[a + j - j0] += s;
+                }
+            }
+        }
+
+        for (int i = i0; i < i1; i++) {
+            int a = (i - i0) * TILE;
+            for (int j = bi == bj ? i + 1 : j0; j < j1; j++) {
+                double c = Math.max(-1.0, Math.min(1.0, acc[a + j - j0]));
+                out[i][j] = c;
+                out[j][i] = c;
+            }
+        }
+    }
+
+    /**
+     * Tile pairs (bi <= bj) numbered row by row over the upper triangle; splits [lo, hi) in halves.
+     */
+    private static final class TileTask extends RecursiveAction {
+        private final double[] z;
+        private final int n, length;
+        private final double[][] out;
+        private final int tiles;
+        private final int lo, hi;
+
+        TileTask(double[] z, int n, int length, double[][] out, int tiles, int lo, int hi) {
+            this.z = z;
+            this.n = n;
+            this.length = length;
+            this.out = out;
+            this.tiles = tiles;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TileTask(z, n, length, out, tiles, lo, mid),
+                          new TileTask(z, n, length, out, tiles, mid, hi));
+                return;
+            }
+            if (hi == lo) return;
+            // Map the pair index back to (bi, bj): row bi holds tiles - bi pairs
+            int k = lo, bi = 0;
+            while (k >= tiles - bi) {
+                k -= tiles - bi;
+                bi++;
+            }
+            tile(z, n, length, out, bi, bi + k);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.portfolio.analytics;
+
+/**
+ * Sample covariance and Cholesky factorization over flat row-major {@code n x n} matrices.
+ */
+public final class Covariance {
+
+    private Covariance() {
+    }
+
+    /**
+     * Per-series means over {@code length} values starting at each series' offset.
+     */
+    public static double[] means(double[][] series, int[] offsets, int length) {
+        int n = series.length;
+        double[] mu = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            double[] x = series[i];
+            int off = offsets[i];
+            for (int t = 0; t < length; t++) sum += x[off + t];
+            mu[i] = length == 0 ? 0 : sum / length;
+        }
+        return mu;
+    }
+
+    /**
+     * Per-series sample standard deviations (n - 1 denominator) over {@code length} values starting at each
+     * series' offset; 0 with fewer than two values.
+     */
+    public static double[] stdDevs(double[][] series, int[] offsets, int length) {
+        int n = series.length;
+        double[] mu = means(series, offsets, length);
+        double[] sd = new double[n];
+        if (length < 2) return sd;
+        for (int i = 0; i < n; i++) {
+            double ss = 0;
+            double[] x = series[i];
+            int off = offsets[i];
+            for (int t = 0; t < length; t++) {
+                double d = x[off + t] - mu[i];
+                ss += d * d;
+            }
+            sd[i] = Math.sqrt(ss / (length - 1));
+        }
+        return sd;
+    }
+
+    /**
+     * Unbiased sample covariance of N aligned series, each read as {@code series[i][offsets[i] + t]}
+     * for t in [0, length). Returns a flat row-major n x n matrix.
+     */
+    public static double[] sample(double[][] series, int[] offsets, int length) {
+        int n = series.length;
+        double[] mu = means(series, offsets, length);
+        double[] cov = new double[n * n];
+        if (length < 2) return cov;
+
+        // Demean once into a contiguous buffer so the pairwise loop is a plain dot product
+        double[][] centered = new double[n][length];
+        for (int i = 0; i < n; i++) {
+            double[] x = series[i];
+            int off = offsets[i];
+            for (int t = 0; t < length; t++) centered[i][t] = x[off + t] - mu[i];
+        }
+        for (int i = 0; i < n; i++) {
+            double[] a = centered[i];
+            for (int j = 0; j <= i; j++) {
+                double[] b = centered[j];
+                double s = 0;
+                for (int t = 0; t < length; t++) s += a[t] * b[t];
+                double c = s / (length - 1);
+                cov[i * n + j] = c;
+                cov[j * n + i] = c;
+            }
+        }
+        return cov;
+    }
+
+    /**
+     * Lower-triangular L with L * L^T = a, flat row-major. Tolerates positive semi-definite input
+     * (e.g. two identical series or fewer observations than assets): a non-positive pivot zeroes that
+     * column instead of failing, which keeps the simulated covariance exactly L * L^T.
+     */
+    public static double[] cholesky(double[] a, int n) {
+        double[] l = new double[n * n];
+        double scale = 0;
+        for (int i = 0; i < n; i++) scale = Math.max(scale, Math.abs(a[i * n + i]));
+        double tol = scale * 1e-12;
+
+        for (int j = 0; j < n; j++) {
+            double d = a[j * n + j];
+            for (int k = 0; k < j; k++) d -= l[j * n + k] * l[j * n + k];
+            if (d <= tol) {
+                continue; // column j stays zero
+            }
+            double ljj = Math.sqrt(d);
+            l[j * n + j] = ljj;
+            for (int i = j + 1; i < n; i++) {
+                double s = a[i * n + j];
+                for (int k = 0; k < j; k++) s -= l[i * n + k] * l[j * n + k];
+                l[i * n + j] = s / ljj;
+            }
+        }
+        return l;
+    }
+}
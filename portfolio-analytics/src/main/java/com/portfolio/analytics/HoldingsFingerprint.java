@@ -0,0 +1,37 @@
+package com.portfolio.analytics;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stable hash of a portfolio's (ticker, quantity) pairs. Written next to precomputed risk snapshots and
+ * recomputed on read, so a snapshot is only served while the holdings it was built from are unchanged.
+ */
+public final class HoldingsFingerprint {
+
+    private HoldingsFingerprint() {
+    }
+
+    /**
+     * SHA-256 hex over the pairs sorted by ticker; quantities are compared by value (10 == 10.00).
+     * Callers sum quantities per ticker first.
+     */
+    public static String of(Map<String, BigDecimal> quantityByTicker) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, BigDecimal> e : new TreeMap<>(quantityByTicker).entrySet()) {
+            BigDecimal qty = e.getValue() != null ? e.getValue() : BigDecimal.ZERO;
+            sb.append(e.getKey()).append('=').append(qty.stripTrailingZeros().toPlainString()).append(';');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
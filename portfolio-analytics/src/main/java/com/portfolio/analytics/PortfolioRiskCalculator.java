@@ -0,0 +1,357 @@
+package com.portfolio.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Portfolio risk metrics over aligned daily return series (FR-RA-001 through FR-RA-008).
+ *
+ * Callers resolve holdings, weights and return windows; this class only does the math, in doubles. The API
+ * computes live results with it and the batch module precomputes nightly snapshots with it, so both report
+ * the same numbers for the same inputs.
+ */
+public class PortfolioRiskCalculator {
+
+    public static final double RISK_FREE_RATE_ANNUAL = 0.05; // ~5% risk-free rate
+    public static final double[] CONFIDENCE_LADDER = {0.90, 0.95, 0.975, 0.99};
+    private static final double[] DISTRIBUTION_PERCENTILES = {5, 25, 50, 75, 95};
+
+    private final MonteCarloEngine monteCarloEngine;
+
+    public PortfolioRiskCalculator() {
+        this(new MonteCarloEngine());
+    }
+
+    public PortfolioRiskCalculator(MonteCarloEngine monteCarloEngine) {
+        this.monteCarloEngine = monteCarloEngine;
+    }
+
+    /**
+     * Asset i's returns are {@code series[i][offsets[i] + t]} for t in [0, length), oldest first; the
+     * benchmark (nullable) is read the same way from {@code benchmarkOffset}. Weights are fractions of
+     * {@code portfolioValue}. Arrays are only read.
+     */
+    public record Input(String[] tickers, double[][] series, int[] offsets, int length, double[] weights,
+                        double[] benchmark, int benchmarkOffset, double portfolioValue,
+                        double confidenceLevel, int timeHorizonDays,
+                        int monteCarloPaths, long monteCarloSeed, boolean multivariate) {
+    }
+
+    public RiskMetrics compute(Input in) {
+        int n = in.tickers().length;
+        int len = in.length();
+        if (len <= 0) {
+            throw new IllegalArgumentException("No return observations");
+        }
+        double value = in.portfolioValue();
+        double confidence = in.confidenceLevel();
+        int horizon = in.timeHorizonDays();
+
+        RiskMetrics m = new RiskMetrics();
+        m.observations = len;
+
+        // Portfolio daily returns (weighted sum)
+        double[] portfolioReturns = new double[len];
+        for (int i = 0; i < n; i++) {
+            double w = in.weights()[i];
+            double[] x = in.series()[i];
+            int off = in.offsets()[i];
+            for (int t = 0; t < len; t++) {
+                portfolioReturns[t] += w * x[off + t];
+            }
+        }
+
+        // Volatility (FR-RA-004)
+        double dailyVol = standardDeviation(portfolioReturns);
+        double annualVol = dailyVol * Math.sqrt(252);
+        m.dailyVolatility = dailyVol;
+        m.annualizedVolatility = annualVol;
+
+        // Correlation structure, shared with the VaR breakdown and the multivariate simulation
+        double[] cov = len >= 2 ? Covariance.sample(in.series(), in.offsets(), len) : null;
+        if (cov != null && n >= 2) {
+            m.averageCorrelation = averageCorrelation(cov, n);
+            if (dailyVol > 1e-12) {
+                double weightedVol = 0;
+                for (int i = 0; i < n; i++) weightedVol += in.weights()[i] * Math.sqrt(cov[i * n + i]);
+                m.diversificationRatio = weightedVol / dailyVol;
+            }
+        }
+
+        // One Monte Carlo simulation feeds MC VaR, MC CVaR and the distribution (FR-RA-001).
+        // Multivariate mode draws correlated holding returns from the Cholesky-factored sample covariance.
+        boolean multivariate = in.multivariate() && cov != null && n >= 2;
+        double[] mu = null;
+        double[] choleskyL = null;
+        double[] simulated;
+        if (multivariate) {
+            mu = Covariance.means(in.series(), in.offsets(), len);
+            choleskyL = Covariance.cholesky(cov, n);
+            simulated = monteCarloEngine.simulatePortfolio(mu, choleskyL, in.weights(),
+                    horizon, in.monteCarloPaths(), in.monteCarloSeed());
+        } else {
+            simulated = monteCarloEngine.simulateGaussian(mean(portfolioReturns, 0, len), dailyVol,
+                    horizon, in.monteCarloPaths(), in.monteCarloSeed());
+        }
+        int sims = simulated.length;
+        m.multivariate = multivariate;
+        m.simulations = sims;
+        m.monteCarloMean = mean(simulated, 0, sims);
+        QuantileKernel.Selection mcTail = QuantileKernel.select(simulated, 0, sims, monteCarloRanks(confidence, sims));
+
+        // Beta, alpha, Treynor (FR-RA-005 to FR-RA-007)
+        double avgPortReturnAnn = mean(portfolioReturns, 0, len) * 252;
+        if (in.benchmark() != null) {
+            double[] bench = in.benchmark();
+            int benchOff = in.benchmarkOffset();
+            double portBeta = beta(portfolioReturns, 0, bench, benchOff, len);
+            m.beta = portBeta;
+            m.holdingBetas = new double[n];
+            for (int i = 0; i < n; i++) {
+                m.holdingBetas[i] = beta(in.series()[i], in.offsets()[i], bench, benchOff, len);
+            }
+
+            // Jensen's alpha = Rp - [Rf + Beta * (Rm - Rf)]
+            double avgBenchReturn = mean(bench, benchOff, len) * 252;
+            m.alpha = avgPortReturnAnn - (RISK_FREE_RATE_ANNUAL + portBeta * (avgBenchReturn - RISK_FREE_RATE_ANNUAL));
+
+            // Treynor ratio = (Rp - Rf) / Beta
+            if (Math.abs(portBeta) > 1e-10) {
+                m.treynorRatio = (avgPortReturnAnn - RISK_FREE_RATE_ANNUAL) / portBeta;
+            }
+        }
+
+        // Sharpe ratio (FR-RA-007) = (Rp - Rf) / sigma_p
+        if (annualVol > 1e-10) {
+            m.sharpeRatio = (avgPortReturnAnn - RISK_FREE_RATE_ANNUAL) / annualVol;
+        }
+
+        // Sortino ratio (FR-RA-007) = (Rp - Rf) / downside_deviation
+        double downsideDev = downsideDeviation(portfolioReturns) * Math.sqrt(252);
+        if (downsideDev > 1e-10) {
+            m.sortinoRatio = (avgPortReturnAnn - RISK_FREE_RATE_ANNUAL) / downsideDev;
+        }
+
+        // Max drawdown (FR-RA-008)
+        maxDrawdown(portfolioReturns, m);
+
+        // VaR / CVaR (FR-RA-001 to FR-RA-003). Selection reorders portfolioReturns in place,
+        // so this must stay after every metric that depends on the date order.
+        QuantileKernel.Selection histTail = QuantileKernel.select(portfolioReturns, 0, len,
+                historicalRanks(confidence, len));
+        m.historicalVar = historicalVaR(histTail, confidence, len, horizon, value);
+        m.parametricVar = zScore(confidence) * dailyVol * Math.sqrt(horizon) * value;
+        m.monteCarloVar = -mcTail.value(QuantileKernel.lowerRank(confidence, sims)) * value;
+        m.cvar95 = historicalCVaR(histTail, 0.95, len, horizon, value);
+        m.cvar99 = historicalCVaR(histTail, 0.99, len, horizon, value);
+
+        int levels = CONFIDENCE_LADDER.length;
+        m.ladderConfidence = CONFIDENCE_LADDER.clone();
+        m.ladderHistoricalVar = new double[levels];
+        m.ladderHistoricalCvar = new double[levels];
+        m.ladderMonteCarloVar = new double[levels];
+        m.ladderMonteCarloCvar = new double[levels];
+        for (int k = 0; k < levels; k++) {
+            double c = CONFIDENCE_LADDER[k];
+            m.ladderHistoricalVar[k] = historicalVaR(histTail, c, len, horizon, value);
+            m.ladderHistoricalCvar[k] = historicalCVaR(histTail, c, len, horizon, value);
+            m.ladderMonteCarloVar[k] = -mcTail.value(QuantileKernel.lowerRank(c, sims)) * value;
+            m.ladderMonteCarloCvar[k] = tailLoss(mcTail, c, sims) * value;
+        }
+
+        // Monte Carlo distribution
+        m.monteCarloPercentile5 = percentile(mcTail, sims, 5);
+        m.monteCarloPercentile25 = percentile(mcTail, sims, 25);
+        m.monteCarloMedian = percentile(mcTail, sims, 50);
+        m.monteCarloPercentile75 = percentile(mcTail, sims, 75);
+        m.monteCarloPercentile95 = percentile(mcTail, sims, 95);
+        m.monteCarloExpectedShortfall = tailLoss(mcTail, confidence, sims) * value;
+        // Per-holding marginal / component / incremental VaR and ES from the covariance above
+        if (cov != null) {
+            m.varDecomposition = VarDecomposition.parametric(cov, in.weights(), confidence, horizon, value);
+        }
+        if (multivariate) {
+            // Second pass over the same draws: each holding's share of the tail (component expected shortfall)
+            // and of the paths around the VaR quantile (component VaR)
+            double threshold = mcTail.value(QuantileKernel.tailCount(confidence, sims) - 1);
+            int varRank = QuantileKernel.lowerRank(confidence, sims);
+            int band = varBand(sims);
+            double[][] contributions = monteCarloEngine.bandContributions(mu, choleskyL, in.weights(),
+                    horizon, in.monteCarloPaths(), in.monteCarloSeed(),
+                    new double[]{Double.NEGATIVE_INFINITY, mcTail.value(Math.max(0, varRank - band))},
+                    new double[]{threshold, mcTail.value(Math.min(sims - 1, varRank + band))});
+            m.tailContributions = contributions[0];
+            m.varContributions = contributions[1];
+        }
+        return m;
+    }
+
+    // ── VaR / CVaR (FR-RA-001 to FR-RA-003) ──
+
+    /**
+     * Ranks the historical tail needs: VaR and CVaR at the requested level, the 95/99 CVaR fields and the ladder.
+     */
+    private static int[] historicalRanks(double confidence, int n) {
+        List<Integer> ranks = new ArrayList<>();
+        addTailRanks(ranks, confidence, n);
+        addTailRanks(ranks, 0.95, n);
+        addTailRanks(ranks, 0.99, n);
+        for (double c : CONFIDENCE_LADDER) addTailRanks(ranks, c, n);
+        return ranks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Ranks the simulated sample needs: tail ranks plus the two neighbours of each interpolated percentile.
+     */
+    private static int[] monteCarloRanks(double confidence, int n) {
+        List<Integer> ranks = new ArrayList<>();
+        addTailRanks(ranks, confidence, n);
+        int varRank = QuantileKernel.lowerRank(confidence, n);
+        ranks.add(Math.max(0, varRank - varBand(n)));
+        ranks.add(Math.min(n - 1, varRank + varBand(n)));
+        for (double c : CONFIDENCE_LADDER) addTailRanks(ranks, c, n);
+        for (double pct : DISTRIBUTION_PERCENTILES) {
+            int lower = (int) Math.floor((pct / 100.0) * (n - 1));
+            ranks.add(lower);
+            ranks.add(Math.min(lower + 1, n - 1));
+        }
+        return ranks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Paths either side of the VaR rank averaged for simulated component VaR: 0.5% of the sample, at least one.
+     */
+    private static int varBand(int n) {
+        return Math.max(1, n / 200);
+    }
+
+    private static void addTailRanks(List<Integer> ranks, double confidence, int n) {
+        ranks.add(QuantileKernel.lowerRank(confidence, n));
+        ranks.add(QuantileKernel.tailCount(confidence, n) - 1);
+    }
+
+    private static double historicalVaR(QuantileKernel.Selection tail, double confidence, int n,
+                                        int horizon, double portfolioValue) {
+        double dailyVaR = -tail.value(QuantileKernel.lowerRank(confidence, n));
+        return dailyVaR * Math.sqrt(horizon) * portfolioValue;
+    }
+
+    private static double historicalCVaR(QuantileKernel.Selection tail, double confidence, int n,
+                                         int horizon, double portfolioValue) {
+        return tailLoss(tail, confidence, n) * Math.sqrt(horizon) * portfolioValue;
+    }
+
+    /**
+     * Mean loss (as a positive return) across the worst (1 - confidence) share of the sample.
+     */
+    private static double tailLoss(QuantileKernel.Selection tail, double confidence, int n) {
+        return -tail.meanThrough(QuantileKernel.tailCount(confidence, n) - 1);
+    }
+
+    private static double percentile(QuantileKernel.Selection selected, int n, double pct) {
+        double idx = (pct / 100.0) * (n - 1);
+        int lower = (int) Math.floor(idx);
+        int upper = Math.min(lower + 1, n - 1);
+        double frac = idx - lower;
+        double lo = selected.value(lower);
+        return lo + frac * (selected.value(upper) - lo);
+    }
+
+    public static double zScore(double confidence) {
+        if (confidence >= 0.99) return 2.326;
+        if (confidence >= 0.95) return 1.645;
+        if (confidence >= 0.90) return 1.282;
+        return 1.645;
+    }
+
+    // ── Beta (FR-RA-005) ──
+
+    public static double beta(double[] assetReturns, int assetOff, double[] benchmarkReturns, int benchOff, int n) {
+        if (n < 2) return 1.0;
+
+        double meanA = mean(assetReturns, assetOff, n);
+        double meanB = mean(benchmarkReturns, benchOff, n);
+        double cov = 0, varB = 0;
+        for (int i = 0; i < n; i++) {
+            double diffA = assetReturns[assetOff + i] - meanA;
+            double diffB = benchmarkReturns[benchOff + i] - meanB;
+            cov += diffA * diffB;
+            varB += diffB * diffB;
+        }
+        return varB == 0 ? 1.0 : cov / varB;
+    }
+
+    // ── Max Drawdown (FR-RA-008) ──
+
+    private static void maxDrawdown(double[] returns, RiskMetrics m) {
+        double value = 1.0;
+        double peak = value;
+        int currentPeakIdx = 0;
+        double maxDD = 0;
+        int peakIdx = 0, troughIdx = 0;
+
+        for (int i = 1; i <= returns.length; i++) {
+            value *= 1 + returns[i - 1];
+            if (value > peak) {
+                peak = value;
+                currentPeakIdx = i;
+            }
+            double dd = (peak - value) / peak;
+            if (dd > maxDD) {
+                maxDD = dd;
+                peakIdx = currentPeakIdx;
+                troughIdx = i;
+            }
+        }
+        m.maxDrawdown = maxDD;
+        m.maxDrawdownPeakIndex = peakIdx;
+        m.maxDrawdownTroughIndex = troughIdx;
+    }
+
+    // ── Statistical helpers ──
+
+    private static double averageCorrelation(double[] cov, int n) {
+        double sum = 0;
+        int pairs = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                double denom = Math.sqrt(cov[i * n + i] * cov[j * n + j]);
+                if (denom > 0) {
+                    sum += cov[i * n + j] / denom;
+                    pairs++;
+                }
+            }
+        }
+        return pairs == 0 ? 0 : sum / pairs;
+    }
+
+    public static double mean(double[] data, int off, int n) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) sum += data[off + i];
+        return n == 0 ? 0 : sum / n;
+    }
+
+    public static double standardDeviation(double[] data) {
+        if (data.length < 2) return 0;
+        double m = mean(data, 0, data.length);
+        double sumSq = 0;
+        for (double d : data) {
+            sumSq += (d - m) * (d - m);
+        }
+        return Math.sqrt(sumSq / (data.length - 1));
+    }
+
+    private static double downsideDeviation(double[] returns) {
+        double dailyRf = RISK_FREE_RATE_ANNUAL / 252;
+        double sumSq = 0;
+        int count = 0;
+        for (double r : returns) {
+            double diff = r - dailyRf;
+            if (diff < 0) {
+                sumSq += diff * diff;
+                count++;
+            }
+        }
+        return count < 2 ? 0 : Math.sqrt(sumSq / (count - 1));
+    }
+}
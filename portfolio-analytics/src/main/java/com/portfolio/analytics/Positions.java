@@ -0,0 +1,36 @@
+package com.portfolio.analytics;
+
+/**
+ * Position values and value weights over parallel primitive arrays, the first step of every risk computation.
+ * Callers convert prices and quantities out of their {@code BigDecimal} columns once, on the way in, and round
+ * only what they finally report.
+ */
+public final class Positions {
+
+    private Positions() {
+    }
+
+    /**
+     * Fills {@code values[i] = quantities[i] × prices[i]} for the first {@code n} positions and returns their sum.
+     */
+    public static double values(double[] prices, double[] quantities, int n, double[] values) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            double v = quantities[i] * prices[i];
+            values[i] = v;
+            total += v;
+        }
+        return total;
+    }
+
+    /**
+     * Fills {@code weights[i] = values[i] / total} for the first {@code n} positions, all 0 when the total is 0.
+     * {@code weights} may be {@code values} itself.
+     */
+    public static void weights(double[] values, int n, double total, double[] weights) {
+        double inv = total == 0 ? 0 : 1 / total;
+        for (int i = 0; i < n; i++) {
+            weights[i] = values[i] * inv;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.portfolio.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Multi-rank selection for VaR / CVaR (FR-RA-001, FR-RA-003).
+ *
+ * One multi-quickselect pass places every requested order statistic at its sorted position, with everything
+ * before it no larger. The array is partitioned in place (not copied and not fully sorted), so callers pass
+ * a buffer they own and must not rely on its order afterwards. Tail means come from a single prefix sum up
+ * to the largest requested rank, which only reads the already-partitioned prefix.
+ */
+public final class QuantileKernel {
+
+    private static final int INSERTION_THRESHOLD = 16;
+
+    private QuantileKernel() {
+    }
+
+    /**
+     * Order statistics of {@code data[from, from + length)} at zero-based {@code ranks} (any order,
+     * duplicates allowed, each in [0, length)).
+     */
+    public static Selection select(double[] data, int from, int length, int... ranks) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Cannot select from an empty sample");
+        }
+        int[] sorted = Arrays.stream(ranks).sorted().distinct().toArray();
+        for (int r : sorted) {
+            if (r < 0 || r >= length) {
+                throw new IllegalArgumentException("Rank " + r + " outside [0, " + length + ")");
+            }
+        }
+        selectRange(data, from, from + length - 1, sorted, 0, sorted.length, from);
+
+        double[] values = new double[sorted.length];
+        double[] sums = new double[sorted.length];
+        double sum = 0;
+        int pos = from;
+        for (int i = 0; i < sorted.length; i++) {
+            int end = from + sorted[i];
+            for (; pos <= end; pos++) sum += data[pos];
+            values[i] = data[end];
+            sums[i] = sum;
+        }
+        return new Selection(sorted, values, sums);
+    }
+
+    /**
+     * Rank of the lowest {@code 1 - confidence} quantile: floor((1 - confidence) * n), clamped to the sample.
+     */
+    public static int lowerRank(double confidence, int n) {
+        return Math.max(0, Math.min((int) Math.floor((1 - confidence) * n), n - 1));
+    }
+
+    /**
+     * Size of the lower tail averaged for expected shortfall: floor((1 - confidence) * n), at least one.
+     */
+    public static int tailCount(double confidence, int n) {
+        return Math.max(1, Math.min((int) Math.floor((1 - confidence) * n), n));
+    }
+
+    /**
+     * Selected order statistics; {@code ranks} are sorted and distinct.
+     */
+    public record Selection(int[] ranks, double[] values, double[] prefixSums) {
+
+        public double value(int rank) {
+            return values[indexOf(rank)];
+        }
+
+        /**
+         * Mean of the {@code rank + 1} smallest values.
+         */
+        public double meanThrough(int rank) {
+            return prefixSums[indexOf(rank)] / (rank + 1);
+        }
+
+        private int indexOf(int rank) {
+            int i = Arrays.binarySearch(ranks, rank);
+            if (i < 0) {
+                throw new IllegalArgumentException("Rank " + rank + " was not selected");
+            }
+            return i;
+        }
+    }
+
+    // ── Internals ──
+
+    /**
+     * Resolve ranks[ra, rb) (absolute position base + rank) inside data[lo, hi]. Recurses into the smaller
+     * side and loops on the larger, so stack depth stays logarithmic.
+     */
+    private static void selectRange(double[] data, int lo, int hi, int[] ranks, int ra, int rb, int base) {
+        while (ra < rb && lo < hi) {
+            if (hi - lo < INSERTION_THRESHOLD) {
+                insertionSort(data, lo, hi);
+                return;
+            }
+            double pivot = medianOfThree(data[lo], data[(lo + hi) >>> 1], data[hi]);
+
+            // Three-way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                double x = data[i];
+                if (x < pivot) {
+                    data[i++] = data[lt];
+                    data[lt++] = x;
+                } else if (x > pivot) {
+                    data[i] = data[gt];
+                    data[gt--] = x;
+                } else {
+                    i++;
+                }
+            }
+
+            int leftEnd = ra;
+            while (leftEnd < rb && base + ranks[leftEnd] < lt) leftEnd++;
+            int rightStart = leftEnd;
+            while (rightStart < rb && base + ranks[rightStart] <= gt) rightStart++;
+
+            if (lt - lo < hi - gt) {
+                selectRange(data, lo, lt - 1, ranks, ra, leftEnd, base);
+                lo = gt + 1;
+                ra = rightStart;
+            } else {
+                selectRange(data, gt + 1, hi, ranks, rightStart, rb, base);
+                hi = lt - 1;
+                rb = leftEnd;
+            }
+        }
+    }
+
+    private static void insertionSort(double[] data, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double x = data[i];
+            int j = i - 1;
+            while (j >= lo && data[j] > x) {
+                data[j + 1] = data[j];
+                j--;
+            }
+            data[j + 1] = x;
+        }
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        if (a < b) {
+            return b < c ? b : Math.max(a, c);
+        }
+        return a < c ? a : Math.max(b, c);
+    }
+}
@@ -0,0 +1,233 @@
+package com.portfolio.analytics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Daily returns of N series joined on trade date: one dense primitive column per series over a shared
+ * calendar, so row t of every column is the same day and kernels can index all columns with one cursor.
+ *
+ * Alignment only considers dates inside the overlap of the inputs (from the latest first date to the earliest
+ * last date); a series listed late or not stored that far back shortens the window for everyone rather than
+ * being paired with another series' returns from different days. Inside the overlap, {@link MissingData}
+ * decides what happens to a date that some series do not have.
+ */
+public final class ReturnMatrix {
+
+    public enum MissingData {
+        /** Keep only dates every series has. */
+        DROP,
+        /** Keep every date any series has; a series without a return that day earns 0 (its price is carried). */
+        ZERO_FILL;
+
+        /**
+         * Parses a config value such as {@code drop} or {@code zero-fill}.
+         */
+        public static MissingData parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    public static final ReturnMatrix EMPTY =
+            new ReturnMatrix(new String[0], new int[0], new double[0][], new int[0], MissingData.DROP);
+
+    private final String[] names;
+    private final int[] epochDays;
+    private final double[][] columns;
+    private final int[] observed;
+    private final MissingData policy;
+
+    private ReturnMatrix(String[] names, int[] epochDays, double[][] columns, int[] observed, MissingData policy) {
+        this.names = names;
+        this.epochDays = epochDays;
+        this.columns = columns;
+        this.observed = observed;
+        this.policy = policy;
+    }
+
+    /**
+     * Aligns series i, read as {@code returns[i][offsets[i] + t]} on {@code epochDays[i][offsets[i] + t]} for
+     * t in [0, lengths[i]), dates ascending. An empty input series leaves the whole matrix empty.
+     */
+    public static ReturnMatrix align(String[] names, int[][] epochDays, double[][] returns,
+                                     int[] offsets, int[] lengths, MissingData policy) {
+        int n = names.length;
+        if (n == 0) {
+            return EMPTY;
+        }
+        int lo = Integer.MIN_VALUE, hi = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (lengths[i] == 0) {
+                return empty(names, policy);
+            }
+            lo = Math.max(lo, epochDays[i][offsets[i]]);
+            hi = Math.min(hi, epochDays[i][offsets[i] + lengths[i] - 1]);
+        }
+        if (lo > hi) {
+            return empty(names, policy);
+        }
+
+        // Cursors start at each series' first date inside the overlap
+        int[] start = new int[n];
+        int[] end = new int[n];
+        for (int i = 0; i < n; i++) {
+            int[] d = epochDays[i];
+            int p = offsets[i];
+            int e = offsets[i] + lengths[i];
+            while (d[p] < lo) p++;
+            int q = e;
+            while (d[q - 1] > hi) q--;
+            start[i] = p;
+            end[i] = q;
+        }
+
+        // Two k-way merges over the overlap: count the kept dates, then fill the columns
+        int rows = merge(epochDays, returns, start, end, policy, null, null, null);
+        int[] days = new int[rows];
+        double[][] cols = new double[n][rows];
+        int[] observed = new int[n];
+        merge(epochDays, returns, start, end, policy, days, cols, observed);
+        return new ReturnMatrix(names.clone(), days, cols, observed, policy);
+    }
+
+    /**
+     * Aligns series i, given as closes {@code closes[i][offsets[i] + t]} on {@code epochDays[i][offsets[i] + t]}
+     * (dates ascending), to an external session calendar such as equity trade dates, for instruments that trade
+     * on different calendars (FR-CH-008).
+     *
+     * Row k is the return from session {@code s - 1} to session {@code s}, measured between each series' last
+     * close on or before those two days. A close dated between sessions therefore rolls into the next one: a
+     * seven-day instrument's Friday-to-Monday row compounds its weekend moves instead of pairing its Saturday
+     * return with another series' Monday return, and a series with no new close earns 0 that session. Sessions
+     * start at the first one every series has a close on or before and end at the last one on or before the
+     * earliest last date. {@link #observed} counts rows in which a series had a close of its own; the policy is
+     * reported as {@link MissingData#ZERO_FILL}.
+     *
+     * @param calendar session days, ascending
+     */
+    public static ReturnMatrix alignToCalendar(String[] names, int[][] epochDays, double[][] closes,
+                                               int[] offsets, int[] lengths, int[] calendar) {
+        int n = names.length;
+        if (n == 0) {
+            return EMPTY;
+        }
+        int lo = Integer.MIN_VALUE, hi = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (lengths[i] == 0) {
+                return empty(names, MissingData.ZERO_FILL);
+            }
+            lo = Math.max(lo, epochDays[i][offsets[i]]);
+            hi = Math.min(hi, epochDays[i][offsets[i] + lengths[i] - 1]);
+        }
+        int first = 0;
+        while (first < calendar.length && calendar[first] < lo) first++;
+        int last = calendar.length - 1;
+        while (last >= 0 && calendar[last] > hi) last--;
+        int rows = last - first;
+        if (rows <= 0) {
+            return empty(names, MissingData.ZERO_FILL);
+        }
+
+        int[] days = Arrays.copyOfRange(calendar, first + 1, last + 1);
+        double[][] cols = new double[n][rows];
+        int[] observed = new int[n];
+        for (int i = 0; i < n; i++) {
+            int[] d = epochDays[i];
+            double[] c = closes[i];
+            int p = offsets[i];
+            int e = offsets[i] + lengths[i];
+            // Last close on or before the first session
+            while (p + 1 < e && d[p + 1] <= calendar[first]) p++;
+            double prev = c[p];
+            for (int k = 0; k < rows; k++) {
+                int session = days[k];
+                boolean fresh = false;
+                while (p + 1 < e && d[p + 1] <= session) {
+                    p++;
+                    fresh = true;
+                }
+                if (fresh) {
+                    observed[i]++;
+                    cols[i][k] = prev > 0 ? c[p] / prev - 1 : 0;
+                    prev = c[p];
+                }
+            }
+        }
+        return new ReturnMatrix(names.clone(), days, cols, observed, MissingData.ZERO_FILL);
+    }
+
+    private static int merge(int[][] epochDays, double[][] returns, int[] start, int[] end, MissingData policy,
+                             int[] days, double[][] cols, int[] observed) {
+        int n = start.length;
+        int[] pos = start.clone();
+        int rows = 0;
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            int present = 0;
+            for (int i = 0; i < n; i++) {
+                if (pos[i] >= end[i]) continue;
+                int d = epochDays[i][pos[i]];
+                if (d < day) {
+                    day = d;
+                    present = 1;
+                } else if (d == day) {
+                    present++;
+                }
+            }
+            if (day == Integer.MAX_VALUE) break;
+
+            boolean keep = policy == MissingData.ZERO_FILL || present == n;
+            for (int i = 0; i < n; i++) {
+                boolean has = pos[i] < end[i] && epochDays[i][pos[i]] == day;
+                if (keep && cols != null && has) {
+                    cols[i][rows] = returns[i][pos[i]];
+                    observed[i]++;
+                }
+                if (has) pos[i]++;
+            }
+            if (keep) {
+                if (days != null) days[rows] = day;
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static ReturnMatrix empty(String[] names, MissingData policy) {
+        return new ReturnMatrix(names.clone(), new int[0], new double[names.length][0], new int[names.length], policy);
+    }
+
+    /** Number of series (columns). */
+    public int size() { return names.length; }
+
+    /** Number of aligned dates (rows). */
+    public int length() { return epochDays.length; }
+
+    public boolean isEmpty() { return epochDays.length == 0; }
+
+    public String name(int i) { return names[i]; }
+
+    /**
+     * Column of the named series, or -1 when it is not in the matrix.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns of series i, one per aligned date. Shared, not copied: callers must not write to it.
+     */
+    public double[] column(int i) { return columns[i]; }
+
+    public int epochDay(int t) { return epochDays[t]; }
+
+    /**
+     * Dates on which series i had its own return, as opposed to one filled by the policy.
+     */
+    public int observed(int i) { return observed[i]; }
+
+    public MissingData policy() { return policy; }
+}
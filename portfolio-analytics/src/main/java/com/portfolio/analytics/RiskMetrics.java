@@ -0,0 +1,103 @@
+package com.portfolio.analytics;
+
+/**
+ * Output of {@link PortfolioRiskCalculator}. Returns and volatilities are fractions; VaR, CVaR and expected
+ * shortfall are currency amounts (positive = loss) for the input portfolio value. Boxed fields are null when
+ * the input cannot support them (no benchmark, zero volatility, a single holding).
+ */
+public class RiskMetrics {
+
+    int observations;
+
+    // Volatility (FR-RA-004)
+    double dailyVolatility;
+    double annualizedVolatility;
+
+    // VaR / CVaR (FR-RA-001 to FR-RA-003)
+    double historicalVar;
+    double parametricVar;
+    double monteCarloVar;
+    double cvar95;
+    double cvar99;
+
+    // Ladder of VaR / CVaR at PortfolioRiskCalculator.CONFIDENCE_LADDER
+    double[] ladderConfidence;
+    double[] ladderHistoricalVar;
+    double[] ladderHistoricalCvar;
+    double[] ladderMonteCarloVar;
+    double[] ladderMonteCarloCvar;
+
+    // Beta / alpha / ratios (FR-RA-005 to FR-RA-007)
+    Double beta;
+    double[] holdingBetas;
+    Double alpha;
+    Double sharpeRatio;
+    Double sortinoRatio;
+    Double treynorRatio;
+
+    // Max drawdown (FR-RA-008): indices into the value series, 0 = start of the window
+    double maxDrawdown;
+    int maxDrawdownPeakIndex;
+    int maxDrawdownTroughIndex;
+
+    // Correlation
+    Double averageCorrelation;
+    Double diversificationRatio;
+
+    // Monte Carlo distribution of horizon returns
+    boolean multivariate;
+    int simulations;
+    double monteCarloMean;
+    double monteCarloPercentile5;
+    double monteCarloPercentile25;
+    double monteCarloMedian;
+    double monteCarloPercentile75;
+    double monteCarloPercentile95;
+    double monteCarloExpectedShortfall;
+    double[] tailContributions;
+    double[] varContributions;
+
+    // Per-holding VaR / ES breakdown
+    VarDecomposition.Result varDecomposition;
+
+    public int getObservations() { return observations; }
+    public double getDailyVolatility() { return dailyVolatility; }
+    public double getAnnualizedVolatility() { return annualizedVolatility; }
+    public double getHistoricalVar() { return historicalVar; }
+    public double getParametricVar() { return parametricVar; }
+    public double getMonteCarloVar() { return monteCarloVar; }
+    public double getCvar95() { return cvar95; }
+    public double getCvar99() { return cvar99; }
+    public double[] getLadderConfidence() { return ladderConfidence; }
+    public double[] getLadderHistoricalVar() { return ladderHistoricalVar; }
+    public double[] getLadderHistoricalCvar() { return ladderHistoricalCvar; }
+    public double[] getLadderMonteCarloVar() { return ladderMonteCarloVar; }
+    public double[] getLadderMonteCarloCvar() { return ladderMonteCarloCvar; }
+    public Double getBeta() { return beta; }
+    /** Per-asset beta in input order; null without a benchmark. */
+    public double[] getHoldingBetas() { return holdingBetas; }
+    public Double getAlpha() { return alpha; }
+    public Double getSharpeRatio() { return sharpeRatio; }
+    public Double getSortinoRatio() { return sortinoRatio; }
+    public Double getTreynorRatio() { return treynorRatio; }
+    public double getMaxDrawdown() { return maxDrawdown; }
+    public int getMaxDrawdownPeakIndex() { return maxDrawdownPeakIndex; }
+    public int getMaxDrawdownTroughIndex() { return maxDrawdownTroughIndex; }
+    public Double getAverageCorrelation() { return averageCorrelation; }
+    public Double getDiversificationRatio() { return diversificationRatio; }
+    public boolean isMultivariate() { return multivariate; }
+    public int getSimulations() { return simulations; }
+    public double getMonteCarloMean() { return monteCarloMean; }
+    public double getMonteCarloPercentile5() { return monteCarloPercentile5; }
+    public double getMonteCarloPercentile25() { return monteCarloPercentile25; }
+    public double getMonteCarloMedian() { return monteCarloMedian; }
+    public double getMonteCarloPercentile75() { return monteCarloPercentile75; }
+    public double getMonteCarloPercentile95() { return monteCarloPercentile95; }
+    public double getMonteCarloExpectedShortfall() { return monteCarloExpectedShortfall; }
+    /** Per-asset mean of w_i * r_i over the Monte Carlo tail (sums to minus the ES return); multivariate only. */
+    public double[] getTailContributions() { return tailContributions; }
+    /** Per-asset mean of w_i * r_i over paths around the Monte Carlo VaR quantile (component VaR); multivariate only. */
+    public double[] getVarContributions() { return varContributions; }
+    /** Parametric marginal / component / incremental VaR and ES per asset; null with fewer than two observations. */
+    public VarDecomposition.Result getVarDecomposition() { return varDecomposition; }
+}
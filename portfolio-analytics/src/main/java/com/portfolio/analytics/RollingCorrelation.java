@@ -0,0 +1,90 @@
+package com.portfolio.analytics;
+
+/**
+ * Rolling correlation and beta of two date-aligned return series for every window position, in one O(n) pass
+ * (FR-CH-006).
+ *
+ * The window keeps running sums of x, y, x², y² and xy, adding the entering date and subtracting the leaving
+ * one. Values are shifted by the first window's means before summing, which keeps the variance terms free of
+ * the cancellation raw sums of returns suffer from, and the sums are recomputed exactly once per
+ * {@code window} slides so subtraction error cannot accumulate (amortized O(1) per step).
+ */
+public final class RollingCorrelation {
+
+    private RollingCorrelation() {
+    }
+
+    /**
+     * Element t is the window of rows [off + t, off + t + window).
+     *
+     * @param correlation Pearson correlation; 0 where either series is flat in the window
+     * @param beta        slope of x on y ({@code cov(x, y) / var(y)}); NaN where y is flat
+     */
+    public record Result(double[] correlation, double[] beta) {
+
+        public int size() {
+            return correlation.length;
+        }
+    }
+
+    /**
+     * @param x      e.g. a holding's returns, read over rows [off, off + length)
+     * @param y      e.g. the benchmark's returns over the same rows
+     * @param window observations per window, at least 2
+     */
+    public static Result compute(double[] x, double[] y, int off, int length, int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Rolling window must be at least 2");
+        }
+        int points = Math.max(0, length - window + 1);
+        double[] corr = new double[points];
+        double[] beta = new double[points];
+        if (points == 0) {
+            return new Result(corr, beta);
+        }
+
+        double kx = 0, ky = 0;
+        for (int t = off; t < off + window; t++) {
+            kx += x[t];
+            ky += y[t];
+        }
+        kx /= window;
+        ky /= window;
+
+        double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+        int sinceRebuild = window;
+        for (int p = 0; p < points; p++) {
+            int start = off + p;
+            if (sinceRebuild == window) {
+                sx = sy = sxx = syy = sxy = 0;
+                for (int t = start; t < start + window; t++) {
+                    double dx = x[t] - kx, dy = y[t] - ky;
+                    sx += dx;
+                    sy += dy;
+                    sxx += dx * dx;
+                    syy += dy * dy;
+                    sxy += dx * dy;
+                }
+                sinceRebuild = 0;
+            } else {
+                double ox = x[start - 1] - kx, oy = y[start - 1] - ky;
+                double nx = x[start + window - 1] - kx, ny = y[start + window - 1] - ky;
+                sx += nx - ox;
+                sy += ny - oy;
+                sxx += nx * nx - ox * ox;
+                syy += ny * ny - oy * oy;
+                sxy += nx * ny - ox * oy;
+                sinceRebuild++;
+            }
+
+            // Co-moments about the window mean (times window)
+            double cxx = Math.max(0, sxx - sx * sx / window);
+            double cyy = Math.max(0, syy - sy * sy / window);
+            double cxy = sxy - sx * sy / window;
+            double denom = Math.sqrt(cxx * cyy);
+            corr[p] = denom > 0 ? Math.max(-1.0, Math.min(1.0, cxy / denom)) : 0;
+            beta[p] = cyy > 0 ? cxy / cyy : Double.NaN;
+        }
+        return new Result(corr, beta);
+    }
+}
@@ -0,0 +1,229 @@
+package com.portfolio.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Sliding-window mean, covariance and downside moments of {@code dimensions} return series observed on the
+ * same dates, maintained with Welford updates: each push costs O(d²) and every read is O(1) per entry,
+ * independent of the window length. Once {@code capacity} observations are held, a push drops the oldest.
+ *
+ * Removing an observation reverses the Welford update, which accumulates rounding error over many slides,
+ * so the moments are recomputed exactly from the retained observations once per {@code capacity} removals
+ * (amortized O(d²) per push).
+ *
+ * Sample statistics use n - 1 and the downside deviation uses the same convention as
+ * {@link PortfolioRiskCalculator}: squared shortfalls below {@code downsideTarget}, over (count - 1).
+ * Not thread-safe.
+ */
+public final class RollingMoments {
+
+    private final int dimensions;
+    private final int capacity;
+    private final double downsideTarget;
+
+    // Ring buffer of observations, oldest at head
+    private final int[] keys;
+    private final double[] values;
+    private int head;
+    private int count;
+
+    private final double[] mean;
+    private final double[] comoment;
+    private final double[] downsideSumSq;
+    private final int[] downsideCount;
+    private int removalsSinceRebuild;
+
+    public RollingMoments(int dimensions, int capacity, double downsideTarget) {
+        if (dimensions < 1 || capacity < 2) {
+            throw new IllegalArgumentException("Need at least one dimension and a capacity of two");
+        }
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        this.downsideTarget = downsideTarget;
+        this.keys = new int[capacity];
+        this.values = new double[capacity * dimensions];
+        this.mean = new double[dimensions];
+        this.comoment = new double[dimensions * dimensions];
+        this.downsideSumSq = new double[dimensions];
+        this.downsideCount = new int[dimensions];
+    }
+
+    /**
+     * Add one observation (e.g. the returns of every series on one trade date). {@code key} is an
+     * ascending tag such as the epoch day, kept only so callers can tell how far the window reaches.
+     */
+    public void push(int key, double[] x) {
+        if (x.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " values, got " + x.length);
+        }
+        if (count == capacity) {
+            removeOldest();
+        }
+        int slot = (head + count) % capacity;
+        keys[slot] = key;
+        System.arraycopy(x, 0, values, slot * dimensions, dimensions);
+        count++;
+        add(x, count);
+    }
+
+    /**
+     * Drop the oldest observation, e.g. when a calendar window moves past it.
+     */
+    public void removeOldest() {
+        if (count == 0) {
+            return;
+        }
+        int slot = head;
+        head = (head + 1) % capacity;
+        count--;
+        if (++removalsSinceRebuild >= capacity) {
+            rebuild();
+            return;
+        }
+        if (count == 0) {
+            clearMoments();
+            return;
+        }
+        int d = dimensions;
+        int base = slot * d;
+        double[] delta = new double[d];
+        for (int i = 0; i < d; i++) {
+            double x = values[base + i];
+            double oldMean = mean[i];
+            mean[i] = oldMean - (x - oldMean) / count;
+            delta[i] = x - oldMean;
+            removeDownside(i, x);
+        }
+        for (int i = 0; i < d; i++) {
+            double di = values[base + i] - mean[i];
+            for (int j = 0; j < d; j++) {
+                comoment[i * d + j] -= di * delta[j];
+            }
+        }
+    }
+
+    public int count() { return count; }
+
+    public int dimensions() { return dimensions; }
+
+    /** Key of the oldest retained observation; only meaningful when {@link #count()} is positive. */
+    public int firstKey() { return keys[head]; }
+
+    /** Key of the newest retained observation; only meaningful when {@link #count()} is positive. */
+    public int lastKey() { return keys[(head + count - 1) % capacity]; }
+
+    public double mean(int i) {
+        return count == 0 ? 0 : mean[i];
+    }
+
+    public double covariance(int i, int j) {
+        return count < 2 ? 0 : comoment[i * dimensions + j] / (count - 1);
+    }
+
+    public double variance(int i) {
+        return Math.max(0, covariance(i, i));
+    }
+
+    public double standardDeviation(int i) {
+        return Math.sqrt(variance(i));
+    }
+
+    /**
+     * Beta of series {@code i} against series {@code benchmark}; 1.0 when undefined, as in
+     * {@link PortfolioRiskCalculator#beta}.
+     */
+    public double beta(int i, int benchmark) {
+        double varB = variance(benchmark);
+        return count < 2 || varB == 0 ? 1.0 : covariance(i, benchmark) / varB;
+    }
+
+    public double downsideDeviation(int i) {
+        int c = downsideCount[i];
+        return c < 2 ? 0 : Math.sqrt(Math.max(0, downsideSumSq[i]) / (c - 1));
+    }
+
+    /**
+     * Mean of the constant-weight combination {@code Σ w_i x_i}; weights cover the first {@code w.length} series.
+     */
+    public double weightedMean(double[] w) {
+        double m = 0;
+        for (int i = 0; i < w.length; i++) m += w[i] * mean(i);
+        return m;
+    }
+
+    /**
+     * Sample variance of the constant-weight combination, {@code wᵀ Σ w}.
+     */
+    public double weightedVariance(double[] w) {
+        double v = 0;
+        for (int i = 0; i < w.length; i++) {
+            if (w[i] == 0) continue;
+            for (int j = 0; j < w.length; j++) {
+                v += w[i] * w[j] * covariance(i, j);
+            }
+        }
+        return Math.max(0, v);
+    }
+
+    /**
+     * Covariance of the constant-weight combination with series {@code other}.
+     */
+    public double weightedCovariance(double[] w, int other) {
+        double c = 0;
+        for (int i = 0; i < w.length; i++) c += w[i] * covariance(i, other);
+        return c;
+    }
+
+    // ── Internals ──
+
+    private void add(double[] x, int n) {
+        int d = dimensions;
+        double[] delta = new double[d];
+        for (int i = 0; i < d; i++) {
+            delta[i] = x[i] - mean[i];
+            mean[i] += delta[i] / n;
+            addDownside(i, x[i]);
+        }
+        for (int i = 0; i < d; i++) {
+            for (int j = 0; j < d; j++) {
+                comoment[i * d + j] += delta[i] * (x[j] - mean[j]);
+            }
+        }
+    }
+
+    private void addDownside(int i, double x) {
+        double diff = x - downsideTarget;
+        if (diff < 0) {
+            downsideSumSq[i] += diff * diff;
+            downsideCount[i]++;
+        }
+    }
+
+    private void removeDownside(int i, double x) {
+        double diff = x - downsideTarget;
+        if (diff < 0) {
+            downsideSumSq[i] -= diff * diff;
+            downsideCount[i]--;
+        }
+    }
+
+    private void clearMoments() {
+        Arrays.fill(mean, 0);
+        Arrays.fill(comoment, 0);
+        Arrays.fill(downsideSumSq, 0);
+        Arrays.fill(downsideCount, 0);
+    }
+
+    /**
+     * Exact recomputation from the retained observations, discarding accumulated removal error.
+     */
+    private void rebuild() {
+        clearMoments();
+        removalsSinceRebuild = 0;
+        double[] x = new double[dimensions];
+        for (int k = 0; k < count; k++) {
+            System.arraycopy(values, ((head + k) % capacity) * dimensions, x, 0, dimensions);
+            add(x, k + 1);
+        }
+    }
+}
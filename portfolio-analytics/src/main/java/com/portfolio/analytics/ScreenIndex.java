@@ -0,0 +1,187 @@
+package com.portfolio.analytics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Column store for screening a stock universe on numeric metrics (FR-SC-008).
+ *
+ * Each metric is one primitive column over all rows, NaN where a stock has no value, plus a sorted index of
+ * the rows that do have one. A range criterion is two binary searches into the sorted values, and the
+ * matching rows become a bitset ({@code long[]}, bit r = row r). Criteria combine by ANDing bitsets, which
+ * for 30k rows is under 500 words per criterion. Results are read back in any metric's order by walking that
+ * metric's index and keeping the rows whose bit is set; a page resumes after the last row of the previous page
+ * (keyset paging), so later pages cost no more than the first.
+ *
+ * Instances are immutable once built, so a new universe is published by building a fresh index and swapping
+ * the reference.
+ */
+public final class ScreenIndex {
+
+    private final int rows;
+    private final double[][] columns;
+    private final int[][] order;
+    private final double[][] sorted;
+    private final int[][] missing;
+    private final int[][] position;
+
+    /**
+     * @param columns one array per metric, each of length rows; NaN marks a missing value. Not copied.
+     */
+    public ScreenIndex(double[][] columns, int rows) {
+        this.rows = rows;
+        this.columns = columns;
+        int metrics = columns.length;
+        this.order = new int[metrics][];
+        this.sorted = new double[metrics][];
+        this.missing = new int[metrics][];
+        this.position = new int[metrics][];
+        for (int m = 0; m < metrics; m++) {
+            double[] col = columns[m];
+            int present = 0;
+            for (int r = 0; r < rows; r++) {
+                if (!Double.isNaN(col[r])) present++;
+            }
+            Integer[] idx = new Integer[present];
+            int[] none = new int[rows - present];
+            int p = 0, q = 0;
+            for (int r = 0; r < rows; r++) {
+                if (Double.isNaN(col[r])) none[q++] = r;
+                else idx[p++] = r;
+            }
+            // Stable sort on value, so ties stay in row order
+            Arrays.sort(idx, Comparator.comparingDouble(r -> col[r]));
+            int[] ord = new int[present];
+            double[] vals = new double[present];
+            for (int k = 0; k < present; k++) {
+                ord[k] = idx[k];
+                vals[k] = col[ord[k]];
+            }
+            int[] pos = new int[rows];
+            for (int k = 0; k < present; k++) pos[ord[k]] = k;
+            for (int k = 0; k < none.length; k++) pos[none[k]] = present + k;
+            order[m] = ord;
+            sorted[m] = vals;
+            missing[m] = none;
+            position[m] = pos;
+        }
+    }
+
+    public int rows() { return rows; }
+
+    public int metrics() { return columns.length; }
+
+    /** Value of a metric for a row, NaN when missing. */
+    public double value(int metric, int row) { return columns[metric][row]; }
+
+    /** Bitset with every row set. */
+    public long[] all() {
+        long[] bits = new long[words(rows)];
+        Arrays.fill(bits, -1L);
+        int tail = rows & 63;
+        if (tail != 0) bits[bits.length - 1] = (1L << tail) - 1;
+        return bits;
+    }
+
+    /** Empty bitset over the rows. */
+    public long[] none() {
+        return new long[words(rows)];
+    }
+
+    /**
+     * Rows whose metric lies in [min, max]. A NaN bound is open; rows missing the metric never match a
+     * bounded range, and with both bounds open every row matches.
+     */
+    public long[] range(int metric, double min, double max) {
+        if (Double.isNaN(min) && Double.isNaN(max)) {
+            return all();
+        }
+        double[] vals = sorted[metric];
+        int from = Double.isNaN(min) ? 0 : lowerBound(vals, min);
+        int to = Double.isNaN(max) ? vals.length : upperBound(vals, max);
+        long[] bits = none();
+        int[] ord = order[metric];
+        for (int k = from; k < to; k++) {
+            int r = ord[k];
+            bits[r >>> 6] |= 1L << r;
+        }
+        return bits;
+    }
+
+    /**
+     * Up to {@code limit} set rows of {@code bits} in the metric's order, starting after {@code afterRow} (-1
+     * for the first page). Rows missing the metric come last, in row order, either way.
+     */
+    public int[] page(long[] bits, int metric, boolean descending, int afterRow, int limit) {
+        int[] out = new int[Math.max(0, limit)];
+        int n = 0;
+        for (int k = afterRow < 0 ? 0 : sequence(metric, descending, afterRow) + 1; k < rows && n < out.length; k++) {
+            int r = rowAt(metric, descending, k);
+            if (isSet(bits, r)) out[n++] = r;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Position of a row in the metric's order. */
+    private int sequence(int metric, boolean descending, int row) {
+        int p = position[metric][row];
+        int present = order[metric].length;
+        return descending && p < present ? present - 1 - p : p;
+    }
+
+    private int rowAt(int metric, boolean descending, int k) {
+        int[] ord = order[metric];
+        if (k >= ord.length) return missing[metric][k - ord.length];
+        return ord[descending ? ord.length - 1 - k : k];
+    }
+
+    // ── Bitset helpers ──
+
+    public static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /** {@code a &= b}; returns a. */
+    public static long[] and(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] &= b[i];
+        return a;
+    }
+
+    /** {@code a |= b}; returns a. */
+    public static long[] or(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] |= b[i];
+        return a;
+    }
+
+    public static int count(long[] bits) {
+        int c = 0;
+        for (long w : bits) c += Long.bitCount(w);
+        return c;
+    }
+
+    public static boolean isSet(long[] bits, int row) {
+        return (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** First index with vals[i] >= key. */
+    private static int lowerBound(double[] vals, double key) {
+        int lo = 0, hi = vals.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (vals[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First index with vals[i] > key. */
+    private static int upperBound(double[] vals, double key) {
+        int lo = 0, hi = vals.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (vals[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Historical-replay stress test (FR-RA-009, FR-RA-010): today's holdings are held through a past window and
+ * each one earns its own recorded daily returns on the dates they were recorded.
+ *
+ * The portfolio is buy-and-hold from the window start, so its value on date t is {@code Σ w_i G_i(t)} where
+ * G_i is holding i's cumulative growth. Dates come from the union of every series' dates inside the window.
+ * A holding whose history covers less than {@code minCoverage} of the benchmark's dates in the window (listed
+ * later, or not stored that far back) is proxied instead: on each benchmark date it earns {@code beta_i × r_b}.
+ * Without a benchmark such a holding earns nothing and is reported as uncovered.
+ */
+public final class StressReplay {
+
+    public static final int HISTORICAL = 0;
+    public static final int PROXY = 1;
+    public static final int UNCOVERED = 2;
+
+    private StressReplay() {
+    }
+
+    /**
+     * Returns on {@code epochDays[offset + t]}, t in [0, length), already cut to the scenario window, oldest first.
+     */
+    public record Series(int[] epochDays, double[] returns, int offset, int length) {
+
+        public static final Series EMPTY = new Series(new int[0], new double[0], 0, 0);
+
+        int day(int t) { return epochDays[offset + t]; }
+
+        double value(int t) { return returns[offset + t]; }
+    }
+
+    /**
+     * @param portfolioReturn cumulative buy-and-hold return over the window
+     * @param maxDrawdown     largest peak-to-trough fall of the portfolio path inside the window (positive)
+     * @param benchmarkReturn cumulative benchmark return, NaN without benchmark data in the window
+     * @param holdingReturns  cumulative return per holding (historical or proxied)
+     * @param methods         {@link #HISTORICAL}, {@link #PROXY} or {@link #UNCOVERED} per holding
+     * @param tradingDays     dates replayed; 0 when nothing was stored for the window
+     */
+    public record Result(double portfolioReturn, double maxDrawdown, double benchmarkReturn,
+                         double[] holdingReturns, int[] methods, int tradingDays) {
+    }
+
+    /**
+     * @param holdings    per-holding returns inside the window
+     * @param weights     starting value weights, summing to 1
+     * @param betas       per-holding beta to the benchmark, used for proxied holdings
+     * @param benchmark   benchmark returns inside the window, or null
+     * @param minCoverage share of benchmark dates a holding must have to be replayed on its own returns
+     */
+    public static Result replay(Series[] holdings, double[] weights, double[] betas, Series benchmark,
+                                double minCoverage) {
+        int n = holdings.length;
+        Series bench = benchmark != null ? benchmark : Series.EMPTY;
+
+        int[] methods = new int[n];
+        for (int i = 0; i < n; i++) {
+            int len = holdings[i].length();
+            if (bench.length() == 0) {
+                methods[i] = len > 0 ? HISTORICAL : UNCOVERED;
+            } else {
+                methods[i] = len >= minCoverage * bench.length() ? HISTORICAL : PROXY;
+            }
+        }
+
+        // k-way merge over the window's dates; pos[n] is the benchmark cursor
+        int[] pos = new int[n + 1];
+        double[] growth = new double[n];
+        Arrays.fill(growth, 1.0);
+        double benchGrowth = 1.0;
+        double peak = 1.0;
+        double maxDrawdown = 0;
+        int days = 0;
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                if (methods[i] == HISTORICAL && pos[i] < holdings[i].length()) day = Math.min(day, holdings[i].day(pos[i]));
+            }
+            if (pos[n] < bench.length()) day = Math.min(day, bench.day(pos[n]));
+            if (day == Integer.MAX_VALUE) break;
+
+            double rb = Double.NaN;
+            if (pos[n] < bench.length() && bench.day(pos[n]) == day) {
+                rb = bench.value(pos[n]++);
+                benchGrowth *= 1 + rb;
+            }
+            double value = 0;
+            for (int i = 0; i < n; i++) {
+                if (methods[i] == HISTORICAL) {
+                    if (pos[i] < holdings[i].length() && holdings[i].day(pos[i]) == day) {
+                        growth[i] *= 1 + holdings[i].value(pos[i]++);
+                    }
+                } else if (methods[i] == PROXY && !Double.isNaN(rb)) {
+                    growth[i] *= 1 + betas[i] * rb;
+                }
+                value += weights[i] * growth[i];
+            }
+            days++;
+            if (value > peak) {
+                peak = value;
+            } else if (peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (peak - value) / peak);
+            }
+        }
+
+        double portfolioReturn = 0;
+        double[] holdingReturns = new double[n];
+        for (int i = 0; i < n; i++) {
+            holdingReturns[i] = growth[i] - 1;
+            portfolioReturn += weights[i] * holdingReturns[i];
+        }
+        return new Result(portfolioReturn, maxDrawdown, bench.length() > 0 ? benchGrowth - 1 : Double.NaN,
+                holdingReturns, methods, days);
+    }
+}
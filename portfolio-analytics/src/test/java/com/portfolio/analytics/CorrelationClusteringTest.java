@@ -0,0 +1,120 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CorrelationClusteringTest {
+
+    @Test
+    public void testTwoBlocksSplitIntoTwoClusters() {
+        // Leaves 0, 2, 4 move together, as do 1, 3; the blocks are uncorrelated
+        int n = 5;
+        double[][] corr = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                corr[i][j] = i == j ? 1 : (i % 2 == j % 2 ? 0.8 : 0.0);
+            }
+        }
+        corr[0][2] = corr[2][0] = 0.9;
+
+        CorrelationClustering.Dendrogram tree = CorrelationClustering.cluster(corr, CorrelationClustering.Linkage.AVERAGE);
+
+        assertEquals(4, tree.height().length);
+        assertEquals(CorrelationClustering.distance(0.9), tree.height()[0], 1e-12);
+        assertEquals(0, tree.left()[0]);
+        assertEquals(2, tree.right()[0]);
+        assertEquals(5, tree.size()[3]);
+        assertArrayEquals(new int[]{0, 1, 0, 1, 0}, CorrelationClustering.cut(tree, 2));
+        assertArrayEquals(new int[]{0, 1, 0, 1, 0},
+                CorrelationClustering.cutAt(tree, CorrelationClustering.distance(0.5)));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, CorrelationClustering.cut(tree, 5));
+    }
+
+    @Test
+    public void testHeightsMatchNaiveAgglomeration() {
+        Random rnd = new Random(11);
+        int n = 40, len = 120;
+        double[][] series = new double[n][len];
+        for (int t = 0; t < len; t++) {
+            double market = rnd.nextGaussian();
+            for (int i = 0; i < n; i++) series[i][t] = (i % 4) * 0.3 * market + rnd.nextGaussian();
+        }
+        double[][] corr = CorrelationMatrix.compute(series, new int[n], len);
+
+        for (CorrelationClustering.Linkage linkage : CorrelationClustering.Linkage.values()) {
+            CorrelationClustering.Dendrogram tree = CorrelationClustering.cluster(corr, linkage);
+            double[] expected = naiveHeights(corr, linkage);
+            for (int k = 0; k < n - 1; k++) {
+                assertEquals(expected[k], tree.height()[k], 1e-12, linkage + " merge " + k);
+                if (k > 0) assertTrue(tree.height()[k] >= tree.height()[k - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void testEffectiveBetsAndRiskShares() {
+        int n = 4;
+        double[] w = {0.25, 0.25, 0.25, 0.25};
+        double[] vol = {0.02, 0.02, 0.02, 0.02};
+        double[][] independent = new double[n][n];
+        double[][] together = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            independent[i][i] = 1;
+            Arrays.fill(together[i], 1);
+        }
+        assertEquals(4.0, CorrelationClustering.effectiveBets(independent, w, vol), 1e-12);
+        assertEquals(1.0, CorrelationClustering.effectiveBets(together, w, vol), 1e-12);
+
+        double[][] hedged = {{1, 0.6, -0.5}, {0.6, 1, -0.3}, {-0.5, -0.3, 1}};
+        double[] shares = CorrelationClustering.riskShares(hedged, new double[]{0.5, 0.3, 0.2},
+                new double[]{0.02, 0.03, 0.01});
+        assertEquals(1.0, shares[0] + shares[1] + shares[2], 1e-12);
+        assertTrue(shares[2] < 0);
+    }
+
+    /** O(n³) textbook agglomeration over the distance matrix, heights in merge order. */
+    private static double[] naiveHeights(double[][] corr, CorrelationClustering.Linkage linkage) {
+        int n = corr.length;
+        double[][] d = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) d[i][j] = CorrelationClustering.distance(corr[i][j]);
+        }
+        boolean[] alive = new boolean[n];
+        Arrays.fill(alive, true);
+        int[] size = new int[n];
+        Arrays.fill(size, 1);
+        double[] heights = new double[n - 1];
+        for (int m = 0; m < n - 1; m++) {
+            int bi = -1, bj = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (alive[i] && alive[j] && d[i][j] < best) {
+                        best = d[i][j];
+                        bi = i;
+                        bj = j;
+                    }
+                }
+            }
+            heights[m] = best;
+            for (int k = 0; k < n; k++) {
+                if (!alive[k] || k == bi || k == bj) continue;
+                double v = switch (linkage) {
+                    case SINGLE -> Math.min(d[bi][k], d[bj][k]);
+                    case COMPLETE -> Math.max(d[bi][k], d[bj][k]);
+                    case AVERAGE -> (size[bi] * d[bi][k] + size[bj] * d[bj][k]) / (size[bi] + size[bj]);
+                };
+                d[bi][k] = d[k][bi] = v;
+            }
+            alive[bj] = false;
+            size[bi] += size[bj];
+        }
+        return heights;
+    }
+}
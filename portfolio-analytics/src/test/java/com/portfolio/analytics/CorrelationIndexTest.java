@@ -0,0 +1,24 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class CorrelationIndexTest {
+
+    private static final double[] ROW = {1.0, -0.2, 0.8, -0.7, 0.05, Double.NaN, -0.4, 0.3, -0.01};
+
+    @Test
+    public void testMostNegativeSkipsSelfAndPositives() {
+        assertArrayEquals(new int[]{3, 6, 1}, CorrelationIndex.mostNegative(ROW, 0, 3));
+        // Fewer negatives than asked for
+        assertArrayEquals(new int[]{3, 6, 1, 8}, CorrelationIndex.mostNegative(ROW, 0, 10));
+        assertArrayEquals(new int[]{6, 1}, CorrelationIndex.mostNegative(ROW, 3, 2));
+    }
+
+    @Test
+    public void testLeastCorrelatedByAbsoluteValue() {
+        assertArrayEquals(new int[]{8, 4, 1}, CorrelationIndex.leastCorrelated(ROW, 0, 3));
+        assertArrayEquals(new int[]{}, CorrelationIndex.leastCorrelated(ROW, 0, 0));
+    }
+}
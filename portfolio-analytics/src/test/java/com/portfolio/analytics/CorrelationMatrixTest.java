@@ -0,0 +1,83 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CorrelationMatrixTest {
+
+    @Test
+    public void testMatchesPairwisePearsonAcrossTiles() {
+        // More series than one tile and more dates than one slice, read through offsets
+        Random rnd = new Random(11);
+        int n = CorrelationMatrix.TILE * 2 + 5, len = CorrelationMatrix.SLICE + 37;
+        double[][] series = new double[n][];
+        int[] offsets = new int[n];
+        double[] market = new double[len];
+        for (int t = 0; t < len; t++) market[t] = rnd.nextGaussian() * 0.01;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = i % 3;
+            series[i] = new double[len + offsets[i]];
+            double beta = rnd.nextDouble() * 2 - 0.5;
+            for (int t = 0; t < len; t++) {
+                series[i][offsets[i] + t] = beta * market[t] + rnd.nextGaussian() * 0.01;
+            }
+        }
+
+        double[][] c = CorrelationMatrix.compute(series, offsets, len);
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(1.0, c[i][i]);
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                assertEquals(pearson(series[i], offsets[i], series[j], offsets[j], len), c[i][j], 1e-12);
+                assertEquals(c[i][j], c[j][i]);
+            }
+        }
+    }
+
+    @Test
+    public void testConstantSeriesHasZeroCorrelation() {
+        double[][] series = {
+                {0.01, -0.02, 0.03, 0.00},
+                {0.02, -0.04, 0.06, 0.00},
+                {0.01, 0.01, 0.01, 0.01}
+        };
+        double[][] c = CorrelationMatrix.compute(series, new int[3], 4);
+
+        assertEquals(1.0, c[0][1], 1e-12);
+        assertEquals(0.0, c[0][2]);
+        assertEquals(0.0, c[2][1]);
+        assertEquals(1.0, c[2][2]);
+    }
+
+    @Test
+    public void testRoundLeavesSourceUntouched() {
+        double[][] corr = {{1.0, -0.123456}, {-0.123456, 1.0}};
+        double[][] rounded = CorrelationMatrix.round(corr, 4);
+
+        assertEquals(-0.1235, rounded[0][1], 0);
+        assertEquals(1.0, rounded[1][1], 0);
+        assertEquals(-0.123456, corr[0][1], 0);
+    }
+
+    private static double pearson(double[] x, int ox, double[] y, int oy, int n) {
+        double mx = 0, my = 0;
+        for (int t = 0; t < n; t++) {
+            mx += x[ox + t];
+            my += y[oy + t];
+        }
+        mx /= n;
+        my /= n;
+        double sxy = 0, sxx = 0, syy = 0;
+        for (int t = 0; t < n; t++) {
+            double dx = x[ox + t] - mx, dy = y[oy + t] - my;
+            sxy += dx * dy;
+            sxx += dx * dx;
+            syy += dy * dy;
+        }
+        return sxy / Math.sqrt(sxx * syy);
+    }
+}
@@ -0,0 +1,76 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CovarianceTest {
+
+    @Test
+    public void testSampleCovarianceWithOffsets() {
+        double[][] series = {
+                {99, 0.01, 0.02, 0.03},
+                {0.02, 0.04, 0.06}
+        };
+        double[] cov = Covariance.sample(series, new int[]{1, 0}, 3);
+
+        assertEquals(1e-4, cov[0], 1e-12);
+        assertEquals(2e-4, cov[1], 1e-12);
+        assertEquals(2e-4, cov[2], 1e-12);
+        assertEquals(4e-4, cov[3], 1e-12);
+    }
+
+    @Test
+    public void testStdDevsMatchCovarianceDiagonal() {
+        double[][] series = {
+                {99, 0.01, 0.02, 0.03},
+                {0.02, 0.04, 0.06}
+        };
+        double[] sd = Covariance.stdDevs(series, new int[]{1, 0}, 3);
+
+        assertEquals(0.01, sd[0], 1e-12);
+        assertEquals(0.02, sd[1], 1e-12);
+        assertArrayEquals(new double[2], Covariance.stdDevs(series, new int[]{1, 0}, 1));
+    }
+
+    @Test
+    public void testCholeskyReconstructsMatrix() {
+        double[] a = {
+                4, 2, 0.4,
+                2, 5, 1,
+                0.4, 1, 3
+        };
+        double[] l = Covariance.cholesky(a, 3);
+        assertArrayEquals(a, multiplyByTranspose(l, 3), 1e-12);
+        assertEquals(0, l[1]);
+        assertEquals(0, l[2]);
+        assertEquals(0, l[5]);
+    }
+
+    @Test
+    public void testCholeskyToleratesSemiDefinite() {
+        // Second series is an exact multiple of the first: rank 1
+        double[][] series = {
+                {0.01, -0.02, 0.03, 0.00},
+                {0.02, -0.04, 0.06, 0.00}
+        };
+        double[] cov = Covariance.sample(series, new int[]{0, 0}, 4);
+        double[] l = Covariance.cholesky(cov, 2);
+
+        assertEquals(0, l[3]);
+        assertArrayEquals(cov, multiplyByTranspose(l, 2), 1e-15);
+    }
+
+    private static double[] multiplyByTranspose(double[] l, int n) {
+        double[] out = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double s = 0;
+                for (int k = 0; k < n; k++) s += l[i * n + k] * l[j * n + k];
+                out[i * n + j] = s;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,93 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MonteCarloEngineTest {
+
+    @Test
+    public void testSameSeedGivesSamePathsRegardlessOfParallelism() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool wide = new ForkJoinPool(8);
+        try {
+            double[] a = new MonteCarloEngine(single).simulateGaussian(0.0005, 0.01, 10, 50_000, 42);
+            double[] b = new MonteCarloEngine(wide).simulateGaussian(0.0005, 0.01, 10, 50_000, 42);
+            assertArrayEquals(a, b);
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+    }
+
+    @Test
+    public void testGaussianHorizonMoments() {
+        int horizon = 10;
+        double[] paths = new MonteCarloEngine().simulateGaussian(0.001, 0.02, horizon, 200_000, 7);
+
+        double mean = 0;
+        for (double p : paths) mean += p;
+        mean /= paths.length;
+        double var = 0;
+        for (double p : paths) var += (p - mean) * (p - mean);
+        double sd = Math.sqrt(var / (paths.length - 1));
+
+        assertEquals(0.001 * horizon, mean, 5e-4);
+        assertEquals(0.02 * Math.sqrt(horizon), sd, 1e-3);
+    }
+
+    @Test
+    public void testPortfolioVarianceMatchesCovariance() {
+        double[] mu = {0.001, 0.0005};
+        double[] cov = {
+                4e-4, 1.2e-4,
+                1.2e-4, 1e-4
+        };
+        double[] w = {0.6, 0.4};
+        int horizon = 5;
+        double[] paths = new MonteCarloEngine().simulatePortfolio(mu, Covariance.cholesky(cov, 2), w,
+                horizon, 200_000, 11);
+
+        double mean = 0;
+        for (double p : paths) mean += p;
+        mean /= paths.length;
+        double var = 0;
+        for (double p : paths) var += (p - mean) * (p - mean);
+        var /= paths.length - 1;
+
+        double expectedVar = horizon * (w[0] * w[0] * cov[0] + 2 * w[0] * w[1] * cov[1] + w[1] * w[1] * cov[3]);
+        assertEquals(horizon * (w[0] * mu[0] + w[1] * mu[1]), mean, 2e-4);
+        assertEquals(expectedVar, var, expectedVar * 0.02);
+    }
+
+    @Test
+    public void testTailContributionsSumToTailMean() {
+        double[] mu = {0.0, 0.0, 0.0};
+        double[] cov = {
+                4e-4, 1e-4, 0,
+                1e-4, 2e-4, 5e-5,
+                0, 5e-5, 1e-4
+        };
+        double[] l = Covariance.cholesky(cov, 3);
+        double[] w = {0.5, 0.3, 0.2};
+        int paths = 20_000;
+        MonteCarloEngine engine = new MonteCarloEngine();
+
+        double[] sorted = engine.simulatePortfolio(mu, l, w, 1, paths, 3);
+        Arrays.sort(sorted);
+        int cutoff = paths / 20;
+        double tailMean = 0;
+        for (int i = 0; i < cutoff; i++) tailMean += sorted[i];
+        tailMean /= cutoff;
+
+        double[] contrib = engine.tailContributions(mu, l, w, 1, paths, 3, sorted[cutoff - 1]);
+        assertEquals(tailMean, contrib[0] + contrib[1] + contrib[2], 1e-12);
+        // The most volatile, most heavily weighted holding dominates the tail
+        assertTrue(contrib[0] < contrib[1] && contrib[1] < contrib[2]);
+    }
+}
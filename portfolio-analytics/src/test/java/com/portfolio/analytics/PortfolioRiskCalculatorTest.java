@@ -0,0 +1,51 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PortfolioRiskCalculatorTest {
+
+    private final PortfolioRiskCalculator calculator = new PortfolioRiskCalculator();
+
+    @Test
+    public void testBetaAgainstScaledBenchmark() {
+        double[] bench = {0.01, -0.02, 0.015, -0.005, 0.02, -0.01};
+        double[] a = new double[bench.length + 2];
+        double[] b = new double[bench.length];
+        for (int t = 0; t < bench.length; t++) {
+            a[t + 2] = 2 * bench[t];
+            b[t] = 0.5 * bench[t];
+        }
+        RiskMetrics m = calculator.compute(new PortfolioRiskCalculator.Input(
+                new String[]{"A", "B"}, new double[][]{a, b}, new int[]{2, 0}, bench.length,
+                new double[]{0.5, 0.5}, bench, 0, 10_000, 0.95, 1, 1000, 42L, true));
+
+        assertEquals(6, m.getObservations());
+        assertEquals(1.25, m.getBeta(), 1e-12);
+        assertEquals(2.0, m.getHoldingBetas()[0], 1e-12);
+        assertEquals(0.5, m.getHoldingBetas()[1], 1e-12);
+        // Perfectly correlated holdings: no diversification
+        assertEquals(1.0, m.getAverageCorrelation(), 1e-12);
+        assertEquals(1.0, m.getDiversificationRatio(), 1e-12);
+        assertTrue(m.getHistoricalVar() > 0);
+    }
+
+    @Test
+    public void testSingleHoldingWithoutBenchmark() {
+        double[] r = {0.01, -0.02, 0.015, -0.005, 0.02, -0.01};
+        RiskMetrics m = calculator.compute(new PortfolioRiskCalculator.Input(
+                new String[]{"A"}, new double[][]{r}, new int[]{0}, r.length,
+                new double[]{1.0}, null, 0, 10_000, 0.95, 1, 1000, 42L, true));
+
+        assertNull(m.getBeta());
+        assertNull(m.getAverageCorrelation());
+        assertNotNull(m.getSharpeRatio());
+        assertEquals(PortfolioRiskCalculator.standardDeviation(r), m.getDailyVolatility(), 1e-15);
+        // Historical VaR at 95% over 6 points is the worst loss
+        assertEquals(200.0, m.getHistoricalVar(), 1e-9);
+    }
+}
@@ -0,0 +1,33 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PositionsTest {
+
+    @Test
+    public void testValuesAndWeightsInPlace() {
+        double[] prices = {100.0, 25.5, 10.0, 999.0};
+        double[] quantities = {10, 40, 0, 1};
+        double[] values = new double[4];
+
+        double total = Positions.values(prices, quantities, 3, values);
+        assertEquals(2020.0, total, 1e-9);
+        assertArrayEquals(new double[]{1000.0, 1020.0, 0.0, 0.0}, values, 1e-9);
+
+        Positions.weights(values, 3, total, values);
+        assertEquals(1000.0 / 2020.0, values[0], 1e-15);
+        assertEquals(1020.0 / 2020.0, values[1], 1e-15);
+        assertEquals(0.0, values[2]);
+        assertEquals(0.0, values[3]);
+    }
+
+    @Test
+    public void testZeroTotalGivesZeroWeights() {
+        double[] values = {0.0, 0.0};
+        Positions.weights(values, 2, 0.0, values);
+        assertArrayEquals(new double[]{0.0, 0.0}, values);
+    }
+}
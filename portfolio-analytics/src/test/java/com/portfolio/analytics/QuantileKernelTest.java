@@ -0,0 +1,62 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuantileKernelTest {
+
+    @Test
+    public void testMatchesFullSort() {
+        SplittableRandom rng = new SplittableRandom(5);
+        double[] data = new double[10_000];
+        for (int i = 0; i < data.length; i++) {
+            // Coarse rounding forces plenty of ties
+            data[i] = Math.round(rng.nextGaussian() * 100) / 100.0;
+        }
+        double[] sorted = data.clone();
+        Arrays.sort(sorted);
+
+        int[] ranks = {9_999, 0, 499, 99, 499, 5_000, 9_500, 24};
+        QuantileKernel.Selection sel = QuantileKernel.select(data, 0, data.length, ranks);
+
+        for (int r : ranks) {
+            assertEquals(sorted[r], sel.value(r));
+            double sum = 0;
+            for (int i = 0; i <= r; i++) sum += sorted[i];
+            assertEquals(sum / (r + 1), sel.meanThrough(r), 1e-9);
+        }
+    }
+
+    @Test
+    public void testRespectsOffset() {
+        double[] data = {100, 100, 5, 3, 9, 1, 7, -100};
+        QuantileKernel.Selection sel = QuantileKernel.select(data, 2, 5, 0, 2, 4);
+
+        assertEquals(1, sel.value(0));
+        assertEquals(5, sel.value(2));
+        assertEquals(9, sel.value(4));
+        assertEquals(3, sel.meanThrough(2));
+        assertEquals(100, data[0]);
+        assertEquals(-100, data[7]);
+    }
+
+    @Test
+    public void testRankHelpers() {
+        assertEquals(12, QuantileKernel.lowerRank(0.95, 252));
+        assertEquals(12, QuantileKernel.tailCount(0.95, 252));
+        assertEquals(0, QuantileKernel.lowerRank(0.99, 50));
+        assertEquals(1, QuantileKernel.tailCount(0.99, 50));
+    }
+
+    @Test
+    public void testRejectsUnselectedRank() {
+        QuantileKernel.Selection sel = QuantileKernel.select(new double[]{3, 1, 2}, 0, 3, 1);
+        assertThrows(IllegalArgumentException.class, () -> sel.value(0));
+        assertThrows(IllegalArgumentException.class, () -> QuantileKernel.select(new double[]{1}, 0, 1, 1));
+    }
+}
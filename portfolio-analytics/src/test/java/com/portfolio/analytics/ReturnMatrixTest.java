@@ -0,0 +1,92 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReturnMatrixTest {
+
+    // A: days 1-6 read from offset 1 (day 0 ignored); B: listed on day 2, missing day 4; C: ends on day 5
+    private static final String[] NAMES = {"A", "B", "C"};
+    private static final int[][] DAYS = {{0, 1, 2, 3, 4, 5, 6}, {2, 3, 5, 6}, {1, 2, 3, 4, 5}};
+    private static final double[][] RETURNS = {
+            {9, 0.01, 0.02, 0.03, 0.04, 0.05, 0.06},
+            {0.20, 0.30, 0.50, 0.60},
+            {-0.1, -0.2, -0.3, -0.4, -0.5}};
+    private static final int[] OFFSETS = {1, 0, 0};
+    private static final int[] LENGTHS = {6, 4, 5};
+
+    @Test
+    public void testDropKeepsCommonDatesInsideOverlap() {
+        ReturnMatrix m = ReturnMatrix.align(NAMES, DAYS, RETURNS, OFFSETS, LENGTHS, ReturnMatrix.MissingData.DROP);
+
+        assertEquals(3, m.size());
+        assertEquals(3, m.length());
+        assertArrayEquals(new int[]{2, 3, 5}, new int[]{m.epochDay(0), m.epochDay(1), m.epochDay(2)});
+        assertArrayEquals(new double[]{0.02, 0.03, 0.05}, m.column(0));
+        assertArrayEquals(new double[]{0.20, 0.30, 0.50}, m.column(1));
+        assertArrayEquals(new double[]{-0.2, -0.3, -0.5}, m.column(2));
+        assertEquals(3, m.observed(1));
+    }
+
+    @Test
+    public void testZeroFillKeepsEveryDateInsideOverlap() {
+        ReturnMatrix m = ReturnMatrix.align(NAMES, DAYS, RETURNS, OFFSETS, LENGTHS, ReturnMatrix.MissingData.ZERO_FILL);
+
+        assertEquals(4, m.length());
+        assertEquals(4, m.epochDay(2));
+        assertArrayEquals(new double[]{0.20, 0.30, 0.0, 0.50}, m.column(1));
+        assertArrayEquals(new double[]{0.02, 0.03, 0.04, 0.05}, m.column(0));
+        assertEquals(3, m.observed(1));
+        assertEquals(4, m.observed(2));
+        assertEquals(1, m.indexOf("B"));
+        assertEquals(-1, m.indexOf("SPY"));
+    }
+
+    @Test
+    public void testDisjointOrEmptySeriesGiveEmptyMatrix() {
+        ReturnMatrix disjoint = ReturnMatrix.align(new String[]{"A", "B"},
+                new int[][]{{1, 2}, {3, 4}}, new double[][]{{0.1, 0.2}, {0.3, 0.4}},
+                new int[]{0, 0}, new int[]{2, 2}, ReturnMatrix.MissingData.ZERO_FILL);
+        assertTrue(disjoint.isEmpty());
+        assertEquals(2, disjoint.size());
+
+        ReturnMatrix empty = ReturnMatrix.align(new String[]{"A", "B"},
+                new int[][]{{1, 2}, {}}, new double[][]{{0.1, 0.2}, {}},
+                new int[]{0, 0}, new int[]{2, 0}, ReturnMatrix.MissingData.DROP);
+        assertTrue(empty.isEmpty());
+    }
+
+    @Test
+    public void testParsePolicy() {
+        assertEquals(ReturnMatrix.MissingData.ZERO_FILL, ReturnMatrix.MissingData.parse(" zero-fill"));
+        assertEquals(ReturnMatrix.MissingData.DROP, ReturnMatrix.MissingData.parse("DROP"));
+    }
+
+    @Test
+    public void testCalendarAlignmentRollsWeekendClosesIntoNextSession() {
+        // Sessions Mon 0 .. Fri 4, Mon 7, Tue 8; the crypto series trades every day, the stock misses Thu 3
+        int[] calendar = {0, 1, 2, 3, 4, 7, 8};
+        int[][] days = {{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, {0, 1, 2, 4, 7, 8}};
+        double[][] closes = {
+                {100, 101, 102, 103, 104, 110, 120, 121, 121, 130},
+                {50, 51, 52, 54, 55, 56}};
+
+        ReturnMatrix m = ReturnMatrix.alignToCalendar(new String[]{"BTC", "AAPL"}, days, closes,
+                new int[]{0, 0}, new int[]{10, 6}, calendar);
+
+        assertEquals(6, m.length());
+        assertEquals(7, m.epochDay(4));
+        assertEquals(8, m.epochDay(5));
+        // Friday 104 to Monday 121 in one row, Saturday and Sunday included
+        assertEquals(121.0 / 104 - 1, m.column(0)[4], 1e-12);
+        assertEquals(0.0, m.column(0)[5], 1e-12);
+        // The stock carries its close over Thursday, then Friday covers both days
+        assertEquals(0.0, m.column(1)[2], 1e-12);
+        assertEquals(54.0 / 52 - 1, m.column(1)[3], 1e-12);
+        assertEquals(5, m.observed(1));
+        assertEquals(6, m.observed(0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RollingCorrelationTest {
+
+    @Test
+    public void testEveryWindowMatchesDirectComputation() {
+        Random rnd = new Random(5);
+        int len = 700, window = 60, off = 3;
+        double[] x = new double[off + len];
+        double[] y = new double[off + len];
+        for (int t = off; t < off + len; t++) {
+            y[t] = 0.0004 + rnd.nextGaussian() * 0.01;
+            // Regime change halfway: the relationship flips sign
+            double b = t < off + len / 2 ? 1.2 : -0.8;
+            x[t] = b * y[t] + rnd.nextGaussian() * 0.006;
+        }
+
+        RollingCorrelation.Result r = RollingCorrelation.compute(x, y, off, len, window);
+
+        assertEquals(len - window + 1, r.size());
+        for (int p = 0; p < r.size(); p++) {
+            double[] direct = direct(x, y, off + p, window);
+            assertEquals(direct[0], r.correlation()[p], 1e-10);
+            assertEquals(direct[1], r.beta()[p], 1e-9);
+        }
+        assertTrue(r.correlation()[0] > 0.8);
+        assertTrue(r.correlation()[r.size() - 1] < -0.7);
+    }
+
+    @Test
+    public void testFlatBenchmarkAndShortInput() {
+        double[] x = {0.01, -0.02, 0.03, 0.01};
+        double[] y = {0.0, 0.0, 0.0, 0.0};
+        RollingCorrelation.Result r = RollingCorrelation.compute(x, y, 0, 4, 3);
+        assertEquals(0.0, r.correlation()[0]);
+        assertTrue(Double.isNaN(r.beta()[1]));
+
+        assertEquals(0, RollingCorrelation.compute(x, y, 0, 4, 5).size());
+    }
+
+    private static double[] direct(double[] x, double[] y, int from, int n) {
+        double mx = 0, my = 0;
+        for (int t = from; t < from + n; t++) {
+            mx += x[t];
+            my += y[t];
+        }
+        mx /= n;
+        my /= n;
+        double sxy = 0, sxx = 0, syy = 0;
+        for (int t = from; t < from + n; t++) {
+            sxy += (x[t] - mx) * (y[t] - my);
+            sxx += (x[t] - mx) * (x[t] - mx);
+            syy += (y[t] - my) * (y[t] - my);
+        }
+        return new double[]{sxy / Math.sqrt(sxx * syy), sxy / syy};
+    }
+}
@@ -0,0 +1,76 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RollingMomentsTest {
+
+    @Test
+    public void testSlidingWindowMatchesBatchStatistics() {
+        Random rnd = new Random(7);
+        int len = 1000, window = 60;
+        double[] a = new double[len];
+        double[] b = new double[len];
+        for (int t = 0; t < len; t++) {
+            b[t] = rnd.nextGaussian() * 0.01;
+            a[t] = 1.3 * b[t] + rnd.nextGaussian() * 0.005 + 0.0004;
+        }
+
+        RollingMoments moments = new RollingMoments(2, window, 0.0);
+        for (int t = 0; t < len; t++) {
+            moments.push(t, new double[]{a[t], b[t]});
+        }
+
+        int from = len - window;
+        double[] tailA = Arrays.copyOfRange(a, from, len);
+        assertEquals(window, moments.count());
+        assertEquals(from, moments.firstKey());
+        assertEquals(len - 1, moments.lastKey());
+        assertEquals(PortfolioRiskCalculator.mean(a, from, window), moments.mean(0), 1e-12);
+        assertEquals(PortfolioRiskCalculator.standardDeviation(tailA), moments.standardDeviation(0), 1e-12);
+        assertEquals(PortfolioRiskCalculator.beta(a, from, b, from, window), moments.beta(0, 1), 1e-9);
+
+        double sumSq = 0;
+        int below = 0;
+        for (double r : tailA) {
+            if (r < 0) {
+                sumSq += r * r;
+                below++;
+            }
+        }
+        assertEquals(Math.sqrt(sumSq / (below - 1)), moments.downsideDeviation(0), 1e-12);
+    }
+
+    @Test
+    public void testWeightedCombination() {
+        double[][] obs = {{0.01, 0.02}, {-0.02, 0.01}, {0.03, -0.01}, {0.00, 0.02}};
+        RollingMoments moments = new RollingMoments(2, 10, 0.0);
+        double[] combined = new double[obs.length];
+        double[] w = {0.25, 0.75};
+        for (int t = 0; t < obs.length; t++) {
+            moments.push(t, obs[t]);
+            combined[t] = w[0] * obs[t][0] + w[1] * obs[t][1];
+        }
+
+        double sd = PortfolioRiskCalculator.standardDeviation(combined);
+        assertEquals(sd * sd, moments.weightedVariance(w), 1e-15);
+        assertEquals(PortfolioRiskCalculator.mean(combined, 0, combined.length), moments.weightedMean(w), 1e-15);
+    }
+
+    @Test
+    public void testRemoveOldestToEmpty() {
+        RollingMoments moments = new RollingMoments(1, 4, 0.0);
+        moments.push(1, new double[]{0.01});
+        moments.push(2, new double[]{-0.03});
+        moments.removeOldest();
+        moments.removeOldest();
+        assertEquals(0, moments.count());
+        assertEquals(0, moments.mean(0));
+        assertEquals(0, moments.variance(0));
+        assertEquals(0, moments.downsideDeviation(0));
+    }
+}
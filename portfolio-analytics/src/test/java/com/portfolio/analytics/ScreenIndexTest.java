@@ -0,0 +1,63 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScreenIndexTest {
+
+    @Test
+    public void testRangesMatchRowByRowFilter() {
+        Random rnd = new Random(3);
+        int rows = 1000;
+        double[][] cols = new double[3][rows];
+        for (int m = 0; m < 3; m++) {
+            for (int r = 0; r < rows; r++) {
+                // Coarse values so ties and bound hits are common; about 10% missing
+                cols[m][r] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextInt(50);
+            }
+        }
+        ScreenIndex index = new ScreenIndex(cols, rows);
+
+        long[] bits = ScreenIndex.and(index.range(0, 10, 30), index.range(1, Double.NaN, 20));
+        ScreenIndex.and(bits, index.range(2, 5, Double.NaN));
+
+        int expected = 0;
+        for (int r = 0; r < rows; r++) {
+            boolean match = cols[0][r] >= 10 && cols[0][r] <= 30 && cols[1][r] <= 20 && cols[2][r] >= 5;
+            assertEquals(match, ScreenIndex.isSet(bits, r), "row " + r);
+            if (match) expected++;
+        }
+        assertEquals(expected, ScreenIndex.count(bits));
+        assertEquals(rows, ScreenIndex.count(index.range(0, Double.NaN, Double.NaN)));
+        assertEquals(0, ScreenIndex.count(index.range(0, 60, 70)));
+    }
+
+    @Test
+    public void testPagesFollowMetricOrderWithMissingLast() {
+        double[][] cols = {{5, Double.NaN, 1, 9, 5, Double.NaN}};
+        ScreenIndex index = new ScreenIndex(cols, 6);
+        long[] all = index.all();
+
+        assertArrayEquals(new int[]{2, 0, 4, 3, 1, 5}, index.page(all, 0, false, -1, 10));
+        assertArrayEquals(new int[]{3, 4, 0, 2, 1, 5}, index.page(all, 0, true, -1, 10));
+
+        // Keyset pages resume after the previous page's last row, through the missing tail
+        assertArrayEquals(new int[]{4, 3}, index.page(all, 0, false, 0, 2));
+        assertArrayEquals(new int[]{1, 5}, index.page(all, 0, false, 3, 2));
+        assertArrayEquals(new int[]{0, 2, 1}, index.page(all, 0, true, 4, 3));
+        assertArrayEquals(new int[]{}, index.page(all, 0, true, 5, 3));
+
+        long[] some = index.none();
+        some[0] |= 0b101010;
+        assertArrayEquals(new int[]{3, 1, 5}, index.page(some, 0, false, -1, 10));
+        assertArrayEquals(new int[]{5}, index.page(some, 0, false, 1, 10));
+        assertTrue(ScreenIndex.isSet(all, 5));
+        assertFalse(ScreenIndex.isSet(some, 0));
+    }
+}
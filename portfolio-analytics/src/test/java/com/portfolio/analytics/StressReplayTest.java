@@ -0,0 +1,54 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StressReplayTest {
+
+    @Test
+    public void testBuyAndHoldReplayWithProxy() {
+        int[] days = {10, 11, 12, 13};
+        StressReplay.Series bench = new StressReplay.Series(days, new double[]{-0.10, -0.10, 0.05, 0.02}, 0, 4);
+        // Holding A has every date (offset into a longer history); B was listed on day 13 only
+        StressReplay.Series a = new StressReplay.Series(new int[]{8, 9, 10, 11, 12, 13},
+                new double[]{0.5, 0.5, -0.20, 0.00, 0.10, 0.00}, 2, 4);
+        StressReplay.Series b = new StressReplay.Series(new int[]{13}, new double[]{0.30}, 0, 1);
+
+        StressReplay.Result r = StressReplay.replay(new StressReplay.Series[]{a, b},
+                new double[]{0.5, 0.5}, new double[]{1.0, 2.0}, bench, 0.8);
+
+        double growthA = 0.8 * 1.0 * 1.1 * 1.0;
+        double growthB = 0.8 * 0.8 * 1.1 * 1.04;
+        assertArrayEquals(new int[]{StressReplay.HISTORICAL, StressReplay.PROXY}, r.methods());
+        assertEquals(growthA - 1, r.holdingReturns()[0], 1e-12);
+        assertEquals(growthB - 1, r.holdingReturns()[1], 1e-12);
+        assertEquals(0.5 * growthA + 0.5 * growthB - 1, r.portfolioReturn(), 1e-12);
+        assertEquals(0.9 * 0.9 * 1.05 * 1.02 - 1, r.benchmarkReturn(), 1e-12);
+        assertEquals(4, r.tradingDays());
+
+        // Trough after day 11: 0.5 * 0.8 + 0.5 * 0.64 = 0.72 from a peak of 1
+        assertEquals(0.28, r.maxDrawdown(), 1e-12);
+    }
+
+    @Test
+    public void testNoBenchmarkLeavesMissingHoldingUncovered() {
+        StressReplay.Series a = new StressReplay.Series(new int[]{1, 2}, new double[]{-0.5, 0.0}, 0, 2);
+        StressReplay.Result r = StressReplay.replay(new StressReplay.Series[]{a, StressReplay.Series.EMPTY},
+                new double[]{0.5, 0.5}, new double[]{1.0, 1.0}, null, 0.8);
+
+        assertEquals(StressReplay.UNCOVERED, r.methods()[1]);
+        assertEquals(-0.25, r.portfolioReturn(), 1e-12);
+        assertTrue(Double.isNaN(r.benchmarkReturn()));
+    }
+
+    @Test
+    public void testEmptyWindow() {
+        StressReplay.Result r = StressReplay.replay(new StressReplay.Series[]{StressReplay.Series.EMPTY},
+                new double[]{1.0}, new double[]{1.0}, StressReplay.Series.EMPTY, 0.8);
+        assertEquals(0, r.tradingDays());
+        assertEquals(0, r.portfolioReturn());
+    }
+}
@@ -0,0 +1,90 @@
+package com.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VarDecompositionTest {
+
+    private static final double[] COV = {
+            0.0004, 0.0001, -0.00015,
+            0.0001, 0.0009, -0.0001,
+            -0.00015, -0.0001, 0.0001};
+    private static final double[] WEIGHTS = {0.5, 0.3, 0.2};
+
+    @Test
+    public void testComponentsSumToPortfolioRisk() {
+        VarDecomposition.Result r = VarDecomposition.parametric(COV, WEIGHTS, 0.95, 10, 1_000_000);
+
+        double sigma = Math.sqrt(quadratic(WEIGHTS));
+        double var = PortfolioRiskCalculator.zScore(0.95) * sigma * Math.sqrt(10) * 1_000_000;
+        double sumVar = 0, sumEs = 0;
+        for (int i = 0; i < 3; i++) {
+            sumVar += r.componentVar()[i];
+            sumEs += r.componentEs()[i];
+            assertEquals(r.componentVar()[i], WEIGHTS[i] * 1_000_000 * r.marginalVar()[i], 1e-9);
+        }
+        assertEquals(var, sumVar, 1e-6);
+        // Gaussian ES: phi(z) / (1 - c) sigma, about 2.06 sigma at 95%
+        double esMultiplier = esMultiplier(0.95);
+        assertEquals(2.06, esMultiplier, 0.01);
+        assertEquals(esMultiplier * sigma * Math.sqrt(10) * 1_000_000, sumEs, 1e-6);
+    }
+
+    @Test
+    public void testEsUsesExactQuantileOffTheZTable() {
+        double sigma = Math.sqrt(quadratic(WEIGHTS));
+        // 0.975 and 0.8 fall between the z table's buckets: ES is 2.338 sigma and 1.400 sigma, not the 4.12 and
+        // 0.52 a bucketed z would give
+        double[][] cases = {{0.975, 2.338}, {0.8, 1.400}};
+        for (double[] c : cases) {
+            VarDecomposition.Result r = VarDecomposition.parametric(COV, WEIGHTS, c[0], 1, 1_000_000);
+            double sumEs = 0;
+            for (int i = 0; i < 3; i++) sumEs += r.componentEs()[i];
+            assertEquals(c[1], sumEs / (sigma * 1_000_000), 1e-3);
+            assertEquals(c[1], r.incrementalEs()[0] / r.incrementalVar()[0] * PortfolioRiskCalculator.zScore(c[0]),
+                    1e-3);
+        }
+    }
+
+    @Test
+    public void testNormalQuantile() {
+        assertEquals(1.6448536269514722, VarDecomposition.normalQuantile(0.95), 1e-15);
+        assertEquals(1.959963984540054, VarDecomposition.normalQuantile(0.975), 1e-15);
+        assertEquals(2.3263478740408408, VarDecomposition.normalQuantile(0.99), 1e-15);
+        assertEquals(-0.8416212335729143, VarDecomposition.normalQuantile(0.2), 1e-15);
+        assertEquals(0, VarDecomposition.normalQuantile(0.5), 0);
+        assertEquals(-6.361340902404056, VarDecomposition.normalQuantile(1e-10), 1e-12);
+    }
+
+    @Test
+    public void testIncrementalMatchesRecomputationWithoutHolding() {
+        VarDecomposition.Result r = VarDecomposition.parametric(COV, WEIGHTS, 0.99, 1, 500_000);
+
+        double z = PortfolioRiskCalculator.zScore(0.99);
+        double full = z * Math.sqrt(quadratic(WEIGHTS)) * 500_000;
+        for (int i = 0; i < 3; i++) {
+            double[] without = WEIGHTS.clone();
+            without[i] = 0;
+            double expected = full - z * Math.sqrt(quadratic(without)) * 500_000;
+            assertEquals(expected, r.incrementalVar()[i], 1e-6);
+        }
+        // The negatively correlated third holding hedges: selling it raises VaR
+        assertTrue(r.incrementalVar()[2] < 0);
+        assertTrue(r.componentVar()[2] < 0);
+    }
+
+    private static double esMultiplier(double confidence) {
+        double z = VarDecomposition.normalQuantile(confidence);
+        return Math.exp(-0.5 * z * z) / Math.sqrt(2 * Math.PI) / (1 - confidence);
+    }
+
+    private static double quadratic(double[] w) {
+        double s = 0;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) s += w[i] * COV[i * 3 + j] * w[j];
+        }
+        return s;
+    }
+}
@@ -0,0 +1,43 @@
+package com.portfolio.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Intraday bar store settings (app.intraday.*).
+ * Retention is keyed by resolution label ("1m", "5m", "1h").
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.intraday")
+public class IntradayBarConfig {
+
+    private List<String> syncTickers = new ArrayList<>();
+    private int syncIntervalMinutes = 5;
+    private String purgeCron = "0 30 3 * * *";
+    private Map<String, Integer> retentionDays = new LinkedHashMap<>(Map.of("1m", 30, "5m", 180, "1h", 730));
+
+    public int retentionDaysFor(int resolutionMinutes) {
+        return switch (resolutionMinutes) {
+            case 1 -> retentionDays.getOrDefault("1m", 30);
+            case 5 -> retentionDays.getOrDefault("5m", 180);
+            default -> retentionDays.getOrDefault("1h", 730);
+        };
+    }
+
+    public List<String> getSyncTickers() { return syncTickers; }
+    public void setSyncTickers(List<String> syncTickers) { this.syncTickers = syncTickers; }
+
+    public int getSyncIntervalMinutes() { return syncIntervalMinutes; }
+    public void setSyncIntervalMinutes(int syncIntervalMinutes) { this.syncIntervalMinutes = syncIntervalMinutes; }
+
+    public String getPurgeCron() { return purgeCron; }
+    public void setPurgeCron(String purgeCron) { this.purgeCron = purgeCron; }
+
+    public Map<String, Integer> getRetentionDays() { return retentionDays; }
+    public void setRetentionDays(Map<String, Integer> retentionDays) { this.retentionDays = retentionDays; }
+}
@@ -0,0 +1,114 @@
+package com.portfolio.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read-replica routing (app.datasource.replica.*). Off unless {@code enabled=true}; the single
+ * auto-configured DataSource is used otherwise.
+ *
+ * spring.datasource.* stays the primary (writes, Liquibase); read-only transactions go to the replica.
+ * For local testing the replica can be any second database holding the same schema and data.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.replica")
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+    private double maxLagSeconds = 30;
+    private int checkIntervalSeconds = 10;
+    // Zero once everything received is replayed (an idle primary keeps the replay timestamp ageing), NULL
+    // when the target is not a standby or has replayed nothing yet
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN NULL"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) END";
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .driverClassName(driverClassName)
+                .build();
+        ds.setPoolName("replica");
+        ds.setMaximumPoolSize(maximumPoolSize);
+        ds.setReadOnly(true);
+        // Don't fail startup when the replica is down; the health monitor routes around it
+        ds.setInitializationFailTimeout(-1);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthIndicator(@Qualifier("replicaDataSource") DataSource replica,
+                                                       TaskScheduler taskScheduler) {
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replica, lagQuery, maxLagSeconds);
+        taskScheduler.scheduleWithFixedDelay(monitor::check, Duration.ofSeconds(checkIntervalSeconds));
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaHealthMonitor healthMonitor) {
+        log.info("Read-only transactions routed to replica {} (max lag {}s)", url, maxLagSeconds);
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, healthMonitor));
+    }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public String getDriverClassName() { return driverClassName; }
+    public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+
+    public int getMaximumPoolSize() { return maximumPoolSize; }
+    public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+
+    public double getMaxLagSeconds() { return maxLagSeconds; }
+    public void setMaxLagSeconds(double maxLagSeconds) { this.maxLagSeconds = maxLagSeconds; }
+
+    public int getCheckIntervalSeconds() { return checkIntervalSeconds; }
+    public void setCheckIntervalSeconds(int checkIntervalSeconds) { this.checkIntervalSeconds = checkIntervalSeconds; }
+
+    public String getLagQuery() { return lagQuery; }
+    public void setLagQuery(String lagQuery) { this.lagQuery = lagQuery; }
+}
@@ -0,0 +1,71 @@
+package com.portfolio.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the replica and everything else
+ * to the primary. Falls back to the primary while the replica is down or lagging, and when acquiring a
+ * replica connection fails.
+ *
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the read-only flag is only bound to the
+ * transaction after the transaction manager has asked for a connection.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealthMonitor healthMonitor;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor healthMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.healthMonitor = healthMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && healthMonitor.isReplicaUsable()
+                ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Target.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                log.warn("Replica connection failed, routing to primary: {}", e.getMessage());
+                healthMonitor.markDown(e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() == Target.REPLICA) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                log.warn("Replica connection failed, routing to primary: {}", e.getMessage());
+                healthMonitor.markDown(e.getMessage());
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,105 @@
+package com.portfolio.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Periodically probes the read replica and decides whether read-only traffic may use it.
+ *
+ * The replica is usable when it answers and, if a lag query is configured, reports replay lag within
+ * {@code maxLagSeconds}. A null lag means the lag is unknown (the target is not a standby, or has not
+ * replayed anything yet) and the replica is not used; clear the lag query to only check connectivity,
+ * e.g. against a second standalone database used locally.
+ *
+ * Also exposed as the "replica" actuator health component: UP while routing to the replica,
+ * OUT_OF_SERVICE while it answers but lags, DOWN while it cannot be reached.
+ */
+public class ReplicaHealthMonitor implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile boolean usable = true;
+    private volatile boolean reachable = true;
+    private volatile Double lastLagSeconds;
+    private volatile String lastError;
+
+    public ReplicaHealthMonitor(DataSource replica, String lagQuery, double maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public void markDown(String reason) {
+        markUnusable(reason);
+        reachable = false;
+    }
+
+    private void markUnusable(String reason) {
+        if (usable) {
+            log.warn("Read replica marked unavailable: {}", reason);
+        }
+        usable = false;
+        lastError = reason;
+    }
+
+    /**
+     * Run one probe; scheduled by {@link ReadReplicaConfig}.
+     */
+    public void check() {
+        try (Connection conn = replica.getConnection(); Statement st = conn.createStatement()) {
+            Double lag = null;
+            if (lagQuery != null && !lagQuery.isBlank()) {
+                try (ResultSet rs = st.executeQuery(lagQuery)) {
+                    if (rs.next()) {
+                        double v = rs.getDouble(1);
+                        lag = rs.wasNull() ? null : v;
+                    }
+                }
+            } else if (!conn.isValid(5)) {
+                markDown("connection not valid");
+                return;
+            }
+            lastLagSeconds = lag;
+            reachable = true;
+            if (lagQuery != null && !lagQuery.isBlank() && lag == null) {
+                markUnusable("replication lag unknown (not a standby, or nothing replayed yet)");
+                return;
+            }
+            if (lag != null && lag > maxLagSeconds) {
+                markUnusable(String.format("replication lag %.1fs exceeds %.1fs", lag, maxLagSeconds));
+                return;
+            }
+            if (!usable) {
+                log.info("Read replica available again (lag={}s)", lag);
+            }
+            usable = true;
+            lastError = null;
+        } catch (Exception e) {
+            markDown(e.getMessage());
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = usable ? Health.up() : reachable ? Health.outOfService() : Health.down();
+        builder.withDetail("routing", usable ? "replica" : "primary-fallback");
+        if (lastLagSeconds != null) builder.withDetail("lagSeconds", lastLagSeconds);
+        if (lastError != null) builder.withDetail("error", lastError);
+        return builder.build();
+    }
+}
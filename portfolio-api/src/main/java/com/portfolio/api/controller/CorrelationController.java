@@ -1,22 +1,30 @@
 package com.portfolio.api.controller;
 
 import com.portfolio.api.dto.CorrelationAnalysisResponse;
+import com.portfolio.api.dto.CrossAssetCorrelationResponse;
+import com.portfolio.api.dto.RollingCorrelationResponse;
 import com.portfolio.api.service.CorrelationService;
+import com.portfolio.api.service.CrossAssetCorrelationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/correlation")
 @Tag(name = "Correlation & Hedging", description = "Correlation matrix, hedging analysis, and diversification scoring")
 public class CorrelationController {
 
     private final CorrelationService correlationService;
+    private final CrossAssetCorrelationService crossAssetCorrelationService;
 
-    public CorrelationController(CorrelationService correlationService) {
+    public CorrelationController(CorrelationService correlationService,
+                                 CrossAssetCorrelationService crossAssetCorrelationService) {
         this.correlationService = correlationService;
+        this.crossAssetCorrelationService = crossAssetCorrelationService;
     }
 
     @GetMapping("/portfolio/{portfolioId}")
@@ -31,4 +39,32 @@ public class CorrelationController {
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/rolling")
+    @Operation(summary = "Rolling correlation and beta series of one ticker against another")
+    public ResponseEntity<RollingCorrelationResponse> rollingCorrelation(
+            @RequestParam String ticker1,
+            @RequestParam(defaultValue = "SPY") String ticker2,
+            @RequestParam(defaultValue = "60") int window,
+            @RequestParam(defaultValue = "252") int lookbackDays) {
+
+        RollingCorrelationResponse response = correlationService.rollingCorrelation(
+                ticker1.trim().toUpperCase(), ticker2.trim().toUpperCase(), window, lookbackDays);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cross-asset")
+    @Operation(summary = "Correlation matrix across asset classes on a common session calendar")
+    public ResponseEntity<CrossAssetCorrelationResponse> crossAssetCorrelation(
+            @RequestParam(required = false) List<String> tickers,
+            @RequestParam(required = false) List<String> assetClasses,
+            @RequestParam(defaultValue = "EQUITY") String calendar,
+            @RequestParam(defaultValue = "252") int lookbackDays) {
+
+        CrossAssetCorrelationResponse response = crossAssetCorrelationService.correlate(
+                tickers, assetClasses, calendar, lookbackDays);
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,61 @@
+package com.portfolio.api.controller;
+
+import com.portfolio.api.model.IntradayPriceBar;
+import com.portfolio.api.service.IntradayBarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/intraday")
+@Tag(name = "Intraday Bars", description = "Persisted 1m/5m/1h bars with delta sync and rollups")
+public class IntradayBarController {
+
+    private final IntradayBarService intradayBarService;
+
+    public IntradayBarController(IntradayBarService intradayBarService) {
+        this.intradayBarService = intradayBarService;
+    }
+
+    @GetMapping("/{ticker}")
+    @Operation(summary = "Get stored intraday bars for a ticker, syncing the delta first")
+    public ResponseEntity<List<IntradayPriceBar>> getBars(
+            @PathVariable String ticker,
+            @RequestParam(defaultValue = "60") String resolution,
+            @RequestParam(defaultValue = "5") int days) {
+        int res = intradayBarService.parseResolution(resolution);
+        LocalDateTime to = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime from = to.minusDays(Math.max(days, 1));
+        intradayBarService.sync(ticker, res, from);
+        return ResponseEntity.ok(intradayBarService.getStoredBars(ticker, res, from, to));
+    }
+
+    @PostMapping("/sync/{ticker}")
+    @Operation(summary = "Sync intraday bars for a ticker (rolled up to coarser resolutions)")
+    public ResponseEntity<Map<String, Object>> sync(
+            @PathVariable String ticker,
+            @RequestParam(defaultValue = "1") String resolution,
+            @RequestParam(defaultValue = "7") int days) {
+        int res = intradayBarService.parseResolution(resolution);
+        LocalDateTime from = LocalDateTime.now(ZoneOffset.UTC).minusDays(Math.max(days, 1));
+        int count = intradayBarService.sync(ticker, res, from);
+        return ResponseEntity.ok(Map.of(
+                "ticker", ticker.toUpperCase(),
+                "resolutionMinutes", res,
+                "recordsSynced", count,
+                "storedRecords", intradayBarService.getBarCount(ticker, res)
+        ));
+    }
+
+    @PostMapping("/purge")
+    @Operation(summary = "Delete intraday bars past their per-resolution retention")
+    public ResponseEntity<Map<String, Integer>> purge() {
+        return ResponseEntity.ok(intradayBarService.purgeExpired());
+    }
+}
@@ -2,10 +2,12 @@ package com.portfolio.api.controller;
 
 import com.portfolio.api.model.BatchTickerConfig;
 import com.portfolio.api.repository.BatchTickerConfigRepository;
+import com.portfolio.api.service.FundamentalsRefreshService;
 import com.portfolio.api.service.PriceBatchScheduler;
 import com.portfolio.api.service.PriceFetchBatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,13 +24,16 @@ public class PriceBatchController {
     private final PriceFetchBatchService batchService;
     private final PriceBatchScheduler scheduler;
     private final BatchTickerConfigRepository tickerConfigRepo;
+    private final FundamentalsRefreshService fundamentalsRefreshService;
 
     public PriceBatchController(PriceFetchBatchService batchService,
                                 PriceBatchScheduler scheduler,
-                                BatchTickerConfigRepository tickerConfigRepo) {
+                                BatchTickerConfigRepository tickerConfigRepo,
+                                FundamentalsRefreshService fundamentalsRefreshService) {
         this.batchService = batchService;
         this.scheduler = scheduler;
         this.tickerConfigRepo = tickerConfigRepo;
+        this.fundamentalsRefreshService = fundamentalsRefreshService;
     }
 
     @GetMapping("/tickers")
@@ -114,4 +119,18 @@ public class PriceBatchController {
         }
         return ResponseEntity.ok(scheduler.getScheduleConfig());
     }
+
+    @PostMapping("/fundamentals/run")
+    @Operation(summary = "Start a fundamentals refresh for the screener universe in the background")
+    public ResponseEntity<Map<String, Object>> runFundamentals() {
+        boolean started = fundamentalsRefreshService.start();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(fundamentalsRefreshService.status());
+    }
+
+    @GetMapping("/fundamentals")
+    @Operation(summary = "Get fundamentals snapshot coverage and the last refresh summary")
+    public ResponseEntity<Map<String, Object>> fundamentalsStatus() {
+        return ResponseEntity.ok(fundamentalsRefreshService.status());
+    }
 }
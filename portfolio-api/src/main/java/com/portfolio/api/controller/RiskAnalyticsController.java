@@ -1,41 +1,140 @@
 package com.portfolio.api.controller;
 
+import com.portfolio.api.dto.BulkRiskRequest;
+import com.portfolio.api.dto.BulkRiskResponse;
 import com.portfolio.api.dto.RiskAnalyticsResponse;
+import com.portfolio.api.dto.RiskAnalyticsResponse.StressScenario;
+import com.portfolio.api.dto.RiskJobStatus;
+import com.portfolio.api.dto.RiskSummaryResponse;
+import com.portfolio.api.dto.StressTestRequest;
+import com.portfolio.api.service.BulkRiskService;
 import com.portfolio.api.service.RiskAnalyticsService;
+import com.portfolio.api.service.RiskJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/risk")
 @Tag(name = "Risk Analytics", description = "Portfolio risk analytics endpoints")
 public class RiskAnalyticsController {
 
     private final RiskAnalyticsService riskAnalyticsService;
+    private final BulkRiskService bulkRiskService;
+    private final RiskJobService riskJobService;
 
-    public RiskAnalyticsController(RiskAnalyticsService riskAnalyticsService) {
+    public RiskAnalyticsController(RiskAnalyticsService riskAnalyticsService, BulkRiskService bulkRiskService,
+                                   RiskJobService riskJobService) {
         this.riskAnalyticsService = riskAnalyticsService;
+        this.bulkRiskService = bulkRiskService;
+        this.riskJobService = riskJobService;
     }
 
     @GetMapping("/portfolio/{portfolioId}")
-    @Operation(summary = "Compute comprehensive risk analytics for a portfolio")
+    @Operation(summary = "Compute comprehensive risk analytics for a portfolio",
+               description = "Served from the nightly snapshot when one exists for these parameters; live=true forces a fresh computation")
     public ResponseEntity<RiskAnalyticsResponse> getRiskAnalytics(
             Authentication authentication,
             @PathVariable Long portfolioId,
             @RequestParam(defaultValue = "0.95") double confidenceLevel,
             @RequestParam(defaultValue = "1") int timeHorizonDays,
-            @RequestParam(defaultValue = "252") int lookbackDays) {
+            @RequestParam(defaultValue = "252") int lookbackDays,
+            @RequestParam(defaultValue = "false") boolean live) {
 
         RiskAnalyticsResponse response = riskAnalyticsService.computeRiskAnalytics(
                 portfolioId,
                 authentication.getName(),
                 confidenceLevel,
                 timeHorizonDays,
-                lookbackDays
+                lookbackDays,
+                live
         );
 
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/portfolio/{portfolioId}/jobs")
+    @Operation(summary = "Submit risk analytics as an asynchronous job",
+               description = "Returns 202 with a job ID at once; progress is pushed to /topic/risk-jobs/{jobId} and "
+                       + "the result is fetched from /jobs/{jobId}/result. Same parameters as GET /portfolio/{id}.")
+    public ResponseEntity<RiskJobStatus> submitRiskJob(
+            Authentication authentication,
+            @PathVariable Long portfolioId,
+            @RequestParam(defaultValue = "0.95") double confidenceLevel,
+            @RequestParam(defaultValue = "1") int timeHorizonDays,
+            @RequestParam(defaultValue = "252") int lookbackDays,
+            @RequestParam(defaultValue = "false") boolean live) {
+        RiskJobStatus status = riskJobService.submit(portfolioId, authentication.getName(),
+                confidenceLevel, timeHorizonDays, lookbackDays, live);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/jobs")
+    @Operation(summary = "List the caller's risk jobs, newest first")
+    public ResponseEntity<List<RiskJobStatus>> listRiskJobs(Authentication authentication) {
+        return ResponseEntity.ok(riskJobService.list(authentication.getName()));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get the state and progress of a risk job")
+    public ResponseEntity<RiskJobStatus> getRiskJob(Authentication authentication, @PathVariable String jobId) {
+        return ResponseEntity.ok(riskJobService.status(jobId, authentication.getName()));
+    }
+
+    @GetMapping("/jobs/{jobId}/result")
+    @Operation(summary = "Get the analytics computed by a risk job",
+               description = "409 with the job status while the job has not completed")
+    public ResponseEntity<?> getRiskJobResult(Authentication authentication, @PathVariable String jobId) {
+        RiskAnalyticsResponse result = riskJobService.result(jobId, authentication.getName());
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(riskJobService.status(jobId, authentication.getName()));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    @Operation(summary = "Cancel a queued or running risk job")
+    public ResponseEntity<RiskJobStatus> cancelRiskJob(Authentication authentication, @PathVariable String jobId) {
+        return ResponseEntity.ok(riskJobService.cancel(jobId, authentication.getName()));
+    }
+
+    @GetMapping("/portfolio/{portfolioId}/summary")
+    @Operation(summary = "Headline volatility, beta and Sharpe for a portfolio",
+               description = "Read from streaming statistics kept current on each price ingest, over the last "
+                       + "app.risk.online.window common trade dates")
+    public ResponseEntity<RiskSummaryResponse> getRiskSummary(
+            Authentication authentication,
+            @PathVariable Long portfolioId) {
+        return ResponseEntity.ok(riskAnalyticsService.computeRiskSummary(portfolioId, authentication.getName()));
+    }
+
+    @PostMapping("/portfolios/bulk")
+    @Operation(summary = "Compute headline risk metrics for many portfolios at once",
+               description = "Admins may request any portfolio, other users their own; an empty portfolioIds list "
+                       + "means all visible portfolios, capped at app.risk.bulk.max-portfolios (truncated=true); an "
+                       + "explicit list over that limit is rejected with 400. Each distinct ticker is loaded once "
+                       + "for the whole request.")
+    public ResponseEntity<BulkRiskResponse> getBulkRiskAnalytics(
+            Authentication authentication,
+            @RequestBody BulkRiskRequest request) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        return ResponseEntity.ok(bulkRiskService.computeBulk(request, authentication.getName(), admin));
+    }
+
+    @PostMapping("/portfolio/{portfolioId}/stress-tests")
+    @Operation(summary = "Run historical-replay and custom stress scenarios against a portfolio",
+               description = "Custom scenarios replay a stored date window of each holding's returns, or apply "
+                       + "beta x marketShockPercent when given no window (FR-RA-010)")
+    public ResponseEntity<List<StressScenario>> runStressTests(
+            Authentication authentication,
+            @PathVariable Long portfolioId,
+            @RequestBody StressTestRequest request) {
+        return ResponseEntity.ok(riskAnalyticsService.runStressTests(portfolioId, authentication.getName(), request));
+    }
 }
@@ -1,5 +1,7 @@
 package com.portfolio.api.controller;
 
+import com.portfolio.api.model.CorporateAction;
+import com.portfolio.api.service.AdjustedReturnService;
 import com.portfolio.api.service.StockPriceHistoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -7,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +20,12 @@ import java.util.Map;
 public class StockPriceHistoryController {
 
     private final StockPriceHistoryService priceHistoryService;
+    private final AdjustedReturnService adjustedReturnService;
 
-    public StockPriceHistoryController(StockPriceHistoryService priceHistoryService) {
+    public StockPriceHistoryController(StockPriceHistoryService priceHistoryService,
+                                       AdjustedReturnService adjustedReturnService) {
         this.priceHistoryService = priceHistoryService;
+        this.adjustedReturnService = adjustedReturnService;
     }
 
     @PostMapping("/sync/portfolio/{portfolioId}")
@@ -58,4 +65,48 @@ public class StockPriceHistoryController {
                 "records", count
         ));
     }
+
+    // ── Corporate actions & adjusted returns (FR-AS-003, FR-AS-004) ──
+
+    @GetMapping("/corporate-actions/{ticker}")
+    @Operation(summary = "List recorded splits and dividends for a ticker")
+    public ResponseEntity<List<CorporateAction>> getCorporateActions(@PathVariable String ticker) {
+        return ResponseEntity.ok(adjustedReturnService.getCorporateActions(ticker.toUpperCase()));
+    }
+
+    @PostMapping("/corporate-actions")
+    @Operation(summary = "Record a split or dividend and re-adjust the affected return")
+    public ResponseEntity<CorporateAction> recordCorporateAction(@RequestBody Map<String, String> body) {
+        String ticker = body.getOrDefault("ticker", "").trim().toUpperCase();
+        String actionType = body.getOrDefault("actionType", "").trim().toUpperCase();
+        String exDate = body.get("exDate");
+
+        if (ticker.isEmpty() || exDate == null || exDate.isBlank()
+                || !(CorporateAction.SPLIT.equals(actionType) || CorporateAction.DIVIDEND.equals(actionType))) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        CorporateAction action = new CorporateAction();
+        action.setTicker(ticker);
+        action.setActionType(actionType);
+        action.setExDate(LocalDate.parse(exDate));
+        if (body.get("splitRatio") != null && !body.get("splitRatio").isBlank()) {
+            action.setSplitRatio(new BigDecimal(body.get("splitRatio")));
+        }
+        if (body.get("dividendAmount") != null && !body.get("dividendAmount").isBlank()) {
+            action.setDividendAmount(new BigDecimal(body.get("dividendAmount")));
+        }
+
+        return ResponseEntity.ok(adjustedReturnService.recordCorporateAction(action));
+    }
+
+    @PostMapping("/returns/refresh/{ticker}")
+    @Operation(summary = "Materialize adjusted returns for bars not yet covered (backfill for existing history)")
+    public ResponseEntity<Map<String, Object>> refreshReturns(@PathVariable String ticker) {
+        int count = adjustedReturnService.refreshTicker(ticker.toUpperCase());
+        return ResponseEntity.ok(Map.of(
+                "ticker", ticker.toUpperCase(),
+                "returnsMaterialized", count
+        ));
+    }
 }
@@ -0,0 +1,24 @@
+package com.portfolio.api.dto;
+
+import java.util.List;
+
+/**
+ * Bulk risk analytics request. Empty {@code portfolioIds} means every portfolio the caller may see, capped at
+ * {@code app.risk.bulk.max-portfolios} (lowest ids first); an explicit list over that limit is rejected.
+ */
+public class BulkRiskRequest {
+
+    private List<Long> portfolioIds;
+    private double confidenceLevel = 0.95;
+    private int timeHorizonDays = 1;
+    private int lookbackDays = 252;
+
+    public List<Long> getPortfolioIds() { return portfolioIds; }
+    public void setPortfolioIds(List<Long> portfolioIds) { this.portfolioIds = portfolioIds; }
+    public double getConfidenceLevel() { return confidenceLevel; }
+    public void setConfidenceLevel(double confidenceLevel) { this.confidenceLevel = confidenceLevel; }
+    public int getTimeHorizonDays() { return timeHorizonDays; }
+    public void setTimeHorizonDays(int timeHorizonDays) { this.timeHorizonDays = timeHorizonDays; }
+    public int getLookbackDays() { return lookbackDays; }
+    public void setLookbackDays(int lookbackDays) { this.lookbackDays = lookbackDays; }
+}
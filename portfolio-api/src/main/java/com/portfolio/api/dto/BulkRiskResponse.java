@@ -0,0 +1,104 @@
+package com.portfolio.api.dto;
+
+import java.util.List;
+
+/**
+ * Headline risk metrics for many portfolios computed in one pass over shared return data.
+ * A portfolio that cannot be analyzed is reported with status ERROR instead of failing the batch.
+ * {@code truncated} is set when an "all visible portfolios" request was capped at the configured limit.
+ */
+public class BulkRiskResponse {
+
+    private double confidenceLevel;
+    private int timeHorizonDays;
+    private int lookbackDays;
+    private String asOf;
+    private int distinctTickers;
+    private boolean truncated;
+    private long computeMillis;
+    private List<PortfolioRisk> portfolios;
+
+    public double getConfidenceLevel() { return confidenceLevel; }
+    public void setConfidenceLevel(double confidenceLevel) { this.confidenceLevel = confidenceLevel; }
+    public int getTimeHorizonDays() { return timeHorizonDays; }
+    public void setTimeHorizonDays(int timeHorizonDays) { this.timeHorizonDays = timeHorizonDays; }
+    public int getLookbackDays() { return lookbackDays; }
+    public void setLookbackDays(int lookbackDays) { this.lookbackDays = lookbackDays; }
+    public String getAsOf() { return asOf; }
+    public void setAsOf(String asOf) { this.asOf = asOf; }
+    public int getDistinctTickers() { return distinctTickers; }
+    public void setDistinctTickers(int distinctTickers) { this.distinctTickers = distinctTickers; }
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+    public long getComputeMillis() { return computeMillis; }
+    public void setComputeMillis(long computeMillis) { this.computeMillis = computeMillis; }
+    public List<PortfolioRisk> getPortfolios() { return portfolios; }
+    public void setPortfolios(List<PortfolioRisk> portfolios) { this.portfolios = portfolios; }
+
+    public static class PortfolioRisk {
+        private Long portfolioId;
+        private String portfolioName;
+        private String baseCurrency;
+        private String status;
+        private String error;
+        @Decimals(2)
+        private Double portfolioValue;
+        private int observations;
+
+        @Decimals
+        private Double historicalVar;
+        @Decimals
+        private Double parametricVar;
+        @Decimals
+        private Double monteCarloVar;
+        @Decimals
+        private Double cvar95;
+        @Decimals
+        private Double cvar99;
+        @Decimals
+        private Double annualizedVolatility;
+        @Decimals
+        private Double beta;
+        @Decimals
+        private Double sharpeRatio;
+        @Decimals
+        private Double sortinoRatio;
+        @Decimals
+        private Double maxDrawdown;
+
+        public Long getPortfolioId() { return portfolioId; }
+        public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+        public String getPortfolioName() { return portfolioName; }
+        public void setPortfolioName(String portfolioName) { this.portfolioName = portfolioName; }
+        public String getBaseCurrency() { return baseCurrency; }
+        public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+        public Double getPortfolioValue() { return portfolioValue; }
+        public void setPortfolioValue(Double portfolioValue) { this.portfolioValue = portfolioValue; }
+        public int getObservations() { return observations; }
+        public void setObservations(int observations) { this.observations = observations; }
+        public Double getHistoricalVar() { return historicalVar; }
+        public void setHistoricalVar(Double historicalVar) { this.historicalVar = historicalVar; }
+        public Double getParametricVar() { return parametricVar; }
+        public void setParametricVar(Double parametricVar) { this.parametricVar = parametricVar; }
+        public Double getMonteCarloVar() { return monteCarloVar; }
+        public void setMonteCarloVar(Double monteCarloVar) { this.monteCarloVar = monteCarloVar; }
+        public Double getCvar95() { return cvar95; }
+        public void setCvar95(Double cvar95) { this.cvar95 = cvar95; }
+        public Double getCvar99() { return cvar99; }
+        public void setCvar99(Double cvar99) { this.cvar99 = cvar99; }
+        public Double getAnnualizedVolatility() { return annualizedVolatility; }
+        public void setAnnualizedVolatility(Double annualizedVolatility) { this.annualizedVolatility = annualizedVolatility; }
+        public Double getBeta() { return beta; }
+        public void setBeta(Double beta) { this.beta = beta; }
+        public Double getSharpeRatio() { return sharpeRatio; }
+        public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+        public Double getSortinoRatio() { return sortinoRatio; }
+        public void setSortinoRatio(Double sortinoRatio) { this.sortinoRatio = sortinoRatio; }
+        public Double getMaxDrawdown() { return maxDrawdown; }
+        public void setMaxDrawdown(Double maxDrawdown) { this.maxDrawdown = maxDrawdown; }
+    }
+}
@@ -31,9 +31,11 @@ public class CorrelationAnalysisResponse {
     // FR-CH-006: Rolling correlations
     private Map<String, RollingCorrelation> rollingCorrelations;
 
-    // FR-CH-007: Diversification score
+    // FR-CH-007: Diversification score, effective number of bets and correlation clusters
     private BigDecimal diversificationScore;
     private String diversificationRating;
+    private BigDecimal effectiveNumberOfBets;
+    private List<CorrelationCluster> clusters;
 
     // ── Nested types ──
 
@@ -131,4 +133,8 @@ public class CorrelationAnalysisResponse {
     public void setDiversificationScore(BigDecimal diversificationScore) { this.diversificationScore = diversificationScore; }
     public String getDiversificationRating() { return diversificationRating; }
     public void setDiversificationRating(String diversificationRating) { this.diversificationRating = diversificationRating; }
+    public BigDecimal getEffectiveNumberOfBets() { return effectiveNumberOfBets; }
+    public void setEffectiveNumberOfBets(BigDecimal effectiveNumberOfBets) { this.effectiveNumberOfBets = effectiveNumberOfBets; }
+    public List<CorrelationCluster> getClusters() { return clusters; }
+    public void setClusters(List<CorrelationCluster> clusters) { this.clusters = clusters; }
 }
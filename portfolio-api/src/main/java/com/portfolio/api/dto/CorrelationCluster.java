@@ -0,0 +1,31 @@
+package com.portfolio.api.dto;
+
+import java.util.List;
+
+/**
+ * One group of instruments from hierarchical clustering on correlation distance (FR-CH-007), largest share of
+ * portfolio risk first. {@code riskContribution} is the group's share of portfolio variance (shares sum to 1);
+ * {@code averageCorrelation} is the mean pairwise correlation inside the group and null for a single member.
+ */
+public class CorrelationCluster {
+
+    private int id;
+    private List<String> tickers;
+    @Decimals(4)
+    private Double weight;
+    @Decimals(4)
+    private Double riskContribution;
+    @Decimals(4)
+    private Double averageCorrelation;
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public List<String> getTickers() { return tickers; }
+    public void setTickers(List<String> tickers) { this.tickers = tickers; }
+    public Double getWeight() { return weight; }
+    public void setWeight(Double weight) { this.weight = weight; }
+    public Double getRiskContribution() { return riskContribution; }
+    public void setRiskContribution(Double riskContribution) { this.riskContribution = riskContribution; }
+    public Double getAverageCorrelation() { return averageCorrelation; }
+    public void setAverageCorrelation(Double averageCorrelation) { this.averageCorrelation = averageCorrelation; }
+}
@@ -0,0 +1,66 @@
+package com.portfolio.api.dto;
+
+import java.util.List;
+
+/**
+ * Correlation matrix over instruments from different asset classes aligned to one session calendar
+ * (FR-CH-008). {@code correlationMatrix} rows and columns follow {@code instruments}; clusters and the effective
+ * number of bets treat the instruments as equally weighted.
+ */
+public class CrossAssetCorrelationResponse {
+
+    private String calendar;
+    private int lookbackDays;
+    private String fromDate;
+    private String toDate;
+    private int sessions;
+    private List<Instrument> instruments;
+    private double[][] correlationMatrix;
+    @Decimals(4)
+    private Double effectiveNumberOfBets;
+    private List<CorrelationCluster> clusters;
+    private List<String> skipped;
+
+    public String getCalendar() { return calendar; }
+    public void setCalendar(String calendar) { this.calendar = calendar; }
+    public int getLookbackDays() { return lookbackDays; }
+    public void setLookbackDays(int lookbackDays) { this.lookbackDays = lookbackDays; }
+    public String getFromDate() { return fromDate; }
+    public void setFromDate(String fromDate) { this.fromDate = fromDate; }
+    public String getToDate() { return toDate; }
+    public void setToDate(String toDate) { this.toDate = toDate; }
+    public int getSessions() { return sessions; }
+    public void setSessions(int sessions) { this.sessions = sessions; }
+    public List<Instrument> getInstruments() { return instruments; }
+    public void setInstruments(List<Instrument> instruments) { this.instruments = instruments; }
+    public double[][] getCorrelationMatrix() { return correlationMatrix; }
+    public void setCorrelationMatrix(double[][] correlationMatrix) { this.correlationMatrix = correlationMatrix; }
+    public Double getEffectiveNumberOfBets() { return effectiveNumberOfBets; }
+    public void setEffectiveNumberOfBets(Double effectiveNumberOfBets) { this.effectiveNumberOfBets = effectiveNumberOfBets; }
+    public List<CorrelationCluster> getClusters() { return clusters; }
+    public void setClusters(List<CorrelationCluster> clusters) { this.clusters = clusters; }
+    public List<String> getSkipped() { return skipped; }
+    public void setSkipped(List<String> skipped) { this.skipped = skipped; }
+
+    public static class Instrument {
+        private String ticker;
+        private String assetClass;
+        private int observedSessions;
+
+        public Instrument() {
+        }
+
+        public Instrument(String ticker, String assetClass, int observedSessions) {
+            this.ticker = ticker;
+            this.assetClass = assetClass;
+            this.observedSessions = observedSessions;
+        }
+
+        public String getTicker() { return ticker; }
+        public void setTicker(String ticker) { this.ticker = ticker; }
+        public String getAssetClass() { return assetClass; }
+        public void setAssetClass(String assetClass) { this.assetClass = assetClass; }
+        public int getObservedSessions() { return observedSessions; }
+        public void setObservedSessions(int observedSessions) { this.observedSessions = observedSessions; }
+    }
+}
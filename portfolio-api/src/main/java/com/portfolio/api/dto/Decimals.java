@@ -0,0 +1,22 @@
+package com.portfolio.api.dto;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Writes a {@code Double} DTO field as a decimal rounded half-up to {@link #value()} places. Analytics DTOs hold
+ * plain doubles and are only rounded here, when the response is serialized.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@JacksonAnnotationsInside
+@JsonSerialize(using = DecimalsSerializer.class)
+public @interface Decimals {
+
+    int value() default 6;
+}
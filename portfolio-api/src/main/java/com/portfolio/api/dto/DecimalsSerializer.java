@@ -0,0 +1,44 @@
+package com.portfolio.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Serializer behind {@link Decimals}. NaN and infinities, which have no JSON form, are written as null.
+ */
+public class DecimalsSerializer extends StdSerializer<Double> implements ContextualSerializer {
+
+    private final int scale;
+
+    public DecimalsSerializer() {
+        this(6);
+    }
+
+    private DecimalsSerializer(int scale) {
+        super(Double.class);
+        this.scale = scale;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) {
+        Decimals decimals = property != null ? property.getAnnotation(Decimals.class) : null;
+        return decimals == null || decimals.value() == scale ? this : new DecimalsSerializer(decimals.value());
+    }
+
+    @Override
+    public void serialize(Double value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value.isNaN() || value.isInfinite()) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP));
+        }
+    }
+}
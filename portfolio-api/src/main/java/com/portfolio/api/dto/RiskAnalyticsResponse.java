@@ -1,43 +1,60 @@
 package com.portfolio.api.dto;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
  * Comprehensive risk analytics response for a portfolio (FR-RA-001 through FR-RA-011).
+ *
+ * Metrics are unrounded doubles straight from the analytics kernel; {@link Decimals} rounds them (6 places, 2 for
+ * money and percentages) when the response is written.
  */
 public class RiskAnalyticsResponse {
 
     private Long portfolioId;
     private String portfolioName;
-    private BigDecimal portfolioValue;
+    @Decimals(2)
+    private Double portfolioValue;
     private String baseCurrency;
 
     // VaR (FR-RA-001, FR-RA-002)
     private VaRMetrics var;
 
     // CVaR / Expected Shortfall (FR-RA-003)
-    private BigDecimal cvar95;
-    private BigDecimal cvar99;
+    @Decimals
+    private Double cvar95;
+    @Decimals
+    private Double cvar99;
+    private List<ConfidenceLevelRisk> confidenceLadder;
+
+    // Which holdings drive VaR / ES: marginal, component and incremental figures per holding
+    private List<HoldingVarContribution> varContributions;
 
     // Volatility (FR-RA-004)
-    private BigDecimal annualizedVolatility;
-    private BigDecimal dailyVolatility;
+    @Decimals
+    private Double annualizedVolatility;
+    @Decimals
+    private Double dailyVolatility;
 
     // Beta (FR-RA-005)
-    private BigDecimal portfolioBeta;
+    @Decimals
+    private Double portfolioBeta;
     private List<HoldingBeta> holdingBetas;
 
     // Alpha (FR-RA-006)
-    private BigDecimal portfolioAlpha;
+    @Decimals
+    private Double portfolioAlpha;
 
     // Ratios (FR-RA-007)
-    private BigDecimal sharpeRatio;
-    private BigDecimal sortinoRatio;
-    private BigDecimal treynorRatio;
+    @Decimals
+    private Double sharpeRatio;
+    @Decimals
+    private Double sortinoRatio;
+    @Decimals
+    private Double treynorRatio;
 
     // Max Drawdown (FR-RA-008)
-    private BigDecimal maxDrawdown;
+    @Decimals
+    private Double maxDrawdown;
     private String maxDrawdownPeakDate;
     private String maxDrawdownTroughDate;
 
@@ -47,84 +64,266 @@ public class RiskAnalyticsResponse {
     // Monte Carlo (part of VaR FR-RA-001)
     private MonteCarloResult monteCarlo;
 
+    // Correlation
+    @Decimals
+    private Double averageCorrelation;
+    @Decimals
+    private Double diversificationRatio;
+
     // Configuration used
     private double confidenceLevel;
     private int timeHorizonDays;
     private int lookbackDays;
 
+    // LIVE (computed for this request) or SNAPSHOT (nightly batch, FR-RA-012), and the date it is as of
+    private String source;
+    private String asOf;
+
     // ── Nested types ──
 
     public static class VaRMetrics {
-        private BigDecimal historicalSimulation;
-        private BigDecimal parametric;
-        private BigDecimal monteCarlo;
-
-        public BigDecimal getHistoricalSimulation() { return historicalSimulation; }
-        public void setHistoricalSimulation(BigDecimal historicalSimulation) { this.historicalSimulation = historicalSimulation; }
-        public BigDecimal getParametric() { return parametric; }
-        public void setParametric(BigDecimal parametric) { this.parametric = parametric; }
-        public BigDecimal getMonteCarlo() { return monteCarlo; }
-        public void setMonteCarlo(BigDecimal monteCarlo) { this.monteCarlo = monteCarlo; }
+        @Decimals
+        private Double historicalSimulation;
+        @Decimals
+        private Double parametric;
+        @Decimals
+        private Double monteCarlo;
+
+        public Double getHistoricalSimulation() { return historicalSimulation; }
+        public void setHistoricalSimulation(Double historicalSimulation) { this.historicalSimulation = historicalSimulation; }
+        public Double getParametric() { return parametric; }
+        public void setParametric(Double parametric) { this.parametric = parametric; }
+        public Double getMonteCarlo() { return monteCarlo; }
+        public void setMonteCarlo(Double monteCarlo) { this.monteCarlo = monteCarlo; }
+    }
+
+    public static class ConfidenceLevelRisk {
+        private double confidenceLevel;
+        @Decimals
+        private Double historicalVar;
+        @Decimals
+        private Double historicalCvar;
+        @Decimals
+        private Double monteCarloVar;
+        @Decimals
+        private Double monteCarloCvar;
+
+        public double getConfidenceLevel() { return confidenceLevel; }
+        public void setConfidenceLevel(double confidenceLevel) { this.confidenceLevel = confidenceLevel; }
+        public Double getHistoricalVar() { return historicalVar; }
+        public void setHistoricalVar(Double historicalVar) { this.historicalVar = historicalVar; }
+        public Double getHistoricalCvar() { return historicalCvar; }
+        public void setHistoricalCvar(Double historicalCvar) { this.historicalCvar = historicalCvar; }
+        public Double getMonteCarloVar() { return monteCarloVar; }
+        public void setMonteCarloVar(Double monteCarloVar) { this.monteCarloVar = monteCarloVar; }
+        public Double getMonteCarloCvar() { return monteCarloCvar; }
+        public void setMonteCarloCvar(Double monteCarloCvar) { this.monteCarloCvar = monteCarloCvar; }
     }
 
     public static class HoldingBeta {
         private String ticker;
         private String name;
-        private BigDecimal beta;
-        private BigDecimal weight;
+        @Decimals
+        private Double beta;
+        @Decimals
+        private Double weight;
 
         public String getTicker() { return ticker; }
         public void setTicker(String ticker) { this.ticker = ticker; }
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
-        public BigDecimal getBeta() { return beta; }
-        public void setBeta(BigDecimal beta) { this.beta = beta; }
-        public BigDecimal getWeight() { return weight; }
-        public void setWeight(BigDecimal weight) { this.weight = weight; }
+        public Double getBeta() { return beta; }
+        public void setBeta(Double beta) { this.beta = beta; }
+        public Double getWeight() { return weight; }
+        public void setWeight(Double weight) { this.weight = weight; }
     }
 
+    /**
+     * HISTORICAL scenarios replay a stored date window (marketShockPercent is then the benchmark's return over
+     * it); HYPOTHETICAL ones apply beta × marketShockPercent. estimatedLoss is positive for a loss.
+     */
     public static class StressScenario {
         private String name;
         private String description;
-        private BigDecimal marketShockPercent;
-        private BigDecimal estimatedLoss;
-        private BigDecimal estimatedLossPercent;
+        private String method;
+        private String startDate;
+        private String endDate;
+        private Integer tradingDays;
+        @Decimals(2)
+        private Double marketShockPercent;
+        @Decimals(2)
+        private Double estimatedLoss;
+        @Decimals(2)
+        private Double estimatedLossPercent;
+        @Decimals(2)
+        private Double maxDrawdownPercent;
+        private List<StressHoldingImpact> holdingImpacts;
 
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
         public String getDescription() { return description; }
         public void setDescription(String description) { this.description = description; }
-        public BigDecimal getMarketShockPercent() { return marketShockPercent; }
-        public void setMarketShockPercent(BigDecimal marketShockPercent) { this.marketShockPercent = marketShockPercent; }
-        public BigDecimal getEstimatedLoss() { return estimatedLoss; }
-        public void setEstimatedLoss(BigDecimal estimatedLoss) { this.estimatedLoss = estimatedLoss; }
-        public BigDecimal getEstimatedLossPercent() { return estimatedLossPercent; }
-        public void setEstimatedLossPercent(BigDecimal estimatedLossPercent) { this.estimatedLossPercent = estimatedLossPercent; }
+        public Double getMarketShockPercent() { return marketShockPercent; }
+        public void setMarketShockPercent(Double marketShockPercent) { this.marketShockPercent = marketShockPercent; }
+        public Double getEstimatedLoss() { return estimatedLoss; }
+        public void setEstimatedLoss(Double estimatedLoss) { this.estimatedLoss = estimatedLoss; }
+        public Double getEstimatedLossPercent() { return estimatedLossPercent; }
+        public void setEstimatedLossPercent(Double estimatedLossPercent) { this.estimatedLossPercent = estimatedLossPercent; }
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+        public String getStartDate() { return startDate; }
+        public void setStartDate(String startDate) { this.startDate = startDate; }
+        public String getEndDate() { return endDate; }
+        public void setEndDate(String endDate) { this.endDate = endDate; }
+        public Integer getTradingDays() { return tradingDays; }
+        public void setTradingDays(Integer tradingDays) { this.tradingDays = tradingDays; }
+        public Double getMaxDrawdownPercent() { return maxDrawdownPercent; }
+        public void setMaxDrawdownPercent(Double maxDrawdownPercent) { this.maxDrawdownPercent = maxDrawdownPercent; }
+        public List<StressHoldingImpact> getHoldingImpacts() { return holdingImpacts; }
+        public void setHoldingImpacts(List<StressHoldingImpact> holdingImpacts) { this.holdingImpacts = holdingImpacts; }
+    }
+
+    /**
+     * One holding's replayed return. method is HISTORICAL (its own returns), PROXY (beta × benchmark, when its
+     * history does not cover the window) or UNCOVERED.
+     */
+    public static class StressHoldingImpact {
+        private String ticker;
+        @Decimals
+        private Double weight;
+        @Decimals(2)
+        private Double returnPercent;
+        @Decimals(2)
+        private Double profitLoss;
+        private String method;
+
+        public String getTicker() { return ticker; }
+        public void setTicker(String ticker) { this.ticker = ticker; }
+        public Double getWeight() { return weight; }
+        public void setWeight(Double weight) { this.weight = weight; }
+        public Double getReturnPercent() { return returnPercent; }
+        public void setReturnPercent(Double returnPercent) { this.returnPercent = returnPercent; }
+        public Double getProfitLoss() { return profitLoss; }
+        public void setProfitLoss(Double profitLoss) { this.profitLoss = profitLoss; }
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+    }
+
+    /**
+     * Parametric figures at the request's confidence level and horizon, from the sample covariance. Marginal
+     * values are per unit of currency added to the holding; components sum to the portfolio's parametric VaR /
+     * ES; incremental values are the change from selling the holding outright (negative for a hedge). The
+     * simulated components come from the Monte Carlo draws and are only set in multivariate mode.
+     */
+    public static class HoldingVarContribution {
+        private String ticker;
+        @Decimals
+        private Double weight;
+        @Decimals
+        private Double marginalVar;
+        @Decimals(2)
+        private Double componentVar;
+        @Decimals(2)
+        private Double componentVarPercent;
+        @Decimals(2)
+        private Double incrementalVar;
+        @Decimals
+        private Double marginalEs;
+        @Decimals(2)
+        private Double componentEs;
+        @Decimals(2)
+        private Double incrementalEs;
+        @Decimals(2)
+        private Double simulatedComponentVar;
+        @Decimals(2)
+        private Double simulatedComponentEs;
+
+        public String getTicker() { return ticker; }
+        public void setTicker(String ticker) { this.ticker = ticker; }
+        public Double getWeight() { return weight; }
+        public void setWeight(Double weight) { this.weight = weight; }
+        public Double getMarginalVar() { return marginalVar; }
+        public void setMarginalVar(Double marginalVar) { this.marginalVar = marginalVar; }
+        public Double getComponentVar() { return componentVar; }
+        public void setComponentVar(Double componentVar) { this.componentVar = componentVar; }
+        public Double getComponentVarPercent() { return componentVarPercent; }
+        public void setComponentVarPercent(Double componentVarPercent) { this.componentVarPercent = componentVarPercent; }
+        public Double getIncrementalVar() { return incrementalVar; }
+        public void setIncrementalVar(Double incrementalVar) { this.incrementalVar = incrementalVar; }
+        public Double getMarginalEs() { return marginalEs; }
+        public void setMarginalEs(Double marginalEs) { this.marginalEs = marginalEs; }
+        public Double getComponentEs() { return componentEs; }
+        public void setComponentEs(Double componentEs) { this.componentEs = componentEs; }
+        public Double getIncrementalEs() { return incrementalEs; }
+        public void setIncrementalEs(Double incrementalEs) { this.incrementalEs = incrementalEs; }
+        public Double getSimulatedComponentVar() { return simulatedComponentVar; }
+        public void setSimulatedComponentVar(Double simulatedComponentVar) { this.simulatedComponentVar = simulatedComponentVar; }
+        public Double getSimulatedComponentEs() { return simulatedComponentEs; }
+        public void setSimulatedComponentEs(Double simulatedComponentEs) { this.simulatedComponentEs = simulatedComponentEs; }
     }
 
     public static class MonteCarloResult {
         private int simulations;
-        private BigDecimal meanReturn;
-        private BigDecimal percentile5;
-        private BigDecimal percentile25;
-        private BigDecimal median;
-        private BigDecimal percentile75;
-        private BigDecimal percentile95;
+        @Decimals
+        private Double meanReturn;
+        @Decimals
+        private Double percentile5;
+        @Decimals
+        private Double percentile25;
+        @Decimals
+        private Double median;
+        @Decimals
+        private Double percentile75;
+        @Decimals
+        private Double percentile95;
+        @Decimals
+        private Double valueAtRisk;
+        @Decimals
+        private Double expectedShortfall;
+        private String mode;
+        private List<ComponentContribution> componentContributions;
 
         public int getSimulations() { return simulations; }
         public void setSimulations(int simulations) { this.simulations = simulations; }
-        public BigDecimal getMeanReturn() { return meanReturn; }
-        public void setMeanReturn(BigDecimal meanReturn) { this.meanReturn = meanReturn; }
-        public BigDecimal getPercentile5() { return percentile5; }
-        public void setPercentile5(BigDecimal percentile5) { this.percentile5 = percentile5; }
-        public BigDecimal getPercentile25() { return percentile25; }
-        public void setPercentile25(BigDecimal percentile25) { this.percentile25 = percentile25; }
-        public BigDecimal getMedian() { return median; }
-        public void setMedian(BigDecimal median) { this.median = median; }
-        public BigDecimal getPercentile75() { return percentile75; }
-        public void setPercentile75(BigDecimal percentile75) { this.percentile75 = percentile75; }
-        public BigDecimal getPercentile95() { return percentile95; }
-        public void setPercentile95(BigDecimal percentile95) { this.percentile95 = percentile95; }
+        public Double getMeanReturn() { return meanReturn; }
+        public void setMeanReturn(Double meanReturn) { this.meanReturn = meanReturn; }
+        public Double getPercentile5() { return percentile5; }
+        public void setPercentile5(Double percentile5) { this.percentile5 = percentile5; }
+        public Double getPercentile25() { return percentile25; }
+        public void setPercentile25(Double percentile25) { this.percentile25 = percentile25; }
+        public Double getMedian() { return median; }
+        public void setMedian(Double median) { this.median = median; }
+        public Double getPercentile75() { return percentile75; }
+        public void setPercentile75(Double percentile75) { this.percentile75 = percentile75; }
+        public Double getPercentile95() { return percentile95; }
+        public void setPercentile95(Double percentile95) { this.percentile95 = percentile95; }
+        public Double getValueAtRisk() { return valueAtRisk; }
+        public void setValueAtRisk(Double valueAtRisk) { this.valueAtRisk = valueAtRisk; }
+        public Double getExpectedShortfall() { return expectedShortfall; }
+        public void setExpectedShortfall(Double expectedShortfall) { this.expectedShortfall = expectedShortfall; }
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+        public List<ComponentContribution> getComponentContributions() { return componentContributions; }
+        public void setComponentContributions(List<ComponentContribution> componentContributions) { this.componentContributions = componentContributions; }
+    }
+
+    public static class ComponentContribution {
+        private String ticker;
+        @Decimals
+        private Double weight;
+        @Decimals(2)
+        private Double expectedShortfall;
+        @Decimals(2)
+        private Double percentOfTotal;
+
+        public String getTicker() { return ticker; }
+        public void setTicker(String ticker) { this.ticker = ticker; }
+        public Double getWeight() { return weight; }
+        public void setWeight(Double weight) { this.weight = weight; }
+        public Double getExpectedShortfall() { return expectedShortfall; }
+        public void setExpectedShortfall(Double expectedShortfall) { this.expectedShortfall = expectedShortfall; }
+        public Double getPercentOfTotal() { return percentOfTotal; }
+        public void setPercentOfTotal(Double percentOfTotal) { this.percentOfTotal = percentOfTotal; }
     }
 
     // ── Top-level getters/setters ──
@@ -133,34 +332,38 @@ public class RiskAnalyticsResponse {
     public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
     public String getPortfolioName() { return portfolioName; }
     public void setPortfolioName(String portfolioName) { this.portfolioName = portfolioName; }
-    public BigDecimal getPortfolioValue() { return portfolioValue; }
-    public void setPortfolioValue(BigDecimal portfolioValue) { this.portfolioValue = portfolioValue; }
+    public Double getPortfolioValue() { return portfolioValue; }
+    public void setPortfolioValue(Double portfolioValue) { this.portfolioValue = portfolioValue; }
     public String getBaseCurrency() { return baseCurrency; }
     public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
     public VaRMetrics getVar() { return var; }
     public void setVar(VaRMetrics var) { this.var = var; }
-    public BigDecimal getCvar95() { return cvar95; }
-    public void setCvar95(BigDecimal cvar95) { this.cvar95 = cvar95; }
-    public BigDecimal getCvar99() { return cvar99; }
-    public void setCvar99(BigDecimal cvar99) { this.cvar99 = cvar99; }
-    public BigDecimal getAnnualizedVolatility() { return annualizedVolatility; }
-    public void setAnnualizedVolatility(BigDecimal annualizedVolatility) { this.annualizedVolatility = annualizedVolatility; }
-    public BigDecimal getDailyVolatility() { return dailyVolatility; }
-    public void setDailyVolatility(BigDecimal dailyVolatility) { this.dailyVolatility = dailyVolatility; }
-    public BigDecimal getPortfolioBeta() { return portfolioBeta; }
-    public void setPortfolioBeta(BigDecimal portfolioBeta) { this.portfolioBeta = portfolioBeta; }
+    public Double getCvar95() { return cvar95; }
+    public void setCvar95(Double cvar95) { this.cvar95 = cvar95; }
+    public Double getCvar99() { return cvar99; }
+    public void setCvar99(Double cvar99) { this.cvar99 = cvar99; }
+    public List<ConfidenceLevelRisk> getConfidenceLadder() { return confidenceLadder; }
+    public void setConfidenceLadder(List<ConfidenceLevelRisk> confidenceLadder) { this.confidenceLadder = confidenceLadder; }
+    public List<HoldingVarContribution> getVarContributions() { return varContributions; }
+    public void setVarContributions(List<HoldingVarContribution> varContributions) { this.varContributions = varContributions; }
+    public Double getAnnualizedVolatility() { return annualizedVolatility; }
+    public void setAnnualizedVolatility(Double annualizedVolatility) { this.annualizedVolatility = annualizedVolatility; }
+    public Double getDailyVolatility() { return dailyVolatility; }
+    public void setDailyVolatility(Double dailyVolatility) { this.dailyVolatility = dailyVolatility; }
+    public Double getPortfolioBeta() { return portfolioBeta; }
+    public void setPortfolioBeta(Double portfolioBeta) { this.portfolioBeta = portfolioBeta; }
     public List<HoldingBeta> getHoldingBetas() { return holdingBetas; }
     public void setHoldingBetas(List<HoldingBeta> holdingBetas) { this.holdingBetas = holdingBetas; }
-    public BigDecimal getPortfolioAlpha() { return portfolioAlpha; }
-    public void setPortfolioAlpha(BigDecimal portfolioAlpha) { this.portfolioAlpha = portfolioAlpha; }
-    public BigDecimal getSharpeRatio() { return sharpeRatio; }
-    public void setSharpeRatio(BigDecimal sharpeRatio) { this.sharpeRatio = sharpeRatio; }
-    public BigDecimal getSortinoRatio() { return sortinoRatio; }
-    public void setSortinoRatio(BigDecimal sortinoRatio) { this.sortinoRatio = sortinoRatio; }
-    public BigDecimal getTreynorRatio() { return treynorRatio; }
-    public void setTreynorRatio(BigDecimal treynorRatio) { this.treynorRatio = treynorRatio; }
-    public BigDecimal getMaxDrawdown() { return maxDrawdown; }
-    public void setMaxDrawdown(BigDecimal maxDrawdown) { this.maxDrawdown = maxDrawdown; }
+    public Double getPortfolioAlpha() { return portfolioAlpha; }
+    public void setPortfolioAlpha(Double portfolioAlpha) { this.portfolioAlpha = portfolioAlpha; }
+    public Double getSharpeRatio() { return sharpeRatio; }
+    public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+    public Double getSortinoRatio() { return sortinoRatio; }
+    public void setSortinoRatio(Double sortinoRatio) { this.sortinoRatio = sortinoRatio; }
+    public Double getTreynorRatio() { return treynorRatio; }
+    public void setTreynorRatio(Double treynorRatio) { this.treynorRatio = treynorRatio; }
+    public Double getMaxDrawdown() { return maxDrawdown; }
+    public void setMaxDrawdown(Double maxDrawdown) { this.maxDrawdown = maxDrawdown; }
     public String getMaxDrawdownPeakDate() { return maxDrawdownPeakDate; }
     public void setMaxDrawdownPeakDate(String maxDrawdownPeakDate) { this.maxDrawdownPeakDate = maxDrawdownPeakDate; }
     public String getMaxDrawdownTroughDate() { return maxDrawdownTroughDate; }
@@ -175,4 +378,12 @@ public class RiskAnalyticsResponse {
     public void setTimeHorizonDays(int timeHorizonDays) { this.timeHorizonDays = timeHorizonDays; }
     public int getLookbackDays() { return lookbackDays; }
     public void setLookbackDays(int lookbackDays) { this.lookbackDays = lookbackDays; }
+    public Double getAverageCorrelation() { return averageCorrelation; }
+    public void setAverageCorrelation(Double averageCorrelation) { this.averageCorrelation = averageCorrelation; }
+    public Double getDiversificationRatio() { return diversificationRatio; }
+    public void setDiversificationRatio(Double diversificationRatio) { this.diversificationRatio = diversificationRatio; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public String getAsOf() { return asOf; }
+    public void setAsOf(String asOf) { this.asOf = asOf; }
 }
@@ -0,0 +1,53 @@
+package com.portfolio.api.dto;
+
+/**
+ * State of an asynchronous risk analytics job, returned by the job endpoints and pushed to
+ * {@code /topic/risk-jobs/{jobId}} on every change.
+ *
+ * {@code state} is QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED; {@code stage} names the step a running
+ * job is in (LOADING_RETURNS, COMPUTING_METRICS, STRESS_TESTS).
+ */
+public class RiskJobStatus {
+
+    private String jobId;
+    private Long portfolioId;
+    private String state;
+    private String stage;
+    private int progressPercent;
+    private String error;
+    private String submittedAt;
+    private String startedAt;
+    private String finishedAt;
+
+    private double confidenceLevel;
+    private int timeHorizonDays;
+    private int lookbackDays;
+    private boolean live;
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    public String getStage() { return stage; }
+    public void setStage(String stage) { this.stage = stage; }
+    public int getProgressPercent() { return progressPercent; }
+    public void setProgressPercent(int progressPercent) { this.progressPercent = progressPercent; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public String getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(String submittedAt) { this.submittedAt = submittedAt; }
+    public String getStartedAt() { return startedAt; }
+    public void setStartedAt(String startedAt) { this.startedAt = startedAt; }
+    public String getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(String finishedAt) { this.finishedAt = finishedAt; }
+    public double getConfidenceLevel() { return confidenceLevel; }
+    public void setConfidenceLevel(double confidenceLevel) { this.confidenceLevel = confidenceLevel; }
+    public int getTimeHorizonDays() { return timeHorizonDays; }
+    public void setTimeHorizonDays(int timeHorizonDays) { this.timeHorizonDays = timeHorizonDays; }
+    public int getLookbackDays() { return lookbackDays; }
+    public void setLookbackDays(int lookbackDays) { this.lookbackDays = lookbackDays; }
+    public boolean isLive() { return live; }
+    public void setLive(boolean live) { this.live = live; }
+}
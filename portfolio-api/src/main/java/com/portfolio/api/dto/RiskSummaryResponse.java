@@ -0,0 +1,78 @@
+package com.portfolio.api.dto;
+
+import java.util.List;
+
+/**
+ * Headline risk figures for a portfolio read from the streaming statistics (volatility, beta, Sharpe),
+ * with per-holding volatility, beta, Sharpe and Sortino. Windows end at the last date all series share.
+ */
+public class RiskSummaryResponse {
+
+    private Long portfolioId;
+    private String portfolioName;
+    @Decimals(2)
+    private Double portfolioValue;
+    private int observations;
+    private String windowStart;
+    private String windowEnd;
+
+    @Decimals
+    private Double dailyVolatility;
+    @Decimals
+    private Double annualizedVolatility;
+    @Decimals
+    private Double portfolioBeta;
+    @Decimals
+    private Double sharpeRatio;
+    private List<HoldingRisk> holdings;
+
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+    public String getPortfolioName() { return portfolioName; }
+    public void setPortfolioName(String portfolioName) { this.portfolioName = portfolioName; }
+    public Double getPortfolioValue() { return portfolioValue; }
+    public void setPortfolioValue(Double portfolioValue) { this.portfolioValue = portfolioValue; }
+    public int getObservations() { return observations; }
+    public void setObservations(int observations) { this.observations = observations; }
+    public String getWindowStart() { return windowStart; }
+    public void setWindowStart(String windowStart) { this.windowStart = windowStart; }
+    public String getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(String windowEnd) { this.windowEnd = windowEnd; }
+    public Double getDailyVolatility() { return dailyVolatility; }
+    public void setDailyVolatility(Double dailyVolatility) { this.dailyVolatility = dailyVolatility; }
+    public Double getAnnualizedVolatility() { return annualizedVolatility; }
+    public void setAnnualizedVolatility(Double annualizedVolatility) { this.annualizedVolatility = annualizedVolatility; }
+    public Double getPortfolioBeta() { return portfolioBeta; }
+    public void setPortfolioBeta(Double portfolioBeta) { this.portfolioBeta = portfolioBeta; }
+    public Double getSharpeRatio() { return sharpeRatio; }
+    public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+    public List<HoldingRisk> getHoldings() { return holdings; }
+    public void setHoldings(List<HoldingRisk> holdings) { this.holdings = holdings; }
+
+    public static class HoldingRisk {
+        private String ticker;
+        @Decimals
+        private Double weight;
+        @Decimals
+        private Double annualizedVolatility;
+        @Decimals
+        private Double beta;
+        @Decimals
+        private Double sharpeRatio;
+        @Decimals
+        private Double sortinoRatio;
+
+        public String getTicker() { return ticker; }
+        public void setTicker(String ticker) { this.ticker = ticker; }
+        public Double getWeight() { return weight; }
+        public void setWeight(Double weight) { this.weight = weight; }
+        public Double getAnnualizedVolatility() { return annualizedVolatility; }
+        public void setAnnualizedVolatility(Double annualizedVolatility) { this.annualizedVolatility = annualizedVolatility; }
+        public Double getBeta() { return beta; }
+        public void setBeta(Double beta) { this.beta = beta; }
+        public Double getSharpeRatio() { return sharpeRatio; }
+        public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+        public Double getSortinoRatio() { return sortinoRatio; }
+        public void setSortinoRatio(Double sortinoRatio) { this.sortinoRatio = sortinoRatio; }
+    }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.api.dto;
+
+import java.util.List;
+
+/**
+ * Rolling correlation and beta of one ticker against another for every window ending in the lookback
+ * (FR-CH-006), oldest first. Beta is of {@code ticker1} on {@code ticker2} and is null where {@code ticker2}
+ * did not move over the window.
+ */
+public class RollingCorrelationResponse {
+
+    private String ticker1;
+    private String ticker2;
+    private int window;
+    private int lookbackDays;
+    private int observations;
+    private List<Point> points;
+
+    public String getTicker1() { return ticker1; }
+    public void setTicker1(String ticker1) { this.ticker1 = ticker1; }
+    public String getTicker2() { return ticker2; }
+    public void setTicker2(String ticker2) { this.ticker2 = ticker2; }
+    public int getWindow() { return window; }
+    public void setWindow(int window) { this.window = window; }
+    public int getLookbackDays() { return lookbackDays; }
+    public void setLookbackDays(int lookbackDays) { this.lookbackDays = lookbackDays; }
+    public int getObservations() { return observations; }
+    public void setObservations(int observations) { this.observations = observations; }
+    public List<Point> getPoints() { return points; }
+    public void setPoints(List<Point> points) { this.points = points; }
+
+    public static class Point {
+        private String date;
+        @Decimals(4)
+        private Double correlation;
+        @Decimals(4)
+        private Double beta;
+
+        public Point() {
+        }
+
+        public Point(String date, Double correlation, Double beta) {
+            this.date = date;
+            this.correlation = correlation;
+            this.beta = beta;
+        }
+
+        public String getDate() { return date; }
+        public void setDate(String date) { this.date = date; }
+        public Double getCorrelation() { return correlation; }
+        public void setCorrelation(Double correlation) { this.correlation = correlation; }
+        public Double getBeta() { return beta; }
+        public void setBeta(Double beta) { this.beta = beta; }
+    }
+}
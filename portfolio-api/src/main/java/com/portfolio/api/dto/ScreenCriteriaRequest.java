@@ -24,6 +24,13 @@ public class ScreenCriteriaRequest {
     private BigDecimal weekHigh52PctMin;
     private BigDecimal weekHigh52PctMax;
 
+    // Result order and keyset paging: sortBy is a metric name (marketCap by default), cursor the previous
+    // page's nextCursor
+    private String sortBy;
+    private String sortDirection;
+    private Integer pageSize;
+    private String cursor;
+
     public String getSector() { return sector; }
     public void setSector(String sector) { this.sector = sector; }
     public String getExchange() { return exchange; }
@@ -54,4 +61,12 @@ public class ScreenCriteriaRequest {
     public void setWeekHigh52PctMin(BigDecimal weekHigh52PctMin) { this.weekHigh52PctMin = weekHigh52PctMin; }
     public BigDecimal getWeekHigh52PctMax() { return weekHigh52PctMax; }
     public void setWeekHigh52PctMax(BigDecimal weekHigh52PctMax) { this.weekHigh52PctMax = weekHigh52PctMax; }
+    public String getSortBy() { return sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+    public String getSortDirection() { return sortDirection; }
+    public void setSortDirection(String sortDirection) { this.sortDirection = sortDirection; }
+    public Integer getPageSize() { return pageSize; }
+    public void setPageSize(Integer pageSize) { this.pageSize = pageSize; }
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
 }
@@ -9,6 +9,14 @@ import java.util.List;
 public class ScreenResultResponse {
 
     private int totalMatches;
+    // Stocks in the local fundamentals snapshot that were screened, and the oldest refresh among them
+    private int screenedCount;
+    private String dataAsOf;
+    // One page of matches in sortBy order; nextCursor fetches the next page and is null on the last one
+    private String sortBy;
+    private String sortDirection;
+    private int pageSize;
+    private String nextCursor;
     private List<ScreenedStock> stocks;
 
     public static class ScreenedStock {
@@ -56,6 +64,18 @@ public class ScreenResultResponse {
 
     public int getTotalMatches() { return totalMatches; }
     public void setTotalMatches(int totalMatches) { this.totalMatches = totalMatches; }
+    public int getScreenedCount() { return screenedCount; }
+    public void setScreenedCount(int screenedCount) { this.screenedCount = screenedCount; }
+    public String getDataAsOf() { return dataAsOf; }
+    public void setDataAsOf(String dataAsOf) { this.dataAsOf = dataAsOf; }
+    public String getSortBy() { return sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+    public String getSortDirection() { return sortDirection; }
+    public void setSortDirection(String sortDirection) { this.sortDirection = sortDirection; }
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
     public List<ScreenedStock> getStocks() { return stocks; }
     public void setStocks(List<ScreenedStock> stocks) { this.stocks = stocks; }
 }
@@ -0,0 +1,40 @@
+package com.portfolio.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Stress test request (FR-RA-010). A custom scenario with dates replays that window of stored history;
+ * one with only marketShockPercent is applied as beta × shock, which is also the fallback when nothing
+ * is stored for the window.
+ */
+public class StressTestRequest {
+
+    private boolean includeDefaults = true;
+    private List<CustomScenario> scenarios;
+
+    public boolean isIncludeDefaults() { return includeDefaults; }
+    public void setIncludeDefaults(boolean includeDefaults) { this.includeDefaults = includeDefaults; }
+    public List<CustomScenario> getScenarios() { return scenarios; }
+    public void setScenarios(List<CustomScenario> scenarios) { this.scenarios = scenarios; }
+
+    public static class CustomScenario {
+        private String name;
+        private String description;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private BigDecimal marketShockPercent;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public LocalDate getStartDate() { return startDate; }
+        public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+        public LocalDate getEndDate() { return endDate; }
+        public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+        public BigDecimal getMarketShockPercent() { return marketShockPercent; }
+        public void setMarketShockPercent(BigDecimal marketShockPercent) { this.marketShockPercent = marketShockPercent; }
+    }
+}
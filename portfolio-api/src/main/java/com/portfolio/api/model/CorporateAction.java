@@ -0,0 +1,68 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Split or cash dividend for a ticker (FR-AS-003, FR-AS-004).
+ *
+ * <p>{@code splitRatio} is new shares per old share (2 for a 2-for-1 split);
+ * {@code dividendAmount} is cash per post-action share, paid on {@code exDate}.</p>
+ */
+@Entity
+@Table(name = "corporate_actions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ticker", "action_type", "ex_date"}))
+public class CorporateAction {
+
+    public static final String SPLIT = "SPLIT";
+    public static final String DIVIDEND = "DIVIDEND";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(name = "action_type", nullable = false, length = 20)
+    private String actionType;
+
+    @Column(name = "ex_date", nullable = false)
+    private LocalDate exDate;
+
+    @Column(name = "split_ratio", precision = 19, scale = 8)
+    private BigDecimal splitRatio;
+
+    @Column(name = "dividend_amount", precision = 19, scale = 6)
+    private BigDecimal dividendAmount;
+
+    @Column(nullable = false, length = 50)
+    private String source = "MANUAL";
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getActionType() { return actionType; }
+    public void setActionType(String actionType) { this.actionType = actionType; }
+    public LocalDate getExDate() { return exDate; }
+    public void setExDate(LocalDate exDate) { this.exDate = exDate; }
+    public BigDecimal getSplitRatio() { return splitRatio; }
+    public void setSplitRatio(BigDecimal splitRatio) { this.splitRatio = splitRatio; }
+    public BigDecimal getDividendAmount() { return dividendAmount; }
+    public void setDividendAmount(BigDecimal dividendAmount) { this.dividendAmount = dividendAmount; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,54 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * One peer of a ticker in the nightly correlation index written by portfolio-batch: relation is NEGATIVE
+ * (most negatively correlated first) or UNCORRELATED (smallest |correlation| first), ranked from 1.
+ */
+@Entity
+@Immutable
+@Table(name = "correlation_index")
+public class CorrelationIndexEntry {
+
+    public static final String NEGATIVE = "NEGATIVE";
+    public static final String UNCORRELATED = "UNCORRELATED";
+
+    @Id
+    private Long id;
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(nullable = false, length = 20)
+    private String relation;
+
+    @Column(name = "peer_rank", nullable = false)
+    private int peerRank;
+
+    @Column(name = "peer_ticker", nullable = false, length = 50)
+    private String peerTicker;
+
+    @Column(nullable = false)
+    private double correlation;
+
+    @Column(nullable = false)
+    private int observations;
+
+    // Getters
+
+    public Long getId() { return id; }
+    public LocalDate getAsOfDate() { return asOfDate; }
+    public String getTicker() { return ticker; }
+    public String getRelation() { return relation; }
+    public int getPeerRank() { return peerRank; }
+    public String getPeerTicker() { return peerTicker; }
+    public double getCorrelation() { return correlation; }
+    public int getObservations() { return observations; }
+}
@@ -0,0 +1,93 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One intraday OHLCV bar. {@code barTime} is the bar open in UTC.
+ * Bars are either fetched natively from a provider or rolled up from a finer resolution ({@code rolledUp}).
+ */
+@Entity
+@Table(name = "intraday_price_bar",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ticker", "resolution_minutes", "bar_time"}))
+public class IntradayPriceBar {
+
+    public static final int ONE_MINUTE = 1;
+    public static final int FIVE_MINUTES = 5;
+    public static final int ONE_HOUR = 60;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(name = "resolution_minutes", nullable = false)
+    private int resolutionMinutes;
+
+    @Column(name = "bar_time", nullable = false)
+    private LocalDateTime barTime;
+
+    @Column(name = "open_price", precision = 19, scale = 8)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", precision = 19, scale = 8)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", precision = 19, scale = 8)
+    private BigDecimal lowPrice;
+
+    @Column(name = "close_price", nullable = false, precision = 19, scale = 8)
+    private BigDecimal closePrice;
+
+    @Column
+    private Double volume;
+
+    @Column(name = "rolled_up", nullable = false)
+    private boolean rolledUp;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        fetchedAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+
+    public int getResolutionMinutes() { return resolutionMinutes; }
+    public void setResolutionMinutes(int resolutionMinutes) { this.resolutionMinutes = resolutionMinutes; }
+
+    public LocalDateTime getBarTime() { return barTime; }
+    public void setBarTime(LocalDateTime barTime) { this.barTime = barTime; }
+
+    public BigDecimal getOpenPrice() { return openPrice; }
+    public void setOpenPrice(BigDecimal openPrice) { this.openPrice = openPrice; }
+
+    public BigDecimal getHighPrice() { return highPrice; }
+    public void setHighPrice(BigDecimal highPrice) { this.highPrice = highPrice; }
+
+    public BigDecimal getLowPrice() { return lowPrice; }
+    public void setLowPrice(BigDecimal lowPrice) { this.lowPrice = lowPrice; }
+
+    public BigDecimal getClosePrice() { return closePrice; }
+    public void setClosePrice(BigDecimal closePrice) { this.closePrice = closePrice; }
+
+    public Double getVolume() { return volume; }
+    public void setVolume(Double volume) { this.volume = volume; }
+
+    public boolean isRolledUp() { return rolledUp; }
+    public void setRolledUp(boolean rolledUp) { this.rolledUp = rolledUp; }
+
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+}
@@ -0,0 +1,165 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed risk metrics for one portfolio, date and parameter set (FR-RA-012).
+ * Written nightly by portfolio-batch; read-only here. Currency amounts (VaR, CVaR, ES) are positive losses.
+ */
+@Entity
+@Immutable
+@Table(name = "portfolio_risk_snapshot")
+public class PortfolioRiskSnapshot {
+
+    @Id
+    private Long id;
+
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(name = "confidence_level", nullable = false)
+    private double confidenceLevel;
+
+    @Column(name = "time_horizon_days", nullable = false)
+    private int timeHorizonDays;
+
+    @Column(name = "lookback_days", nullable = false)
+    private int lookbackDays;
+
+    @Column(name = "holdings_hash", nullable = false, length = 64)
+    private String holdingsHash;
+
+    @Column(name = "observations", nullable = false)
+    private int observations;
+
+    @Column(name = "portfolio_value", nullable = false, precision = 19, scale = 4)
+    private BigDecimal portfolioValue;
+
+    @Column(name = "var_historical")
+    private Double varHistorical;
+
+    @Column(name = "var_parametric")
+    private Double varParametric;
+
+    @Column(name = "var_monte_carlo")
+    private Double varMonteCarlo;
+
+    @Column(name = "cvar_95")
+    private Double cvar95;
+
+    @Column(name = "cvar_99")
+    private Double cvar99;
+
+    @Column(name = "daily_volatility")
+    private Double dailyVolatility;
+
+    @Column(name = "annualized_volatility")
+    private Double annualizedVolatility;
+
+    @Column(name = "beta")
+    private Double beta;
+
+    @Column(name = "alpha")
+    private Double alpha;
+
+    @Column(name = "sharpe_ratio")
+    private Double sharpeRatio;
+
+    @Column(name = "sortino_ratio")
+    private Double sortinoRatio;
+
+    @Column(name = "treynor_ratio")
+    private Double treynorRatio;
+
+    @Column(name = "max_drawdown")
+    private Double maxDrawdown;
+
+    @Column(name = "max_drawdown_peak_date")
+    private LocalDate maxDrawdownPeakDate;
+
+    @Column(name = "max_drawdown_trough_date")
+    private LocalDate maxDrawdownTroughDate;
+
+    @Column(name = "average_correlation")
+    private Double averageCorrelation;
+
+    @Column(name = "diversification_ratio")
+    private Double diversificationRatio;
+
+    @Column(name = "mc_mode", length = 20)
+    private String mcMode;
+
+    @Column(name = "mc_simulations")
+    private Integer mcSimulations;
+
+    @Column(name = "mc_mean_return")
+    private Double mcMeanReturn;
+
+    @Column(name = "mc_percentile_5")
+    private Double mcPercentile5;
+
+    @Column(name = "mc_percentile_25")
+    private Double mcPercentile25;
+
+    @Column(name = "mc_median")
+    private Double mcMedian;
+
+    @Column(name = "mc_percentile_75")
+    private Double mcPercentile75;
+
+    @Column(name = "mc_percentile_95")
+    private Double mcPercentile95;
+
+    @Column(name = "mc_expected_shortfall")
+    private Double mcExpectedShortfall;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Getters
+
+    public Long getId() { return id; }
+    public Long getPortfolioId() { return portfolioId; }
+    public LocalDate getAsOfDate() { return asOfDate; }
+    public double getConfidenceLevel() { return confidenceLevel; }
+    public int getTimeHorizonDays() { return timeHorizonDays; }
+    public int getLookbackDays() { return lookbackDays; }
+    public String getHoldingsHash() { return holdingsHash; }
+    public int getObservations() { return observations; }
+    public BigDecimal getPortfolioValue() { return portfolioValue; }
+    public Double getVarHistorical() { return varHistorical; }
+    public Double getVarParametric() { return varParametric; }
+    public Double getVarMonteCarlo() { return varMonteCarlo; }
+    public Double getCvar95() { return cvar95; }
+    public Double getCvar99() { return cvar99; }
+    public Double getDailyVolatility() { return dailyVolatility; }
+    public Double getAnnualizedVolatility() { return annualizedVolatility; }
+    public Double getBeta() { return beta; }
+    public Double getAlpha() { return alpha; }
+    public Double getSharpeRatio() { return sharpeRatio; }
+    public Double getSortinoRatio() { return sortinoRatio; }
+    public Double getTreynorRatio() { return treynorRatio; }
+    public Double getMaxDrawdown() { return maxDrawdown; }
+    public LocalDate getMaxDrawdownPeakDate() { return maxDrawdownPeakDate; }
+    public LocalDate getMaxDrawdownTroughDate() { return maxDrawdownTroughDate; }
+    public Double getAverageCorrelation() { return averageCorrelation; }
+    public Double getDiversificationRatio() { return diversificationRatio; }
+    public String getMcMode() { return mcMode; }
+    public Integer getMcSimulations() { return mcSimulations; }
+    public Double getMcMeanReturn() { return mcMeanReturn; }
+    public Double getMcPercentile5() { return mcPercentile5; }
+    public Double getMcPercentile25() { return mcPercentile25; }
+    public Double getMcMedian() { return mcMedian; }
+    public Double getMcPercentile75() { return mcPercentile75; }
+    public Double getMcPercentile95() { return mcPercentile95; }
+    public Double getMcExpectedShortfall() { return mcExpectedShortfall; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+}
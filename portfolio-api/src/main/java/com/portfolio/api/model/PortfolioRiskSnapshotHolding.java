@@ -0,0 +1,73 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Per-holding detail of a {@link PortfolioRiskSnapshot}: weight, beta, simulated component expected shortfall
+ * and the parametric marginal / component / incremental VaR and ES breakdown.
+ */
+@Entity
+@Immutable
+@Table(name = "portfolio_risk_snapshot_holding")
+public class PortfolioRiskSnapshotHolding {
+
+    @Id
+    private Long id;
+
+    @Column(name = "snapshot_id", nullable = false)
+    private Long snapshotId;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(nullable = false)
+    private double weight;
+
+    @Column
+    private Double beta;
+
+    @Column(name = "expected_shortfall")
+    private Double expectedShortfall;
+
+    @Column(name = "percent_of_total")
+    private Double percentOfTotal;
+
+    @Column(name = "marginal_var")
+    private Double marginalVar;
+
+    @Column(name = "component_var")
+    private Double componentVar;
+
+    @Column(name = "incremental_var")
+    private Double incrementalVar;
+
+    @Column(name = "marginal_es")
+    private Double marginalEs;
+
+    @Column(name = "component_es")
+    private Double componentEs;
+
+    @Column(name = "incremental_es")
+    private Double incrementalEs;
+
+    @Column(name = "simulated_component_var")
+    private Double simulatedComponentVar;
+
+    // Getters
+
+    public Long getId() { return id; }
+    public Long getSnapshotId() { return snapshotId; }
+    public String getTicker() { return ticker; }
+    public double getWeight() { return weight; }
+    public Double getBeta() { return beta; }
+    public Double getExpectedShortfall() { return expectedShortfall; }
+    public Double getPercentOfTotal() { return percentOfTotal; }
+    public Double getMarginalVar() { return marginalVar; }
+    public Double getComponentVar() { return componentVar; }
+    public Double getIncrementalVar() { return incrementalVar; }
+    public Double getMarginalEs() { return marginalEs; }
+    public Double getComponentEs() { return componentEs; }
+    public Double getIncrementalEs() { return incrementalEs; }
+    public Double getSimulatedComponentVar() { return simulatedComponentVar; }
+}
@@ -0,0 +1,44 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * One confidence level of the VaR / CVaR ladder stored with a {@link PortfolioRiskSnapshot}.
+ */
+@Entity
+@Immutable
+@Table(name = "portfolio_risk_snapshot_ladder")
+public class PortfolioRiskSnapshotLadder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "snapshot_id", nullable = false)
+    private Long snapshotId;
+
+    @Column(name = "confidence_level", nullable = false)
+    private double confidenceLevel;
+
+    @Column(name = "historical_var")
+    private Double historicalVar;
+
+    @Column(name = "historical_cvar")
+    private Double historicalCvar;
+
+    @Column(name = "monte_carlo_var")
+    private Double monteCarloVar;
+
+    @Column(name = "monte_carlo_cvar")
+    private Double monteCarloCvar;
+
+    // Getters
+
+    public Long getId() { return id; }
+    public Long getSnapshotId() { return snapshotId; }
+    public double getConfidenceLevel() { return confidenceLevel; }
+    public Double getHistoricalVar() { return historicalVar; }
+    public Double getHistoricalCvar() { return historicalCvar; }
+    public Double getMonteCarloVar() { return monteCarloVar; }
+    public Double getMonteCarloCvar() { return monteCarloCvar; }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Locally stored fundamentals of one listed common stock, the data custom screens (FR-SC-008) run on.
+ * Rows are created from the provider's symbol list and filled by the nightly refresh; {@code fetchedAt} is null
+ * until the first refresh and {@code listed} turns false when the symbol leaves the list. Only {@link #OK} rows
+ * are screened; NO_DATA and ERROR rows are stamped too, so they rotate to the back of the refresh order. A
+ * failed refresh keeps the row's previous status and data; ERROR marks one with no earlier result to keep.
+ */
+@Entity
+@Table(name = "stock_fundamentals",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ticker", "exchange"}))
+public class StockFundamentals {
+
+    public static final String OK = "OK";
+    public static final String NO_DATA = "NO_DATA";
+    public static final String ERROR = "ERROR";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(nullable = false, length = 20)
+    private String exchange;
+
+    @Column
+    private String name;
+
+    @Column(length = 100)
+    private String industry;
+
+    @Column(length = 50)
+    private String country;
+
+    @Column(length = 10)
+    private String currency;
+
+    @Column(name = "market_cap")
+    private Double marketCap;
+
+    @Column(name = "pe_ratio")
+    private Double peRatio;
+
+    @Column
+    private Double eps;
+
+    @Column(name = "dividend_yield")
+    private Double dividendYield;
+
+    @Column
+    private Double beta;
+
+    @Column(name = "week_high_52")
+    private Double weekHigh52;
+
+    @Column(name = "week_low_52")
+    private Double weekLow52;
+
+    @Column(name = "current_price")
+    private Double currentPrice;
+
+    @Column(name = "change_percent")
+    private Double changePercent;
+
+    @Column(nullable = false)
+    private boolean listed = true;
+
+    @Column(name = "fetch_status", length = 20)
+    private String fetchStatus;
+
+    @Column(name = "fetched_at")
+    private LocalDateTime fetchedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getExchange() { return exchange; }
+    public void setExchange(String exchange) { this.exchange = exchange; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getIndustry() { return industry; }
+    public void setIndustry(String industry) { this.industry = industry; }
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public Double getMarketCap() { return marketCap; }
+    public void setMarketCap(Double marketCap) { this.marketCap = marketCap; }
+    public Double getPeRatio() { return peRatio; }
+    public void setPeRatio(Double peRatio) { this.peRatio = peRatio; }
+    public Double getEps() { return eps; }
+    public void setEps(Double eps) { this.eps = eps; }
+    public Double getDividendYield() { return dividendYield; }
+    public void setDividendYield(Double dividendYield) { this.dividendYield = dividendYield; }
+    public Double getBeta() { return beta; }
+    public void setBeta(Double beta) { this.beta = beta; }
+    public Double getWeekHigh52() { return weekHigh52; }
+    public void setWeekHigh52(Double weekHigh52) { this.weekHigh52 = weekHigh52; }
+    public Double getWeekLow52() { return weekLow52; }
+    public void setWeekLow52(Double weekLow52) { this.weekLow52 = weekLow52; }
+    public Double getCurrentPrice() { return currentPrice; }
+    public void setCurrentPrice(Double currentPrice) { this.currentPrice = currentPrice; }
+    public Double getChangePercent() { return changePercent; }
+    public void setChangePercent(Double changePercent) { this.changePercent = changePercent; }
+    public boolean isListed() { return listed; }
+    public void setListed(boolean listed) { this.listed = listed; }
+    public String getFetchStatus() { return fetchStatus; }
+    public void setFetchStatus(String fetchStatus) { this.fetchStatus = fetchStatus; }
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(LocalDateTime fetchedAt) { this.fetchedAt = fetchedAt; }
+}
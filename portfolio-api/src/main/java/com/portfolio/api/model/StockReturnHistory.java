@@ -0,0 +1,58 @@
+package com.portfolio.api.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One materialized split/dividend-adjusted daily return, keyed by ticker and trade date.
+ * Maintained incrementally by {@code AdjustedReturnService} as bars and corporate actions arrive.
+ */
+@Entity
+@Table(name = "stock_return_history",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ticker", "trade_date"}))
+public class StockReturnHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(name = "trade_date", nullable = false)
+    private LocalDate tradeDate;
+
+    @Column(name = "adjusted_return", nullable = false)
+    private double adjustedReturn;
+
+    @Column(name = "log_return")
+    private Double logReturn;
+
+    @Column(name = "adjustment_factor", nullable = false)
+    private double adjustmentFactor = 1.0;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        computedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public LocalDate getTradeDate() { return tradeDate; }
+    public void setTradeDate(LocalDate tradeDate) { this.tradeDate = tradeDate; }
+    public double getAdjustedReturn() { return adjustedReturn; }
+    public void setAdjustedReturn(double adjustedReturn) { this.adjustedReturn = adjustedReturn; }
+    public Double getLogReturn() { return logReturn; }
+    public void setLogReturn(Double logReturn) { this.logReturn = logReturn; }
+    public double getAdjustmentFactor() { return adjustmentFactor; }
+    public void setAdjustmentFactor(double adjustmentFactor) { this.adjustmentFactor = adjustmentFactor; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+}
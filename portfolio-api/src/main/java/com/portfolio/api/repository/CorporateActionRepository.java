@@ -0,0 +1,19 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.CorporateAction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CorporateActionRepository extends JpaRepository<CorporateAction, Long> {
+
+    List<CorporateAction> findByTickerOrderByExDateAsc(String ticker);
+
+    List<CorporateAction> findByTickerAndExDateBetweenOrderByExDateAsc(String ticker, LocalDate from, LocalDate to);
+
+    Optional<CorporateAction> findByTickerAndActionTypeAndExDate(String ticker, String actionType, LocalDate exDate);
+}
@@ -0,0 +1,20 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.CorrelationIndexEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CorrelationIndexRepository extends JpaRepository<CorrelationIndexEntry, Long> {
+
+    @Query("SELECT MAX(e.asOfDate) FROM CorrelationIndexEntry e")
+    LocalDate findLatestAsOfDate();
+
+    List<CorrelationIndexEntry> findByAsOfDateAndTickerInOrderByTickerAscRelationAscPeerRankAsc(
+            LocalDate asOfDate, Collection<String> tickers);
+}
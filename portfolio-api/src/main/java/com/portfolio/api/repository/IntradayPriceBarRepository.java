@@ -0,0 +1,32 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.IntradayPriceBar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IntradayPriceBarRepository extends JpaRepository<IntradayPriceBar, Long> {
+
+    List<IntradayPriceBar> findByTickerAndResolutionMinutesAndBarTimeBetweenOrderByBarTimeAsc(
+            String ticker, int resolutionMinutes, LocalDateTime from, LocalDateTime to);
+
+    Optional<IntradayPriceBar> findTopByTickerAndResolutionMinutesOrderByBarTimeDesc(String ticker, int resolutionMinutes);
+
+    Optional<IntradayPriceBar> findTopByTickerAndResolutionMinutesOrderByBarTimeAsc(String ticker, int resolutionMinutes);
+
+    Optional<IntradayPriceBar> findTopByTickerAndResolutionMinutesAndRolledUpFalseOrderByBarTimeDesc(
+            String ticker, int resolutionMinutes);
+
+    long countByTickerAndResolutionMinutes(String ticker, int resolutionMinutes);
+
+    @Modifying
+    @Query("DELETE FROM IntradayPriceBar b WHERE b.resolutionMinutes = :resolution AND b.barTime < :cutoff")
+    int deleteOlderThan(@Param("resolution") int resolutionMinutes, @Param("cutoff") LocalDateTime cutoff);
+}
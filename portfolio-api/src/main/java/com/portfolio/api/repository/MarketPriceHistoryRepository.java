@@ -3,9 +3,11 @@ package com.portfolio.api.repository;
 import com.portfolio.api.model.MarketPriceHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,6 +15,34 @@ public interface MarketPriceHistoryRepository extends JpaRepository<MarketPriceH
 
     List<MarketPriceHistory> findByTickerAndAssetClassOrderByTradeDateAsc(String ticker, String assetClass);
 
+    /**
+     * (ticker, assetClass, tradeDate, closePrice) rows of the listed tickers in every asset class, options
+     * excluded, ordered so each instrument's closes are contiguous and ascending.
+     */
+    @Query("SELECT m.ticker, m.assetClass, m.tradeDate, m.closePrice FROM MarketPriceHistory m " +
+           "WHERE m.ticker IN :tickers AND m.optionContract IS NULL AND m.tradeDate BETWEEN :from AND :to " +
+           "ORDER BY m.ticker, m.assetClass, m.tradeDate")
+    List<Object[]> findClosesByTickers(@Param("tickers") Collection<String> tickers,
+                                       @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Same rows for every instrument of the listed asset classes.
+     */
+    @Query("SELECT m.ticker, m.assetClass, m.tradeDate, m.closePrice FROM MarketPriceHistory m " +
+           "WHERE m.assetClass IN :assetClasses AND m.optionContract IS NULL AND m.tradeDate BETWEEN :from AND :to " +
+           "ORDER BY m.ticker, m.assetClass, m.tradeDate")
+    List<Object[]> findClosesByAssetClasses(@Param("assetClasses") Collection<String> assetClasses,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Distinct (ticker, assetClass) instruments {@link #findClosesByAssetClasses} would return, counted before
+     * their closes are loaded.
+     */
+    @Query("SELECT COUNT(DISTINCT CONCAT(m.ticker, ':', m.assetClass)) FROM MarketPriceHistory m " +
+           "WHERE m.assetClass IN :assetClasses AND m.optionContract IS NULL AND m.tradeDate BETWEEN :from AND :to")
+    long countInstrumentsByAssetClasses(@Param("assetClasses") Collection<String> assetClasses,
+                                        @Param("from") LocalDate from, @Param("to") LocalDate to);
+
     @Query("SELECT COUNT(m) FROM MarketPriceHistory m")
     long countAllRecords();
 
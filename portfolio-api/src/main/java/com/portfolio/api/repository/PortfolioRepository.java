@@ -2,8 +2,11 @@ package com.portfolio.api.repository;
 
 import com.portfolio.api.model.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,4 +21,13 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     List<Portfolio> findByUserId(Long userId);
 
     long countByUserId(Long userId);
+
+    @Query("SELECT p.id FROM Portfolio p ORDER BY p.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT p.id FROM Portfolio p WHERE p.user.email = :email ORDER BY p.id")
+    List<Long> findIdsByUserEmail(@Param("email") String email);
+
+    @Query("SELECT DISTINCT p FROM Portfolio p JOIN FETCH p.user LEFT JOIN FETCH p.holdings WHERE p.id IN :ids")
+    List<Portfolio> findWithHoldingsByIdIn(@Param("ids") Collection<Long> ids);
 }
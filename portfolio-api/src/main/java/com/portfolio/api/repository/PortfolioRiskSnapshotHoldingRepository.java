@@ -0,0 +1,13 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.PortfolioRiskSnapshotHolding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PortfolioRiskSnapshotHoldingRepository extends JpaRepository<PortfolioRiskSnapshotHolding, Long> {
+
+    List<PortfolioRiskSnapshotHolding> findBySnapshotIdOrderByIdAsc(Long snapshotId);
+}
@@ -0,0 +1,13 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.PortfolioRiskSnapshotLadder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PortfolioRiskSnapshotLadderRepository extends JpaRepository<PortfolioRiskSnapshotLadder, Long> {
+
+    List<PortfolioRiskSnapshotLadder> findBySnapshotIdOrderByConfidenceLevelAsc(Long snapshotId);
+}
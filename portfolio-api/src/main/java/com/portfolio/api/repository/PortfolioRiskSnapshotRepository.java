@@ -0,0 +1,14 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.PortfolioRiskSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PortfolioRiskSnapshotRepository extends JpaRepository<PortfolioRiskSnapshot, Long> {
+
+    Optional<PortfolioRiskSnapshot> findTopByPortfolioIdAndConfidenceLevelAndTimeHorizonDaysAndLookbackDaysOrderByAsOfDateDesc(
+            Long portfolioId, double confidenceLevel, int timeHorizonDays, int lookbackDays);
+}
@@ -0,0 +1,35 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.StockFundamentals;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockFundamentalsRepository extends JpaRepository<StockFundamentals, Long> {
+
+    List<StockFundamentals> findByExchange(String exchange);
+
+    /**
+     * Listed stocks never refreshed first, then the longest since their last refresh.
+     */
+    @Query("SELECT f FROM StockFundamentals f WHERE f.listed = true ORDER BY f.fetchedAt ASC NULLS FIRST, f.id ASC")
+    List<StockFundamentals> findStalest(Pageable page);
+
+    /**
+     * Everything a custom screen can match: listed stocks whose last refresh returned data
+     * ({@code fetchStatus} {@link StockFundamentals#OK}).
+     */
+    List<StockFundamentals> findByListedTrueAndFetchStatus(String fetchStatus);
+
+    long countByListedTrue();
+
+    long countByListedTrueAndFetchedAtIsNotNull();
+
+    @Query("SELECT MIN(f.fetchedAt) FROM StockFundamentals f WHERE f.listed = true")
+    LocalDateTime findOldestFetchedAt();
+}
@@ -19,8 +19,16 @@ public interface StockPriceHistoryRepository extends JpaRepository<StockPriceHis
 
     Optional<StockPriceHistory> findTopByTickerOrderByTradeDateDesc(String ticker);
 
+    List<StockPriceHistory> findByTickerAndTradeDateGreaterThanEqualOrderByTradeDateAsc(String ticker, LocalDate from);
+
+    Optional<StockPriceHistory> findTopByTickerAndTradeDateGreaterThanEqualOrderByTradeDateAsc(String ticker, LocalDate date);
+
+    Optional<StockPriceHistory> findTopByTickerAndTradeDateLessThanOrderByTradeDateDesc(String ticker, LocalDate date);
+
     long countByTicker(String ticker);
 
+    long countByTickerAndTradeDateLessThanEqual(String ticker, LocalDate date);
+
     void deleteByTicker(String ticker);
 
     @Query("SELECT DISTINCT s.ticker FROM StockPriceHistory s")
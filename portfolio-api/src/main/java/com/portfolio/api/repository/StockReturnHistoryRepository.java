@@ -0,0 +1,21 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.StockReturnHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReturnHistoryRepository extends JpaRepository<StockReturnHistory, Long> {
+
+    List<StockReturnHistory> findByTickerOrderByTradeDateAsc(String ticker);
+
+    Optional<StockReturnHistory> findTopByTickerOrderByTradeDateDesc(String ticker);
+
+    Optional<StockReturnHistory> findByTickerAndTradeDate(String ticker, LocalDate tradeDate);
+
+    long countByTicker(String ticker);
+}
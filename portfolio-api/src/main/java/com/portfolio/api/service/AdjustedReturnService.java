@@ -0,0 +1,263 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.CorporateAction;
+import com.portfolio.api.model.StockPriceHistory;
+import com.portfolio.api.model.StockReturnHistory;
+import com.portfolio.api.repository.CorporateActionRepository;
+import com.portfolio.api.repository.StockPriceHistoryRepository;
+import com.portfolio.api.repository.StockReturnHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Maintains the split/dividend-adjusted daily return series (FR-AS-003, FR-AS-004).
+ *
+ * A return only depends on two consecutive closes plus any dividend going ex between
+ * them, so adjustment never requires rescaling history: a new bar appends one row and a
+ * new corporate action rewrites the single row for its ex-date. Closes arrive already
+ * split-adjusted, so splits are recorded but do not change returns. Analytics
+ * read the materialized rows through {@link ReturnSeriesStore}, which is updated here once
+ * each write commits, instead of differencing raw closes; {@link OnlineRiskStats} is advanced
+ * at the same point.
+ */
+@Service
+public class AdjustedReturnService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdjustedReturnService.class);
+
+    private final StockPriceHistoryRepository priceHistoryRepository;
+    private final StockReturnHistoryRepository returnHistoryRepository;
+    private final CorporateActionRepository corporateActionRepository;
+    private final ReturnSeriesStore returnSeriesStore;
+    private final OnlineRiskStats onlineRiskStats;
+
+    public AdjustedReturnService(StockPriceHistoryRepository priceHistoryRepository,
+                                 StockReturnHistoryRepository returnHistoryRepository,
+                                 CorporateActionRepository corporateActionRepository,
+                                 ReturnSeriesStore returnSeriesStore,
+                                 OnlineRiskStats onlineRiskStats) {
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.returnHistoryRepository = returnHistoryRepository;
+        this.corporateActionRepository = corporateActionRepository;
+        this.returnSeriesStore = returnSeriesStore;
+        this.onlineRiskStats = onlineRiskStats;
+    }
+
+    /**
+     * Extend the adjusted return series to cover bars ingested since the last materialized return.
+     * Call after new rows land in stock_price_history. Returns the number of return rows written.
+     *
+     * When bars were backfilled before the last materialized return (some bar after the first has no
+     * return), the whole series is re-materialized instead, updating existing rows in place.
+     */
+    @Transactional
+    public int refreshTicker(String ticker) {
+        Optional<StockReturnHistory> last = returnHistoryRepository.findTopByTickerOrderByTradeDateDesc(ticker);
+        boolean complete = last.isPresent() && returnHistoryRepository.countByTicker(ticker)
+                == priceHistoryRepository.countByTickerAndTradeDateLessThanEqual(ticker, last.get().getTradeDate()) - 1;
+        if (!complete) {
+            return rematerialize(ticker);
+        }
+
+        List<StockPriceHistory> bars = priceHistoryRepository.findByTickerAndTradeDateGreaterThanEqualOrderByTradeDateAsc(
+                ticker, last.get().getTradeDate());
+        if (bars.size() < 2) {
+            return 0;
+        }
+        List<StockReturnHistory> rows = materialize(ticker, bars, Map.of());
+        returnHistoryRepository.saveAll(rows);
+        afterCommit(() -> {
+            returnSeriesStore.append(ticker, rows);
+            onlineRiskStats.onAppend(ticker);
+        });
+        log.debug("Materialized {} adjusted returns for {} ({} to {})", rows.size(), ticker,
+                bars.get(1).getTradeDate(), bars.get(bars.size() - 1).getTradeDate());
+        return rows.size();
+    }
+
+    /**
+     * Record (or update) a corporate action and re-adjust the one return it affects.
+     */
+    @Transactional
+    public CorporateAction recordCorporateAction(CorporateAction action) {
+        String ticker = action.getTicker().toUpperCase().trim();
+        CorporateAction entity = corporateActionRepository
+                .findByTickerAndActionTypeAndExDate(ticker, action.getActionType(), action.getExDate())
+                .orElseGet(CorporateAction::new);
+        entity.setTicker(ticker);
+        entity.setActionType(action.getActionType());
+        entity.setExDate(action.getExDate());
+        entity.setSplitRatio(action.getSplitRatio());
+        entity.setDividendAmount(action.getDividendAmount());
+        if (action.getSource() != null) {
+            entity.setSource(action.getSource());
+        }
+        CorporateAction saved = corporateActionRepository.save(entity);
+
+        reapplyActionsAround(ticker, saved.getExDate());
+        return saved;
+    }
+
+    /**
+     * Bulk variant used by the price ingest when the provider reports splits/dividends with the bars.
+     */
+    @Transactional
+    public int recordCorporateActions(String ticker, List<CorporateAction> actions) {
+        int count = 0;
+        for (CorporateAction a : actions) {
+            a.setTicker(ticker);
+            boolean exists = corporateActionRepository
+                    .findByTickerAndActionTypeAndExDate(ticker, a.getActionType(), a.getExDate())
+                    .isPresent();
+            if (!exists) {
+                recordCorporateAction(a);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public List<CorporateAction> getCorporateActions(String ticker) {
+        return corporateActionRepository.findByTickerOrderByExDateAsc(ticker);
+    }
+
+    // ── Internals ──
+
+    /**
+     * Recompute every return of a ticker from its full bar history; the in-memory series is reloaded once
+     * the rows commit.
+     */
+    private int rematerialize(String ticker) {
+        List<StockPriceHistory> bars = priceHistoryRepository.findByTickerOrderByTradeDateAsc(ticker);
+        if (bars.size() < 2) {
+            return 0;
+        }
+        Map<LocalDate, StockReturnHistory> existing = new HashMap<>();
+        for (StockReturnHistory r : returnHistoryRepository.findByTickerOrderByTradeDateAsc(ticker)) {
+            existing.put(r.getTradeDate(), r);
+        }
+        List<StockReturnHistory> rows = materialize(ticker, bars, existing);
+        returnHistoryRepository.saveAll(rows);
+        // Returns for dates that no longer have a bar
+        for (StockReturnHistory r : rows) existing.remove(r.getTradeDate());
+        if (!existing.isEmpty()) returnHistoryRepository.deleteAll(existing.values());
+        afterCommit(() -> {
+            returnSeriesStore.evict(ticker);
+            onlineRiskStats.onRewrite(ticker);
+        });
+        log.debug("Re-materialized {} adjusted returns for {}", rows.size(), ticker);
+        return rows.size();
+    }
+
+    /**
+     * Returns for bars[1..], reusing the row already stored for a date when there is one.
+     */
+    private List<StockReturnHistory> materialize(String ticker, List<StockPriceHistory> bars,
+                                                 Map<LocalDate, StockReturnHistory> existing) {
+        List<CorporateAction> actions = corporateActionRepository.findByTickerAndExDateBetweenOrderByExDateAsc(
+                ticker, bars.get(0).getTradeDate().plusDays(1), bars.get(bars.size() - 1).getTradeDate());
+
+        List<StockReturnHistory> rows = new ArrayList<>(bars.size() - 1);
+        int actionIdx = 0;
+        for (int i = 1; i < bars.size(); i++) {
+            StockPriceHistory prev = bars.get(i - 1);
+            StockPriceHistory curr = bars.get(i);
+
+            // Actions going ex on a non-trading day apply to the next session's return
+            List<CorporateAction> applicable = new ArrayList<>();
+            while (actionIdx < actions.size() && !actions.get(actionIdx).getExDate().isAfter(curr.getTradeDate())) {
+                applicable.add(actions.get(actionIdx++));
+            }
+
+            StockReturnHistory row = existing.get(curr.getTradeDate());
+            if (row == null) {
+                row = new StockReturnHistory();
+                row.setTicker(ticker);
+                row.setTradeDate(curr.getTradeDate());
+            }
+            applyReturn(row, prev, curr, applicable);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void reapplyActionsAround(String ticker, LocalDate exDate) {
+        Optional<StockPriceHistory> curr = priceHistoryRepository
+                .findTopByTickerAndTradeDateGreaterThanEqualOrderByTradeDateAsc(ticker, exDate);
+        if (curr.isEmpty()) {
+            return; // ex-date is ahead of stored bars; refreshTicker will apply it on ingest
+        }
+        Optional<StockReturnHistory> row = returnHistoryRepository
+                .findByTickerAndTradeDate(ticker, curr.get().getTradeDate());
+        Optional<StockPriceHistory> prev = priceHistoryRepository
+                .findTopByTickerAndTradeDateLessThanOrderByTradeDateDesc(ticker, curr.get().getTradeDate());
+        if (row.isEmpty() || prev.isEmpty()) {
+            return; // return not materialized yet
+        }
+
+        List<CorporateAction> applicable = corporateActionRepository.findByTickerAndExDateBetweenOrderByExDateAsc(
+                ticker, prev.get().getTradeDate().plusDays(1), curr.get().getTradeDate());
+        StockReturnHistory updated = row.get();
+        applyReturn(updated, prev.get(), curr.get(), applicable);
+        returnHistoryRepository.save(updated);
+        afterCommit(() -> {
+            returnSeriesStore.rewrite(ticker, updated.getTradeDate(),
+                    updated.getAdjustedReturn(), updated.getLogReturn());
+            onlineRiskStats.onRewrite(ticker);
+        });
+    }
+
+    /**
+     * Publish to the in-memory store only once the rows are durable, so a rolled-back ingest never leaks.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Both price sources (Finnhub candles and the Yahoo chart) deliver split-adjusted closes, so a split is
+     * already in the prices and only a dividend going ex adds to the return. Splits stay recorded for
+     * reference but do not enter the calculation; applying them again would show a fake jump or crash on
+     * every split date.
+     */
+    static void applyReturn(StockReturnHistory row, StockPriceHistory prev, StockPriceHistory curr,
+                            List<CorporateAction> actions) {
+        double prevClose = prev.getClosePrice().doubleValue();
+        double close = curr.getClosePrice().doubleValue();
+
+        double dividend = 0.0;
+        for (CorporateAction a : actions) {
+            if (CorporateAction.DIVIDEND.equals(a.getActionType()) && positive(a.getDividendAmount())) {
+                dividend += a.getDividendAmount().doubleValue();
+            }
+        }
+
+        // Total return across the ex-date: (P_t + D_t) / P_{t-1} - 1
+        double adjustedClose = close + dividend;
+        double simple = prevClose == 0 ? 0 : adjustedClose / prevClose - 1;
+        row.setAdjustedReturn(simple);
+        row.setLogReturn(simple > -1 ? Math.log1p(simple) : null);
+        row.setAdjustmentFactor(close == 0 ? 1.0 : adjustedClose / close);
+    }
+
+    private static boolean positive(BigDecimal v) {
+        return v != null && v.signum() > 0;
+    }
+}
@@ -0,0 +1,238 @@
+package com.portfolio.api.service;
+
+import com.portfolio.analytics.PortfolioRiskCalculator;
+import com.portfolio.analytics.ReturnMatrix;
+import com.portfolio.analytics.RiskMetrics;
+import com.portfolio.api.dto.BulkRiskRequest;
+import com.portfolio.api.dto.BulkRiskResponse;
+import com.portfolio.api.dto.BulkRiskResponse.PortfolioRisk;
+import com.portfolio.api.model.Holding;
+import com.portfolio.api.model.Portfolio;
+import com.portfolio.api.repository.PortfolioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Risk analytics for many portfolios in one request.
+ *
+ * Portfolios and holdings come from one fetch-join query. Return windows and prices are then resolved once per
+ * distinct ticker (benchmark included), so data access scales with distinct tickers rather than portfolios ×
+ * holdings; each portfolio then joins its own windows on trade date ({@link ReturnMatrixBuilder#align}) with
+ * no further reads. The per-portfolio calculations, which touch no JPA state, run in parallel.
+ *
+ * Metrics match {@link RiskAnalyticsService#computeRiskAnalytics} with {@code live=true}.
+ */
+@Service
+public class BulkRiskService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRiskService.class);
+    private static final String BENCHMARK = "SPY";
+
+    private final PortfolioRepository portfolioRepository;
+    private final StockPriceHistoryService priceHistoryService;
+    private final RiskAnalyticsService riskAnalyticsService;
+    private final ReturnMatrixBuilder returnMatrixBuilder;
+    private final int maxPortfolios;
+
+    public BulkRiskService(PortfolioRepository portfolioRepository,
+                           StockPriceHistoryService priceHistoryService,
+                           RiskAnalyticsService riskAnalyticsService,
+                           ReturnMatrixBuilder returnMatrixBuilder,
+                           @Value("${app.risk.bulk.max-portfolios:500}") int maxPortfolios) {
+        this.portfolioRepository = portfolioRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.riskAnalyticsService = riskAnalyticsService;
+        this.returnMatrixBuilder = returnMatrixBuilder;
+        this.maxPortfolios = maxPortfolios;
+    }
+
+    /** A portfolio ready to compute, or the reason it cannot be. */
+    private record Job(PortfolioRisk row, PortfolioRiskCalculator.Input input) {
+    }
+
+    /**
+     * @param admin admins may request any portfolio; other callers only their own
+     */
+    @Transactional(readOnly = true)
+    public BulkRiskResponse computeBulk(BulkRiskRequest request, String username, boolean admin) {
+        double confidenceLevel = request.getConfidenceLevel();
+        int timeHorizonDays = request.getTimeHorizonDays();
+        int lookbackDays = request.getLookbackDays();
+        if (confidenceLevel <= 0 || confidenceLevel >= 1 || timeHorizonDays < 1 || lookbackDays < 2) {
+            throw new IllegalArgumentException("Invalid risk parameters");
+        }
+
+        // Ids are settled before anything is fetched: an explicit list over the limit is rejected, "all visible
+        // portfolios" is capped to the lowest maxPortfolios ids
+        List<Long> ids = request.getPortfolioIds();
+        boolean truncated = false;
+        if (ids == null || ids.isEmpty()) {
+            ids = admin ? portfolioRepository.findAllIds() : portfolioRepository.findIdsByUserEmail(username);
+            if (ids.size() > maxPortfolios) {
+                log.info("Bulk risk for all visible portfolios capped at {} of {}", maxPortfolios, ids.size());
+                ids = ids.subList(0, maxPortfolios);
+                truncated = true;
+            }
+        } else {
+            ids = ids.stream().distinct().toList();
+            if (ids.size() > maxPortfolios) {
+                throw new IllegalArgumentException("At most " + maxPortfolios + " portfolios per bulk request");
+            }
+        }
+        List<Portfolio> portfolios = loadPortfolios(ids);
+        long started = System.nanoTime();
+
+        Map<Long, Portfolio> byId = new LinkedHashMap<>();
+        for (Portfolio p : portfolios) {
+            byId.put(p.getId(), p);
+        }
+
+        // Resolve every holding list on this thread (JPA state stays out of the workers)
+        Map<Long, List<Holding>> holdingsById = new LinkedHashMap<>();
+        Map<Long, String> errors = new HashMap<>();
+        Set<String> tickers = new TreeSet<>();
+        for (Long id : ids) {
+            Portfolio p = byId.get(id);
+            if (p == null) {
+                errors.put(id, "Portfolio not found: " + id);
+            } else if (!admin && !p.getUser().getEmail().equals(username)) {
+                errors.put(id, "Access denied");
+            } else {
+                try {
+                    List<Holding> stockHoldings = RiskAnalyticsService.stockHoldings(p);
+                    holdingsById.put(id, stockHoldings);
+                    stockHoldings.forEach(h -> tickers.add(h.getTicker()));
+                } catch (IllegalStateException e) {
+                    errors.put(id, e.getMessage());
+                }
+            }
+        }
+
+        // One return window and one price per distinct ticker: the shared return matrix
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(lookbackDays);
+        Map<String, ReturnSeriesStore.Window> returns = new HashMap<>();
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String ticker : tickers) {
+            ReturnSeriesStore.Window w = priceHistoryService.getReturnWindow(ticker, startDate, endDate);
+            if (!w.isEmpty()) {
+                returns.put(ticker, w);
+                BigDecimal price = riskAnalyticsService.currentPrice(ticker);
+                if (price != null) prices.put(ticker, price);
+            }
+        }
+        ReturnSeriesStore.Window benchmarkReturns = returns.containsKey(BENCHMARK)
+                ? returns.get(BENCHMARK)
+                : priceHistoryService.getReturnWindow(BENCHMARK, startDate, endDate);
+        if (benchmarkReturns.isEmpty()) {
+            log.warn("No local price data for benchmark {}. Run price-history sync first.", BENCHMARK);
+            benchmarkReturns = null;
+        }
+
+        List<Job> jobs = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Portfolio p = byId.get(id);
+            PortfolioRisk row = new PortfolioRisk();
+            row.setPortfolioId(id);
+            if (p != null && (admin || p.getUser().getEmail().equals(username))) {
+                row.setPortfolioName(p.getName());
+                row.setBaseCurrency(p.getBaseCurrency());
+            }
+            PortfolioRiskCalculator.Input input = null;
+            if (!errors.containsKey(id)) {
+                try {
+                    input = input(holdingsById.get(id), returns, prices::get, benchmarkReturns, row,
+                            confidenceLevel, timeHorizonDays);
+                } catch (IllegalStateException e) {
+                    errors.put(id, e.getMessage());
+                }
+            }
+            if (input == null) {
+                row.setStatus("ERROR");
+                row.setError(errors.get(id));
+            }
+            jobs.add(new Job(row, input));
+        }
+
+        List<PortfolioRisk> rows = jobs.parallelStream().map(this::evaluate).toList();
+
+        BulkRiskResponse resp = new BulkRiskResponse();
+        resp.setConfidenceLevel(confidenceLevel);
+        resp.setTimeHorizonDays(timeHorizonDays);
+        resp.setLookbackDays(lookbackDays);
+        resp.setAsOf(endDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        resp.setDistinctTickers(tickers.size());
+        resp.setTruncated(truncated);
+        resp.setComputeMillis((System.nanoTime() - started) / 1_000_000);
+        resp.setPortfolios(rows);
+        log.info("Bulk risk for {} portfolios over {} distinct tickers in {} ms",
+                rows.size(), tickers.size(), resp.getComputeMillis());
+        return resp;
+    }
+
+    private List<Portfolio> loadPortfolios(List<Long> ids) {
+        return ids.isEmpty() ? List.of() : portfolioRepository.findWithHoldingsByIdIn(ids);
+    }
+
+    private PortfolioRiskCalculator.Input input(List<Holding> stockHoldings,
+                                                Map<String, ReturnSeriesStore.Window> returns,
+                                                Function<String, BigDecimal> priceOf,
+                                                ReturnSeriesStore.Window benchmarkReturns, PortfolioRisk row,
+                                                double confidenceLevel, int timeHorizonDays) {
+        Map<String, ReturnSeriesStore.Window> windows = new LinkedHashMap<>();
+        for (Holding h : stockHoldings) {
+            ReturnSeriesStore.Window w = returns.get(h.getTicker());
+            if (w != null) windows.put(h.getTicker(), w);
+        }
+        if (windows.isEmpty()) {
+            throw new IllegalStateException("No historical prices found in local database");
+        }
+        if (benchmarkReturns != null) {
+            windows.putIfAbsent(BENCHMARK, benchmarkReturns);
+        }
+        ReturnMatrix matrix = returnMatrixBuilder.align(windows);
+        List<String> tickers = RiskAnalyticsService.holdingTickers(stockHoldings, matrix);
+
+        Map<String, Double> weights = new LinkedHashMap<>();
+        double totalValue = RiskAnalyticsService.weights(stockHoldings, t -> matrix.indexOf(t) >= 0, priceOf, weights);
+        row.setPortfolioValue(totalValue);
+        return riskAnalyticsService.calculatorInput(matrix, tickers, weights,
+                totalValue, confidenceLevel, timeHorizonDays);
+    }
+
+    private PortfolioRisk evaluate(Job job) {
+        PortfolioRisk row = job.row();
+        if (job.input() == null) {
+            return row;
+        }
+        try {
+            RiskMetrics m = riskAnalyticsService.compute(job.input());
+            row.setStatus("OK");
+            row.setObservations(m.getObservations());
+            row.setHistoricalVar(m.getHistoricalVar());
+            row.setParametricVar(m.getParametricVar());
+            row.setMonteCarloVar(m.getMonteCarloVar());
+            row.setCvar95(m.getCvar95());
+            row.setCvar99(m.getCvar99());
+            row.setAnnualizedVolatility(m.getAnnualizedVolatility());
+            row.setBeta(m.getBeta());
+            row.setSharpeRatio(m.getSharpeRatio());
+            row.setSortinoRatio(m.getSortinoRatio());
+            row.setMaxDrawdown(m.getMaxDrawdown());
+        } catch (RuntimeException e) {
+            log.warn("Bulk risk failed for portfolio {}: {}", row.getPortfolioId(), e.getMessage());
+            row.setStatus("ERROR");
+            row.setError(e.getMessage());
+        }
+        return row;
+    }
+}
@@ -1,9 +1,17 @@
 package com.portfolio.api.service;
 
+import com.portfolio.analytics.CorrelationClustering;
+import com.portfolio.analytics.CorrelationMatrix;
+import com.portfolio.analytics.Covariance;
+import com.portfolio.analytics.ReturnMatrix;
 import com.portfolio.api.dto.CorrelationAnalysisResponse;
 import com.portfolio.api.dto.CorrelationAnalysisResponse.*;
+import com.portfolio.api.dto.CorrelationCluster;
+import com.portfolio.api.dto.RollingCorrelationResponse;
+import com.portfolio.api.model.CorrelationIndexEntry;
 import com.portfolio.api.model.Holding;
 import com.portfolio.api.model.Portfolio;
+import com.portfolio.api.repository.CorrelationIndexRepository;
 import com.portfolio.api.repository.PortfolioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +28,10 @@ import java.util.*;
  *
  * Computes pairwise correlation matrices, identifies concentration risk,
  * suggests hedge instruments, calculates rolling correlations, and
- * scores portfolio diversification.
+ * scores portfolio diversification. Returns come from the same date-aligned
+ * {@link ReturnMatrixBuilder} matrix as risk analytics, so every pair is
+ * compared on the same trade dates. Hedge instruments come from the nightly
+ * universe-wide correlation index when it covers a holding.
  */
 @Service
 public class CorrelationService {
@@ -28,14 +39,21 @@ public class CorrelationService {
     private static final Logger log = LoggerFactory.getLogger(CorrelationService.class);
     private static final double HIGH_CORR_THRESHOLD = 0.7;
     private static final double NEGATIVE_CORR_THRESHOLD = -0.3;
+    private static final String BENCHMARK = "SPY";
+    private static final int INDEX_HEDGES_PER_HOLDING = 3;
+    /** Clusters join while their average pairwise correlation is at least this. */
+    static final double CLUSTER_MIN_CORRELATION = 0.5;
 
     private final PortfolioRepository portfolioRepository;
-    private final StockPriceHistoryService priceHistoryService;
+    private final ReturnMatrixBuilder returnMatrixBuilder;
+    private final CorrelationIndexRepository correlationIndexRepository;
 
     public CorrelationService(PortfolioRepository portfolioRepository,
-                               StockPriceHistoryService priceHistoryService) {
+                               ReturnMatrixBuilder returnMatrixBuilder,
+                               CorrelationIndexRepository correlationIndexRepository) {
         this.portfolioRepository = portfolioRepository;
-        this.priceHistoryService = priceHistoryService;
+        this.returnMatrixBuilder = returnMatrixBuilder;
+        this.correlationIndexRepository = correlationIndexRepository;
     }
 
     /**
@@ -66,45 +84,39 @@ public class CorrelationService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(lookbackDays);
 
-        // Collect return series for each holding
+        // Returns joined on trade date. The benchmark is requested too so this reads the same cached matrix as
+        // risk analytics for the same holdings and lookback; its column is only used when it is held.
+        Set<String> wanted = new LinkedHashSet<>();
+        stockHoldings.forEach(h -> wanted.add(h.getTicker()));
+        wanted.add(BENCHMARK);
+        ReturnMatrix returns = returnMatrixBuilder.build(wanted, startDate, endDate);
+
         List<String> tickers = new ArrayList<>();
         List<String> tickerNames = new ArrayList<>();
-        Map<String, double[]> returnSeries = new LinkedHashMap<>();
-
         for (Holding h : stockHoldings) {
-            double[] prices = priceHistoryService.getClosingPrices(h.getTicker(), startDate, endDate);
-            if (prices.length > 1) {
-                double[] returns = computeReturns(prices);
+            if (tickers.contains(h.getTicker())) continue;
+            if (returns.indexOf(h.getTicker()) >= 0) {
                 tickers.add(h.getTicker());
                 tickerNames.add(h.getName() != null ? h.getName() : h.getTicker());
-                returnSeries.put(h.getTicker(), returns);
             } else {
                 log.warn("Insufficient price data for {} — skipping", h.getTicker());
             }
         }
 
-        if (returnSeries.size() < 2) {
+        if (tickers.size() < 2) {
             throw new IllegalStateException(
                     "Need price data for at least 2 holdings. Sync prices via Batch Prices page first.");
         }
 
-        // Align all return series to the same length (min)
-        int minLen = returnSeries.values().stream().mapToInt(a -> a.length).min().orElse(0);
-        for (Map.Entry<String, double[]> e : returnSeries.entrySet()) {
-            double[] r = e.getValue();
-            if (r.length > minLen) {
-                e.setValue(Arrays.copyOfRange(r, r.length - minLen, r.length));
-            }
-        }
-
         int n = tickers.size();
-        double[][] allReturns = new double[n][];
+        double[][] columns = new double[n][];
         for (int i = 0; i < n; i++) {
-            allReturns[i] = returnSeries.get(tickers.get(i));
+            columns[i] = returns.column(returns.indexOf(tickers.get(i)));
         }
+        int length = returns.length();
 
         // FR-CH-001: Compute correlation matrix
-        double[][] matrix = computeCorrelationMatrix(allReturns);
+        double[][] matrix = CorrelationMatrix.compute(columns, new int[n], length);
 
         // FR-CH-003: Identify highly correlated pairs
         List<CorrelatedPair> highlyCorrelated = new ArrayList<>();
@@ -152,20 +164,21 @@ public class CorrelationService {
         for (int[] pair : topPairs) {
             String key = tickers.get(pair[0]) + "/" + tickers.get(pair[1]);
             RollingCorrelation rc = computeRollingCorrelation(
-                    tickers.get(pair[0]), tickers.get(pair[1]),
-                    returnSeries.get(tickers.get(pair[0])),
-                    returnSeries.get(tickers.get(pair[1])),
-                    endDate, startDate);
+                    tickers.get(pair[0]), tickers.get(pair[1]), columns[pair[0]], columns[pair[1]], length);
             rollingCorrelations.put(key, rc);
         }
 
-        // FR-CH-007: Diversification score
-        double avgOffDiagonal = computeAverageAbsCorrelation(matrix, n);
-        double diversScore = Math.max(0, Math.min(100, (1.0 - avgOffDiagonal) * 100));
+        // FR-CH-007: Diversification from the effective number of independent bets, on cost-basis weights
+        double[] weights = costWeights(tickers, stockHoldings);
+        double[] vols = Covariance.stdDevs(columns, new int[n], length);
+        double effectiveBets = CorrelationClustering.effectiveBets(matrix, weights, vols);
+        double diversScore = Math.max(0, Math.min(100, (effectiveBets - 1) / (n - 1) * 100));
         String diversRating = diversScore >= 80 ? "Excellent" :
                 diversScore >= 60 ? "Good" :
                 diversScore >= 40 ? "Moderate" :
                 diversScore >= 20 ? "Poor" : "Very Poor";
+        List<CorrelationCluster> clusters = clusters(matrix, tickers, weights,
+                CorrelationClustering.riskShares(matrix, weights, vols));
 
         // Build response
         CorrelationAnalysisResponse resp = new CorrelationAnalysisResponse();
@@ -175,44 +188,32 @@ public class CorrelationService {
         resp.setLookbackDays(lookbackDays);
         resp.setTickers(tickers);
         resp.setTickerNames(tickerNames);
-        resp.setCorrelationMatrix(roundMatrix(matrix));
+        resp.setCorrelationMatrix(CorrelationMatrix.round(matrix, 4));
         resp.setHighlyCorrelatedPairs(highlyCorrelated);
         resp.setNegativelyCorrelatedPairs(negativelyCorrelated);
         resp.setHedgeSuggestions(hedgeSuggestions);
         resp.setRollingCorrelations(rollingCorrelations);
         resp.setDiversificationScore(bd(diversScore));
         resp.setDiversificationRating(diversRating);
+        resp.setEffectiveNumberOfBets(bd(effectiveBets));
+        resp.setClusters(clusters);
 
         return resp;
     }
 
-    // ── Correlation Matrix (FR-CH-001) ──
-
-    private double[][] computeCorrelationMatrix(double[][] allReturns) {
-        int n = allReturns.length;
-        double[][] matrix = new double[n][n];
-
-        for (int i = 0; i < n; i++) {
-            matrix[i][i] = 1.0;
-            for (int j = i + 1; j < n; j++) {
-                double corr = pearsonCorrelation(allReturns[i], allReturns[j]);
-                matrix[i][j] = corr;
-                matrix[j][i] = corr;
-            }
-        }
-
-        return matrix;
-    }
+    // ── Pairwise Correlation ──
 
-    private double pearsonCorrelation(double[] x, double[] y) {
-        int n = Math.min(x.length, y.length);
+    /**
+     * Correlation of two date-aligned columns over rows [off, off + n).
+     */
+    private double pearsonCorrelation(double[] x, double[] y, int off, int n) {
         if (n < 2) return 0;
 
-        double meanX = mean(x, n);
-        double meanY = mean(y, n);
+        double meanX = mean(x, off, n);
+        double meanY = mean(y, off, n);
 
         double sumXY = 0, sumX2 = 0, sumY2 = 0;
-        for (int i = 0; i < n; i++) {
+        for (int i = off; i < off + n; i++) {
             double dx = x[i] - meanX;
             double dy = y[i] - meanY;
             sumXY += dx * dy;
@@ -227,33 +228,24 @@ public class CorrelationService {
     // ── Rolling Correlations (FR-CH-006) ──
 
     private RollingCorrelation computeRollingCorrelation(String ticker1, String ticker2,
-                                                          double[] returns1, double[] returns2,
-                                                          LocalDate endDate, LocalDate startDate) {
+                                                          double[] returns1, double[] returns2, int len) {
         RollingCorrelation rc = new RollingCorrelation();
         rc.setTicker1(ticker1);
         rc.setTicker2(ticker2);
 
-        int len = Math.min(returns1.length, returns2.length);
-
         // 30-day rolling
         if (len >= 30) {
-            double[] r1 = Arrays.copyOfRange(returns1, len - 30, len);
-            double[] r2 = Arrays.copyOfRange(returns2, len - 30, len);
-            rc.setCorrelation30d(bd(pearsonCorrelation(r1, r2)));
+            rc.setCorrelation30d(bd(pearsonCorrelation(returns1, returns2, len - 30, 30)));
         }
 
         // 90-day rolling
         if (len >= 90) {
-            double[] r1 = Arrays.copyOfRange(returns1, len - 90, len);
-            double[] r2 = Arrays.copyOfRange(returns2, len - 90, len);
-            rc.setCorrelation90d(bd(pearsonCorrelation(r1, r2)));
+            rc.setCorrelation90d(bd(pearsonCorrelation(returns1, returns2, len - 90, 90)));
         }
 
         // 1-year (252 trading days) or full period
         int yearLen = Math.min(252, len);
-        double[] r1y = Arrays.copyOfRange(returns1, len - yearLen, len);
-        double[] r2y = Arrays.copyOfRange(returns2, len - yearLen, len);
-        rc.setCorrelation1y(bd(pearsonCorrelation(r1y, r2y)));
+        rc.setCorrelation1y(bd(pearsonCorrelation(returns1, returns2, len - yearLen, yearLen)));
 
         // Trend: compare 30d vs 1y
         if (rc.getCorrelation30d() != null && rc.getCorrelation1y() != null) {
@@ -268,6 +260,54 @@ public class CorrelationService {
         return rc;
     }
 
+    /**
+     * Full rolling correlation and beta series of {@code ticker1} against {@code ticker2}, one point per window
+     * ending in the lookback, for charting regime changes. Computed in a single sliding-window pass.
+     */
+    @Transactional(readOnly = true)
+    public RollingCorrelationResponse rollingCorrelation(String ticker1, String ticker2, int window, int lookbackDays) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Rolling window must be at least 2");
+        }
+        if (ticker1.equals(ticker2)) {
+            throw new IllegalArgumentException("Tickers must differ");
+        }
+        LocalDate endDate = LocalDate.now();
+        ReturnMatrix returns = returnMatrixBuilder.build(new LinkedHashSet<>(List.of(ticker1, ticker2)),
+                endDate.minusDays(lookbackDays), endDate);
+        int i1 = returns.indexOf(ticker1);
+        int i2 = returns.indexOf(ticker2);
+        if (i1 < 0 || i2 < 0) {
+            throw new IllegalStateException("No price data for " + (i1 < 0 ? ticker1 : ticker2)
+                    + ". Sync prices via Batch Prices page first.");
+        }
+        int length = returns.length();
+        if (length < window) {
+            throw new IllegalStateException("Only " + length + " overlapping observations for a "
+                    + window + "-day window");
+        }
+
+        com.portfolio.analytics.RollingCorrelation.Result series = com.portfolio.analytics.RollingCorrelation
+                .compute(returns.column(i1), returns.column(i2), 0, length, window);
+
+        List<RollingCorrelationResponse.Point> points = new ArrayList<>(series.size());
+        for (int p = 0; p < series.size(); p++) {
+            double beta = series.beta()[p];
+            points.add(new RollingCorrelationResponse.Point(
+                    LocalDate.ofEpochDay(returns.epochDay(p + window - 1)).toString(),
+                    series.correlation()[p], Double.isNaN(beta) ? null : beta));
+        }
+
+        RollingCorrelationResponse resp = new RollingCorrelationResponse();
+        resp.setTicker1(ticker1);
+        resp.setTicker2(ticker2);
+        resp.setWindow(window);
+        resp.setLookbackDays(lookbackDays);
+        resp.setObservations(length);
+        resp.setPoints(points);
+        return resp;
+    }
+
     // ── Hedge Suggestions (FR-CH-005) ──
 
     private List<HedgeSuggestion> generateHedgeSuggestions(List<String> tickers,
@@ -275,7 +315,7 @@ public class CorrelationService {
                                                             List<Holding> holdings) {
         List<HedgeSuggestion> suggestions = new ArrayList<>();
 
-        // Sector-based hedge mapping: sector → inverse ETF / hedge instruments
+        // Sector-based hedge mapping for holdings the correlation index does not cover yet
         Map<String, String[]> sectorHedges = Map.of(
                 "Technology", new String[]{"SH", "Short S&P 500 ETF — broad market hedge", "-0.95"},
                 "Healthcare", new String[]{"RWM", "Short Russell 2000 ETF — small-cap hedge", "-0.85"},
@@ -289,6 +329,8 @@ public class CorrelationService {
         );
 
         Set<String> suggestedInstruments = new HashSet<>();
+        Set<String> held = new HashSet<>(tickers);
+        Map<String, List<CorrelationIndexEntry>> indexed = indexedPeers(tickers);
 
         for (int i = 0; i < tickers.size(); i++) {
             String ticker = tickers.get(i);
@@ -301,8 +343,29 @@ public class CorrelationService {
 
             String sector = h.getSector() != null ? h.getSector() : "Unknown";
 
-            // Sector-specific inverse ETF
-            if (sectorHedges.containsKey(sector)) {
+            // Measured hedges from the correlation index: negatively correlated peers, then uncorrelated ones.
+            // A weakly negative peer can rank in both lists; it is suggested once, under the first.
+            List<CorrelationIndexEntry> peers = indexed.getOrDefault(ticker, List.of());
+            if (!peers.isEmpty()) {
+                int added = 0;
+                Set<String> named = new HashSet<>();
+                for (CorrelationIndexEntry e : peers) {
+                    if (added == INDEX_HEDGES_PER_HOLDING) break;
+                    if (held.contains(e.getPeerTicker()) || !named.add(e.getPeerTicker())) continue;
+                    boolean negative = CorrelationIndexEntry.NEGATIVE.equals(e.getRelation());
+                    HedgeSuggestion s = new HedgeSuggestion();
+                    s.setHoldingTicker(ticker);
+                    s.setHoldingName(tickerName);
+                    s.setHedgeType(negative ? "Negative Correlation" : "Uncorrelated Asset");
+                    s.setHedgeInstrument(e.getPeerTicker());
+                    s.setDescription(String.format("Correlation %.2f with %s over %d trade dates to %s",
+                            e.getCorrelation(), ticker, e.getObservations(), e.getAsOfDate()));
+                    s.setExpectedCorrelation(bd(e.getCorrelation()));
+                    suggestions.add(s);
+                    added++;
+                }
+            } else if (sectorHedges.containsKey(sector)) {
+                // Not in the index yet: sector-specific inverse ETF
                 String[] hedge = sectorHedges.get(sector);
                 if (suggestedInstruments.add(hedge[0] + "-" + ticker)) {
                     HedgeSuggestion s = new HedgeSuggestion();
@@ -360,34 +423,89 @@ public class CorrelationService {
         return suggestions;
     }
 
+    /**
+     * Index entries for the given tickers from the latest nightly run, by ticker in rank order; empty when the
+     * index has not been built.
+     */
+    private Map<String, List<CorrelationIndexEntry>> indexedPeers(List<String> tickers) {
+        LocalDate asOf = correlationIndexRepository.findLatestAsOfDate();
+        if (asOf == null) {
+            return Map.of();
+        }
+        Map<String, List<CorrelationIndexEntry>> byTicker = new HashMap<>();
+        for (CorrelationIndexEntry e : correlationIndexRepository
+                .findByAsOfDateAndTickerInOrderByTickerAscRelationAscPeerRankAsc(asOf, tickers)) {
+            byTicker.computeIfAbsent(e.getTicker(), t -> new ArrayList<>()).add(e);
+        }
+        return byTicker;
+    }
+
     // ── Diversification Score (FR-CH-007) ──
 
-    private double computeAverageAbsCorrelation(double[][] matrix, int n) {
-        if (n < 2) return 0;
-        double sum = 0;
-        int count = 0;
+    /**
+     * Average-linkage clusters of the matrix cut at {@link #CLUSTER_MIN_CORRELATION}, largest risk share first.
+     */
+    static List<CorrelationCluster> clusters(double[][] matrix, List<String> names, double[] weights,
+                                             double[] riskShares) {
+        int n = names.size();
+        CorrelationClustering.Dendrogram tree =
+                CorrelationClustering.cluster(matrix, CorrelationClustering.Linkage.AVERAGE);
+        int[] labels = CorrelationClustering.cutAt(tree, CorrelationClustering.distance(CLUSTER_MIN_CORRELATION));
+
+        List<List<Integer>> members = new ArrayList<>();
         for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                sum += Math.abs(matrix[i][j]);
-                count++;
+            while (members.size() <= labels[i]) members.add(new ArrayList<>());
+            members.get(labels[i]).add(i);
+        }
+        List<CorrelationCluster> clusters = new ArrayList<>(members.size());
+        for (List<Integer> group : members) {
+            double weight = 0, risk = 0, corrSum = 0;
+            List<String> tickers = new ArrayList<>(group.size());
+            for (int a = 0; a < group.size(); a++) {
+                int i = group.get(a);
+                tickers.add(names.get(i));
+                weight += weights[i];
+                risk += riskShares[i];
+                for (int b = a + 1; b < group.size(); b++) corrSum += matrix[i][group.get(b)];
             }
+            int pairs = group.size() * (group.size() - 1) / 2;
+            CorrelationCluster c = new CorrelationCluster();
+            c.setTickers(tickers);
+            c.setWeight(weight);
+            c.setRiskContribution(risk);
+            c.setAverageCorrelation(pairs > 0 ? corrSum / pairs : null);
+            clusters.add(c);
         }
-        return count == 0 ? 0 : sum / count;
+        clusters.sort(Comparator.comparingDouble(CorrelationCluster::getRiskContribution).reversed());
+        for (int k = 0; k < clusters.size(); k++) clusters.get(k).setId(k + 1);
+        return clusters;
     }
 
-    // ── Helpers ──
-
-    private double[] computeReturns(double[] prices) {
-        double[] returns = new double[prices.length - 1];
-        for (int i = 1; i < prices.length; i++) {
-            returns[i - 1] = prices[i - 1] == 0 ? 0 : (prices[i] - prices[i - 1]) / prices[i - 1];
+    /**
+     * Fractions of total cost basis per ticker (lots merged); equal weights when no holding has a cost.
+     */
+    private double[] costWeights(List<String> tickers, List<Holding> holdings) {
+        int n = tickers.size();
+        double[] weights = new double[n];
+        double total = 0;
+        for (Holding h : holdings) {
+            int i = tickers.indexOf(h.getTicker());
+            if (i < 0 || h.getQuantity() == null || h.getPurchasePrice() == null) continue;
+            double cost = h.getQuantity().doubleValue() * h.getPurchasePrice().doubleValue();
+            weights[i] += cost;
+            total += cost;
         }
-        return returns;
+        for (int i = 0; i < n; i++) {
+            weights[i] = total > 0 ? weights[i] / total : 1.0 / n;
+        }
+        return weights;
     }
 
-    private double mean(double[] data, int n) {
+    // ── Helpers ──
+
+    private double mean(double[] data, int off, int n) {
         double sum = 0;
-        for (int i = 0; i < n; i++) sum += data[i];
+        for (int i = 0; i < n; i++) sum += data[off + i];
         return n == 0 ? 0 : sum / n;
     }
 
@@ -405,17 +523,6 @@ public class CorrelationService {
         return pairs.subList(0, Math.min(maxPairs, pairs.size()));
     }
 
-    private double[][] roundMatrix(double[][] matrix) {
-        double[][] rounded = new double[matrix.length][];
-        for (int i = 0; i < matrix.length; i++) {
-            rounded[i] = new double[matrix[i].length];
-            for (int j = 0; j < matrix[i].length; j++) {
-                rounded[i][j] = Math.round(matrix[i][j] * 10000.0) / 10000.0;
-            }
-        }
-        return rounded;
-    }
-
     private BigDecimal bd(double value) {
         return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
     }
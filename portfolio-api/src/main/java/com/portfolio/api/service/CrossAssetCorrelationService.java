@@ -0,0 +1,244 @@
+package com.portfolio.api.service;
+
+import com.portfolio.analytics.CorrelationClustering;
+import com.portfolio.analytics.CorrelationMatrix;
+import com.portfolio.analytics.Covariance;
+import com.portfolio.analytics.ReturnMatrix;
+import com.portfolio.api.dto.CrossAssetCorrelationResponse;
+import com.portfolio.api.dto.CrossAssetCorrelationResponse.Instrument;
+import com.portfolio.api.repository.MarketPriceHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Cross-asset correlation over {@code market_price_history} (FR-CH-008), e.g. equities against crypto.
+ *
+ * Instruments trade on different calendars (crypto every day, equities on sessions), so returns are not joined
+ * on date. Closes of every requested instrument are read in one query and sampled on a common session calendar
+ * ({@link ReturnMatrix#alignToCalendar}): by default the trade dates of the equities in the request, so weekend
+ * crypto moves land in Monday's return. The matrix itself is the tiled {@link CorrelationMatrix} product, which
+ * keeps universes of hundreds of instruments cheap, and the instruments are grouped by average-linkage clustering on
+ * correlation distance.
+ */
+@Service
+public class CrossAssetCorrelationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CrossAssetCorrelationService.class);
+    private static final String DEFAULT_CALENDAR = "EQUITY";
+    /** Days an instrument's history may start late or end early before it is skipped rather than shortening
+     *  the window for every other instrument. */
+    private static final int EDGE_GRACE_DAYS = 7;
+
+    private final MarketPriceHistoryRepository marketPriceHistoryRepository;
+    private final int maxInstruments;
+
+    public CrossAssetCorrelationService(MarketPriceHistoryRepository marketPriceHistoryRepository,
+                                        @Value("${app.correlation.cross-asset.max-instruments:1000}") int maxInstruments) {
+        this.marketPriceHistoryRepository = marketPriceHistoryRepository;
+        this.maxInstruments = maxInstruments;
+    }
+
+    /**
+     * @param tickers      instruments to correlate, in any asset class; when empty, every instrument of
+     *                     {@code assetClasses}
+     * @param assetClasses restricts {@code tickers} to these classes, or selects the universe when no tickers
+     * @param calendar     asset class whose trade dates are the sessions; all dates when none of it is present
+     */
+    @Transactional(readOnly = true)
+    public CrossAssetCorrelationResponse correlate(List<String> tickers, List<String> assetClasses,
+                                                   String calendar, int lookbackDays) {
+        Set<String> wantedTickers = normalize(tickers);
+        Set<String> wantedClasses = normalize(assetClasses);
+        if (wantedTickers.isEmpty() && wantedClasses.isEmpty()) {
+            throw new IllegalArgumentException("Provide tickers or asset classes");
+        }
+        if (lookbackDays < 2) {
+            throw new IllegalArgumentException("Lookback must be at least 2 days");
+        }
+        String calendarClass = calendar == null || calendar.isBlank()
+                ? DEFAULT_CALENDAR : calendar.trim().toUpperCase(Locale.ROOT);
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(lookbackDays);
+        // The instrument limit is checked before any closes are read: whole asset classes are counted first
+        long requested = wantedTickers.isEmpty()
+                ? marketPriceHistoryRepository.countInstrumentsByAssetClasses(wantedClasses, from, to)
+                : wantedTickers.size();
+        checkInstrumentLimit(requested);
+        List<Object[]> rows = wantedTickers.isEmpty()
+                ? marketPriceHistoryRepository.findClosesByAssetClasses(wantedClasses, from, to)
+                : marketPriceHistoryRepository.findClosesByTickers(wantedTickers, from, to);
+
+        // A listed ticker stored under several asset classes counts once per class
+        List<Series> series = group(rows, wantedTickers.isEmpty() ? Set.of() : wantedClasses);
+        checkInstrumentLimit(series.size());
+
+        int[] sessions = calendar(series, calendarClass);
+        List<String> skipped = new ArrayList<>();
+        List<Series> kept = new ArrayList<>();
+        if (sessions.length > 0) {
+            int first = sessions[0] + EDGE_GRACE_DAYS;
+            int last = sessions[sessions.length - 1] - EDGE_GRACE_DAYS;
+            for (Series s : series) {
+                if (s.length < 2 || s.days[0] > first || s.days[s.length - 1] < last) {
+                    skipped.add(s.label);
+                } else {
+                    kept.add(s);
+                }
+            }
+        }
+        if (kept.size() < 2) {
+            throw new IllegalStateException(
+                    "Need price history covering the lookback for at least 2 instruments. Sync market prices first.");
+        }
+
+        int n = kept.size();
+        String[] names = new String[n];
+        int[][] days = new int[n][];
+        double[][] closes = new double[n][];
+        int[] lengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            Series s = kept.get(i);
+            names[i] = s.label;
+            days[i] = s.days;
+            closes[i] = s.closes;
+            lengths[i] = s.length;
+        }
+        ReturnMatrix returns = ReturnMatrix.alignToCalendar(names, days, closes, new int[n], lengths, sessions);
+        if (returns.length() < 2) {
+            throw new IllegalStateException("Instruments share fewer than 2 sessions in the lookback");
+        }
+
+        double[][] columns = new double[n][];
+        for (int i = 0; i < n; i++) {
+            columns[i] = returns.column(i);
+        }
+        double[][] matrix = CorrelationMatrix.compute(columns, new int[n], returns.length());
+
+        List<Instrument> instruments = new ArrayList<>(n);
+        double[] weights = new double[n];
+        double[] vols = Covariance.stdDevs(columns, new int[n], returns.length());
+        for (int i = 0; i < n; i++) {
+            Series s = kept.get(i);
+            instruments.add(new Instrument(s.ticker, s.assetClass, returns.observed(i)));
+            weights[i] = 1.0 / n;
+        }
+        if (!skipped.isEmpty()) {
+            log.info("Cross-asset correlation skipped {} instruments without full history: {}", skipped.size(), skipped);
+        }
+
+        CrossAssetCorrelationResponse resp = new CrossAssetCorrelationResponse();
+        resp.setCalendar(calendarClass);
+        resp.setLookbackDays(lookbackDays);
+        resp.setFromDate(LocalDate.ofEpochDay(returns.epochDay(0)).toString());
+        resp.setToDate(LocalDate.ofEpochDay(returns.epochDay(returns.length() - 1)).toString());
+        resp.setSessions(returns.length());
+        resp.setInstruments(instruments);
+        resp.setCorrelationMatrix(CorrelationMatrix.round(matrix, 4));
+        resp.setEffectiveNumberOfBets(CorrelationClustering.effectiveBets(matrix, weights, vols));
+        resp.setClusters(CorrelationService.clusters(matrix, Arrays.asList(names), weights,
+                CorrelationClustering.riskShares(matrix, weights, vols)));
+        resp.setSkipped(skipped);
+        return resp;
+    }
+
+    // ── Helpers ──
+
+    private static final class Series {
+        final String ticker;
+        final String assetClass;
+        String label;
+        int[] days = new int[64];
+        double[] closes = new double[64];
+        int length;
+
+        Series(String ticker, String assetClass) {
+            this.ticker = ticker;
+            this.assetClass = assetClass;
+            this.label = ticker;
+        }
+
+        void add(int day, double close) {
+            if (length == days.length) {
+                days = Arrays.copyOf(days, length * 2);
+                closes = Arrays.copyOf(closes, length * 2);
+            }
+            days[length] = day;
+            closes[length] = close;
+            length++;
+        }
+    }
+
+    /**
+     * Splits rows ordered by (ticker, assetClass, tradeDate) into one series per instrument. A ticker stored
+     * under two asset classes is labelled with its class.
+     */
+    private List<Series> group(List<Object[]> rows, Set<String> classFilter) {
+        List<Series> series = new ArrayList<>();
+        Map<String, Integer> perTicker = new HashMap<>();
+        Series current = null;
+        for (Object[] row : rows) {
+            String ticker = (String) row[0];
+            String assetClass = (String) row[1];
+            if (!classFilter.isEmpty() && !classFilter.contains(assetClass)) continue;
+            if (current == null || !current.ticker.equals(ticker) || !current.assetClass.equals(assetClass)) {
+                current = new Series(ticker, assetClass);
+                series.add(current);
+                perTicker.merge(ticker, 1, Integer::sum);
+            }
+            current.add((int) ((LocalDate) row[2]).toEpochDay(), ((BigDecimal) row[3]).doubleValue());
+        }
+        for (Series s : series) {
+            if (perTicker.get(s.ticker) > 1) s.label = s.ticker + ":" + s.assetClass;
+        }
+        return series;
+    }
+
+    /**
+     * Distinct trade dates of the calendar asset class, ascending; of every instrument when that class is absent.
+     */
+    private int[] calendar(List<Series> series, String calendarClass) {
+        boolean present = series.stream().anyMatch(s -> s.assetClass.equals(calendarClass));
+        int total = 0;
+        for (Series s : series) {
+            if (!present || s.assetClass.equals(calendarClass)) total += s.length;
+        }
+        int[] all = new int[total];
+        int k = 0;
+        for (Series s : series) {
+            if (!present || s.assetClass.equals(calendarClass)) {
+                System.arraycopy(s.days, 0, all, k, s.length);
+                k += s.length;
+            }
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) all[distinct++] = all[i];
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    private static Set<String> normalize(List<String> values) {
+        Set<String> out = new LinkedHashSet<>();
+        if (values == null) return out;
+        for (String v : values) {
+            if (v != null && !v.isBlank()) out.add(v.trim().toUpperCase(Locale.ROOT));
+        }
+        return out;
+    }
+
+    private void checkInstrumentLimit(long instruments) {
+        if (instruments > maxInstruments) {
+            throw new IllegalArgumentException("At most " + maxInstruments + " instruments per request, got "
+                    + instruments);
+        }
+    }
+}
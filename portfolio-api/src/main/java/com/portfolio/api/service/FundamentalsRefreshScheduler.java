@@ -0,0 +1,49 @@
+package com.portfolio.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Starts the nightly fundamentals refresh behind custom screens (FR-SC-008). The run itself is on its own
+ * virtual thread, so the hours it may take do not hold a scheduler thread.
+ */
+@Component
+public class FundamentalsRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FundamentalsRefreshScheduler.class);
+
+    private final TaskScheduler taskScheduler;
+    private final FundamentalsRefreshService refreshService;
+    private final boolean enabled;
+    private final String cron;
+
+    public FundamentalsRefreshScheduler(TaskScheduler taskScheduler,
+                                        FundamentalsRefreshService refreshService,
+                                        @Value("${app.fundamentals.enabled:true}") boolean enabled,
+                                        @Value("${app.fundamentals.refresh-cron:0 0 1 * * *}") String cron) {
+        this.taskScheduler = taskScheduler;
+        this.refreshService = refreshService;
+        this.enabled = enabled;
+        this.cron = cron;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            log.info("Scheduling fundamentals refresh with cron: {}", cron);
+            taskScheduler.schedule(this::run, new CronTrigger(cron));
+        }
+    }
+
+    private void run() {
+        if (!refreshService.start()) {
+            log.info("Fundamentals refresh still running from the previous schedule; skipped");
+        }
+    }
+}
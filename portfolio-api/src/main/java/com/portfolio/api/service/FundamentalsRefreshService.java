@@ -0,0 +1,260 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.StockFundamentals;
+import com.portfolio.api.repository.StockFundamentalsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@code stock_fundamentals} current for the whole listed universe, so custom screens (FR-SC-008) need
+ * no provider calls.
+ *
+ * A run first syncs the listing from the provider's symbol list (one call per exchange), adding new common
+ * stocks and marking vanished ones unlisted. It then refreshes profile, metrics and quote (three calls per
+ * stock) for the stalest stocks first, never-fetched ones leading, in chunks that are saved as they finish.
+ * Provider calls are paced by the shared {@link ProviderRateLimiter} inside {@link MarketDataService}; at most
+ * {@code app.fundamentals.max-concurrent} stocks are in flight, so interactive callers still find start slots.
+ * A run spends at most {@code calls-per-minute × max-minutes} calls and stops after {@code max-minutes}. At
+ * the budget of a free provider plan that is several thousand stocks a night, so the universe is covered over
+ * a few nights and then kept rotating; a larger plan covers it in one run. Each run ends by rebuilding the
+ * {@link ScreeningEngine} snapshot.
+ *
+ * A stock whose provider calls fail (HTTP error, timeout, rate limit) keeps its previous status and data, so
+ * it stays screenable, and only rotates to the back; {@code ERROR} marks one with no earlier result to keep.
+ * {@code NO_DATA} is only recorded when the provider answered with nothing. A chunk in which every fetch
+ * failed ends the run, so an outage does not push the whole universe back.
+ */
+@Service
+public class FundamentalsRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(FundamentalsRefreshService.class);
+    private static final String COMMON_STOCK = "Common Stock";
+    private static final int CALLS_PER_STOCK = 3;
+    private static final int CHUNK_SIZE = 200;
+
+    private final MarketDataService marketDataService;
+    private final StockFundamentalsRepository repository;
+    private final ScreeningEngine screeningEngine;
+    private final List<String> exchanges;
+    private final int maxConcurrent;
+    private final long callsPerRun;
+    private final Duration maxDuration;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public FundamentalsRefreshService(MarketDataService marketDataService,
+                                      StockFundamentalsRepository repository,
+                                      ScreeningEngine screeningEngine,
+                                      @Value("${app.fundamentals.exchanges:US}") List<String> exchanges,
+                                      @Value("${app.fundamentals.calls-per-minute:55}") double callsPerMinute,
+                                      @Value("${app.fundamentals.max-concurrent:4}") int maxConcurrent,
+                                      @Value("${app.fundamentals.max-minutes:300}") long maxMinutes) {
+        this.marketDataService = marketDataService;
+        this.repository = repository;
+        this.screeningEngine = screeningEngine;
+        this.exchanges = exchanges;
+        this.maxConcurrent = maxConcurrent;
+        this.callsPerRun = (long) (callsPerMinute * maxMinutes);
+        this.maxDuration = Duration.ofMinutes(maxMinutes);
+    }
+
+    /**
+     * Starts a run on its own virtual thread; false when one is already running.
+     */
+    public boolean start() {
+        if (running.get()) {
+            return false;
+        }
+        Thread.ofVirtual().name("fundamentals-refresh").start(this::refresh);
+        return true;
+    }
+
+    /**
+     * Runs a refresh in the calling thread and returns its summary, or the previous summary when a run is
+     * already in progress.
+     */
+    public Map<String, Object> refresh() {
+        if (!running.compareAndSet(false, true)) {
+            return lastRun;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long deadline = System.nanoTime() + maxDuration.toNanos();
+            int[] listing = syncListing();
+            int refreshed = 0, noData = 0, failed = 0;
+            long budget = callsPerRun / CALLS_PER_STOCK;
+
+            while (budget > 0 && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                List<StockFundamentals> chunk =
+                        repository.findStalest(PageRequest.of(0, (int) Math.min(CHUNK_SIZE, budget)));
+                // Back at stocks refreshed in this run: the whole universe is current
+                if (chunk.isEmpty() || isAfter(chunk.get(0).getFetchedAt(), startedAt)) break;
+
+                List<Future<?>> fetches = new ArrayList<>(chunk.size());
+                try (ExecutorService scope = Executors.newFixedThreadPool(maxConcurrent, Thread.ofVirtual().factory())) {
+                    for (StockFundamentals f : chunk) {
+                        fetches.add(scope.submit(() -> fetch(f)));
+                    }
+                }
+                int chunkFailed = 0;
+                for (int i = 0; i < chunk.size(); i++) {
+                    StockFundamentals f = chunk.get(i);
+                    if (fetches.get(i).state() == Future.State.FAILED) {
+                        log.warn("Fundamentals fetch failed for {}: {}", f.getTicker(),
+                                fetches.get(i).exceptionNow().toString());
+                        if (f.getFetchStatus() == null) f.setFetchStatus(StockFundamentals.ERROR);
+                        f.setFetchedAt(LocalDateTime.now());
+                        chunkFailed++;
+                    } else if (StockFundamentals.OK.equals(f.getFetchStatus())) {
+                        refreshed++;
+                    } else {
+                        noData++;
+                    }
+                }
+                repository.saveAll(chunk);
+                budget -= chunk.size();
+                failed += chunkFailed;
+                if (chunkFailed == chunk.size()) {
+                    log.warn("Every fundamentals fetch in a chunk of {} failed; ending the run", chunk.size());
+                    break;
+                }
+            }
+            screeningEngine.rebuild();
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("startedAt", startedAt.toString());
+            summary.put("finishedAt", LocalDateTime.now().toString());
+            summary.put("listed", repository.countByListedTrue());
+            summary.put("added", listing[0]);
+            summary.put("delisted", listing[1]);
+            summary.put("refreshed", refreshed);
+            summary.put("noData", noData);
+            summary.put("failed", failed);
+            log.info("Fundamentals refresh: {}", summary);
+            lastRun = summary;
+            return summary;
+        } catch (RuntimeException e) {
+            log.error("Fundamentals refresh failed: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("listed", repository.countByListedTrue());
+        status.put("fetched", repository.countByListedTrueAndFetchedAtIsNotNull());
+        LocalDateTime oldest = repository.findOldestFetchedAt();
+        status.put("oldestFetchedAt", oldest != null ? oldest.toString() : null);
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    /**
+     * Adds new common stocks and flips {@code listed} for symbols that left or rejoined the list.
+     * An exchange whose symbol list cannot be fetched is left as it is.
+     *
+     * @return {added, delisted}
+     */
+    private int[] syncListing() {
+        int added = 0, delisted = 0;
+        for (String exchange : exchanges) {
+            Map<String, String> names = new HashMap<>();
+            for (Map<String, Object> s : marketDataService.getStockSymbols(exchange)) {
+                if (COMMON_STOCK.equals(s.get("type")) && s.get("symbol") instanceof String symbol) {
+                    names.put(symbol, str(s, "description"));
+                }
+            }
+            if (names.isEmpty()) {
+                log.warn("No symbols for exchange {}; listing left unchanged", exchange);
+                continue;
+            }
+
+            List<StockFundamentals> changed = new ArrayList<>();
+            Set<String> known = new HashSet<>();
+            for (StockFundamentals f : repository.findByExchange(exchange)) {
+                known.add(f.getTicker());
+                boolean listed = names.containsKey(f.getTicker());
+                if (listed != f.isListed()) {
+                    f.setListed(listed);
+                    changed.add(f);
+                    if (!listed) delisted++;
+                }
+            }
+            for (Map.Entry<String, String> e : names.entrySet()) {
+                if (known.contains(e.getKey())) continue;
+                StockFundamentals f = new StockFundamentals();
+                f.setTicker(e.getKey());
+                f.setExchange(exchange);
+                f.setName(e.getValue());
+                changed.add(f);
+                added++;
+            }
+            repository.saveAll(changed);
+        }
+        return new int[]{added, delisted};
+    }
+
+    private void fetch(StockFundamentals f) {
+        String ticker = f.getTicker();
+        // Any of these throwing leaves f untouched; the caller keeps its previous status and data
+        Map<String, Object> profile = marketDataService.fetchCompanyProfile(ticker);
+        Map<String, Object> financials = marketDataService.fetchBasicFinancials(ticker);
+        Map<String, Object> quote = marketDataService.fetchQuote(ticker);
+
+        boolean any = false;
+        if (profile != null && !profile.isEmpty()) {
+            any = true;
+            if (profile.get("name") instanceof String name) f.setName(name);
+            f.setIndustry(str(profile, "finnhubIndustry"));
+            f.setCountry(str(profile, "country"));
+            f.setCurrency(str(profile, "currency"));
+            f.setMarketCap(num(profile, "marketCapitalization"));
+        }
+        if (financials != null && financials.get("metric") instanceof Map<?, ?> metric && !metric.isEmpty()) {
+            any = true;
+            f.setPeRatio(num(metric, "peNormalizedAnnual"));
+            f.setEps(num(metric, "epsNormalizedAnnual"));
+            f.setDividendYield(num(metric, "dividendYieldIndicatedAnnual"));
+            f.setBeta(num(metric, "beta"));
+            f.setWeekHigh52(num(metric, "52WeekHigh"));
+            f.setWeekLow52(num(metric, "52WeekLow"));
+        }
+        Double price = quote != null ? num(quote, "c") : null;
+        if (price != null && price > 0) {
+            any = true;
+            f.setCurrentPrice(price);
+            f.setChangePercent(num(quote, "dp"));
+        }
+        // NO_DATA rows are stamped too, so they rotate to the back instead of being retried every chunk; the
+        // screening snapshot only takes OK rows
+        f.setFetchStatus(any ? StockFundamentals.OK : StockFundamentals.NO_DATA);
+        f.setFetchedAt(LocalDateTime.now());
+    }
+
+    private static boolean isAfter(LocalDateTime fetchedAt, LocalDateTime startedAt) {
+        return fetchedAt != null && !fetchedAt.isBefore(startedAt);
+    }
+
+    private static String str(Map<?, ?> map, String key) {
+        Object v = map.get(key);
+        return v != null && !v.toString().isBlank() ? v.toString() : null;
+    }
+
+    private static Double num(Map<?, ?> map, String key) {
+        return map.get(key) instanceof Number n ? n.doubleValue() : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.IntradayBarConfig;
+import com.portfolio.api.model.IntradayPriceBar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Keeps 1-minute bars current for the configured tickers (rolled up to 5m/1h on write)
+ * and prunes expired intraday bars once a day.
+ */
+@Component
+public class IntradayBarScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(IntradayBarScheduler.class);
+
+    private final TaskScheduler taskScheduler;
+    private final IntradayBarService intradayBarService;
+    private final IntradayBarConfig config;
+
+    public IntradayBarScheduler(TaskScheduler taskScheduler,
+                                IntradayBarService intradayBarService,
+                                IntradayBarConfig config) {
+        this.taskScheduler = taskScheduler;
+        this.intradayBarService = intradayBarService;
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (config.getSyncTickers().stream().anyMatch(t -> !t.isBlank())) {
+            log.info("Starting intraday bar sync every {} min for {}", config.getSyncIntervalMinutes(), config.getSyncTickers());
+            taskScheduler.scheduleAtFixedRate(this::syncTickers, Duration.ofMinutes(config.getSyncIntervalMinutes()));
+        }
+        taskScheduler.schedule(this::purge, new CronTrigger(config.getPurgeCron()));
+    }
+
+    private void syncTickers() {
+        for (String ticker : config.getSyncTickers()) {
+            if (ticker.isBlank()) continue;
+            try {
+                intradayBarService.sync(ticker, IntradayPriceBar.ONE_MINUTE, null);
+            } catch (Exception e) {
+                log.warn("Intraday sync failed for {}: {}", ticker, e.getMessage());
+            }
+        }
+    }
+
+    private void purge() {
+        try {
+            intradayBarService.purgeExpired();
+        } catch (Exception e) {
+            log.error("Intraday bar purge failed: {}", e.getMessage(), e);
+        }
+    }
+}
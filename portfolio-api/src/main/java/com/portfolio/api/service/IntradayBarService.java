@@ -0,0 +1,356 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.IntradayBarConfig;
+import com.portfolio.api.model.IntradayPriceBar;
+import com.portfolio.api.repository.IntradayPriceBarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent intraday bar store (1m, 5m, 60m).
+ *
+ * Bars are pulled by delta from the last stored bar (the last bar is re-fetched since it may have been
+ * partial), backfilled once when a caller asks for history older than what is stored, and rolled up into
+ * every coarser resolution on write. Rolled-up buckets are aligned to the session open, i.e. to the minute the
+ * provider's native bars of that resolution start on (:30 for US equity hourly bars), so rolled-up and native
+ * bars share one grid; a rolled-up bar never overwrites a native one. Only buckets that have closed and whose
+ * base bars are stored from the bucket start on are rolled up, so no partial bar is ever stored; a bucket
+ * skipped as partial is rolled up by the fetch that completes it. Expired bars are pruned per resolution by
+ * {@link #purgeExpired()}.
+ */
+@Service
+public class IntradayBarService {
+
+    private static final Logger log = LoggerFactory.getLogger(IntradayBarService.class);
+    private static final int[] RESOLUTIONS = {
+            IntradayPriceBar.ONE_MINUTE, IntradayPriceBar.FIVE_MINUTES, IntradayPriceBar.ONE_HOUR};
+    // US equity sessions open at 09:30 ET, which is :30 past a UTC hour all year
+    private static final int US_SESSION_OPEN_MINUTE = 30;
+
+    private final IntradayPriceBarRepository barRepository;
+    private final MarketDataService marketDataService;
+    private final IntradayBarConfig config;
+
+    // Earliest start already requested per ticker/resolution, so closed-market gaps are not re-fetched every call
+    private final Map<String, LocalDateTime> backfilledFrom = new ConcurrentHashMap<>();
+
+    public IntradayBarService(IntradayPriceBarRepository barRepository,
+                              MarketDataService marketDataService,
+                              IntradayBarConfig config) {
+        this.barRepository = barRepository;
+        this.marketDataService = marketDataService;
+        this.config = config;
+    }
+
+    /**
+     * Bring the stored bars for a ticker up to date at one resolution and make sure history reaches back to
+     * {@code from} (clamped to retention and the provider's intraday lookback). Returns bars written.
+     */
+    @Transactional
+    public int sync(String ticker, int resolutionMinutes, LocalDateTime from) {
+        String symbol = normalizeTicker(ticker);
+        int res = requireResolution(resolutionMinutes);
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime floor = now.minusDays(Math.min(config.retentionDaysFor(res), providerLookbackDays(res)));
+        LocalDateTime wantFrom = from == null || from.isBefore(floor) ? floor : from;
+
+        Optional<IntradayPriceBar> first = barRepository.findTopByTickerAndResolutionMinutesOrderByBarTimeAsc(symbol, res);
+        Optional<IntradayPriceBar> last = barRepository.findTopByTickerAndResolutionMinutesOrderByBarTimeDesc(symbol, res);
+
+        if (first.isEmpty()) {
+            backfilledFrom.put(symbol + ":" + res, wantFrom);
+            return fetchAndStore(symbol, res, wantFrom, now);
+        }
+
+        int written = 0;
+        String key = symbol + ":" + res;
+        LocalDateTime attempted = backfilledFrom.get(key);
+        if (first.get().getBarTime().isAfter(wantFrom.plusMinutes(res))
+                && (attempted == null || wantFrom.isBefore(attempted))) {
+            backfilledFrom.put(key, wantFrom);
+            written += fetchAndStore(symbol, res, wantFrom, first.get().getBarTime().minusSeconds(1));
+        }
+
+        // Delta: only go to the network once a new bar has opened since the last stored one
+        LocalDateTime lastBar = last.get().getBarTime();
+        if (!lastBar.plusMinutes(res).isAfter(now)) {
+            written += fetchAndStore(symbol, res, lastBar, now);
+        }
+        return written;
+    }
+
+    /**
+     * Stored bars in [from, to], oldest first. No network access.
+     */
+    @Transactional(readOnly = true)
+    public List<IntradayPriceBar> getStoredBars(String ticker, int resolutionMinutes, LocalDateTime from, LocalDateTime to) {
+        return barRepository.findByTickerAndResolutionMinutesAndBarTimeBetweenOrderByBarTimeAsc(
+                normalizeTicker(ticker), requireResolution(resolutionMinutes), from, to);
+    }
+
+    public long getBarCount(String ticker, int resolutionMinutes) {
+        return barRepository.countByTickerAndResolutionMinutes(normalizeTicker(ticker), requireResolution(resolutionMinutes));
+    }
+
+    /**
+     * Delete bars older than each resolution's configured retention.
+     */
+    @Transactional
+    public Map<String, Integer> purgeExpired() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        for (int res : RESOLUTIONS) {
+            int count = barRepository.deleteOlderThan(res, now.minusDays(config.retentionDaysFor(res)));
+            deleted.put(label(res), count);
+        }
+        log.info("Purged expired intraday bars: {}", deleted);
+        return deleted;
+    }
+
+    /**
+     * Parse a resolution as accepted by the API ("1", "5", "60", "1m", "5m", "1h").
+     */
+    public int parseResolution(String resolution) {
+        String v = resolution == null ? "60" : resolution.trim().toLowerCase(Locale.ROOT);
+        return switch (v) {
+            case "1", "1m" -> IntradayPriceBar.ONE_MINUTE;
+            case "5", "5m" -> IntradayPriceBar.FIVE_MINUTES;
+            case "60", "1h", "h", "hourly" -> IntradayPriceBar.ONE_HOUR;
+            default -> throw new IllegalArgumentException("Unsupported intraday resolution. Use '1', '5' or '60'.");
+        };
+    }
+
+    // ── Fetch & rollup ──
+
+    private int fetchAndStore(String symbol, int res, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            return 0;
+        }
+        long fromEpoch = start.toEpochSecond(ZoneOffset.UTC);
+        long toEpoch = end.toEpochSecond(ZoneOffset.UTC);
+        Map<String, Object> candles = marketDataService.getStockCandles(symbol, String.valueOf(res), fromEpoch, toEpoch);
+        if (candles == null || !"ok".equals(candles.get("s"))) {
+            log.info("No {} candles returned for {} between {} and {}", label(res), symbol, start, end);
+            return 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Number> t = (List<Number>) candles.get("t");
+        @SuppressWarnings("unchecked")
+        List<Number> c = (List<Number>) candles.get("c");
+        @SuppressWarnings("unchecked")
+        List<Number> o = (List<Number>) candles.get("o");
+        @SuppressWarnings("unchecked")
+        List<Number> h = (List<Number>) candles.get("h");
+        @SuppressWarnings("unchecked")
+        List<Number> l = (List<Number>) candles.get("l");
+        @SuppressWarnings("unchecked")
+        List<Number> v = (List<Number>) candles.get("v");
+        if (t == null || c == null) {
+            return 0;
+        }
+
+        Map<LocalDateTime, IntradayPriceBar> existing = new HashMap<>();
+        barRepository.findByTickerAndResolutionMinutesAndBarTimeBetweenOrderByBarTimeAsc(symbol, res, start, end)
+                .forEach(b -> existing.put(b.getBarTime(), b));
+
+        List<IntradayPriceBar> toSave = new ArrayList<>();
+        int inserted = 0;
+        LocalDateTime minTime = null, maxTime = null;
+        for (int i = 0; i < Math.min(t.size(), c.size()); i++) {
+            if (c.get(i) == null) continue;
+            LocalDateTime barTime = LocalDateTime.ofEpochSecond(t.get(i).longValue(), 0, ZoneOffset.UTC);
+            if (barTime.isBefore(start) || barTime.isAfter(end)) continue;
+
+            IntradayPriceBar bar = existing.get(barTime);
+            if (bar == null) {
+                bar = new IntradayPriceBar();
+                bar.setTicker(symbol);
+                bar.setResolutionMinutes(res);
+                bar.setBarTime(barTime);
+                inserted++;
+            }
+            double close = c.get(i).doubleValue();
+            bar.setClosePrice(BigDecimal.valueOf(close));
+            bar.setOpenPrice(BigDecimal.valueOf(valueAt(o, i, close)));
+            bar.setHighPrice(BigDecimal.valueOf(valueAt(h, i, close)));
+            bar.setLowPrice(BigDecimal.valueOf(valueAt(l, i, close)));
+            bar.setVolume(valueAt(v, i, 0));
+            bar.setRolledUp(false);
+            toSave.add(bar);
+
+            if (minTime == null || barTime.isBefore(minTime)) minTime = barTime;
+            if (maxTime == null || barTime.isAfter(maxTime)) maxTime = barTime;
+        }
+
+        if (toSave.isEmpty()) {
+            return 0;
+        }
+        barRepository.saveAll(toSave);
+
+        for (int target : RESOLUTIONS) {
+            if (target > res && target % res == 0) {
+                rollup(symbol, res, target, minTime, maxTime, end);
+            }
+        }
+        log.info("Stored {} new {} bars for {} ({} updated)", inserted, label(res), symbol, toSave.size() - inserted);
+        return inserted;
+    }
+
+    /**
+     * Re-aggregate every {@code toRes} bucket touched by [minTime, maxTime] from the {@code fromRes} bars, with
+     * base bars known to be complete through {@code fetchedTo}.
+     */
+    private void rollup(String symbol, int fromRes, int toRes, LocalDateTime minTime, LocalDateTime maxTime,
+                        LocalDateTime fetchedTo) {
+        int offset = sessionOffsetMinutes(symbol, toRes);
+        LocalDateTime bucketStart = bucketOf(minTime, toRes, offset);
+        LocalDateTime bucketEnd = bucketOf(maxTime, toRes, offset).plusMinutes(toRes).minusSeconds(1);
+
+        // Base bars are stored from the first one on and through the later of this fetch and the last one stored
+        LocalDateTime coveredFrom = barRepository.findTopByTickerAndResolutionMinutesOrderByBarTimeAsc(symbol, fromRes)
+                .map(IntradayPriceBar::getBarTime).orElse(minTime);
+        LocalDateTime coveredTo = barRepository.findTopByTickerAndResolutionMinutesOrderByBarTimeDesc(symbol, fromRes)
+                .map(IntradayPriceBar::getBarTime).filter(t -> t.isAfter(fetchedTo)).orElse(fetchedTo);
+
+        List<IntradayPriceBar> base = barRepository
+                .findByTickerAndResolutionMinutesAndBarTimeBetweenOrderByBarTimeAsc(symbol, fromRes, bucketStart, bucketEnd);
+        Map<LocalDateTime, IntradayPriceBar> existing = new HashMap<>();
+        List<IntradayPriceBar> misaligned = new ArrayList<>();
+        for (IntradayPriceBar b : barRepository.findByTickerAndResolutionMinutesAndBarTimeBetweenOrderByBarTimeAsc(
+                symbol, toRes, bucketStart, bucketEnd)) {
+            if (b.isRolledUp() && !b.getBarTime().equals(bucketOf(b.getBarTime(), toRes, offset))) {
+                misaligned.add(b); // rolled up on an earlier grid
+            } else {
+                existing.put(b.getBarTime(), b);
+            }
+        }
+
+        List<IntradayPriceBar> toSave = new ArrayList<>();
+        for (IntradayPriceBar agg : aggregate(base, toRes, offset, coveredFrom, coveredTo).values()) {
+            IntradayPriceBar target = existing.get(agg.getBarTime());
+            if (target != null && !target.isRolledUp()) {
+                continue; // provider-native bar wins
+            }
+            if (target == null) {
+                target = agg;
+                target.setTicker(symbol);
+            } else {
+                target.setOpenPrice(agg.getOpenPrice());
+                target.setHighPrice(agg.getHighPrice());
+                target.setLowPrice(agg.getLowPrice());
+                target.setClosePrice(agg.getClosePrice());
+                target.setVolume(agg.getVolume());
+            }
+            toSave.add(target);
+        }
+
+        if (!misaligned.isEmpty()) {
+            barRepository.deleteAll(misaligned);
+        }
+        if (!toSave.isEmpty()) {
+            barRepository.saveAll(toSave);
+            log.debug("Rolled up {} {} bars into {} for {}", base.size(), label(fromRes), label(toRes), symbol);
+        }
+    }
+
+    /**
+     * OHLCV of each {@code toRes} bucket (starting {@code offsetMinutes} past the UTC grid) over time-ordered
+     * {@code base} bars, keyed by bucket start. Buckets starting before {@code coveredFrom} or not closed by
+     * {@code coveredTo} are left out, since their base bars may be incomplete.
+     */
+    static Map<LocalDateTime, IntradayPriceBar> aggregate(List<IntradayPriceBar> base, int toRes, int offsetMinutes,
+                                                         LocalDateTime coveredFrom, LocalDateTime coveredTo) {
+        Map<LocalDateTime, IntradayPriceBar> buckets = new LinkedHashMap<>();
+        IntradayPriceBar agg = null;
+        for (IntradayPriceBar b : base) {
+            LocalDateTime bucket = bucketOf(b.getBarTime(), toRes, offsetMinutes);
+            if (bucket.isBefore(coveredFrom) || bucket.plusMinutes(toRes).isAfter(coveredTo)) {
+                agg = null;
+                continue;
+            }
+            if (agg == null || !agg.getBarTime().equals(bucket)) {
+                agg = new IntradayPriceBar();
+                agg.setResolutionMinutes(toRes);
+                agg.setBarTime(bucket);
+                agg.setRolledUp(true);
+                agg.setOpenPrice(b.getOpenPrice());
+                agg.setHighPrice(b.getHighPrice());
+                agg.setLowPrice(b.getLowPrice());
+                agg.setVolume(0.0);
+                buckets.put(bucket, agg);
+            }
+            if (b.getHighPrice() != null && (agg.getHighPrice() == null || b.getHighPrice().compareTo(agg.getHighPrice()) > 0)) {
+                agg.setHighPrice(b.getHighPrice());
+            }
+            if (b.getLowPrice() != null && (agg.getLowPrice() == null || b.getLowPrice().compareTo(agg.getLowPrice()) < 0)) {
+                agg.setLowPrice(b.getLowPrice());
+            }
+            agg.setClosePrice(b.getClosePrice());
+            agg.setVolume(agg.getVolume() + (b.getVolume() != null ? b.getVolume() : 0));
+        }
+        return buckets;
+    }
+
+    // ── Helpers ──
+
+    static LocalDateTime bucketOf(LocalDateTime time, int resolutionMinutes, int offsetMinutes) {
+        long epoch = time.toEpochSecond(ZoneOffset.UTC) - offsetMinutes * 60L;
+        long width = resolutionMinutes * 60L;
+        return LocalDateTime.ofEpochSecond(epoch - Math.floorMod(epoch, width) + offsetMinutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Minutes past the UTC grid that {@code res} buckets start on: where the provider's native bars start
+     * when any are stored, otherwise the US equity open (crypto trades around the clock on the plain grid).
+     */
+    private int sessionOffsetMinutes(String symbol, int res) {
+        int minute = barRepository.findTopByTickerAndResolutionMinutesAndRolledUpFalseOrderByBarTimeDesc(symbol, res)
+                .map(b -> b.getBarTime().getMinute())
+                .orElse(MarketDataService.isCryptoTicker(symbol) ? 0 : US_SESSION_OPEN_MINUTE);
+        return minute % res;
+    }
+
+    private double valueAt(List<Number> values, int i, double fallback) {
+        return values != null && i < values.size() && values.get(i) != null ? values.get(i).doubleValue() : fallback;
+    }
+
+    /**
+     * How far back providers serve each resolution (Yahoo: 1m ~7 days per request, 5m 60 days, 1h 730 days).
+     */
+    private int providerLookbackDays(int res) {
+        return switch (res) {
+            case IntradayPriceBar.ONE_MINUTE -> 7;
+            case IntradayPriceBar.FIVE_MINUTES -> 59;
+            default -> 729;
+        };
+    }
+
+    private int requireResolution(int res) {
+        for (int r : RESOLUTIONS) {
+            if (r == res) return res;
+        }
+        throw new IllegalArgumentException("Unsupported intraday resolution: " + res);
+    }
+
+    private String normalizeTicker(String ticker) {
+        String symbol = ticker == null ? "" : ticker.toUpperCase().trim();
+        if (symbol.isBlank()) {
+            throw new IllegalArgumentException("Ticker is required");
+        }
+        return symbol;
+    }
+
+    private String label(int res) {
+        return res == IntradayPriceBar.ONE_HOUR ? "1h" : res + "m";
+    }
+}
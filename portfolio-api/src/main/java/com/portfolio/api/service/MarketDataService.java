@@ -19,10 +19,26 @@ public class MarketDataService {
 
     private final RestTemplate restTemplate;
     private final FinnhubConfig finnhubConfig;
+    private final ProviderRateLimiter rateLimiter;
 
-    public MarketDataService(RestTemplate restTemplate, FinnhubConfig finnhubConfig) {
+    public MarketDataService(RestTemplate restTemplate, FinnhubConfig finnhubConfig, ProviderRateLimiter rateLimiter) {
         this.restTemplate = restTemplate;
         this.finnhubConfig = finnhubConfig;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * GET against Finnhub, paced by the process-wide {@link ProviderRateLimiter}. Only calls that actually go
+     * out draw on the budget: hits on the {@code @Cacheable} methods below never get this far.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T finnhub(String url, Class<?> type) {
+        try {
+            return (T) rateLimiter.call(() -> restTemplate.getForObject(url, type));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the Finnhub rate limit", e);
+        }
     }
 
     // ───────── Existing: Quote + FX ─────────
@@ -34,7 +50,7 @@ public class MarketDataService {
                     finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
 
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = finnhub(url, Map.class);
 
             if (response != null && response.get("c") != null) {
                 double currentPrice = ((Number) response.get("c")).doubleValue();
@@ -54,11 +70,7 @@ public class MarketDataService {
     @Cacheable(value = "quotes", key = "'full-' + #ticker")
     public Map<String, Object> getQuote(String ticker) {
         try {
-            String url = String.format("%s/quote?symbol=%s&token=%s",
-                    finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            return response;
+            return fetchQuote(ticker);
         } catch (Exception e) {
             log.error("Failed to fetch quote for {}: {}", ticker, e.getMessage());
             return null;
@@ -75,7 +87,7 @@ public class MarketDataService {
                     finnhubConfig.getBaseUrl(), fromCurrency, finnhubConfig.getApiKey());
 
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = finnhub(url, Map.class);
 
             if (response != null && response.get("quote") != null) {
                 @SuppressWarnings("unchecked")
@@ -98,11 +110,7 @@ public class MarketDataService {
     @Cacheable(value = "companyProfiles", key = "#ticker")
     public Map<String, Object> getCompanyProfile(String ticker) {
         try {
-            String url = String.format("%s/stock/profile2?symbol=%s&token=%s",
-                    finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            return response;
+            return fetchCompanyProfile(ticker);
         } catch (Exception e) {
             log.error("Failed to fetch company profile for {}: {}", ticker, e.getMessage());
             return null;
@@ -114,17 +122,33 @@ public class MarketDataService {
     @Cacheable(value = "basicFinancials", key = "#ticker")
     public Map<String, Object> getBasicFinancials(String ticker) {
         try {
-            String url = String.format("%s/stock/metric?symbol=%s&metric=all&token=%s",
-                    finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            return response;
+            return fetchBasicFinancials(ticker);
         } catch (Exception e) {
             log.error("Failed to fetch basic financials for {}: {}", ticker, e.getMessage());
             return null;
         }
     }
 
+    // ───────── Uncached, failure-raising lookups (fundamentals refresh) ─────────
+    // The getters above log a provider failure and return null, the same as an empty response. These go
+    // straight to the provider and let the failure (HTTP error, timeout, rate limit) propagate, so the
+    // nightly refresh can keep a stock's last good fundamentals instead of recording it as having none.
+
+    public Map<String, Object> fetchQuote(String ticker) {
+        return finnhub(String.format("%s/quote?symbol=%s&token=%s",
+                finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey()), Map.class);
+    }
+
+    public Map<String, Object> fetchCompanyProfile(String ticker) {
+        return finnhub(String.format("%s/stock/profile2?symbol=%s&token=%s",
+                finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey()), Map.class);
+    }
+
+    public Map<String, Object> fetchBasicFinancials(String ticker) {
+        return finnhub(String.format("%s/stock/metric?symbol=%s&metric=all&token=%s",
+                finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey()), Map.class);
+    }
+
     // ───────── Financial Statements (FR-SC-003) ─────────
 
     @Cacheable(value = "financialStatements", key = "#ticker + '-' + #freq")
@@ -133,7 +157,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/financials-reported?symbol=%s&freq=%s&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, freq, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = finnhub(url, Map.class);
             if (response != null && response.get("data") != null) {
                 @SuppressWarnings("unchecked")
                 List<Map<String, Object>> data = (List<Map<String, Object>>) response.get("data");
@@ -154,7 +178,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/filings?symbol=%s&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            List<Map<String, Object>> response = restTemplate.getForObject(url, List.class);
+            List<Map<String, Object>> response = finnhub(url, List.class);
             return response != null ? response : Collections.emptyList();
         } catch (Exception e) {
             log.error("Failed to fetch SEC filings for {}: {}", ticker, e.getMessage());
@@ -170,7 +194,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/recommendation?symbol=%s&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            List<Map<String, Object>> response = restTemplate.getForObject(url, List.class);
+            List<Map<String, Object>> response = finnhub(url, List.class);
             return response != null ? response : Collections.emptyList();
         } catch (Exception e) {
             log.error("Failed to fetch recommendations for {}: {}", ticker, e.getMessage());
@@ -184,7 +208,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/price-target?symbol=%s&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = finnhub(url, Map.class);
             return response;
         } catch (Exception e) {
             log.error("Failed to fetch price target for {}: {}", ticker, e.getMessage());
@@ -198,7 +222,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/earnings?symbol=%s&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            List<Map<String, Object>> response = restTemplate.getForObject(url, List.class);
+            List<Map<String, Object>> response = finnhub(url, List.class);
             return response != null ? response : Collections.emptyList();
         } catch (Exception e) {
             log.error("Failed to fetch earnings for {}: {}", ticker, e.getMessage());
@@ -214,7 +238,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/peers?symbol=%s&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            List<String> response = restTemplate.getForObject(url, List.class);
+            List<String> response = finnhub(url, List.class);
             return response != null ? response : Collections.emptyList();
         } catch (Exception e) {
             log.error("Failed to fetch peers for {}: {}", ticker, e.getMessage());
@@ -230,7 +254,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/symbol?exchange=%s&token=%s",
                     finnhubConfig.getBaseUrl(), exchange, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            List<Map<String, Object>> response = restTemplate.getForObject(url, List.class);
+            List<Map<String, Object>> response = finnhub(url, List.class);
             return response != null ? response : Collections.emptyList();
         } catch (Exception e) {
             log.error("Failed to fetch stock symbols for exchange {}: {}", exchange, e.getMessage());
@@ -249,7 +273,7 @@ public class MarketDataService {
                     finnhubConfig.getBaseUrl(), ticker, resolution, from, to, indicator, timeperiod,
                     finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = finnhub(url, Map.class);
             return response;
         } catch (Exception e) {
             log.error("Failed to fetch technical indicator {} for {}: {}", indicator, ticker, e.getMessage());
@@ -270,7 +294,7 @@ public class MarketDataService {
             String url = String.format("%s/stock/candle?symbol=%s&resolution=%s&from=%d&to=%d&token=%s",
                     finnhubConfig.getBaseUrl(), ticker, resolution, from, to, finnhubConfig.getApiKey());
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = finnhub(url, Map.class);
             if (response != null && "ok".equals(response.get("s"))) {
                 return response;
             }
@@ -295,13 +319,13 @@ public class MarketDataService {
     }
 
     /**
-     * Fetch historical daily prices from Yahoo Finance v8 chart API (free, no API key).
+     * Fetch historical daily or intraday prices from Yahoo Finance v8 chart API (free, no API key).
      * Converts the Yahoo response format to the same structure as Finnhub candles.
      */
     @SuppressWarnings("unchecked")
     private Map<String, Object> getStockCandlesFromYahoo(String ticker, String resolution, long from, long to) {
         try {
-            String interval = "D".equalsIgnoreCase(resolution) ? "1d" : "1h";
+            String interval = providerInterval(resolution);
             String url = String.format("%s/%s?period1=%d&period2=%d&interval=%s",
                     YAHOO_CHART_URL, ticker, from, to, interval);
             Map<String, Object> response = restTemplate.getForObject(url, Map.class);
@@ -381,13 +405,26 @@ public class MarketDataService {
         }
     }
 
-    private boolean isCryptoTicker(String ticker) {
+    /**
+     * Map a Finnhub-style resolution ("1", "5", "60", "D") to the interval code Yahoo and Binance share.
+     */
+    private String providerInterval(String resolution) {
+        if (resolution == null) return "1h";
+        return switch (resolution.trim().toUpperCase(Locale.ROOT)) {
+            case "D" -> "1d";
+            case "1" -> "1m";
+            case "5" -> "5m";
+            default -> "1h";
+        };
+    }
+
+    static boolean isCryptoTicker(String ticker) {
         return ticker != null && (ticker.contains("-") || ticker.endsWith("USDT") || ticker.endsWith("USD"));
     }
 
     @SuppressWarnings("unchecked")
     private Map<String, Object> getCryptoCandlesFromBinance(String ticker, String resolution, long from, long to) {
-        String interval = "D".equalsIgnoreCase(resolution) ? "1d" : "1h";
+        String interval = providerInterval(resolution);
         String symbol = toBinanceSymbol(ticker);
         if (symbol == null) {
             return null;
@@ -425,7 +462,12 @@ public class MarketDataService {
                 }
 
                 long lastOpenMs = ((Number) rows.get(rows.size() - 1).get(0)).longValue();
-                long stepMs = "1d".equals(interval) ? 86_400_000L : 3_600_000L;
+                long stepMs = switch (interval) {
+                    case "1d" -> 86_400_000L;
+                    case "1m" -> 60_000L;
+                    case "5m" -> 300_000L;
+                    default -> 3_600_000L;
+                };
                 long nextCursor = lastOpenMs + stepMs;
                 if (nextCursor <= cursor) break;
                 cursor = nextCursor;
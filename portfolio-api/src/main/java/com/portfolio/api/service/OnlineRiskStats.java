@@ -0,0 +1,228 @@
+package com.portfolio.api.service;
+
+import com.portfolio.analytics.PortfolioRiskCalculator;
+import com.portfolio.analytics.RollingMoments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming volatility, beta, Sharpe and Sortino inputs per ticker and per set of portfolio holdings.
+ *
+ * Each tracked ticker set keeps a {@link RollingMoments} over the last {@code app.risk.online.window} trade
+ * dates on which every ticker and the benchmark have a return. A tracker is built from {@link ReturnSeriesStore}
+ * on first read; after that {@link AdjustedReturnService} pushes each newly committed bar into the trackers that
+ * contain the ticker, so reads cost O(holdings²) regardless of the window length. A rewritten return (corporate
+ * action) drops the affected trackers and they rebuild on the next read.
+ *
+ * Portfolio figures use constant weights over the window, like {@link RiskAnalyticsService}; unlike it, series
+ * are aligned on common dates rather than on the most recent N returns. Portfolio downside deviation depends on
+ * the weights path-wise and is not tracked, so there is no portfolio Sortino here.
+ */
+@Component
+public class OnlineRiskStats {
+
+    private static final Logger log = LoggerFactory.getLogger(OnlineRiskStats.class);
+    private static final String BENCHMARK = "SPY";
+    private static final double DAILY_RISK_FREE = PortfolioRiskCalculator.RISK_FREE_RATE_ANNUAL / 252;
+    private static final LocalDate HISTORY_START = LocalDate.of(1900, 1, 1);
+
+    private final ReturnSeriesStore returnSeriesStore;
+    private final int window;
+    private final int maxTrackers;
+    private final ConcurrentHashMap<List<String>, Tracker> trackers = new ConcurrentHashMap<>();
+
+    public OnlineRiskStats(ReturnSeriesStore returnSeriesStore,
+                           @Value("${app.risk.online.window:252}") int window,
+                           @Value("${app.risk.online.max-trackers:2000}") int maxTrackers) {
+        this.returnSeriesStore = returnSeriesStore;
+        this.window = window;
+        this.maxTrackers = maxTrackers;
+    }
+
+    public record TickerStats(String ticker, int observations, LocalDate from, LocalDate to,
+                              double dailyVolatility, double annualizedVolatility,
+                              Double beta, Double sharpeRatio, Double sortinoRatio) {
+    }
+
+    public record PortfolioStats(int observations, LocalDate from, LocalDate to,
+                                 double dailyVolatility, double annualizedVolatility,
+                                 Double beta, Double sharpeRatio, List<TickerStats> holdings) {
+    }
+
+    public TickerStats ticker(String ticker) {
+        Tracker t = tracker(List.of(ticker));
+        synchronized (t) {
+            t.advance();
+            return t.tickerStats(0);
+        }
+    }
+
+    /**
+     * Constant-weight portfolio statistics; {@code weights} maps ticker to fraction of portfolio value.
+     */
+    public PortfolioStats portfolio(Map<String, Double> weights) {
+        Tracker t = tracker(new ArrayList<>(new TreeSet<>(weights.keySet())));
+        synchronized (t) {
+            t.advance();
+            RollingMoments m = t.moments;
+            double[] w = new double[m.dimensions()];
+            List<TickerStats> holdings = new ArrayList<>();
+            for (int i = 0; i < t.tickers.size(); i++) {
+                w[i] = weights.getOrDefault(t.tickers.get(i), 0.0);
+                holdings.add(t.tickerStats(i));
+            }
+            double dailyVol = Math.sqrt(m.weightedVariance(w));
+            double annualVol = dailyVol * Math.sqrt(252);
+            Double beta = null;
+            if (t.benchmarkIndex >= 0 && m.count() >= 2 && m.variance(t.benchmarkIndex) > 0) {
+                beta = m.weightedCovariance(w, t.benchmarkIndex) / m.variance(t.benchmarkIndex);
+            }
+            Double sharpe = annualVol > 1e-10
+                    ? (m.weightedMean(w) * 252 - PortfolioRiskCalculator.RISK_FREE_RATE_ANNUAL) / annualVol
+                    : null;
+            return new PortfolioStats(m.count(), t.firstDate(), t.lastDate(), dailyVol, annualVol,
+                    beta, sharpe, holdings);
+        }
+    }
+
+    /**
+     * Push bars committed for {@code ticker} into every tracker that reads it. A first benchmark load also
+     * replaces trackers that were built while it had no data.
+     */
+    void onAppend(String ticker) {
+        for (Tracker t : trackers.values()) {
+            if (BENCHMARK.equals(ticker) && t.benchmarkIndex < 0) {
+                trackers.remove(t.tickers, t);
+            } else if (t.reads(ticker)) {
+                synchronized (t) {
+                    t.advance();
+                }
+            }
+        }
+    }
+
+    /**
+     * A past return changed; trackers holding it cannot be corrected incrementally, so drop them.
+     */
+    void onRewrite(String ticker) {
+        trackers.values().removeIf(t -> t.reads(ticker));
+    }
+
+    public int size() {
+        return trackers.size();
+    }
+
+    private Tracker tracker(List<String> tickers) {
+        Tracker t = trackers.get(tickers);
+        if (t == null) {
+            if (trackers.size() >= maxTrackers) {
+                trackers.values().stream()
+                        .min(Comparator.comparingLong(x -> x.lastRead))
+                        .ifPresent(oldest -> trackers.remove(oldest.tickers, oldest));
+            }
+            t = trackers.computeIfAbsent(tickers, Tracker::new);
+        }
+        t.lastRead = System.nanoTime();
+        return t;
+    }
+
+    private final class Tracker {
+        final List<String> tickers;
+        // Store series read, in dimension order: the tickers, then the benchmark unless it is one of them
+        final List<String> series;
+        final int benchmarkIndex;
+        final RollingMoments moments;
+        int lastDay = Integer.MIN_VALUE;
+        volatile long lastRead;
+
+        Tracker(List<String> tickers) {
+            this.tickers = List.copyOf(tickers);
+            List<String> s = new ArrayList<>(tickers);
+            int b = s.indexOf(BENCHMARK);
+            if (b < 0 && !returnSeriesStore.window(BENCHMARK, HISTORY_START, LocalDate.now()).isEmpty()) {
+                s.add(BENCHMARK);
+                b = s.size() - 1;
+            }
+            this.series = List.copyOf(s);
+            this.benchmarkIndex = b;
+            this.moments = new RollingMoments(series.size(), Math.max(2, window), DAILY_RISK_FREE);
+        }
+
+        boolean reads(String ticker) {
+            return series.contains(ticker);
+        }
+
+        /**
+         * Push every date after the last one consumed on which all series have a return. Dates where some
+         * series is still missing stay pending until it arrives.
+         */
+        void advance() {
+            int d = series.size();
+            LocalDate from = lastDay == Integer.MIN_VALUE ? HISTORY_START : LocalDate.ofEpochDay(lastDay + 1L);
+            LocalDate to = LocalDate.now();
+            ReturnSeriesStore.Window[] w = new ReturnSeriesStore.Window[d];
+            for (int i = 0; i < d; i++) {
+                w[i] = returnSeriesStore.window(series.get(i), from, to);
+                if (w[i].isEmpty()) return;
+            }
+            int[] pos = new int[d];
+            double[] x = new double[d];
+            int pushed = 0;
+            outer:
+            while (true) {
+                int day = Integer.MIN_VALUE;
+                for (int i = 0; i < d; i++) {
+                    if (pos[i] >= w[i].length()) break outer;
+                    day = Math.max(day, w[i].epochDays()[w[i].offset() + pos[i]]);
+                }
+                boolean aligned = true;
+                for (int i = 0; i < d; i++) {
+                    while (pos[i] < w[i].length() && w[i].epochDays()[w[i].offset() + pos[i]] < day) pos[i]++;
+                    if (pos[i] >= w[i].length()) break outer;
+                    if (w[i].epochDays()[w[i].offset() + pos[i]] != day) aligned = false;
+                }
+                if (!aligned) continue;
+                for (int i = 0; i < d; i++) {
+                    x[i] = w[i].simple(pos[i]);
+                    pos[i]++;
+                }
+                moments.push(day, x);
+                lastDay = day;
+                pushed++;
+            }
+            if (pushed > 0) {
+                log.debug("Online risk stats for {}: pushed {} dates, {} in window", series, pushed, moments.count());
+            }
+        }
+
+        TickerStats tickerStats(int i) {
+            RollingMoments m = moments;
+            double dailyVol = m.standardDeviation(i);
+            double annualVol = dailyVol * Math.sqrt(252);
+            double excess = m.mean(i) * 252 - PortfolioRiskCalculator.RISK_FREE_RATE_ANNUAL;
+            double downside = m.downsideDeviation(i) * Math.sqrt(252);
+            Double beta = benchmarkIndex >= 0 && m.count() >= 2 ? m.beta(i, benchmarkIndex) : null;
+            return new TickerStats(tickers.get(i), m.count(), firstDate(), lastDate(), dailyVol, annualVol, beta,
+                    annualVol > 1e-10 ? excess / annualVol : null,
+                    downside > 1e-10 ? excess / downside : null);
+        }
+
+        LocalDate firstDate() {
+            return moments.count() == 0 ? null : LocalDate.ofEpochDay(moments.firstKey());
+        }
+
+        LocalDate lastDate() {
+            return moments.count() == 0 ? null : LocalDate.ofEpochDay(moments.lastKey());
+        }
+    }
+}
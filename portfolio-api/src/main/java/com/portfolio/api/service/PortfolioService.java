@@ -42,13 +42,16 @@ public class PortfolioService {
     private final PortfolioRepository portfolioRepository;
     private final UserRepository userRepository;
     private final HoldingRepository holdingRepository;
+    private final RiskResultCache riskResultCache;
 
     public PortfolioService(PortfolioRepository portfolioRepository,
                             UserRepository userRepository,
-                            HoldingRepository holdingRepository) {
+                            HoldingRepository holdingRepository,
+                            RiskResultCache riskResultCache) {
         this.portfolioRepository = portfolioRepository;
         this.userRepository = userRepository;
         this.holdingRepository = holdingRepository;
+        this.riskResultCache = riskResultCache;
     }
 
     /**
@@ -131,6 +134,7 @@ public class PortfolioService {
             throw new ResourceNotFoundException("Portfolio", "id", portfolioId);
         }
         portfolioRepository.deleteById(portfolioId);
+        riskResultCache.evictPortfolio(portfolioId);
     }
 
     @Transactional(readOnly = true)
@@ -1,6 +1,7 @@
 package com.portfolio.api.service;
 
 import com.portfolio.api.model.BatchTickerConfig;
+import com.portfolio.api.model.CorporateAction;
 import com.portfolio.api.model.MarketPriceHistory;
 import com.portfolio.api.model.StockPriceHistory;
 import com.portfolio.api.repository.BatchScheduleConfigRepository;
@@ -35,16 +36,19 @@ public class PriceFetchBatchService {
     private final BatchScheduleConfigRepository scheduleConfigRepo;
     private final StockPriceHistoryRepository priceHistoryRepo;
     private final MarketPriceHistoryRepository marketPriceHistoryRepository;
+    private final AdjustedReturnService adjustedReturnService;
     private final RestTemplate restTemplate;
 
     public PriceFetchBatchService(BatchTickerConfigRepository tickerConfigRepo,
                                   BatchScheduleConfigRepository scheduleConfigRepo,
                                   StockPriceHistoryRepository priceHistoryRepo,
-                                  MarketPriceHistoryRepository marketPriceHistoryRepository) {
+                                  MarketPriceHistoryRepository marketPriceHistoryRepository,
+                                  AdjustedReturnService adjustedReturnService) {
         this.tickerConfigRepo = tickerConfigRepo;
         this.scheduleConfigRepo = scheduleConfigRepo;
         this.priceHistoryRepo = priceHistoryRepo;
         this.marketPriceHistoryRepository = marketPriceHistoryRepository;
+        this.adjustedReturnService = adjustedReturnService;
         this.restTemplate = new RestTemplate();
     }
 
@@ -111,7 +115,8 @@ public class PriceFetchBatchService {
         long fromEpoch = fromDate.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
         long toEpoch = today.atTime(23, 59, 59).toEpochSecond(ZoneOffset.UTC);
 
-        List<PriceRecord> records = fetchFromYahoo(ticker, fromEpoch, toEpoch);
+        YahooChart chart = fetchFromYahoo(ticker, fromEpoch, toEpoch);
+        List<PriceRecord> records = chart.records();
         if (records.isEmpty()) {
             updateTickerStatus(config, "OK", null);
             return 0;
@@ -120,6 +125,10 @@ public class PriceFetchBatchService {
         writeToCsv(ticker, records);
         int dbCount = persistToDatabase(config, records);
         persistToUnifiedMarketHistory(config, records);
+        if (dbCount > 0 || !chart.actions().isEmpty()) {
+            adjustedReturnService.recordCorporateActions(ticker, chart.actions());
+            adjustedReturnService.refreshTicker(ticker);
+        }
 
         LocalDate latestDate = records.stream().map(PriceRecord::date).max(LocalDate::compareTo).orElse(today);
         config.setLastSyncDate(latestDate);
@@ -167,8 +176,9 @@ public class PriceFetchBatchService {
     }
 
     @SuppressWarnings("unchecked")
-    private List<PriceRecord> fetchFromYahoo(String ticker, long fromEpoch, long toEpoch) {
-        String url = String.format("%s/%s?period1=%d&period2=%d&interval=1d", YAHOO_CHART_URL, ticker, fromEpoch, toEpoch);
+    private YahooChart fetchFromYahoo(String ticker, long fromEpoch, long toEpoch) {
+        String url = String.format("%s/%s?period1=%d&period2=%d&interval=1d&events=div|split",
+                YAHOO_CHART_URL, ticker, fromEpoch, toEpoch);
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("User-Agent", "Mozilla/5.0");
@@ -183,19 +193,19 @@ public class PriceFetchBatchService {
         Map<String, Object> chart = (Map<String, Object>) response.get("chart");
         List<Map<String, Object>> results = (List<Map<String, Object>>) chart.get("result");
         if (results == null || results.isEmpty()) {
-            return Collections.emptyList();
+            return YahooChart.EMPTY;
         }
 
         Map<String, Object> result = results.get(0);
         List<Number> timestamps = (List<Number>) result.get("timestamp");
         if (timestamps == null || timestamps.isEmpty()) {
-            return Collections.emptyList();
+            return YahooChart.EMPTY;
         }
 
         Map<String, Object> indicators = (Map<String, Object>) result.get("indicators");
         List<Map<String, Object>> quoteList = (List<Map<String, Object>>) indicators.get("quote");
         if (quoteList == null || quoteList.isEmpty()) {
-            return Collections.emptyList();
+            return YahooChart.EMPTY;
         }
 
         Map<String, Object> quote = quoteList.get(0);
@@ -220,7 +230,47 @@ public class PriceFetchBatchService {
             records.add(new PriceRecord(tradeDate, open, high, low, close, volume));
         }
 
-        return records;
+        return new YahooChart(records, parseCorporateActions((Map<String, Object>) result.get("events")));
+    }
+
+    /**
+     * Parse the Yahoo chart "events" block (present when events=div|split is requested)
+     * into corporate actions keyed by ex-date.
+     */
+    @SuppressWarnings("unchecked")
+    private List<CorporateAction> parseCorporateActions(Map<String, Object> events) {
+        if (events == null) return Collections.emptyList();
+        List<CorporateAction> actions = new ArrayList<>();
+
+        Map<String, Map<String, Object>> dividends = (Map<String, Map<String, Object>>) events.get("dividends");
+        if (dividends != null) {
+            for (Map<String, Object> d : dividends.values()) {
+                if (!(d.get("date") instanceof Number date) || !(d.get("amount") instanceof Number amount)) continue;
+                CorporateAction a = new CorporateAction();
+                a.setActionType(CorporateAction.DIVIDEND);
+                a.setExDate(LocalDate.ofInstant(Instant.ofEpochSecond(date.longValue()), ZoneOffset.UTC));
+                a.setDividendAmount(BigDecimal.valueOf(amount.doubleValue()));
+                a.setSource("YAHOO");
+                actions.add(a);
+            }
+        }
+
+        Map<String, Map<String, Object>> splits = (Map<String, Map<String, Object>>) events.get("splits");
+        if (splits != null) {
+            for (Map<String, Object> s : splits.values()) {
+                if (!(s.get("date") instanceof Number date)
+                        || !(s.get("numerator") instanceof Number num)
+                        || !(s.get("denominator") instanceof Number den)
+                        || den.doubleValue() == 0) continue;
+                CorporateAction a = new CorporateAction();
+                a.setActionType(CorporateAction.SPLIT);
+                a.setExDate(LocalDate.ofInstant(Instant.ofEpochSecond(date.longValue()), ZoneOffset.UTC));
+                a.setSplitRatio(BigDecimal.valueOf(num.doubleValue() / den.doubleValue()));
+                a.setSource("YAHOO");
+                actions.add(a);
+            }
+        }
+        return actions;
     }
 
     private int writeToCsv(String ticker, List<PriceRecord> records) {
@@ -260,23 +310,30 @@ public class PriceFetchBatchService {
 
 
     public double[] readClosingPricesFromCsv(String ticker, LocalDate from, LocalDate to) {
+        return readCloseSeriesFromCsv(ticker, from, to).values().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Dated closes from the batch CSV within [from, to], in file (date) order.
+     */
+    public LinkedHashMap<LocalDate, Double> readCloseSeriesFromCsv(String ticker, LocalDate from, LocalDate to) {
+        LinkedHashMap<LocalDate, Double> closes = new LinkedHashMap<>();
         Path csvFile = Paths.get(PRICES_DIR, ticker + ".csv");
-        if (!Files.exists(csvFile)) return new double[0];
+        if (!Files.exists(csvFile)) return closes;
 
         try {
             List<String> lines = Files.readAllLines(csvFile);
-            List<Double> prices = new ArrayList<>();
             for (int i = 1; i < lines.size(); i++) {
                 String line = lines.get(i).trim();
                 if (line.isEmpty()) continue;
                 String[] parts = line.split(",");
                 LocalDate date = LocalDate.parse(parts[0], DATE_FMT);
-                if (!date.isBefore(from) && !date.isAfter(to)) prices.add(Double.parseDouble(parts[4]));
+                if (!date.isBefore(from) && !date.isAfter(to)) closes.put(date, Double.parseDouble(parts[4]));
             }
-            return prices.stream().mapToDouble(Double::doubleValue).toArray();
         } catch (IOException e) {
-            return new double[0];
+            closes.clear();
         }
+        return closes;
     }
 
     public boolean hasCsvData(String ticker) {
@@ -365,4 +422,8 @@ public class PriceFetchBatchService {
     }
 
     public record PriceRecord(LocalDate date, double open, double high, double low, double close, long volume) {}
+
+    private record YahooChart(List<PriceRecord> records, List<CorporateAction> actions) {
+        static final YahooChart EMPTY = new YahooChart(Collections.emptyList(), Collections.emptyList());
+    }
 }
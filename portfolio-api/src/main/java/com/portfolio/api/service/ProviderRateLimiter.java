@@ -0,0 +1,98 @@
+package com.portfolio.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide budget for outbound Finnhub calls, applied inside {@link MarketDataService} so every caller
+ * (screener reports, the fundamentals refresh, price lookups) draws on the same plan limit and cache hits
+ * draw on nothing.
+ *
+ * The plan's two limits are token buckets whose tokens come back one window after they were spent: up to
+ * {@code app.finnhub.rate-limit.calls-per-second} calls start at once, and no more than
+ * {@code calls-per-minute} start in any sliding minute. A caller reserves the earliest start both buckets
+ * allow and sleeps until it (cheap on virtual threads), and at most {@code max-concurrent} are in flight, so a
+ * report's fan-out goes out as one burst while a sustained load queues here instead of tripping the
+ * provider's own limit.
+ */
+@Component
+public class ProviderRateLimiter {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Window perSecond;
+    private final Window perMinute;
+    private final Semaphore inFlight;
+    private long lastStart = Long.MIN_VALUE;
+
+    public ProviderRateLimiter(@Value("${app.finnhub.rate-limit.calls-per-second:30}") int callsPerSecond,
+                               @Value("${app.finnhub.rate-limit.calls-per-minute:60}") int callsPerMinute,
+                               @Value("${app.finnhub.rate-limit.max-concurrent:30}") int maxConcurrent) {
+        if (callsPerSecond < 1 || callsPerMinute < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Provider rate limits must be positive");
+        }
+        long now = System.nanoTime();
+        this.perSecond = new Window(callsPerSecond, SECOND_NANOS, now);
+        this.perMinute = new Window(callsPerMinute, MINUTE_NANOS, now);
+        this.inFlight = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Runs {@code call} once both buckets have a token and an in-flight permit is free.
+     */
+    public <T> T call(Supplier<T> call) throws InterruptedException {
+        long now = System.nanoTime();
+        long wait = reserve(now) - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        inFlight.acquire();
+        try {
+            return call.get();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Takes a token from each bucket and returns the {@link System#nanoTime()} the call may start at. Starts
+     * are handed out in order, so each bucket's oldest start is the next token to come back.
+     */
+    synchronized long reserve(long now) {
+        long start = Math.max(now, lastStart);
+        start = Math.max(start, perSecond.nextToken());
+        start = Math.max(start, perMinute.nextToken());
+        perSecond.spend(start);
+        perMinute.spend(start);
+        lastStart = start;
+        return start;
+    }
+
+    /** Start times of the last {@code starts.length} calls; each token returns {@code periodNanos} after its start. */
+    private static final class Window {
+        private final long[] starts;
+        private final long periodNanos;
+        private int oldest;
+
+        Window(int tokens, long periodNanos, long now) {
+            this.starts = new long[tokens];
+            this.periodNanos = periodNanos;
+            Arrays.fill(starts, now - periodNanos);
+        }
+
+        long nextToken() {
+            return starts[oldest] + periodNanos;
+        }
+
+        void spend(long start) {
+            starts[oldest] = start;
+            oldest = (oldest + 1) % starts.length;
+        }
+    }
+}
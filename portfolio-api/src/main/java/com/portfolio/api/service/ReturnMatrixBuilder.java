@@ -0,0 +1,123 @@
+package com.portfolio.api.service;
+
+import com.portfolio.analytics.ReturnMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Date-aligned return matrices ({@link ReturnMatrix}) for a set of tickers over a date range, shared by
+ * risk analytics and correlation analysis.
+ *
+ * Columns are in ticker order and tickers without any returns in the range are left out, so callers look
+ * columns up by name. Dates a ticker is missing are handled by {@code app.risk.matrix.missing-data}.
+ *
+ * Built matrices are cached per (tickers, range) and validated against the {@link ReturnSeriesStore} version of
+ * every ticker, so a request for the same holdings and lookback reuses one matrix until an ingest touches one of
+ * them. Matrices that include returns computed from raw closes (tickers not materialized yet) carry no version
+ * and are not cached.
+ */
+@Component
+public class ReturnMatrixBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReturnMatrixBuilder.class);
+
+    private final StockPriceHistoryService priceHistoryService;
+    private final ReturnSeriesStore returnSeriesStore;
+    private final ReturnMatrix.MissingData policy;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public ReturnMatrixBuilder(StockPriceHistoryService priceHistoryService,
+                               ReturnSeriesStore returnSeriesStore,
+                               @Value("${app.risk.matrix.missing-data:drop}") String missingData,
+                               @Value("${app.risk.matrix.cache.max-entries:200}") int maxEntries) {
+        this.priceHistoryService = priceHistoryService;
+        this.returnSeriesStore = returnSeriesStore;
+        this.policy = ReturnMatrix.MissingData.parse(missingData);
+        this.maxEntries = maxEntries;
+    }
+
+    private record Key(List<String> tickers, LocalDate from, LocalDate to) {
+    }
+
+    private record Entry(List<Long> versions, ReturnMatrix matrix, long lastRead) {
+    }
+
+    /**
+     * Matrix over the distinct {@code tickers} with returns dated in [from, to].
+     */
+    public ReturnMatrix build(Collection<String> tickers, LocalDate from, LocalDate to) {
+        List<String> sorted = new ArrayList<>(new TreeSet<>(tickers));
+        Key key = new Key(sorted, from, to);
+
+        // Versions are read before any window, so an ingest that lands mid-build leaves the entry looking stale
+        List<Long> versions = new ArrayList<>(sorted.size());
+        for (String ticker : sorted) {
+            versions.add(returnSeriesStore.version(ticker));
+        }
+        Entry e = entries.get(key);
+        if (e != null && e.versions().equals(versions)) {
+            entries.replace(key, e, new Entry(versions, e.matrix(), System.nanoTime()));
+            return e.matrix();
+        }
+
+        Map<String, ReturnSeriesStore.Window> windows = new LinkedHashMap<>();
+        boolean versioned = true;
+        for (String ticker : sorted) {
+            ReturnSeriesStore.Window w = priceHistoryService.getReturnWindow(ticker, from, to);
+            if (w.isEmpty()) {
+                log.warn("No local price data for ticker {}. Run price-history sync first.", ticker);
+                continue;
+            }
+            versioned &= w.version() != 0;
+            windows.put(ticker, w);
+        }
+        ReturnMatrix matrix = align(windows);
+        if (versioned && maxEntries > 0) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                evictLeastRecentlyRead();
+            }
+            entries.put(key, new Entry(versions, matrix, System.nanoTime()));
+        }
+        return matrix;
+    }
+
+    /**
+     * Uncached matrix over windows the caller already holds (e.g. shared across many portfolios), in map order.
+     */
+    public ReturnMatrix align(Map<String, ReturnSeriesStore.Window> windows) {
+        int n = windows.size();
+        String[] names = new String[n];
+        int[][] days = new int[n][];
+        double[][] returns = new double[n][];
+        int[] offsets = new int[n];
+        int[] lengths = new int[n];
+        int i = 0;
+        for (Map.Entry<String, ReturnSeriesStore.Window> e : windows.entrySet()) {
+            ReturnSeriesStore.Window w = e.getValue();
+            names[i] = e.getKey();
+            days[i] = w.epochDays();
+            returns[i] = w.simple();
+            offsets[i] = w.offset();
+            lengths[i] = w.length();
+            i++;
+        }
+        return ReturnMatrix.align(names, days, returns, offsets, lengths, policy);
+    }
+
+    public ReturnMatrix.MissingData policy() {
+        return policy;
+    }
+
+    private void evictLeastRecentlyRead() {
+        entries.entrySet().stream()
+                .min(Comparator.comparingLong((Map.Entry<Key, Entry> me) -> me.getValue().lastRead()))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+}
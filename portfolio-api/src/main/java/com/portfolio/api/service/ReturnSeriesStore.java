@@ -0,0 +1,214 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.StockReturnHistory;
+import com.portfolio.api.repository.StockReturnHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory columnar copy of stock_return_history, one set of parallel primitive arrays per ticker
+ * (epoch day, simple return, log return).
+ *
+ * A ticker is loaded from the table on first read and then kept current by {@link AdjustedReturnService},
+ * which appends rows after each ingest commits and rewrites a slot when a corporate action re-adjusts it.
+ * Reads hand out {@link Window} views over the shared arrays, so analytics start from returns with no
+ * query, no differencing pass and no copy.
+ *
+ * Appends write past the end of the published size and only then publish a new snapshot, so a window
+ * handed out earlier never observes a change; rewrites copy the arrays.
+ */
+@Component
+public class ReturnSeriesStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReturnSeriesStore.class);
+    private static final int INITIAL_CAPACITY = 256;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final StockReturnHistoryRepository returnHistoryRepository;
+    private final ConcurrentHashMap<String, Series> series = new ConcurrentHashMap<>();
+
+    public ReturnSeriesStore(StockReturnHistoryRepository returnHistoryRepository) {
+        this.returnHistoryRepository = returnHistoryRepository;
+    }
+
+    /**
+     * Returns with trade dates in [from, to], oldest first. Empty when the ticker has no materialized returns.
+     */
+    public Window window(String ticker, LocalDate from, LocalDate to) {
+        Series s = load(ticker);
+        int lo = lowerBound(s, (int) from.toEpochDay());
+        int hi = lowerBound(s, (int) to.toEpochDay() + 1);
+        return new Window(s.epochDays, s.simple, s.log, lo, Math.max(0, hi - lo), s.version);
+    }
+
+    /**
+     * Version of the ticker's current snapshot, loading it on first use. Every append or rewrite takes a new
+     * value from one store-wide sequence, so an evicted and reloaded ticker never repeats an earlier version.
+     */
+    public long version(String ticker) {
+        return load(ticker).version;
+    }
+
+    /**
+     * Append freshly materialized rows. Rows at or before the current last date are ignored, which makes
+     * the call safe to race with a first load that already picked them up from the table.
+     */
+    void append(String ticker, List<StockReturnHistory> rows) {
+        series.computeIfPresent(ticker, (k, s) -> s.append(rows));
+    }
+
+    /**
+     * Replace the return for one trade date after a corporate action re-adjusted it.
+     */
+    void rewrite(String ticker, LocalDate tradeDate, double simpleReturn, Double logReturn) {
+        series.computeIfPresent(ticker, (k, s) -> s.rewrite((int) tradeDate.toEpochDay(), simpleReturn, logReturn));
+    }
+
+    /**
+     * Drop a ticker so the next read reloads it from the table.
+     */
+    public void evict(String ticker) {
+        series.remove(ticker);
+    }
+
+    private Series load(String ticker) {
+        Series s = series.get(ticker);
+        if (s != null) {
+            return s;
+        }
+        return series.computeIfAbsent(ticker, k -> {
+            List<StockReturnHistory> rows = returnHistoryRepository.findByTickerOrderByTradeDateAsc(k);
+            log.debug("Loaded {} materialized returns for {} into the return store", rows.size(), k);
+            return Series.EMPTY.append(rows);
+        });
+    }
+
+    private static int lowerBound(Series s, int epochDay) {
+        int lo = 0, hi = s.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (s.epochDays[mid] < epochDay) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static double logOf(double simpleReturn, Double logReturn) {
+        return logReturn != null ? logReturn : Math.log1p(simpleReturn);
+    }
+
+    /**
+     * Immutable published snapshot. Arrays may have spare capacity beyond {@code size}.
+     */
+    private static final class Series {
+        static final Series EMPTY = new Series(new int[0], new double[0], new double[0], 0, 0);
+
+        final int[] epochDays;
+        final double[] simple;
+        final double[] log;
+        final int size;
+        final long version;
+
+        Series(int[] epochDays, double[] simple, double[] log, int size, long version) {
+            this.epochDays = epochDays;
+            this.simple = simple;
+            this.log = log;
+            this.size = size;
+            this.version = version;
+        }
+
+        Series append(List<StockReturnHistory> rows) {
+            int last = size == 0 ? Integer.MIN_VALUE : epochDays[size - 1];
+            int[] d = epochDays;
+            double[] s = simple;
+            double[] l = log;
+            int n = size;
+            for (StockReturnHistory row : rows) {
+                int day = (int) row.getTradeDate().toEpochDay();
+                if (day <= last) continue;
+                if (n == d.length) {
+                    int cap = Math.max(INITIAL_CAPACITY, d.length * 2);
+                    d = Arrays.copyOf(d, cap);
+                    s = Arrays.copyOf(s, cap);
+                    l = Arrays.copyOf(l, cap);
+                }
+                d[n] = day;
+                s[n] = row.getAdjustedReturn();
+                l[n] = logOf(row.getAdjustedReturn(), row.getLogReturn());
+                last = day;
+                n++;
+            }
+            return n == size && this != EMPTY ? this : new Series(d, s, l, n, VERSIONS.incrementAndGet());
+        }
+
+        Series rewrite(int epochDay, double simpleReturn, Double logReturn) {
+            int idx = Arrays.binarySearch(epochDays, 0, size, epochDay);
+            if (idx < 0) {
+                return this;
+            }
+            double[] s = Arrays.copyOf(simple, simple.length);
+            double[] l = Arrays.copyOf(log, log.length);
+            s[idx] = simpleReturn;
+            l[idx] = logOf(simpleReturn, logReturn);
+            return new Series(epochDays, s, l, size, VERSIONS.incrementAndGet());
+        }
+    }
+
+    /**
+     * Read-only view of {@code length} consecutive returns starting at {@code offset} in the backing arrays.
+     * Kernels index the arrays directly with the offset; nothing is copied.
+     */
+    public record Window(int[] epochDays, double[] simple, double[] log, int offset, int length, long version) {
+
+        public static final Window EMPTY = new Window(new int[0], new double[0], new double[0], 0, 0, 0);
+
+        /**
+         * Detached window over intraday returns, which carry no trading-day key; {@link #date(int)} is unavailable.
+         */
+        public static Window of(double[] simpleReturns) {
+            return of(simpleReturns, null);
+        }
+
+        /**
+         * Detached window over returns computed outside the store (e.g. from raw closes).
+         */
+        public static Window of(double[] simpleReturns, int[] epochDays) {
+            double[] log = new double[simpleReturns.length];
+            for (int i = 0; i < simpleReturns.length; i++) {
+                log[i] = Math.log1p(simpleReturns[i]);
+            }
+            return new Window(epochDays, simpleReturns, log, 0, simpleReturns.length, 0);
+        }
+
+        public boolean isEmpty() { return length == 0; }
+
+        public double simple(int i) { return simple[offset + i]; }
+
+        public double log(int i) { return log[offset + i]; }
+
+        public LocalDate date(int i) { return LocalDate.ofEpochDay(epochDays[offset + i]); }
+
+        /**
+         * The most recent {@code n} returns (or all of them when shorter), as a view.
+         */
+        public Window tail(int n) {
+            if (n >= length) return this;
+            int k = Math.max(0, n);
+            return new Window(epochDays, simple, log, offset + length - k, k, version);
+        }
+
+        /**
+         * Copy of the simple returns, for kernels that sort or otherwise mutate their input.
+         */
+        public double[] toSimpleArray() {
+            return Arrays.copyOfRange(simple, offset, offset + length);
+        }
+    }
+}
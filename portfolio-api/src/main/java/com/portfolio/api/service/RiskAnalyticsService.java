@@ -1,49 +1,116 @@
 package com.portfolio.api.service;
 
+import com.portfolio.analytics.HoldingsFingerprint;
+import com.portfolio.analytics.PortfolioRiskCalculator;
+import com.portfolio.analytics.Positions;
+import com.portfolio.analytics.ReturnMatrix;
+import com.portfolio.analytics.RiskMetrics;
+import com.portfolio.analytics.VarDecomposition;
 import com.portfolio.api.dto.RiskAnalyticsResponse;
 import com.portfolio.api.dto.RiskAnalyticsResponse.*;
+import com.portfolio.api.dto.RiskSummaryResponse;
+import com.portfolio.api.dto.StressTestRequest;
 import com.portfolio.api.model.Holding;
 import com.portfolio.api.model.Portfolio;
+import com.portfolio.api.model.PortfolioRiskSnapshot;
+import com.portfolio.api.model.PortfolioRiskSnapshotHolding;
+import com.portfolio.api.model.PortfolioRiskSnapshotLadder;
 import com.portfolio.api.repository.PortfolioRepository;
+import com.portfolio.api.repository.PortfolioRiskSnapshotHoldingRepository;
+import com.portfolio.api.repository.PortfolioRiskSnapshotLadderRepository;
+import com.portfolio.api.repository.PortfolioRiskSnapshotRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Risk analytics computation engine (FR-RA-001 through FR-RA-012).
  *
- * Reads historical prices from local stock_price_history table (populated via
- * StockPriceHistoryService sync), then computes VaR, CVaR, volatility,
- * beta, alpha, Sharpe/Sortino/Treynor ratios, max drawdown, and stress tests.
+ * Reads split/dividend-adjusted daily returns from the in-memory return store
+ * (materialized on price sync), then computes VaR, CVaR, volatility,
+ * beta, alpha, Sharpe/Sortino/Treynor ratios, max drawdown, and stress tests
+ * (historical windows replayed by {@link StressTestService}).
+ *
+ * When portfolio-batch has stored a snapshot for the requested parameters (FR-RA-012)
+ * that is recent enough and was built from the current holdings, it is served instead.
  */
 @Service
 public class RiskAnalyticsService {
 
     private static final Logger log = LoggerFactory.getLogger(RiskAnalyticsService.class);
-    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
-    private static final int SCALE = 8;
     private static final String BENCHMARK = "SPY";
-    private static final double RISK_FREE_RATE_ANNUAL = 0.05; // ~5% risk-free rate
-    private static final int MONTE_CARLO_SIMULATIONS = 10_000;
+    private static final int MAX_CUSTOM_SCENARIOS = 20;
 
     private final PortfolioRepository portfolioRepository;
     private final StockPriceHistoryService priceHistoryService;
     private final MarketDataService marketDataService;
+    private final ReturnSeriesStore returnSeriesStore;
+    private final RiskResultCache riskResultCache;
+    private final OnlineRiskStats onlineRiskStats;
+    private final StressTestService stressTestService;
+    private final ReturnMatrixBuilder returnMatrixBuilder;
+    private final PortfolioRiskSnapshotRepository snapshotRepository;
+    private final PortfolioRiskSnapshotHoldingRepository snapshotHoldingRepository;
+    private final PortfolioRiskSnapshotLadderRepository snapshotLadderRepository;
+    private final PortfolioRiskCalculator riskCalculator = new PortfolioRiskCalculator();
+    private final int monteCarloPaths;
+    private final long monteCarloSeed;
+    private final boolean monteCarloMultivariate;
+    private final boolean snapshotsEnabled;
+    private final int snapshotMaxAgeDays;
 
     public RiskAnalyticsService(PortfolioRepository portfolioRepository,
                                  StockPriceHistoryService priceHistoryService,
-                                 MarketDataService marketDataService) {
+                                 MarketDataService marketDataService,
+                                 ReturnSeriesStore returnSeriesStore,
+                                 RiskResultCache riskResultCache,
+                                 OnlineRiskStats onlineRiskStats,
+                                 StressTestService stressTestService,
+                                 ReturnMatrixBuilder returnMatrixBuilder,
+                                 PortfolioRiskSnapshotRepository snapshotRepository,
+                                 PortfolioRiskSnapshotHoldingRepository snapshotHoldingRepository,
+                                 PortfolioRiskSnapshotLadderRepository snapshotLadderRepository,
+                                 @Value("${app.risk.monte-carlo.paths:10000}") int monteCarloPaths,
+                                 @Value("${app.risk.monte-carlo.seed:42}") long monteCarloSeed,
+                                 @Value("${app.risk.monte-carlo.mode:multivariate}") String monteCarloMode,
+                                 @Value("${app.risk.snapshot.enabled:true}") boolean snapshotsEnabled,
+                                 @Value("${app.risk.snapshot.max-age-days:1}") int snapshotMaxAgeDays) {
         this.portfolioRepository = portfolioRepository;
         this.priceHistoryService = priceHistoryService;
         this.marketDataService = marketDataService;
+        this.returnSeriesStore = returnSeriesStore;
+        this.riskResultCache = riskResultCache;
+        this.onlineRiskStats = onlineRiskStats;
+        this.stressTestService = stressTestService;
+        this.returnMatrixBuilder = returnMatrixBuilder;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotHoldingRepository = snapshotHoldingRepository;
+        this.snapshotLadderRepository = snapshotLadderRepository;
+        this.monteCarloPaths = monteCarloPaths;
+        this.monteCarloSeed = monteCarloSeed;
+        this.monteCarloMultivariate = "multivariate".equalsIgnoreCase(monteCarloMode);
+        this.snapshotsEnabled = snapshotsEnabled;
+        this.snapshotMaxAgeDays = snapshotMaxAgeDays;
+    }
+
+    /**
+     * Stage reports from a long computation, used by {@link RiskJobService}. An implementation may throw
+     * (e.g. on interruption) to abandon the run between stages.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        Progress NONE = (stage, percent) -> { };
+
+        void update(String stage, int percent);
     }
 
     /**
@@ -54,446 +121,658 @@ public class RiskAnalyticsService {
      * @param confidenceLevel e.g. 0.95
      * @param timeHorizonDays e.g. 1, 10, 30
      * @param lookbackDays    e.g. 252 (1 year)
+     * @param live            skip the precomputed snapshot and always compute
      */
     @Transactional(readOnly = true)
     public RiskAnalyticsResponse computeRiskAnalytics(Long portfolioId, String username,
-                                                       double confidenceLevel, int timeHorizonDays, int lookbackDays) {
-
-        Portfolio portfolio = portfolioRepository.findById(portfolioId)
-                .orElseThrow(() -> new IllegalArgumentException("Portfolio not found: " + portfolioId));
-
-        if (!portfolio.getUser().getEmail().equals(username)) {
-            throw new SecurityException("Access denied");
-        }
-
-        List<Holding> holdings = portfolio.getHoldings();
-        if (holdings == null || holdings.isEmpty()) {
-            throw new IllegalStateException("Portfolio has no holdings");
-        }
+                                                       double confidenceLevel, int timeHorizonDays, int lookbackDays,
+                                                       boolean live) {
+        return computeRiskAnalytics(portfolioId, username, confidenceLevel, timeHorizonDays, lookbackDays, live,
+                Progress.NONE);
+    }
 
-        // Filter to holdings with valid tickers (STOCK and ETF)
-        List<Holding> stockHoldings = holdings.stream()
-                .filter(h -> h.getTicker() != null && !h.getTicker().isBlank())
-                .filter(h -> {
-                    String type = h.getAssetType() != null ? h.getAssetType().name() : "";
-                    return "STOCK".equals(type) || "ETF".equals(type);
-                })
-                .toList();
+    /**
+     * {@link #computeRiskAnalytics(Long, String, double, int, int, boolean)} reporting its stages to {@code progress}.
+     */
+    @Transactional(readOnly = true)
+    public RiskAnalyticsResponse computeRiskAnalytics(Long portfolioId, String username,
+                                                       double confidenceLevel, int timeHorizonDays, int lookbackDays,
+                                                       boolean live, Progress progress) {
 
-        if (stockHoldings.isEmpty()) {
-            throw new IllegalStateException("Portfolio has no stock/ETF holdings for risk analysis");
-        }
+        Portfolio portfolio = ownedPortfolio(portfolioId, username);
+        List<Holding> stockHoldings = stockHoldings(portfolio);
 
         // Date range for lookback
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(lookbackDays);
 
-        // Fetch closing prices from local DB for each holding
-        Map<String, double[]> closingPrices = new LinkedHashMap<>();
-        for (Holding h : stockHoldings) {
-            double[] prices = priceHistoryService.getClosingPrices(h.getTicker(), startDate, endDate);
-            if (prices.length > 1) {
-                closingPrices.put(h.getTicker(), prices);
-                log.debug("Loaded {} price records for {} from local DB", prices.length, h.getTicker());
-            } else {
-                log.warn("No local price data for ticker {}. Run price-history sync first.", h.getTicker());
+        if (!live && snapshotsEnabled) {
+            RiskAnalyticsResponse snapshot = fromSnapshot(portfolio, stockHoldings, endDate,
+                    confidenceLevel, timeHorizonDays, lookbackDays);
+            if (snapshot != null) {
+                return snapshot;
             }
         }
 
-        // Fetch benchmark prices from local DB
-        double[] benchmarkPrices = priceHistoryService.getClosingPrices(BENCHMARK, startDate, endDate);
-        if (benchmarkPrices.length <= 1) {
-            log.warn("No local price data for benchmark {}. Run price-history sync first.", BENCHMARK);
-            benchmarkPrices = null;
+        // Versioned result cache. The fingerprint is taken before any returns are read, so an ingest that
+        // lands mid-computation can only make the stored entry look older than its data, never newer.
+        RiskResultCache.Key cacheKey = new RiskResultCache.Key(portfolioId, confidenceLevel, timeHorizonDays, lookbackDays);
+        RiskResultCache.Fingerprint fingerprint = fingerprint(stockHoldings, endDate);
+        RiskAnalyticsResponse cached = riskResultCache.get(cacheKey, fingerprint);
+        if (cached != null) {
+            return cached;
         }
 
-        if (closingPrices.isEmpty()) {
+        LocalDate startDate = endDate.minusDays(lookbackDays);
+
+        // Adjusted daily returns for the holdings and the benchmark, joined on trade date
+        progress.update("LOADING_RETURNS", 10);
+        ReturnMatrix matrix = returnMatrix(stockHoldings, startDate, endDate);
+        List<String> tickers = holdingTickers(stockHoldings, matrix);
+        if (tickers.isEmpty()) {
             throw new IllegalStateException(
                     "No historical prices found in local database. " +
                     "Please sync price history first: POST /api/v1/price-history/sync/portfolio/" + portfolioId);
         }
 
-        // Compute current market values and weights using latest stored close price
-        Map<String, BigDecimal> marketValues = new LinkedHashMap<>();
-        BigDecimal totalValue = BigDecimal.ZERO;
-        for (Holding h : stockHoldings) {
-            if (!closingPrices.containsKey(h.getTicker())) continue;
-
-            // Try live price first, fall back to latest stored close
-            BigDecimal price = marketDataService.getCurrentPrice(h.getTicker());
-            if (price == null) {
-                price = priceHistoryService.getLatestClosePrice(h.getTicker());
-            }
-            if (price == null) {
-                double[] prices = closingPrices.get(h.getTicker());
-                price = BigDecimal.valueOf(prices[prices.length - 1]);
-            }
-
-            BigDecimal mv = price.multiply(h.getQuantity(), MC);
-            marketValues.put(h.getTicker(), mv);
-            totalValue = totalValue.add(mv);
-        }
-
         Map<String, Double> weights = new LinkedHashMap<>();
-        for (Map.Entry<String, BigDecimal> e : marketValues.entrySet()) {
-            weights.put(e.getKey(), totalValue.compareTo(BigDecimal.ZERO) == 0 ? 0.0
-                    : e.getValue().divide(totalValue, SCALE, RoundingMode.HALF_UP).doubleValue());
-        }
+        double value = weights(stockHoldings, t -> matrix.indexOf(t) >= 0, this::currentPrice, weights);
 
-        // Align all return series to the same minimum length
-        int minLen = closingPrices.values().stream().mapToInt(a -> a.length).min().orElse(0);
-        if (benchmarkPrices != null) {
-            minLen = Math.min(minLen, benchmarkPrices.length);
-        }
-
-        // Compute daily returns for each holding
-        Map<String, double[]> holdingReturns = new LinkedHashMap<>();
-        for (Map.Entry<String, double[]> entry : closingPrices.entrySet()) {
-            holdingReturns.put(entry.getKey(), computeReturns(entry.getValue(), minLen));
-        }
-
-        double[] benchmarkReturns = benchmarkPrices != null ? computeReturns(benchmarkPrices, minLen) : null;
-
-        // Compute portfolio daily returns (weighted sum)
-        int numReturns = holdingReturns.values().stream().mapToInt(a -> a.length).min().orElse(0);
-        double[] portfolioReturns = new double[numReturns];
-        for (Map.Entry<String, double[]> entry : holdingReturns.entrySet()) {
-            double w = weights.getOrDefault(entry.getKey(), 0.0);
-            double[] rets = entry.getValue();
-            for (int i = 0; i < numReturns; i++) {
-                portfolioReturns[i] += w * rets[i];
-            }
-        }
-
-        // Trim benchmark returns to match
-        if (benchmarkReturns != null && benchmarkReturns.length > numReturns) {
-            benchmarkReturns = Arrays.copyOfRange(benchmarkReturns,
-                    benchmarkReturns.length - numReturns, benchmarkReturns.length);
-        }
+        PortfolioRiskCalculator.Input input = calculatorInput(matrix, tickers, weights, value,
+                confidenceLevel, timeHorizonDays);
+        progress.update("COMPUTING_METRICS", 30);
+        RiskMetrics m = riskCalculator.compute(input);
+        int n = tickers.size();
+        double[] assetWeights = input.weights();
 
         // ── Build response ──
         RiskAnalyticsResponse resp = new RiskAnalyticsResponse();
         resp.setPortfolioId(portfolioId);
         resp.setPortfolioName(portfolio.getName());
-        resp.setPortfolioValue(totalValue.setScale(2, RoundingMode.HALF_UP));
+        resp.setPortfolioValue(value);
         resp.setBaseCurrency(portfolio.getBaseCurrency());
         resp.setConfidenceLevel(confidenceLevel);
         resp.setTimeHorizonDays(timeHorizonDays);
         resp.setLookbackDays(lookbackDays);
+        resp.setSource("LIVE");
+        resp.setAsOf(endDate.format(DateTimeFormatter.ISO_LOCAL_DATE));
 
         // Volatility (FR-RA-004)
-        double dailyVol = standardDeviation(portfolioReturns);
-        double annualVol = dailyVol * Math.sqrt(252);
-        resp.setDailyVolatility(bd(dailyVol));
-        resp.setAnnualizedVolatility(bd(annualVol));
+        resp.setDailyVolatility(m.getDailyVolatility());
+        resp.setAnnualizedVolatility(m.getAnnualizedVolatility());
 
         // VaR (FR-RA-001, FR-RA-002)
         VaRMetrics var = new VaRMetrics();
-        var.setHistoricalSimulation(bd(historicalVaR(portfolioReturns, confidenceLevel, timeHorizonDays, totalValue.doubleValue())));
-        var.setParametric(bd(parametricVaR(dailyVol, confidenceLevel, timeHorizonDays, totalValue.doubleValue())));
-        var.setMonteCarlo(bd(monteCarloVaR(portfolioReturns, confidenceLevel, timeHorizonDays, totalValue.doubleValue())));
+        var.setHistoricalSimulation(m.getHistoricalVar());
+        var.setParametric(m.getParametricVar());
+        var.setMonteCarlo(m.getMonteCarloVar());
         resp.setVar(var);
 
         // CVaR (FR-RA-003)
-        resp.setCvar95(bd(computeCVaR(portfolioReturns, 0.95, timeHorizonDays, totalValue.doubleValue())));
-        resp.setCvar99(bd(computeCVaR(portfolioReturns, 0.99, timeHorizonDays, totalValue.doubleValue())));
-
-        // Beta (FR-RA-005)
-        if (benchmarkReturns != null && benchmarkReturns.length == numReturns) {
-            double portBeta = computeBeta(portfolioReturns, benchmarkReturns);
-            resp.setPortfolioBeta(bd(portBeta));
+        resp.setCvar95(m.getCvar95());
+        resp.setCvar99(m.getCvar99());
+
+        List<ConfidenceLevelRisk> ladder = new ArrayList<>();
+        for (int k = 0; k < m.getLadderConfidence().length; k++) {
+            ConfidenceLevelRisk level = new ConfidenceLevelRisk();
+            level.setConfidenceLevel(m.getLadderConfidence()[k]);
+            level.setHistoricalVar(m.getLadderHistoricalVar()[k]);
+            level.setHistoricalCvar(m.getLadderHistoricalCvar()[k]);
+            level.setMonteCarloVar(m.getLadderMonteCarloVar()[k]);
+            level.setMonteCarloCvar(m.getLadderMonteCarloCvar()[k]);
+            ladder.add(level);
+        }
+        resp.setConfidenceLadder(ladder);
+
+        // Per-holding marginal / component / incremental VaR and ES
+        VarDecomposition.Result d = m.getVarDecomposition();
+        if (d != null) {
+            double[] simVar = m.getVarContributions();
+            double[] simEs = m.getTailContributions();
+            double totalComponentVar = 0;
+            for (double c : d.componentVar()) totalComponentVar += c;
+            List<HoldingVarContribution> contributions = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                contributions.add(varContribution(tickers.get(i), assetWeights[i],
+                        d.marginalVar()[i], d.componentVar()[i], d.incrementalVar()[i],
+                        d.marginalEs()[i], d.componentEs()[i], d.incrementalEs()[i],
+                        simVar != null ? -simVar[i] * value : null, simEs != null ? -simEs[i] * value : null,
+                        totalComponentVar));
+            }
+            resp.setVarContributions(contributions);
+        }
 
+        // Beta, alpha, Treynor (FR-RA-005 to FR-RA-007)
+        if (m.getBeta() != null) {
+            resp.setPortfolioBeta(m.getBeta());
             List<HoldingBeta> holdingBetaList = new ArrayList<>();
-            for (Map.Entry<String, double[]> entry : holdingReturns.entrySet()) {
-                double[] rets = entry.getValue();
-                double[] alignedBench = benchmarkReturns;
-                if (rets.length != alignedBench.length) {
-                    int len = Math.min(rets.length, alignedBench.length);
-                    rets = Arrays.copyOfRange(rets, rets.length - len, rets.length);
-                    alignedBench = Arrays.copyOfRange(alignedBench, alignedBench.length - len, alignedBench.length);
-                }
-                HoldingBeta hb = new HoldingBeta();
-                hb.setTicker(entry.getKey());
-                Holding holding = stockHoldings.stream()
-                        .filter(h -> h.getTicker().equals(entry.getKey())).findFirst().orElse(null);
-                hb.setName(holding != null ? holding.getName() : entry.getKey());
-                hb.setBeta(bd(computeBeta(rets, alignedBench)));
-                hb.setWeight(bd(weights.getOrDefault(entry.getKey(), 0.0)));
-                holdingBetaList.add(hb);
+            for (int i = 0; i < n; i++) {
+                holdingBetaList.add(holdingBeta(tickers.get(i), stockHoldings, m.getHoldingBetas()[i], assetWeights[i]));
             }
             resp.setHoldingBetas(holdingBetaList);
-
-            // Alpha (FR-RA-006) — Jensen's alpha = Rp - [Rf + Beta * (Rm - Rf)]
-            double avgPortReturn = mean(portfolioReturns) * 252; // annualized
-            double avgBenchReturn = mean(benchmarkReturns) * 252;
-            double alpha = avgPortReturn - (RISK_FREE_RATE_ANNUAL + portBeta * (avgBenchReturn - RISK_FREE_RATE_ANNUAL));
-            resp.setPortfolioAlpha(bd(alpha));
-
-            // Treynor ratio (FR-RA-007) = (Rp - Rf) / Beta
-            if (Math.abs(portBeta) > 1e-10) {
-                resp.setTreynorRatio(bd((avgPortReturn - RISK_FREE_RATE_ANNUAL) / portBeta));
-            }
-        }
-
-        // Sharpe ratio (FR-RA-007) = (Rp - Rf) / sigma_p
-        double avgPortReturnAnn = mean(portfolioReturns) * 252;
-        if (annualVol > 1e-10) {
-            resp.setSharpeRatio(bd((avgPortReturnAnn - RISK_FREE_RATE_ANNUAL) / annualVol));
+            resp.setPortfolioAlpha(m.getAlpha());
+            if (m.getTreynorRatio() != null) resp.setTreynorRatio(m.getTreynorRatio());
         }
 
-        // Sortino ratio (FR-RA-007) = (Rp - Rf) / downside_deviation
-        double downsideDev = downsideDeviation(portfolioReturns) * Math.sqrt(252);
-        if (downsideDev > 1e-10) {
-            resp.setSortinoRatio(bd((avgPortReturnAnn - RISK_FREE_RATE_ANNUAL) / downsideDev));
-        }
+        // Sharpe / Sortino (FR-RA-007)
+        if (m.getSharpeRatio() != null) resp.setSharpeRatio(m.getSharpeRatio());
+        if (m.getSortinoRatio() != null) resp.setSortinoRatio(m.getSortinoRatio());
 
         // Max drawdown (FR-RA-008)
-        computeMaxDrawdown(portfolioReturns, startDate, resp);
+        resp.setMaxDrawdown(m.getMaxDrawdown());
+        resp.setMaxDrawdownPeakDate(drawdownDate(matrix, m.getMaxDrawdownPeakIndex()));
+        resp.setMaxDrawdownTroughDate(drawdownDate(matrix, m.getMaxDrawdownTroughIndex()));
+
+        // Correlation
+        if (m.getAverageCorrelation() != null) resp.setAverageCorrelation(m.getAverageCorrelation());
+        if (m.getDiversificationRatio() != null) resp.setDiversificationRatio(m.getDiversificationRatio());
 
         // Stress testing (FR-RA-009)
-        resp.setStressTests(buildStressScenarios(totalValue.doubleValue(), resp.getPortfolioBeta()));
+        progress.update("STRESS_TESTS", 80);
+        resp.setStressTests(stressTestService.run(tickers, assetWeights, betasOrOne(m.getHoldingBetas(), n),
+                value, resp.getPortfolioBeta(), StressTestService.DEFAULT_SCENARIOS));
 
         // Monte Carlo distribution (part of FR-RA-001)
-        MonteCarloResult mcResult = runMonteCarloDistribution(portfolioReturns, timeHorizonDays);
+        MonteCarloResult mcResult = new MonteCarloResult();
+        mcResult.setSimulations(m.getSimulations());
+        mcResult.setMeanReturn(m.getMonteCarloMean());
+        mcResult.setPercentile5(m.getMonteCarloPercentile5());
+        mcResult.setPercentile25(m.getMonteCarloPercentile25());
+        mcResult.setMedian(m.getMonteCarloMedian());
+        mcResult.setPercentile75(m.getMonteCarloPercentile75());
+        mcResult.setPercentile95(m.getMonteCarloPercentile95());
+        mcResult.setValueAtRisk(var.getMonteCarlo());
+        mcResult.setExpectedShortfall(m.getMonteCarloExpectedShortfall());
+        mcResult.setMode(m.isMultivariate() ? "MULTIVARIATE" : "UNIVARIATE");
+        if (m.getTailContributions() != null) {
+            mcResult.setComponentContributions(buildComponentContributions(
+                    tickers, assetWeights, m.getTailContributions(), value));
+        }
         resp.setMonteCarlo(mcResult);
 
+        riskResultCache.put(cacheKey, fingerprint, resp);
         return resp;
     }
 
-    // ── Return computation ──
+    /**
+     * Headline volatility, beta and Sharpe for the portfolio plus per-holding figures, read from the
+     * streaming statistics in {@link OnlineRiskStats} instead of a pass over the lookback window.
+     * VaR, drawdown and stress tests still need {@link #computeRiskAnalytics}.
+     */
+    @Transactional(readOnly = true)
+    public RiskSummaryResponse computeRiskSummary(Long portfolioId, String username) {
+        Portfolio portfolio = ownedPortfolio(portfolioId, username);
+        List<Holding> stockHoldings = stockHoldings(portfolio);
 
-    private double[] computeReturns(double[] prices, int maxLen) {
-        int start = Math.max(0, prices.length - maxLen);
-        int n = prices.length - start;
-        double[] returns = new double[n - 1];
-        for (int i = 1; i < n; i++) {
-            double prev = prices[start + i - 1];
-            returns[i - 1] = prev == 0 ? 0 : (prices[start + i] - prev) / prev;
+        Map<String, Double> weights = new LinkedHashMap<>();
+        double totalValue = weights(stockHoldings, ticker -> true, this::currentPrice, weights);
+        if (weights.isEmpty()) {
+            throw new IllegalStateException("No current or stored prices for the portfolio holdings");
+        }
+        OnlineRiskStats.PortfolioStats stats = onlineRiskStats.portfolio(weights);
+        if (stats.observations() == 0) {
+            throw new IllegalStateException(
+                    "No overlapping return history for the portfolio holdings. " +
+                    "Please sync price history first: POST /api/v1/price-history/sync/portfolio/" + portfolioId);
         }
-        return returns;
-    }
-
-    // ── VaR Methods (FR-RA-001) ──
 
-    private double historicalVaR(double[] returns, double confidence, int horizon, double portfolioValue) {
-        double[] sorted = returns.clone();
-        Arrays.sort(sorted);
-        int index = (int) Math.floor((1 - confidence) * sorted.length);
-        index = Math.max(0, Math.min(index, sorted.length - 1));
-        double dailyVaR = -sorted[index];
-        return dailyVaR * Math.sqrt(horizon) * portfolioValue;
+        RiskSummaryResponse resp = new RiskSummaryResponse();
+        resp.setPortfolioId(portfolioId);
+        resp.setPortfolioName(portfolio.getName());
+        resp.setPortfolioValue(totalValue);
+        resp.setObservations(stats.observations());
+        resp.setWindowStart(stats.from().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        resp.setWindowEnd(stats.to().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        resp.setDailyVolatility(stats.dailyVolatility());
+        resp.setAnnualizedVolatility(stats.annualizedVolatility());
+        resp.setPortfolioBeta(stats.beta());
+        resp.setSharpeRatio(stats.sharpeRatio());
+
+        List<RiskSummaryResponse.HoldingRisk> holdings = new ArrayList<>();
+        for (OnlineRiskStats.TickerStats t : stats.holdings()) {
+            RiskSummaryResponse.HoldingRisk h = new RiskSummaryResponse.HoldingRisk();
+            h.setTicker(t.ticker());
+            h.setWeight(weights.getOrDefault(t.ticker(), 0.0));
+            h.setAnnualizedVolatility(t.annualizedVolatility());
+            h.setBeta(t.beta());
+            h.setSharpeRatio(t.sharpeRatio());
+            h.setSortinoRatio(t.sortinoRatio());
+            holdings.add(h);
+        }
+        resp.setHoldings(holdings);
+        return resp;
     }
 
-    private double parametricVaR(double dailyVol, double confidence, int horizon, double portfolioValue) {
-        double zScore = getZScore(confidence);
-        return zScore * dailyVol * Math.sqrt(horizon) * portfolioValue;
+    /**
+     * Holding and benchmark returns over [from, to] from the shared {@link ReturnMatrixBuilder} cache.
+     */
+    private ReturnMatrix returnMatrix(List<Holding> stockHoldings, LocalDate from, LocalDate to) {
+        Set<String> tickers = new LinkedHashSet<>();
+        stockHoldings.forEach(h -> tickers.add(h.getTicker()));
+        tickers.add(BENCHMARK);
+        ReturnMatrix matrix = returnMatrixBuilder.build(tickers, from, to);
+        if (matrix.indexOf(BENCHMARK) < 0) {
+            log.warn("No local price data for benchmark {}. Run price-history sync first.", BENCHMARK);
+        }
+        return matrix;
     }
 
-    private double monteCarloVaR(double[] returns, double confidence, int horizon, double portfolioValue) {
-        double mu = mean(returns);
-        double sigma = standardDeviation(returns);
-        Random rng = new Random(42);
+    /**
+     * Distinct holding tickers that have a column in the matrix, in holding order.
+     */
+    static List<String> holdingTickers(List<Holding> stockHoldings, ReturnMatrix matrix) {
+        return stockHoldings.stream()
+                .map(Holding::getTicker)
+                .distinct()
+                .filter(t -> matrix.indexOf(t) >= 0)
+                .toList();
+    }
 
-        double[] simReturns = new double[MONTE_CARLO_SIMULATIONS];
-        for (int i = 0; i < MONTE_CARLO_SIMULATIONS; i++) {
-            double cumReturn = 0;
-            for (int d = 0; d < horizon; d++) {
-                cumReturn += mu + sigma * rng.nextGaussian();
-            }
-            simReturns[i] = cumReturn;
+    /**
+     * Calculator input over the matrix columns of {@code tickers}, with the benchmark column when the matrix has
+     * one. Columns are passed as they are; nothing is copied.
+     */
+    PortfolioRiskCalculator.Input calculatorInput(ReturnMatrix matrix, List<String> tickers,
+                                                  Map<String, Double> weights, double value,
+                                                  double confidenceLevel, int timeHorizonDays) {
+        if (matrix.isEmpty()) {
+            throw new IllegalStateException("No overlapping return history for the portfolio holdings");
         }
+        int n = tickers.size();
+        double[][] series = new double[n][];
+        double[] assetWeights = new double[n];
+        for (int i = 0; i < n; i++) {
+            series[i] = matrix.column(matrix.indexOf(tickers.get(i)));
+            assetWeights[i] = weights.getOrDefault(tickers.get(i), 0.0);
+        }
+        int b = matrix.indexOf(BENCHMARK);
+        return new PortfolioRiskCalculator.Input(
+                tickers.toArray(String[]::new), series, new int[n], matrix.length(), assetWeights,
+                b >= 0 ? matrix.column(b) : null, 0,
+                value, confidenceLevel, timeHorizonDays, monteCarloPaths, monteCarloSeed, monteCarloMultivariate);
+    }
 
-        Arrays.sort(simReturns);
-        int index = (int) Math.floor((1 - confidence) * MONTE_CARLO_SIMULATIONS);
-        index = Math.max(0, Math.min(index, MONTE_CARLO_SIMULATIONS - 1));
-        return -simReturns[index] * portfolioValue;
+    /**
+     * Date of a drawdown path index from the calculator: index 0 is the start of the window, index i the close
+     * after the i-th aligned return.
+     */
+    static String drawdownDate(ReturnMatrix matrix, int index) {
+        return LocalDate.ofEpochDay(matrix.epochDay(Math.max(0, index - 1))).format(DateTimeFormatter.ISO_LOCAL_DATE);
     }
 
-    // ── CVaR / Expected Shortfall (FR-RA-003) ──
+    RiskMetrics compute(PortfolioRiskCalculator.Input input) {
+        return riskCalculator.compute(input);
+    }
 
-    private double computeCVaR(double[] returns, double confidence, int horizon, double portfolioValue) {
-        double[] sorted = returns.clone();
-        Arrays.sort(sorted);
-        int cutoff = (int) Math.floor((1 - confidence) * sorted.length);
-        cutoff = Math.max(1, cutoff);
-        double sum = 0;
-        for (int i = 0; i < cutoff; i++) {
-            sum += sorted[i];
-        }
-        double avgTailLoss = -sum / cutoff;
-        return avgTailLoss * Math.sqrt(horizon) * portfolioValue;
+    /**
+     * Live quote, falling back to the latest stored close; null when neither exists.
+     */
+    BigDecimal currentPrice(String ticker) {
+        BigDecimal price = marketDataService.getCurrentPrice(ticker);
+        return price != null ? price : priceHistoryService.getLatestClosePrice(ticker);
     }
 
-    // ── Beta (FR-RA-005) ──
+    /**
+     * Fails as {@link #computeRiskAnalytics} would when the portfolio is missing or not the caller's.
+     */
+    @Transactional(readOnly = true)
+    public void checkAccess(Long portfolioId, String username) {
+        ownedPortfolio(portfolioId, username);
+    }
 
-    private double computeBeta(double[] assetReturns, double[] benchmarkReturns) {
-        int n = Math.min(assetReturns.length, benchmarkReturns.length);
-        if (n < 2) return 1.0;
+    private Portfolio ownedPortfolio(Long portfolioId, String username) {
+        Portfolio portfolio = portfolioRepository.findById(portfolioId)
+                .orElseThrow(() -> new IllegalArgumentException("Portfolio not found: " + portfolioId));
 
-        double meanA = mean(assetReturns, n);
-        double meanB = mean(benchmarkReturns, n);
-        double cov = 0, varB = 0;
-        for (int i = 0; i < n; i++) {
-            double diffA = assetReturns[i] - meanA;
-            double diffB = benchmarkReturns[i] - meanB;
-            cov += diffA * diffB;
-            varB += diffB * diffB;
+        if (!portfolio.getUser().getEmail().equals(username)) {
+            throw new SecurityException("Access denied");
         }
-        return varB == 0 ? 1.0 : cov / varB;
+        return portfolio;
     }
 
-    // ── Max Drawdown (FR-RA-008) ──
+    static List<Holding> stockHoldings(Portfolio portfolio) {
+        List<Holding> holdings = portfolio.getHoldings();
+        if (holdings == null || holdings.isEmpty()) {
+            throw new IllegalStateException("Portfolio has no holdings");
+        }
 
-    private void computeMaxDrawdown(double[] portfolioReturns, LocalDate startDate,
-                                     RiskAnalyticsResponse resp) {
-        double[] valueSeries = new double[portfolioReturns.length + 1];
-        valueSeries[0] = 1.0;
-        for (int i = 0; i < portfolioReturns.length; i++) {
-            valueSeries[i + 1] = valueSeries[i] * (1 + portfolioReturns[i]);
+        // Filter to holdings with valid tickers (STOCK and ETF)
+        List<Holding> stockHoldings = holdings.stream()
+                .filter(h -> h.getTicker() != null && !h.getTicker().isBlank())
+                .filter(h -> {
+                    String type = h.getAssetType() != null ? h.getAssetType().name() : "";
+                    return "STOCK".equals(type) || "ETF".equals(type);
+                })
+                .toList();
+
+        if (stockHoldings.isEmpty()) {
+            throw new IllegalStateException("Portfolio has no stock/ETF holdings for risk analysis");
         }
+        return stockHoldings;
+    }
 
-        double maxDD = 0;
-        int peakIdx = 0, troughIdx = 0;
-        double peak = valueSeries[0];
-        int currentPeakIdx = 0;
+    /**
+     * Fills {@code weights} (ticker to fraction of value) for the included holdings and returns their total
+     * market value. Holdings without a price are left out; lots of the same ticker are summed.
+     */
+    static double weights(List<Holding> stockHoldings, Predicate<String> include,
+                          Function<String, BigDecimal> priceOf, Map<String, Double> weights) {
+        int n = stockHoldings.size();
+        String[] tickers = new String[n];
+        double[] prices = new double[n];
+        double[] quantities = new double[n];
+        int k = 0;
+        for (Holding h : stockHoldings) {
+            if (!include.test(h.getTicker())) continue;
 
-        for (int i = 1; i < valueSeries.length; i++) {
-            if (valueSeries[i] > peak) {
-                peak = valueSeries[i];
-                currentPeakIdx = i;
-            }
-            double dd = (peak - valueSeries[i]) / peak;
-            if (dd > maxDD) {
-                maxDD = dd;
-                peakIdx = currentPeakIdx;
-                troughIdx = i;
+            BigDecimal price = priceOf.apply(h.getTicker());
+            if (price == null) {
+                log.warn("No current or stored price for {} — excluded from weights", h.getTicker());
+                continue;
             }
+
+            tickers[k] = h.getTicker();
+            prices[k] = price.doubleValue();
+            quantities[k] = h.getQuantity().doubleValue();
+            k++;
         }
 
-        resp.setMaxDrawdown(bd(maxDD));
-        resp.setMaxDrawdownPeakDate(startDate.plusDays(peakIdx).format(DateTimeFormatter.ISO_LOCAL_DATE));
-        resp.setMaxDrawdownTroughDate(startDate.plusDays(troughIdx).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        double[] values = new double[k];
+        double totalValue = Positions.values(prices, quantities, k, values);
+        Positions.weights(values, k, totalValue, values);
+        for (int i = 0; i < k; i++) {
+            weights.merge(tickers[i], values[i], Double::sum);
+        }
+        return totalValue;
     }
 
-    // ── Stress Testing (FR-RA-009) ──
-
-    private List<StressScenario> buildStressScenarios(double portfolioValue, BigDecimal portfolioBeta) {
-        double beta = portfolioBeta != null ? portfolioBeta.doubleValue() : 1.0;
-        List<StressScenario> scenarios = new ArrayList<>();
-
-        scenarios.add(buildScenario("2008 Financial Crisis",
-                "Simulates the 2007-2009 subprime mortgage crisis and bank failures",
-                -56.8, beta, portfolioValue));
-        scenarios.add(buildScenario("COVID-19 Crash (2020)",
-                "Simulates the rapid market selloff in Feb-Mar 2020",
-                -33.9, beta, portfolioValue));
-        scenarios.add(buildScenario("Dot-com Bubble (2000-2002)",
-                "Simulates the technology bubble burst of early 2000s",
-                -49.1, beta, portfolioValue));
-        scenarios.add(buildScenario("Black Monday (1987)",
-                "Simulates the Oct 19, 1987 single-day market crash",
-                -22.6, beta, portfolioValue));
-        scenarios.add(buildScenario("Interest Rate Shock (+300bps)",
-                "Simulates a sudden 300 basis point increase in interest rates",
-                -20.0, beta, portfolioValue));
-
-        return scenarios;
+    private RiskResultCache.Fingerprint fingerprint(List<Holding> stockHoldings, LocalDate asOf) {
+        Map<String, BigDecimal> quantities = quantitiesByTicker(stockHoldings);
+        Map<String, Long> versions = new TreeMap<>();
+        for (String ticker : quantities.keySet()) {
+            versions.put(ticker, returnSeriesStore.version(ticker));
+        }
+        versions.put(BENCHMARK, returnSeriesStore.version(BENCHMARK));
+        return new RiskResultCache.Fingerprint(quantities, asOf, versions);
     }
 
-    private StressScenario buildScenario(String name, String description, double marketShock,
-                                          double beta, double portfolioValue) {
-        double estimatedLossPct = marketShock * beta / 100.0;
-        double estimatedLoss = Math.abs(estimatedLossPct) * portfolioValue;
-
-        StressScenario s = new StressScenario();
-        s.setName(name);
-        s.setDescription(description);
-        s.setMarketShockPercent(bd(marketShock));
-        s.setEstimatedLoss(bd(estimatedLoss).setScale(2, RoundingMode.HALF_UP));
-        s.setEstimatedLossPercent(bd(estimatedLossPct * 100).setScale(2, RoundingMode.HALF_UP));
-        return s;
+    private Map<String, BigDecimal> quantitiesByTicker(List<Holding> stockHoldings) {
+        Map<String, BigDecimal> quantities = new TreeMap<>();
+        for (Holding h : stockHoldings) {
+            BigDecimal qty = h.getQuantity() != null ? h.getQuantity() : BigDecimal.ZERO;
+            quantities.merge(h.getTicker(), qty, BigDecimal::add);
+        }
+        quantities.replaceAll((ticker, qty) -> qty.stripTrailingZeros());
+        return quantities;
     }
 
-    // ── Monte Carlo Distribution (FR-RA-001) ──
+    private HoldingBeta holdingBeta(String ticker, List<Holding> stockHoldings, Double beta, double weight) {
+        HoldingBeta hb = new HoldingBeta();
+        hb.setTicker(ticker);
+        Holding holding = stockHoldings.stream()
+                .filter(h -> h.getTicker().equals(ticker)).findFirst().orElse(null);
+        hb.setName(holding != null ? holding.getName() : ticker);
+        hb.setBeta(beta);
+        hb.setWeight(weight);
+        return hb;
+    }
 
-    private MonteCarloResult runMonteCarloDistribution(double[] returns, int horizon) {
-        double mu = mean(returns);
-        double sigma = standardDeviation(returns);
-        Random rng = new Random(42);
+    // ── Precomputed snapshots (FR-RA-012) ──
+
+    /**
+     * Response built from the latest batch snapshot for these parameters, or null when there is none within
+     * {@code app.risk.snapshot.max-age-days}, the holdings changed since it was computed, or it was written
+     * before snapshots carried the confidence ladder (the live path then answers with the full shape).
+     */
+    private RiskAnalyticsResponse fromSnapshot(Portfolio portfolio, List<Holding> stockHoldings, LocalDate today,
+                                               double confidenceLevel, int timeHorizonDays, int lookbackDays) {
+        PortfolioRiskSnapshot snap = snapshotRepository
+                .findTopByPortfolioIdAndConfidenceLevelAndTimeHorizonDaysAndLookbackDaysOrderByAsOfDateDesc(
+                        portfolio.getId(), confidenceLevel, timeHorizonDays, lookbackDays)
+                .orElse(null);
+        if (snap == null || snap.getAsOfDate().isBefore(today.minusDays(snapshotMaxAgeDays))) {
+            return null;
+        }
+        if (!snap.getHoldingsHash().equals(HoldingsFingerprint.of(quantitiesByTicker(stockHoldings)))) {
+            log.debug("Risk snapshot {} for portfolio {} is stale: holdings changed", snap.getId(), portfolio.getId());
+            return null;
+        }
+        List<PortfolioRiskSnapshotLadder> ladderRows =
+                snapshotLadderRepository.findBySnapshotIdOrderByConfidenceLevelAsc(snap.getId());
+        if (ladderRows.isEmpty()) {
+            log.debug("Risk snapshot {} for portfolio {} has no confidence ladder", snap.getId(), portfolio.getId());
+            return null;
+        }
 
-        double[] endReturns = new double[MONTE_CARLO_SIMULATIONS];
-        for (int i = 0; i < MONTE_CARLO_SIMULATIONS; i++) {
-            double cumReturn = 0;
-            for (int d = 0; d < horizon; d++) {
-                cumReturn += mu + sigma * rng.nextGaussian();
+        RiskAnalyticsResponse resp = new RiskAnalyticsResponse();
+        resp.setPortfolioId(portfolio.getId());
+        resp.setPortfolioName(portfolio.getName());
+        resp.setPortfolioValue(snap.getPortfolioValue().doubleValue());
+        resp.setBaseCurrency(portfolio.getBaseCurrency());
+        resp.setConfidenceLevel(confidenceLevel);
+        resp.setTimeHorizonDays(timeHorizonDays);
+        resp.setLookbackDays(lookbackDays);
+        resp.setSource("SNAPSHOT");
+        resp.setAsOf(snap.getAsOfDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+
+        resp.setDailyVolatility(snap.getDailyVolatility());
+        resp.setAnnualizedVolatility(snap.getAnnualizedVolatility());
+
+        VaRMetrics var = new VaRMetrics();
+        var.setHistoricalSimulation(snap.getVarHistorical());
+        var.setParametric(snap.getVarParametric());
+        var.setMonteCarlo(snap.getVarMonteCarlo());
+        resp.setVar(var);
+        resp.setCvar95(snap.getCvar95());
+        resp.setCvar99(snap.getCvar99());
+
+        List<ConfidenceLevelRisk> ladder = new ArrayList<>(ladderRows.size());
+        for (PortfolioRiskSnapshotLadder row : ladderRows) {
+            ConfidenceLevelRisk level = new ConfidenceLevelRisk();
+            level.setConfidenceLevel(row.getConfidenceLevel());
+            level.setHistoricalVar(row.getHistoricalVar());
+            level.setHistoricalCvar(row.getHistoricalCvar());
+            level.setMonteCarloVar(row.getMonteCarloVar());
+            level.setMonteCarloCvar(row.getMonteCarloCvar());
+            ladder.add(level);
+        }
+        resp.setConfidenceLadder(ladder);
+
+        resp.setPortfolioBeta(snap.getBeta());
+        resp.setPortfolioAlpha(snap.getAlpha());
+        resp.setSharpeRatio(snap.getSharpeRatio());
+        resp.setSortinoRatio(snap.getSortinoRatio());
+        resp.setTreynorRatio(snap.getTreynorRatio());
+
+        resp.setMaxDrawdown(snap.getMaxDrawdown());
+        if (snap.getMaxDrawdownPeakDate() != null) {
+            resp.setMaxDrawdownPeakDate(snap.getMaxDrawdownPeakDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        }
+        if (snap.getMaxDrawdownTroughDate() != null) {
+            resp.setMaxDrawdownTroughDate(snap.getMaxDrawdownTroughDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        }
+        resp.setAverageCorrelation(snap.getAverageCorrelation());
+        resp.setDiversificationRatio(snap.getDiversificationRatio());
+
+        List<PortfolioRiskSnapshotHolding> rows = snapshotHoldingRepository.findBySnapshotIdOrderByIdAsc(snap.getId());
+        if (rows.stream().anyMatch(r -> r.getComponentVar() != null)) {
+            double totalComponentVar = rows.stream()
+                    .mapToDouble(r -> r.getComponentVar() != null ? r.getComponentVar() : 0).sum();
+            List<HoldingVarContribution> contributions = new ArrayList<>(rows.size());
+            for (PortfolioRiskSnapshotHolding row : rows) {
+                contributions.add(varContribution(row.getTicker(), row.getWeight(),
+                        row.getMarginalVar(), row.getComponentVar(), row.getIncrementalVar(),
+                        row.getMarginalEs(), row.getComponentEs(), row.getIncrementalEs(),
+                        row.getSimulatedComponentVar(), row.getExpectedShortfall(), totalComponentVar));
+            }
+            resp.setVarContributions(contributions);
+        }
+        if (snap.getBeta() != null) {
+            List<HoldingBeta> holdingBetaList = new ArrayList<>();
+            for (PortfolioRiskSnapshotHolding row : rows) {
+                holdingBetaList.add(holdingBeta(row.getTicker(), stockHoldings, row.getBeta(), row.getWeight()));
+            }
+            resp.setHoldingBetas(holdingBetaList);
+        }
+
+        List<String> snapTickers = new ArrayList<>(rows.size());
+        double[] snapWeights = new double[rows.size()];
+        double[] snapBetas = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            snapTickers.add(rows.get(i).getTicker());
+            snapWeights[i] = rows.get(i).getWeight();
+            snapBetas[i] = rows.get(i).getBeta() != null ? rows.get(i).getBeta() : 1.0;
+        }
+        resp.setStressTests(stressTestService.run(snapTickers, snapWeights, snapBetas,
+                snap.getPortfolioValue().doubleValue(), resp.getPortfolioBeta(), StressTestService.DEFAULT_SCENARIOS));
+
+        if (snap.getMcSimulations() != null) {
+            MonteCarloResult mc = new MonteCarloResult();
+            mc.setSimulations(snap.getMcSimulations());
+            mc.setMeanReturn(snap.getMcMeanReturn());
+            mc.setPercentile5(snap.getMcPercentile5());
+            mc.setPercentile25(snap.getMcPercentile25());
+            mc.setMedian(snap.getMcMedian());
+            mc.setPercentile75(snap.getMcPercentile75());
+            mc.setPercentile95(snap.getMcPercentile95());
+            mc.setValueAtRisk(var.getMonteCarlo());
+            mc.setExpectedShortfall(snap.getMcExpectedShortfall());
+            mc.setMode(snap.getMcMode());
+            if ("MULTIVARIATE".equals(snap.getMcMode())) {
+                List<ComponentContribution> contributions = new ArrayList<>();
+                for (PortfolioRiskSnapshotHolding row : rows) {
+                    ComponentContribution cc = new ComponentContribution();
+                    cc.setTicker(row.getTicker());
+                    cc.setWeight(row.getWeight());
+                    if (row.getExpectedShortfall() != null) {
+                        cc.setExpectedShortfall(row.getExpectedShortfall());
+                    }
+                    if (row.getPercentOfTotal() != null) {
+                        cc.setPercentOfTotal(row.getPercentOfTotal());
+                    }
+                    contributions.add(cc);
+                }
+                mc.setComponentContributions(contributions);
             }
-            endReturns[i] = cumReturn;
-        }
-        Arrays.sort(endReturns);
-
-        MonteCarloResult mc = new MonteCarloResult();
-        mc.setSimulations(MONTE_CARLO_SIMULATIONS);
-        mc.setMeanReturn(bd(mean(endReturns)));
-        mc.setPercentile5(bd(percentile(endReturns, 5)));
-        mc.setPercentile25(bd(percentile(endReturns, 25)));
-        mc.setMedian(bd(percentile(endReturns, 50)));
-        mc.setPercentile75(bd(percentile(endReturns, 75)));
-        mc.setPercentile95(bd(percentile(endReturns, 95)));
-        return mc;
+            resp.setMonteCarlo(mc);
+        }
+        return resp;
     }
 
-    // ── Statistical helpers ──
+    // ── Stress Testing (FR-RA-009, FR-RA-010) ──
 
-    private double mean(double[] data) {
-        return mean(data, data.length);
-    }
+    /**
+     * Default scenarios plus the caller's custom windows or shocks, replayed against the current holdings.
+     * Betas for holdings without history in a window come from the streaming statistics.
+     */
+    @Transactional(readOnly = true)
+    public List<StressScenario> runStressTests(Long portfolioId, String username, StressTestRequest request) {
+        Portfolio portfolio = ownedPortfolio(portfolioId, username);
+        List<Holding> stockHoldings = stockHoldings(portfolio);
 
-    private double mean(double[] data, int n) {
-        double sum = 0;
-        for (int i = 0; i < n; i++) sum += data[i];
-        return n == 0 ? 0 : sum / n;
-    }
+        List<StressTestService.Scenario> scenarios = new ArrayList<>();
+        if (request.isIncludeDefaults()) {
+            scenarios.addAll(StressTestService.DEFAULT_SCENARIOS);
+        }
+        if (request.getScenarios() != null) {
+            if (request.getScenarios().size() > MAX_CUSTOM_SCENARIOS) {
+                throw new IllegalArgumentException("At most " + MAX_CUSTOM_SCENARIOS + " custom scenarios");
+            }
+            for (StressTestRequest.CustomScenario c : request.getScenarios()) {
+                scenarios.add(customScenario(c));
+            }
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No stress scenarios requested");
+        }
 
-    private double standardDeviation(double[] data) {
-        if (data.length < 2) return 0;
-        double m = mean(data);
-        double sumSq = 0;
-        for (double d : data) {
-            sumSq += (d - m) * (d - m);
+        Map<String, Double> weights = new LinkedHashMap<>();
+        double totalValue = weights(stockHoldings, ticker -> true, this::currentPrice, weights);
+        if (weights.isEmpty()) {
+            throw new IllegalStateException("No current or stored prices for the portfolio holdings");
+        }
+        List<String> tickers = new ArrayList<>(weights.keySet());
+        double[] w = new double[tickers.size()];
+        double[] betas = new double[tickers.size()];
+        double portfolioBeta = 0;
+        for (int i = 0; i < w.length; i++) {
+            w[i] = weights.get(tickers.get(i));
+            Double beta = onlineRiskStats.ticker(tickers.get(i)).beta();
+            betas[i] = beta != null ? beta : 1.0;
+            portfolioBeta += w[i] * betas[i];
         }
-        return Math.sqrt(sumSq / (data.length - 1));
+        return stressTestService.run(tickers, w, betas, totalValue, portfolioBeta, scenarios);
     }
 
-    private double downsideDeviation(double[] returns) {
-        double dailyRf = RISK_FREE_RATE_ANNUAL / 252;
-        double sumSq = 0;
-        int count = 0;
-        for (double r : returns) {
-            double diff = r - dailyRf;
-            if (diff < 0) {
-                sumSq += diff * diff;
-                count++;
+    private static StressTestService.Scenario customScenario(StressTestRequest.CustomScenario c) {
+        if (c.getName() == null || c.getName().isBlank()) {
+            throw new IllegalArgumentException("Custom scenario name is required");
+        }
+        Double shock = c.getMarketShockPercent() != null ? c.getMarketShockPercent().doubleValue() : null;
+        if (c.getStartDate() == null && c.getEndDate() == null) {
+            if (shock == null) {
+                throw new IllegalArgumentException("Scenario '" + c.getName() + "' needs a date window or a market shock");
             }
+            return new StressTestService.Scenario(c.getName(), c.getDescription(), null, null, shock);
         }
-        return count < 2 ? 0 : Math.sqrt(sumSq / (count - 1));
+        if (c.getStartDate() == null || c.getEndDate() == null || c.getEndDate().isBefore(c.getStartDate())) {
+            throw new IllegalArgumentException("Scenario '" + c.getName() + "' needs startDate <= endDate");
+        }
+        return new StressTestService.Scenario(c.getName(), c.getDescription(), c.getStartDate(), c.getEndDate(), shock);
     }
 
-    private double percentile(double[] sortedData, double pct) {
-        double idx = (pct / 100.0) * (sortedData.length - 1);
-        int lower = (int) Math.floor(idx);
-        int upper = Math.min(lower + 1, sortedData.length - 1);
-        double frac = idx - lower;
-        return sortedData[lower] + frac * (sortedData[upper] - sortedData[lower]);
+    private static double[] betasOrOne(double[] betas, int n) {
+        if (betas != null) return betas;
+        double[] ones = new double[n];
+        Arrays.fill(ones, 1.0);
+        return ones;
     }
 
-    private double getZScore(double confidence) {
-        if (confidence >= 0.99) return 2.326;
-        if (confidence >= 0.95) return 1.645;
-        if (confidence >= 0.90) return 1.282;
-        return 1.645;
+    // ── VaR Decomposition ──
+
+    /**
+     * Full-precision figures: marginals are per unit of currency, the rest currency amounts, and
+     * {@code @Decimals} on {@link HoldingVarContribution} rounds them when the response is serialized.
+     */
+    private HoldingVarContribution varContribution(String ticker, double weight,
+                                                   Double marginalVar, Double componentVar, Double incrementalVar,
+                                                   Double marginalEs, Double componentEs, Double incrementalEs,
+                                                   Double simulatedComponentVar, Double simulatedComponentEs,
+                                                   double totalComponentVar) {
+        HoldingVarContribution c = new HoldingVarContribution();
+        c.setTicker(ticker);
+        c.setWeight(weight);
+        c.setMarginalVar(marginalVar);
+        c.setComponentVar(componentVar);
+        if (componentVar != null && Math.abs(totalComponentVar) > 1e-12) {
+            c.setComponentVarPercent(componentVar / totalComponentVar * 100);
+        }
+        c.setIncrementalVar(incrementalVar);
+        c.setMarginalEs(marginalEs);
+        c.setComponentEs(componentEs);
+        c.setIncrementalEs(incrementalEs);
+        c.setSimulatedComponentVar(simulatedComponentVar);
+        c.setSimulatedComponentEs(simulatedComponentEs);
+        return c;
     }
 
-    private BigDecimal bd(double value) {
-        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    // ── Monte Carlo Distribution (FR-RA-001) ──
+
+    private List<ComponentContribution> buildComponentContributions(List<String> tickers, double[] weights,
+                                                                   double[] tailMeans, double portfolioValue) {
+        double total = 0;
+        for (double c : tailMeans) total += c;
+
+        List<ComponentContribution> result = new ArrayList<>();
+        for (int i = 0; i < tickers.size(); i++) {
+            ComponentContribution cc = new ComponentContribution();
+            cc.setTicker(tickers.get(i));
+            cc.setWeight(weights[i]);
+            cc.setExpectedShortfall(-tailMeans[i] * portfolioValue);
+            if (Math.abs(total) > 1e-12) {
+                cc.setPercentOfTotal(tailMeans[i] / total * 100);
+            }
+            result.add(cc);
+        }
+        return result;
     }
 }
@@ -0,0 +1,258 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.dto.RiskAnalyticsResponse;
+import com.portfolio.api.dto.RiskJobStatus;
+import com.portfolio.api.exception.ResourceNotFoundException;
+import com.portfolio.api.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous risk analytics jobs, so a long computation (many Monte Carlo paths, long lookbacks) does not
+ * hold a request thread for its whole run.
+ *
+ * Each job runs {@link RiskAnalyticsService#computeRiskAnalytics} on its own virtual thread. At most
+ * {@code app.risk.jobs.max-running} compute at once (the rest wait, cheaply, as QUEUED) and each user may have
+ * {@code max-per-user} unfinished jobs. Every state or stage change is pushed to {@code /topic/risk-jobs/{jobId}};
+ * the job ID is a random UUID and is only returned to the submitter. Cancelling interrupts the job, which stops
+ * at its next stage boundary. Finished jobs and their results are kept for {@code retention-minutes}.
+ */
+@Service
+public class RiskJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskJobService.class);
+    private static final String TOPIC = "/topic/risk-jobs/";
+
+    static final String QUEUED = "QUEUED";
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+    static final String CANCELLED = "CANCELLED";
+
+    private final RiskAnalyticsService riskAnalyticsService;
+    private final SimpMessageSendingOperations messaging;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore running;
+    private final int maxPerUser;
+    private final Duration retention;
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public RiskJobService(RiskAnalyticsService riskAnalyticsService,
+                          SimpMessageSendingOperations messaging,
+                          @Value("${app.risk.jobs.max-running:8}") int maxRunning,
+                          @Value("${app.risk.jobs.max-per-user:3}") int maxPerUser,
+                          @Value("${app.risk.jobs.retention-minutes:30}") long retentionMinutes) {
+        this.riskAnalyticsService = riskAnalyticsService;
+        this.messaging = messaging;
+        this.running = new Semaphore(maxRunning, true);
+        this.maxPerUser = maxPerUser;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    public RiskJobStatus submit(Long portfolioId, String username, double confidenceLevel, int timeHorizonDays,
+                                int lookbackDays, boolean live) {
+        if (confidenceLevel <= 0 || confidenceLevel >= 1 || timeHorizonDays < 1 || lookbackDays < 2) {
+            throw new IllegalArgumentException("Invalid risk parameters");
+        }
+        riskAnalyticsService.checkAccess(portfolioId, username);
+        purgeExpired();
+
+        Job job;
+        synchronized (this) {
+            long active = jobs.values().stream()
+                    .filter(j -> j.username.equals(username) && !j.isFinished())
+                    .count();
+            if (active >= maxPerUser) {
+                throw new TooManyRequestsException("At most " + maxPerUser + " risk jobs may be in progress per user");
+            }
+            job = new Job(UUID.randomUUID().toString(), username, portfolioId,
+                    confidenceLevel, timeHorizonDays, lookbackDays, live);
+            jobs.put(job.id, job);
+        }
+        publish(job);
+        job.future = executor.submit(() -> run(job));
+        log.info("Risk job {} submitted for portfolio {} by {}", job.id, portfolioId, username);
+        return job.status();
+    }
+
+    public RiskJobStatus status(String jobId, String username) {
+        return owned(jobId, username).status();
+    }
+
+    /**
+     * The caller's jobs, newest first.
+     */
+    public List<RiskJobStatus> list(String username) {
+        purgeExpired();
+        return jobs.values().stream()
+                .filter(j -> j.username.equals(username))
+                .sorted(Comparator.comparing((Job j) -> j.submittedAt).reversed())
+                .map(Job::status)
+                .toList();
+    }
+
+    /**
+     * The computed analytics, or null while the job has not completed (see its status for why).
+     */
+    public RiskAnalyticsResponse result(String jobId, String username) {
+        Job job = owned(jobId, username);
+        return COMPLETED.equals(job.state) ? job.result : null;
+    }
+
+    public RiskJobStatus cancel(String jobId, String username) {
+        Job job = owned(jobId, username);
+        if (job.finish(CANCELLED, null, null)) {
+            Future<?> f = job.future;
+            if (f != null) f.cancel(true);
+            log.info("Risk job {} cancelled", job.id);
+            publish(job);
+        }
+        return job.status();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            if (!job.start()) {
+                return;
+            }
+            publish(job);
+            RiskAnalyticsResponse result = riskAnalyticsService.computeRiskAnalytics(job.portfolioId, job.username,
+                    job.confidenceLevel, job.timeHorizonDays, job.lookbackDays, job.live,
+                    (stage, percent) -> {
+                        if (Thread.currentThread().isInterrupted() || job.isFinished()) {
+                            throw new CancellationException();
+                        }
+                        job.stage = stage;
+                        job.progressPercent = percent;
+                        publish(job);
+                    });
+            if (job.finish(COMPLETED, result, null)) publish(job);
+        } catch (CancellationException e) {
+            // cancel() already recorded the state
+        } catch (IllegalArgumentException | IllegalStateException | SecurityException e) {
+            if (job.finish(FAILED, null, e.getMessage())) publish(job);
+        } catch (RuntimeException e) {
+            log.error("Risk job {} failed: {}", job.id, e.getMessage(), e);
+            if (job.finish(FAILED, null, "Risk computation failed")) publish(job);
+        } finally {
+            running.release();
+        }
+    }
+
+    private Job owned(String jobId, String username) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.username.equals(username)) {
+            throw new ResourceNotFoundException("Risk job", "id", jobId);
+        }
+        return job;
+    }
+
+    private void publish(Job job) {
+        try {
+            messaging.convertAndSend(TOPIC + job.id, job.status());
+        } catch (RuntimeException e) {
+            log.debug("Could not publish risk job {} update: {}", job.id, e.getMessage());
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class Job {
+        final String id;
+        final String username;
+        final Long portfolioId;
+        final double confidenceLevel;
+        final int timeHorizonDays;
+        final int lookbackDays;
+        final boolean live;
+        final Instant submittedAt = Instant.now();
+
+        volatile String state = QUEUED;
+        volatile String stage;
+        volatile int progressPercent;
+        volatile String error;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile RiskAnalyticsResponse result;
+        volatile Future<?> future;
+
+        Job(String id, String username, Long portfolioId, double confidenceLevel, int timeHorizonDays,
+            int lookbackDays, boolean live) {
+            this.id = id;
+            this.username = username;
+            this.portfolioId = portfolioId;
+            this.confidenceLevel = confidenceLevel;
+            this.timeHorizonDays = timeHorizonDays;
+            this.lookbackDays = lookbackDays;
+            this.live = live;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        /** QUEUED to RUNNING; false when the job was cancelled while queued. */
+        synchronized boolean start() {
+            if (!QUEUED.equals(state)) return false;
+            state = RUNNING;
+            startedAt = Instant.now();
+            return true;
+        }
+
+        /** Moves to a final state once; later calls (e.g. a result after a cancel) are ignored. */
+        synchronized boolean finish(String finalState, RiskAnalyticsResponse result, String error) {
+            if (isFinished()) return false;
+            this.state = finalState;
+            this.result = result;
+            this.error = error;
+            if (COMPLETED.equals(finalState)) {
+                this.stage = null;
+                this.progressPercent = 100;
+            }
+            this.finishedAt = Instant.now();
+            return true;
+        }
+
+        RiskJobStatus status() {
+            RiskJobStatus s = new RiskJobStatus();
+            s.setJobId(id);
+            s.setPortfolioId(portfolioId);
+            s.setState(state);
+            s.setStage(stage);
+            s.setProgressPercent(progressPercent);
+            s.setError(error);
+            s.setSubmittedAt(submittedAt.toString());
+            s.setStartedAt(startedAt != null ? startedAt.toString() : null);
+            s.setFinishedAt(finishedAt != null ? finishedAt.toString() : null);
+            s.setConfidenceLevel(confidenceLevel);
+            s.setTimeHorizonDays(timeHorizonDays);
+            s.setLookbackDays(lookbackDays);
+            s.setLive(live);
+            return s;
+        }
+    }
+}
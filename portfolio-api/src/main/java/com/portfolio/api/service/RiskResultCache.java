@@ -0,0 +1,129 @@
+package com.portfolio.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.portfolio.api.dto.RiskAnalyticsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computed risk analytics per (portfolio, parameters), validated against a {@link Fingerprint} of everything
+ * the result was built from: the holdings, the as-of date and the {@link ReturnSeriesStore} version of every
+ * ticker read. A change to holdings or to any of those tickers' returns makes the fingerprint differ, so only
+ * the affected portfolios recompute; an unchanged portfolio costs a map lookup and one equals().
+ *
+ * Weights use live quotes, which carry no version, so entries also expire after {@code app.risk.cache.ttl-seconds}.
+ * One entry is kept per key (a recompute replaces it) and the map is capped at {@code max-entries}.
+ *
+ * Responses are mutable DTOs, so an entry holds a serialized copy taken at {@link #put} and every hit gets a
+ * fresh instance; neither the computing caller nor any reader can change what later hits see. The copy skips
+ * Jackson annotations, so values are kept unrounded ({@code @Decimals} only applies to the HTTP response).
+ */
+@Component
+public class RiskResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskResultCache.class);
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final JsonMapper copier = JsonMapper.builder()
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+            .build();
+
+    public RiskResultCache(@Value("${app.risk.cache.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${app.risk.cache.max-entries:1000}") int maxEntries) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    public record Key(Long portfolioId, double confidenceLevel, int timeHorizonDays, int lookbackDays) {
+    }
+
+    /**
+     * @param holdings ticker to quantity (trailing zeros stripped so 10 and 10.00 match)
+     * @param versions ticker to return-series version, benchmark included
+     */
+    public record Fingerprint(Map<String, BigDecimal> holdings, LocalDate asOf, Map<String, Long> versions) {
+    }
+
+    private record Entry(Fingerprint fingerprint, byte[] response, Instant computedAt) {
+    }
+
+    /**
+     * Cached result when it was computed from exactly {@code fingerprint} and is still within the TTL.
+     */
+    public RiskAnalyticsResponse get(Key key, Fingerprint fingerprint) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (!e.fingerprint().equals(fingerprint) || e.computedAt().plus(ttl).isBefore(Instant.now())) {
+            entries.remove(key, e);
+            return null;
+        }
+        try {
+            RiskAnalyticsResponse response = copier.readValue(e.response(), RiskAnalyticsResponse.class);
+            log.debug("Risk analytics cache hit for portfolio {}", key.portfolioId());
+            return response;
+        } catch (IOException ex) {
+            log.warn("Dropping unreadable cached risk analytics for portfolio {}: {}", key.portfolioId(), ex.getMessage());
+            entries.remove(key, e);
+            return null;
+        }
+    }
+
+    public void put(Key key, Fingerprint fingerprint, RiskAnalyticsResponse response) {
+        if (ttl.isZero() || maxEntries <= 0) {
+            return;
+        }
+        byte[] copy;
+        try {
+            copy = copier.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Risk analytics for portfolio {} not cached: {}", key.portfolioId(), e.getMessage());
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evictOldest();
+        }
+        entries.put(key, new Entry(fingerprint, copy, Instant.now()));
+    }
+
+    /**
+     * Drop every cached result for a portfolio, e.g. after it is deleted.
+     */
+    public void evictPortfolio(Long portfolioId) {
+        entries.keySet().removeIf(k -> k.portfolioId().equals(portfolioId));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictOldest() {
+        Instant cutoff = Instant.now().minus(ttl);
+        entries.values().removeIf(e -> e.computedAt().isBefore(cutoff));
+        if (entries.size() >= maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparing((Map.Entry<Key, Entry> me) -> me.getValue().computedAt()))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+}
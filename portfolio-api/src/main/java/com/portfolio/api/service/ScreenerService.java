@@ -9,6 +9,7 @@ import com.portfolio.api.repository.ScreenerReportRepository;
 import com.portfolio.api.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +17,8 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,8 +28,10 @@ public class ScreenerService {
 
     private final MarketDataService marketDataService;
     private final ScreenerReportRepository screenerReportRepository;
+    private final ScreeningEngine screeningEngine;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final long reportTimeoutNanos;
 
     // Representative tickers per sector for sector screener
     private static final Map<String, List<String>> SECTOR_TICKERS = Map.ofEntries(
@@ -45,72 +50,94 @@ public class ScreenerService {
 
     public ScreenerService(MarketDataService marketDataService,
                            ScreenerReportRepository screenerReportRepository,
+                           ScreeningEngine screeningEngine,
                            UserRepository userRepository,
-                           ObjectMapper objectMapper) {
+                           ObjectMapper objectMapper,
+                           @Value("${app.screener.report-timeout-seconds:20}") long reportTimeoutSeconds) {
         this.marketDataService = marketDataService;
         this.screenerReportRepository = screenerReportRepository;
+        this.screeningEngine = screeningEngine;
         this.userRepository = userRepository;
         this.objectMapper = objectMapper;
+        this.reportTimeoutNanos = TimeUnit.SECONDS.toNanos(reportTimeoutSeconds);
     }
 
     // ───────── Ticker Report (FR-SC-001 through FR-SC-005) ─────────
 
+    /**
+     * All provider calls for the report run concurrently (see {@link #fork}); a call that fails or misses the
+     * report deadline leaves its section empty instead of failing the report.
+     */
     public TickerReportResponse generateTickerReport(String symbol) {
         String ticker = symbol.toUpperCase().trim();
         TickerReportResponse report = new TickerReportResponse();
         report.setTicker(ticker);
 
-        // Company profile
-        Map<String, Object> profile = marketDataService.getCompanyProfile(ticker);
-        if (profile != null && !profile.isEmpty()) {
-            report.setName(strVal(profile, "name"));
-            report.setIndustry(strVal(profile, "finnhubIndustry"));
-            report.setSector(strVal(profile, "finnhubIndustry"));
-            report.setCountry(strVal(profile, "country"));
-            report.setCurrency(strVal(profile, "currency"));
-            report.setExchange(strVal(profile, "exchange"));
-            report.setLogo(strVal(profile, "logo"));
-            report.setWeburl(strVal(profile, "weburl"));
-            report.setMarketCap(numVal(profile, "marketCapitalization"));
-        }
+        long deadline = System.nanoTime() + reportTimeoutNanos;
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Map<String, Object>> profileCall = fork(scope, () -> marketDataService.getCompanyProfile(ticker));
+            Future<Map<String, Object>> quoteCall = fork(scope, () -> marketDataService.getQuote(ticker));
+            Future<Map<String, Object>> financialsCall = fork(scope, () -> marketDataService.getBasicFinancials(ticker));
+            Future<List<Map<String, Object>>> annualCall =
+                    fork(scope, () -> marketDataService.getFinancialStatements(ticker, "annual"));
+            Future<List<Map<String, Object>>> quarterlyCall =
+                    fork(scope, () -> marketDataService.getFinancialStatements(ticker, "quarterly"));
+            Future<List<Map<String, Object>>> filingsCall = fork(scope, () -> marketDataService.getSecFilings(ticker));
+            Future<List<Map<String, Object>>> recommendationsCall =
+                    fork(scope, () -> marketDataService.getRecommendations(ticker));
+            Future<Map<String, Object>> priceTargetCall = fork(scope, () -> marketDataService.getPriceTarget(ticker));
+            Future<List<Map<String, Object>>> earningsCall = fork(scope, () -> marketDataService.getEarnings(ticker));
+
+            // Company profile
+            Map<String, Object> profile = join(profileCall, deadline, ticker);
+            if (profile != null && !profile.isEmpty()) {
+                report.setName(strVal(profile, "name"));
+                report.setIndustry(strVal(profile, "finnhubIndustry"));
+                report.setSector(strVal(profile, "finnhubIndustry"));
+                report.setCountry(strVal(profile, "country"));
+                report.setCurrency(strVal(profile, "currency"));
+                report.setExchange(strVal(profile, "exchange"));
+                report.setLogo(strVal(profile, "logo"));
+                report.setWeburl(strVal(profile, "weburl"));
+                report.setMarketCap(numVal(profile, "marketCapitalization"));
+            }
 
-        // Quote data
-        Map<String, Object> quote = marketDataService.getQuote(ticker);
-        if (quote != null) {
-            report.setCurrentPrice(numVal(quote, "c"));
-            report.setPreviousClose(numVal(quote, "pc"));
-            report.setChange(numVal(quote, "d"));
-            report.setChangePercent(numVal(quote, "dp"));
-        }
+            // Quote data
+            Map<String, Object> quote = join(quoteCall, deadline, ticker);
+            if (quote != null) {
+                report.setCurrentPrice(numVal(quote, "c"));
+                report.setPreviousClose(numVal(quote, "pc"));
+                report.setChange(numVal(quote, "d"));
+                report.setChangePercent(numVal(quote, "dp"));
+            }
 
-        // Basic financials / metrics
-        Map<String, Object> financials = marketDataService.getBasicFinancials(ticker);
-        if (financials != null && financials.get("metric") != null) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> metric = (Map<String, Object>) financials.get("metric");
-            report.setWeekHigh52(numVal(metric, "52WeekHigh"));
-            report.setWeekLow52(numVal(metric, "52WeekLow"));
-            report.setPeRatio(numVal(metric, "peNormalizedAnnual"));
-            report.setEps(numVal(metric, "epsNormalizedAnnual"));
-            report.setDividendYield(numVal(metric, "dividendYieldIndicatedAnnual"));
-            report.setBeta(numVal(metric, "beta"));
-            report.setRevenueGrowthTTM(numVal(metric, "revenueGrowthTTMYoy"));
-            report.setEarningsGrowthTTM(numVal(metric, "epsGrowthTTMYoy"));
-        }
+            // Basic financials / metrics
+            Map<String, Object> financials = join(financialsCall, deadline, ticker);
+            if (financials != null && financials.get("metric") != null) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> metric = (Map<String, Object>) financials.get("metric");
+                report.setWeekHigh52(numVal(metric, "52WeekHigh"));
+                report.setWeekLow52(numVal(metric, "52WeekLow"));
+                report.setPeRatio(numVal(metric, "peNormalizedAnnual"));
+                report.setEps(numVal(metric, "epsNormalizedAnnual"));
+                report.setDividendYield(numVal(metric, "dividendYieldIndicatedAnnual"));
+                report.setBeta(numVal(metric, "beta"));
+                report.setRevenueGrowthTTM(numVal(metric, "revenueGrowthTTMYoy"));
+                report.setEarningsGrowthTTM(numVal(metric, "epsGrowthTTMYoy"));
+            }
 
-        // Financial statements (FR-SC-003)
-        report.setAnnualFinancials(parseFinancialStatements(
-                marketDataService.getFinancialStatements(ticker, "annual"), 5));
-        report.setQuarterlyFinancials(parseFinancialStatements(
-                marketDataService.getFinancialStatements(ticker, "quarterly"), 8));
+            // Financial statements (FR-SC-003)
+            report.setAnnualFinancials(parseFinancialStatements(join(annualCall, deadline, ticker), 5));
+            report.setQuarterlyFinancials(parseFinancialStatements(join(quarterlyCall, deadline, ticker), 8));
 
-        // SEC filings (FR-SC-004)
-        report.setSecFilings(parseSecFilings(marketDataService.getSecFilings(ticker)));
+            // SEC filings (FR-SC-004)
+            report.setSecFilings(parseSecFilings(join(filingsCall, deadline, ticker)));
 
-        // Analyst recommendations (FR-SC-005)
-        report.setRecommendations(parseRecommendations(marketDataService.getRecommendations(ticker)));
-        report.setPriceTarget(parsePriceTarget(marketDataService.getPriceTarget(ticker)));
-        report.setEarnings(parseEarnings(marketDataService.getEarnings(ticker)));
+            // Analyst recommendations (FR-SC-005)
+            report.setRecommendations(parseRecommendations(join(recommendationsCall, deadline, ticker)));
+            report.setPriceTarget(parsePriceTarget(join(priceTargetCall, deadline, ticker)));
+            report.setEarnings(parseEarnings(join(earningsCall, deadline, ticker)));
+        }
 
         return report;
     }
@@ -130,6 +157,27 @@ public class ScreenerService {
             return report;
         }
 
+        // Every profile, quote and financials call, plus the SPY quote, in flight at once
+        Map<String, StockData> stockData = new HashMap<>();
+        Map<String, Object> spyQuote;
+        long deadline = System.nanoTime() + reportTimeoutNanos;
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Map<String, Object>> spyQuoteCall = fork(scope, () -> marketDataService.getQuote("SPY"));
+            Map<String, List<Future<Map<String, Object>>>> calls = new HashMap<>();
+            for (String ticker : tickers) {
+                calls.put(ticker, List.of(
+                        fork(scope, () -> marketDataService.getCompanyProfile(ticker)),
+                        fork(scope, () -> marketDataService.getQuote(ticker)),
+                        fork(scope, () -> marketDataService.getBasicFinancials(ticker))));
+            }
+            for (String ticker : tickers) {
+                List<Future<Map<String, Object>>> c = calls.get(ticker);
+                stockData.put(ticker, new StockData(join(c.get(0), deadline, ticker),
+                        join(c.get(1), deadline, ticker), join(c.get(2), deadline, ticker)));
+            }
+            spyQuote = join(spyQuoteCall, deadline, "SPY");
+        }
+
         List<SectorReportResponse.StockPerformance> performances = new ArrayList<>();
         BigDecimal peSum = BigDecimal.ZERO;
         BigDecimal divYieldSum = BigDecimal.ZERO;
@@ -139,20 +187,21 @@ public class ScreenerService {
         for (String ticker : tickers) {
             SectorReportResponse.StockPerformance sp = new SectorReportResponse.StockPerformance();
             sp.setTicker(ticker);
+            StockData data = stockData.get(ticker);
 
-            Map<String, Object> profile = marketDataService.getCompanyProfile(ticker);
+            Map<String, Object> profile = data.profile();
             if (profile != null) {
                 sp.setName(strVal(profile, "name"));
                 sp.setMarketCap(numVal(profile, "marketCapitalization"));
             }
 
-            Map<String, Object> quote = marketDataService.getQuote(ticker);
+            Map<String, Object> quote = data.quote();
             if (quote != null) {
                 sp.setCurrentPrice(numVal(quote, "c"));
                 sp.setChangePercent(numVal(quote, "dp"));
             }
 
-            Map<String, Object> financials = marketDataService.getBasicFinancials(ticker);
+            Map<String, Object> financials = data.financials();
             if (financials != null && financials.get("metric") != null) {
                 @SuppressWarnings("unchecked")
                 Map<String, Object> metric = (Map<String, Object>) financials.get("metric");
@@ -204,7 +253,6 @@ public class ScreenerService {
                 BigDecimal.valueOf(performances.size()), 2, RoundingMode.HALF_UP));
 
         // S&P 500 performance (SPY as proxy)
-        Map<String, Object> spyQuote = marketDataService.getQuote("SPY");
         BigDecimal spPerf = BigDecimal.ZERO;
         if (spyQuote != null && spyQuote.get("dp") != null) {
             spPerf = numVal(spyQuote, "dp");
@@ -221,83 +269,14 @@ public class ScreenerService {
 
     // ───────── Custom Screen (FR-SC-008) ─────────
 
+    /**
+     * Screens every listed stock in the local fundamentals snapshot ({@link FundamentalsRefreshService}) through
+     * the in-memory {@link ScreeningEngine}; no provider or database calls are made. Stocks not refreshed yet
+     * are not screened. Returns one page of matches, largest market cap first unless the criteria sort
+     * otherwise; the response's nextCursor fetches the next page.
+     */
     public ScreenResultResponse runCustomScreen(ScreenCriteriaRequest criteria) {
-        ScreenResultResponse result = new ScreenResultResponse();
-        String exchange = criteria.getExchange() != null ? criteria.getExchange() : "US";
-        List<Map<String, Object>> symbols = marketDataService.getStockSymbols(exchange);
-
-        // Filter to common stocks only
-        List<String> tickers = symbols.stream()
-                .filter(s -> "Common Stock".equals(s.get("type")))
-                .map(s -> (String) s.get("symbol"))
-                .filter(Objects::nonNull)
-                .limit(100) // Limit to avoid API rate limits
-                .collect(Collectors.toList());
-
-        List<ScreenResultResponse.ScreenedStock> matched = new ArrayList<>();
-
-        for (String ticker : tickers) {
-            try {
-                Map<String, Object> profile = marketDataService.getCompanyProfile(ticker);
-                Map<String, Object> quote = marketDataService.getQuote(ticker);
-                Map<String, Object> financials = marketDataService.getBasicFinancials(ticker);
-
-                if (profile == null || quote == null) continue;
-
-                // Sector filter
-                if (criteria.getSector() != null && !criteria.getSector().isEmpty()) {
-                    String industry = strVal(profile, "finnhubIndustry");
-                    if (industry == null || !industry.toLowerCase().contains(criteria.getSector().toLowerCase())) {
-                        continue;
-                    }
-                }
-
-                BigDecimal currentPrice = numVal(quote, "c");
-                BigDecimal changePercent = numVal(quote, "dp");
-
-                @SuppressWarnings("unchecked")
-                Map<String, Object> metric = financials != null && financials.get("metric") != null
-                        ? (Map<String, Object>) financials.get("metric") : Collections.emptyMap();
-
-                BigDecimal pe = numVal(metric, "peNormalizedAnnual");
-                BigDecimal eps = numVal(metric, "epsNormalizedAnnual");
-                BigDecimal divYield = numVal(metric, "dividendYieldIndicatedAnnual");
-                BigDecimal beta = numVal(metric, "beta");
-                BigDecimal marketCap = numVal(profile, "marketCapitalization");
-                BigDecimal high52 = numVal(metric, "52WeekHigh");
-                BigDecimal low52 = numVal(metric, "52WeekLow");
-
-                // Apply filters
-                if (!passesFilter(pe, criteria.getPeRatioMin(), criteria.getPeRatioMax())) continue;
-                if (!passesFilter(divYield, criteria.getDividendYieldMin(), criteria.getDividendYieldMax())) continue;
-                if (!passesFilter(marketCap, criteria.getMarketCapMin(), criteria.getMarketCapMax())) continue;
-                if (!passesFilter(beta, criteria.getBetaMin(), criteria.getBetaMax())) continue;
-                if (!passesFilter(currentPrice, criteria.getPriceMin(), criteria.getPriceMax())) continue;
-                if (criteria.getEpsMin() != null && (eps == null || eps.compareTo(criteria.getEpsMin()) < 0)) continue;
-
-                ScreenResultResponse.ScreenedStock stock = new ScreenResultResponse.ScreenedStock();
-                stock.setTicker(ticker);
-                stock.setName(strVal(profile, "name"));
-                stock.setSector(strVal(profile, "finnhubIndustry"));
-                stock.setIndustry(strVal(profile, "finnhubIndustry"));
-                stock.setCurrentPrice(currentPrice);
-                stock.setChangePercent(changePercent);
-                stock.setMarketCap(marketCap);
-                stock.setPeRatio(pe);
-                stock.setEps(eps);
-                stock.setDividendYield(divYield);
-                stock.setBeta(beta);
-                stock.setWeekHigh52(high52);
-                stock.setWeekLow52(low52);
-                matched.add(stock);
-            } catch (Exception e) {
-                log.debug("Skipping ticker {} in screen: {}", ticker, e.getMessage());
-            }
-        }
-
-        result.setTotalMatches(matched.size());
-        result.setStocks(matched);
-        return result;
+        return screeningEngine.screen(criteria);
     }
 
     // ───────── Technical Indicators (FR-SC-009) ─────────
@@ -419,10 +398,35 @@ public class ScreenerService {
 
     // ───────── Helpers ─────────
 
-    private boolean passesFilter(BigDecimal value, BigDecimal min, BigDecimal max) {
-        if (min != null && (value == null || value.compareTo(min) < 0)) return false;
-        if (max != null && (value == null || value.compareTo(max) > 0)) return false;
-        return true;
+    private record StockData(Map<String, Object> profile, Map<String, Object> quote, Map<String, Object> financials) {
+    }
+
+    /**
+     * Starts a provider call on its own virtual thread in {@code scope}. Cached results return at once; calls
+     * that go out to the provider are paced inside {@link MarketDataService}. Closing the scope waits for
+     * every call it started, so none outlives the report.
+     */
+    private <T> Future<T> fork(ExecutorService scope, Supplier<T> call) {
+        return scope.submit(call::get);
+    }
+
+    /**
+     * Result of a forked call, or null when it failed or is still running at {@code deadline} (it is then
+     * cancelled), so one slow or failing call only empties its own section of the report.
+     */
+    private <T> T join(Future<T> call, long deadline, String ticker) {
+        try {
+            return call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            log.warn("Provider call for {} timed out; report section left empty", ticker);
+        } catch (ExecutionException e) {
+            log.warn("Provider call for {} failed: {}", ticker, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return null;
     }
 
     private String strVal(Map<String, Object> map, String key) {
@@ -0,0 +1,348 @@
+package com.portfolio.api.service;
+
+import com.portfolio.analytics.ScreenIndex;
+import com.portfolio.api.dto.ScreenCriteriaRequest;
+import com.portfolio.api.dto.ScreenResultResponse;
+import com.portfolio.api.model.StockFundamentals;
+import com.portfolio.api.repository.StockFundamentalsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory column store of the fundamentals snapshot that custom screens (FR-SC-008) run against.
+ *
+ * Every screenable metric is one primitive column with a sorted index ({@link ScreenIndex}); exchanges and
+ * industries are precomputed row bitsets. A screen resolves each criterion to a bitset, intersects them and
+ * reads one page of matches back in the requested metric's order, so it touches no entities and no database.
+ * The store is loaded on first use and rebuilt by {@link FundamentalsRefreshService} after each refresh; the
+ * new store replaces the old one in a single write, so a screen always sees one consistent snapshot.
+ *
+ * Matching bitsets are cached per snapshot under the criteria's canonical form (see {@link #canonical}), so
+ * criteria that differ only in spelling, sort or page share one evaluation, and paging through a result reads
+ * the cached bitset from the previous page's last row (the cursor) instead of screening again. A cursor carries
+ * the sort and a digest of the criteria it was issued for and is refused under any others.
+ */
+@Component
+public class ScreeningEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreeningEngine.class);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Screenable metrics; the ordinal is the column index and the field the name used by sortBy. */
+    enum Metric {
+        PE_RATIO("peRatio", StockFundamentals::getPeRatio),
+        EPS("eps", StockFundamentals::getEps),
+        DIVIDEND_YIELD("dividendYield", StockFundamentals::getDividendYield),
+        MARKET_CAP("marketCap", StockFundamentals::getMarketCap),
+        BETA("beta", StockFundamentals::getBeta),
+        PRICE("currentPrice", StockFundamentals::getCurrentPrice),
+        CHANGE_PERCENT("changePercent", StockFundamentals::getChangePercent),
+        WEEK_HIGH_52("weekHigh52", StockFundamentals::getWeekHigh52),
+        WEEK_LOW_52("weekLow52", StockFundamentals::getWeekLow52),
+        // Current price as a percentage of the 52-week high
+        WEEK_HIGH_52_PCT("weekHigh52Pct", f -> f.getCurrentPrice() != null && f.getWeekHigh52() != null
+                && f.getWeekHigh52() > 0 ? f.getCurrentPrice() / f.getWeekHigh52() * 100 : null);
+
+        final String field;
+        final Function<StockFundamentals, Double> extractor;
+
+        Metric(String field, Function<StockFundamentals, Double> extractor) {
+            this.field = field;
+            this.extractor = extractor;
+        }
+
+        static Metric of(String field) {
+            for (Metric m : values()) {
+                if (m.field.equalsIgnoreCase(field)) return m;
+            }
+            throw new IllegalArgumentException("Unknown sortBy: " + field);
+        }
+    }
+
+    private record Evaluated(long[] bits, int matches, long lastRead) {
+    }
+
+    private final StockFundamentalsRepository repository;
+    private final int maxCacheEntries;
+    private final int maxPageSize;
+    private volatile Snapshot snapshot;
+
+    public ScreeningEngine(StockFundamentalsRepository repository,
+                           @Value("${app.screener.cache.max-entries:256}") int maxCacheEntries,
+                           @Value("${app.screener.max-page-size:500}") int maxPageSize) {
+        this.repository = repository;
+        this.maxCacheEntries = maxCacheEntries;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public ScreenResultResponse screen(ScreenCriteriaRequest criteria) {
+        Metric sortBy = criteria.getSortBy() != null ? Metric.of(criteria.getSortBy()) : Metric.MARKET_CAP;
+        boolean descending = !"asc".equalsIgnoreCase(criteria.getSortDirection());
+        int pageSize = criteria.getPageSize() != null ? criteria.getPageSize() : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + maxPageSize);
+        }
+
+        Snapshot s = current();
+        String exchange = exchange(criteria);
+        long[] screened = s.byExchange.getOrDefault(exchange, s.index.none());
+        String key = canonical(criteria);
+        Evaluated e = evaluate(s, criteria, key);
+        String scope = cursorScope(key, sortBy, descending);
+        int after = criteria.getCursor() != null ? s.cursorRow(exchange, criteria.getCursor(), scope) : -1;
+        int[] rows = s.index.page(e.bits(), sortBy.ordinal(), descending, after, pageSize + 1);
+
+        boolean more = rows.length > pageSize;
+        List<ScreenResultResponse.ScreenedStock> stocks = new ArrayList<>(pageSize);
+        for (int i = 0; i < Math.min(rows.length, pageSize); i++) {
+            stocks.add(s.stock(rows[i]));
+        }
+
+        ScreenResultResponse result = new ScreenResultResponse();
+        result.setTotalMatches(e.matches());
+        result.setScreenedCount(ScreenIndex.count(screened));
+        LocalDateTime oldest = s.oldestByExchange.get(exchange);
+        result.setDataAsOf(oldest != null ? oldest.toString() : null);
+        result.setSortBy(sortBy.field);
+        result.setSortDirection(descending ? "desc" : "asc");
+        result.setPageSize(pageSize);
+        result.setNextCursor(more ? s.cursor(rows[pageSize - 1], scope) : null);
+        result.setStocks(stocks);
+        return result;
+    }
+
+    /**
+     * Reloads the snapshot from {@code stock_fundamentals} and swaps it in; screens in progress finish on the
+     * previous one. Cached results go with the old snapshot.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Snapshot next = new Snapshot(repository.findByListedTrueAndFetchStatus(StockFundamentals.OK));
+        snapshot = next;
+        log.info("Screening snapshot rebuilt: {} stocks in {} ms", next.index.rows(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * The filter part of the criteria in one spelling: exchange upper-cased with its default applied, sector
+     * trimmed and lower-cased, bounds in metric order with trailing zeros stripped, unset bounds left out.
+     * Sort and paging are not part of it.
+     */
+    static String canonical(ScreenCriteriaRequest criteria) {
+        StringBuilder key = new StringBuilder(exchange(criteria));
+        String sector = sector(criteria);
+        if (sector != null) key.append("|sector=").append(sector);
+        for (Metric m : Metric.values()) {
+            BigDecimal[] b = bounds(criteria, m);
+            if (b == null || (b[0] == null && b[1] == null)) continue;
+            key.append('|').append(m.field).append('=')
+                    .append(b[0] != null ? b[0].stripTrailingZeros().toPlainString() : "")
+                    .append(',')
+                    .append(b[1] != null ? b[1].stripTrailingZeros().toPlainString() : "");
+        }
+        return key.toString();
+    }
+
+    /**
+     * What a cursor is only valid for: the sort and a digest of the canonical criteria. A cursor replayed with
+     * another sort or filter would otherwise silently continue a different listing.
+     */
+    private static String cursorScope(String canonicalKey, Metric sortBy, boolean descending) {
+        return sortBy.field + ":" + (descending ? "desc" : "asc") + ":" + Integer.toHexString(canonicalKey.hashCode());
+    }
+
+    private Evaluated evaluate(Snapshot s, ScreenCriteriaRequest criteria, String key) {
+        Evaluated e = s.cache.get(key);
+        if (e != null) {
+            s.cache.replace(key, e, new Evaluated(e.bits(), e.matches(), System.nanoTime()));
+            return e;
+        }
+
+        long[] bits = s.byExchange.getOrDefault(exchange(criteria), s.index.none()).clone();
+        String sector = sector(criteria);
+        if (sector != null) {
+            ScreenIndex.and(bits, s.industriesContaining(sector));
+        }
+        for (Metric m : Metric.values()) {
+            BigDecimal[] b = bounds(criteria, m);
+            if (b == null || (b[0] == null && b[1] == null)) continue;
+            ScreenIndex.and(bits, s.index.range(m.ordinal(),
+                    b[0] != null ? b[0].doubleValue() : Double.NaN,
+                    b[1] != null ? b[1].doubleValue() : Double.NaN));
+        }
+
+        e = new Evaluated(bits, ScreenIndex.count(bits), System.nanoTime());
+        if (maxCacheEntries > 0) {
+            if (s.cache.size() >= maxCacheEntries && !s.cache.containsKey(key)) {
+                evictLeastRecentlyRead(s.cache);
+            }
+            s.cache.put(key, e);
+        }
+        return e;
+    }
+
+    /** {min, max} criteria of a metric, or null when it cannot be screened on. */
+    private static BigDecimal[] bounds(ScreenCriteriaRequest c, Metric m) {
+        return switch (m) {
+            case PE_RATIO -> new BigDecimal[]{c.getPeRatioMin(), c.getPeRatioMax()};
+            case EPS -> new BigDecimal[]{c.getEpsMin(), null};
+            case DIVIDEND_YIELD -> new BigDecimal[]{c.getDividendYieldMin(), c.getDividendYieldMax()};
+            case MARKET_CAP -> new BigDecimal[]{c.getMarketCapMin(), c.getMarketCapMax()};
+            case BETA -> new BigDecimal[]{c.getBetaMin(), c.getBetaMax()};
+            case PRICE -> new BigDecimal[]{c.getPriceMin(), c.getPriceMax()};
+            case WEEK_HIGH_52_PCT -> new BigDecimal[]{c.getWeekHigh52PctMin(), c.getWeekHigh52PctMax()};
+            default -> null;
+        };
+    }
+
+    private static String exchange(ScreenCriteriaRequest criteria) {
+        String exchange = criteria.getExchange() != null ? criteria.getExchange().trim() : "";
+        return exchange.isEmpty() ? "US" : exchange.toUpperCase();
+    }
+
+    private static String sector(ScreenCriteriaRequest criteria) {
+        String sector = criteria.getSector() != null ? criteria.getSector().trim() : "";
+        return sector.isEmpty() ? null : sector.toLowerCase();
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) rebuild();
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private static void evictLeastRecentlyRead(Map<String, Evaluated> cache) {
+        cache.entrySet().stream()
+                .min(Comparator.comparingLong((Map.Entry<String, Evaluated> me) -> me.getValue().lastRead()))
+                .ifPresent(oldest -> cache.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    private static BigDecimal bd(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value) : null;
+    }
+
+    private static final class Snapshot {
+        final ScreenIndex index;
+        final String[] ticker;
+        final String[] name;
+        final String[] industry;
+        final String[] exchange;
+        final Map<String, Integer> rowOf = new HashMap<>();
+        final Map<String, long[]> byExchange = new HashMap<>();
+        final Map<String, long[]> byIndustry = new HashMap<>();
+        final Map<String, LocalDateTime> oldestByExchange = new HashMap<>();
+        final ConcurrentHashMap<String, Evaluated> cache = new ConcurrentHashMap<>();
+
+        Snapshot(List<StockFundamentals> universe) {
+            int n = universe.size();
+            Metric[] metrics = Metric.values();
+            double[][] columns = new double[metrics.length][n];
+            ticker = new String[n];
+            name = new String[n];
+            industry = new String[n];
+            exchange = new String[n];
+            int words = ScreenIndex.words(n);
+
+            for (int r = 0; r < n; r++) {
+                StockFundamentals f = universe.get(r);
+                ticker[r] = f.getTicker();
+                name[r] = f.getName();
+                industry[r] = f.getIndustry();
+                exchange[r] = f.getExchange().toUpperCase();
+                rowOf.put(exchange[r] + ":" + ticker[r], r);
+                for (Metric m : metrics) {
+                    Double v = m.extractor.apply(f);
+                    columns[m.ordinal()][r] = v != null && Double.isFinite(v) ? v : Double.NaN;
+                }
+                byExchange.computeIfAbsent(exchange[r], k -> new long[words])[r >>> 6] |= 1L << r;
+                oldestByExchange.merge(exchange[r], f.getFetchedAt(), (a, b) -> a.isBefore(b) ? a : b);
+                if (f.getIndustry() != null) {
+                    byIndustry.computeIfAbsent(f.getIndustry().toLowerCase(), k -> new long[words])[r >>> 6] |= 1L << r;
+                }
+            }
+            index = new ScreenIndex(columns, n);
+        }
+
+        /** Rows whose industry contains the (lower-case) text; a few hundred industries at most. */
+        long[] industriesContaining(String text) {
+            long[] bits = index.none();
+            for (Map.Entry<String, long[]> e : byIndustry.entrySet()) {
+                if (e.getKey().contains(text)) ScreenIndex.or(bits, e.getValue());
+            }
+            return bits;
+        }
+
+        /** Opaque cursor naming the last row of a page by row and ticker, bound to {@code scope}. */
+        String cursor(int row, String scope) {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((scope + ":" + row + ":" + ticker[row]).getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Row a cursor names. A cursor issued under another sort or criteria ({@code scope}) is rejected. Row
+         * numbers change when the snapshot is rebuilt, so the ticker is looked up again when it no longer
+         * matches; paging then continues from that stock's place in the new snapshot.
+         */
+        int cursorRow(String exchange, String cursor, String scope) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (!decoded.startsWith(scope + ":")) {
+                throw new IllegalArgumentException(
+                        "Cursor was issued for a different sort or criteria; run the screen again");
+            }
+            decoded = decoded.substring(scope.length() + 1);
+            int colon = decoded.indexOf(':');
+            if (colon < 1) throw new IllegalArgumentException("Invalid cursor");
+            String t = decoded.substring(colon + 1);
+            try {
+                int row = Integer.parseInt(decoded.substring(0, colon));
+                if (row >= 0 && row < ticker.length && ticker[row].equals(t) && this.exchange[row].equals(exchange)) {
+                    return row;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Integer row = rowOf.get(exchange + ":" + t);
+            if (row == null) {
+                throw new IllegalArgumentException("Cursor no longer matches the screening data; run the screen again");
+            }
+            return row;
+        }
+
+        ScreenResultResponse.ScreenedStock stock(int row) {
+            ScreenResultResponse.ScreenedStock stock = new ScreenResultResponse.ScreenedStock();
+            stock.setTicker(ticker[row]);
+            stock.setName(name[row]);
+            stock.setSector(industry[row]);
+            stock.setIndustry(industry[row]);
+            stock.setCurrentPrice(bd(index.value(Metric.PRICE.ordinal(), row)));
+            stock.setChangePercent(bd(index.value(Metric.CHANGE_PERCENT.ordinal(), row)));
+            stock.setMarketCap(bd(index.value(Metric.MARKET_CAP.ordinal(), row)));
+            stock.setPeRatio(bd(index.value(Metric.PE_RATIO.ordinal(), row)));
+            stock.setEps(bd(index.value(Metric.EPS.ordinal(), row)));
+            stock.setDividendYield(bd(index.value(Metric.DIVIDEND_YIELD.ordinal(), row)));
+            stock.setBeta(bd(index.value(Metric.BETA.ordinal(), row)));
+            stock.setWeekHigh52(bd(index.value(Metric.WEEK_HIGH_52.ordinal(), row)));
+            stock.setWeekLow52(bd(index.value(Metric.WEEK_LOW_52.ordinal(), row)));
+            return stock;
+        }
+    }
+}
@@ -32,15 +32,21 @@ public class StockPriceHistoryService {
     private final PortfolioRepository portfolioRepository;
     private final MarketDataService marketDataService;
     private final PriceFetchBatchService priceFetchBatchService;
+    private final AdjustedReturnService adjustedReturnService;
+    private final ReturnSeriesStore returnSeriesStore;
 
     public StockPriceHistoryService(StockPriceHistoryRepository priceHistoryRepository,
                                      PortfolioRepository portfolioRepository,
                                      MarketDataService marketDataService,
-                                     PriceFetchBatchService priceFetchBatchService) {
+                                     PriceFetchBatchService priceFetchBatchService,
+                                     AdjustedReturnService adjustedReturnService,
+                                     ReturnSeriesStore returnSeriesStore) {
         this.priceHistoryRepository = priceHistoryRepository;
         this.portfolioRepository = portfolioRepository;
         this.marketDataService = marketDataService;
         this.priceFetchBatchService = priceFetchBatchService;
+        this.adjustedReturnService = adjustedReturnService;
+        this.returnSeriesStore = returnSeriesStore;
     }
 
     /**
@@ -186,6 +192,7 @@ public class StockPriceHistoryService {
 
         if (!newRecords.isEmpty()) {
             priceHistoryRepository.saveAll(newRecords);
+            adjustedReturnService.refreshTicker(symbol);
         }
 
         return newRecords.size();
@@ -210,6 +217,44 @@ public class StockPriceHistoryService {
         return priceFetchBatchService.readClosingPricesFromCsv(ticker, from, to);
     }
 
+    /**
+     * Get split/dividend-adjusted daily returns for a ticker within a date range (FR-AS-003, FR-AS-004).
+     * Served as a view over the in-memory return store maintained on ingest; tickers that have not been
+     * materialized yet fall back to unadjusted returns from closing prices.
+     */
+    public ReturnSeriesStore.Window getReturnWindow(String ticker, LocalDate from, LocalDate to) {
+        ReturnSeriesStore.Window window = returnSeriesStore.window(ticker, from, to);
+        if (!window.isEmpty()) {
+            return window;
+        }
+
+        log.info("No materialized returns for {}, falling back to unadjusted closes", ticker);
+        LinkedHashMap<LocalDate, Double> closes = new LinkedHashMap<>();
+        priceHistoryRepository.findByTickerAndTradeDateBetweenOrderByTradeDateAsc(ticker, from, to)
+                .forEach(r -> closes.put(r.getTradeDate(), r.getClosePrice().doubleValue()));
+        if (closes.isEmpty()) {
+            closes.putAll(priceFetchBatchService.readCloseSeriesFromCsv(ticker, from, to));
+        }
+        if (closes.size() < 2) {
+            return ReturnSeriesStore.Window.EMPTY;
+        }
+
+        double[] returns = new double[closes.size() - 1];
+        int[] epochDays = new int[closes.size() - 1];
+        double prev = Double.NaN;
+        int i = -1;
+        for (Map.Entry<LocalDate, Double> e : closes.entrySet()) {
+            double curr = e.getValue();
+            if (i >= 0) {
+                returns[i] = prev == 0 ? 0 : (curr - prev) / prev;
+                epochDays[i] = (int) e.getKey().toEpochDay();
+            }
+            prev = curr;
+            i++;
+        }
+        return ReturnSeriesStore.Window.of(returns, epochDays);
+    }
+
     /**
      * Get trade dates for a ticker within a date range from local DB.
      */
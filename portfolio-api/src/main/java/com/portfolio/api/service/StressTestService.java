@@ -0,0 +1,154 @@
+package com.portfolio.api.service;
+
+import com.portfolio.analytics.StressReplay;
+import com.portfolio.api.dto.RiskAnalyticsResponse.StressHoldingImpact;
+import com.portfolio.api.dto.RiskAnalyticsResponse.StressScenario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stress testing (FR-RA-009, FR-RA-010).
+ *
+ * A scenario with a date window replays the holdings' own stored returns over it ({@link StressReplay}),
+ * reading views of the in-memory {@link ReturnSeriesStore}, so no scenario touches the database once the
+ * tickers are loaded. Scenarios are independent and run in parallel. A scenario without a window, or whose
+ * window has no stored data at all, falls back to the beta × market shock estimate.
+ */
+@Service
+public class StressTestService {
+
+    private static final String BENCHMARK = "SPY";
+
+    /**
+     * @param marketShockPercent benchmark move for the beta × shock estimate; null for replay-only scenarios
+     */
+    public record Scenario(String name, String description, LocalDate start, LocalDate end,
+                           Double marketShockPercent) {
+    }
+
+    public static final List<Scenario> DEFAULT_SCENARIOS = List.of(
+            new Scenario("2008 Financial Crisis",
+                    "Replays the Oct 2007 - Mar 2009 subprime mortgage crisis and bank failures",
+                    LocalDate.of(2007, 10, 9), LocalDate.of(2009, 3, 9), -56.8),
+            new Scenario("COVID-19 Crash (2020)",
+                    "Replays the rapid market selloff of Feb 19 - Mar 23, 2020",
+                    LocalDate.of(2020, 2, 19), LocalDate.of(2020, 3, 23), -33.9),
+            new Scenario("2022 Rate Shock",
+                    "Replays Jan - Oct 2022, when rates rose from zero at the fastest pace in decades",
+                    LocalDate.of(2022, 1, 3), LocalDate.of(2022, 10, 12), -25.4),
+            new Scenario("Dot-com Bubble (2000-2002)",
+                    "Replays the technology bubble burst of Mar 2000 - Oct 2002",
+                    LocalDate.of(2000, 3, 24), LocalDate.of(2002, 10, 9), -49.1),
+            new Scenario("Black Monday (1987)",
+                    "Simulates the Oct 19, 1987 single-day market crash",
+                    LocalDate.of(1987, 10, 19), LocalDate.of(1987, 10, 19), -22.6),
+            new Scenario("Interest Rate Shock (+300bps)",
+                    "Simulates a sudden 300 basis point increase in interest rates",
+                    null, null, -20.0));
+
+    private final ReturnSeriesStore returnSeriesStore;
+    private final double minCoverage;
+
+    public StressTestService(ReturnSeriesStore returnSeriesStore,
+                             @Value("${app.risk.stress.min-coverage:0.8}") double minCoverage) {
+        this.returnSeriesStore = returnSeriesStore;
+        this.minCoverage = minCoverage;
+    }
+
+    /**
+     * @param weights       starting value weights per ticker, summing to 1
+     * @param betas         per-ticker beta, used for holdings without history in a window
+     * @param portfolioBeta used by the market shock estimate; null means 1.0
+     */
+    public List<StressScenario> run(List<String> tickers, double[] weights, double[] betas,
+                                    double portfolioValue, Double portfolioBeta, List<Scenario> scenarios) {
+        double beta = portfolioBeta != null ? portfolioBeta : 1.0;
+        return scenarios.parallelStream()
+                .map(s -> evaluate(s, tickers, weights, betas, portfolioValue, beta))
+                .toList();
+    }
+
+    private StressScenario evaluate(Scenario scenario, List<String> tickers, double[] weights, double[] betas,
+                                    double portfolioValue, double portfolioBeta) {
+        if (scenario.start() == null) {
+            return hypothetical(scenario, portfolioBeta, portfolioValue);
+        }
+
+        int n = tickers.size();
+        StressReplay.Series[] holdings = new StressReplay.Series[n];
+        for (int i = 0; i < n; i++) {
+            holdings[i] = slice(tickers.get(i), scenario);
+        }
+        StressReplay.Result r = StressReplay.replay(holdings, weights, betas, slice(BENCHMARK, scenario), minCoverage);
+        if (r.tradingDays() == 0 && scenario.marketShockPercent() != null) {
+            return hypothetical(scenario, portfolioBeta, portfolioValue);
+        }
+
+        StressScenario s = new StressScenario();
+        s.setName(scenario.name());
+        s.setDescription(scenario.description());
+        s.setMethod("HISTORICAL");
+        s.setStartDate(scenario.start().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        s.setEndDate(scenario.end().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        s.setTradingDays(r.tradingDays());
+        if (!Double.isNaN(r.benchmarkReturn())) {
+            s.setMarketShockPercent(pct(r.benchmarkReturn()));
+        }
+        s.setEstimatedLoss(-r.portfolioReturn() * portfolioValue);
+        s.setEstimatedLossPercent(pct(r.portfolioReturn()));
+        s.setMaxDrawdownPercent(pct(r.maxDrawdown()));
+
+        List<StressHoldingImpact> impacts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            StressHoldingImpact h = new StressHoldingImpact();
+            h.setTicker(tickers.get(i));
+            h.setWeight(weights[i]);
+            h.setReturnPercent(pct(r.holdingReturns()[i]));
+            h.setProfitLoss(weights[i] * r.holdingReturns()[i] * portfolioValue);
+            h.setMethod(switch (r.methods()[i]) {
+                case StressReplay.HISTORICAL -> "HISTORICAL";
+                case StressReplay.PROXY -> "PROXY";
+                default -> "UNCOVERED";
+            });
+            impacts.add(h);
+        }
+        s.setHoldingImpacts(impacts);
+        return s;
+    }
+
+    /**
+     * Returns earned while holding from the close of {@code start} to the close of {@code end}: the start date's
+     * own return is the move into the scenario (often the pre-crash peak), so compounding begins the day after.
+     * A single-day scenario is the move on that day.
+     */
+    private StressReplay.Series slice(String ticker, Scenario scenario) {
+        LocalDate from = scenario.end().isAfter(scenario.start()) ? scenario.start().plusDays(1) : scenario.start();
+        ReturnSeriesStore.Window w = returnSeriesStore.window(ticker, from, scenario.end());
+        return new StressReplay.Series(w.epochDays(), w.simple(), w.offset(), w.length());
+    }
+
+    private StressScenario hypothetical(Scenario scenario, double beta, double portfolioValue) {
+        double marketShock = scenario.marketShockPercent();
+        double estimatedLossPct = marketShock * beta / 100.0;
+        // Keeps the sign: a shock that lifts the portfolio (negative beta) is a gain, not a loss
+        double estimatedLoss = -estimatedLossPct * portfolioValue;
+
+        StressScenario s = new StressScenario();
+        s.setName(scenario.name());
+        s.setDescription(scenario.description());
+        s.setMethod("HYPOTHETICAL");
+        s.setMarketShockPercent(marketShock);
+        s.setEstimatedLoss(estimatedLoss);
+        s.setEstimatedLossPercent(pct(estimatedLossPct));
+        return s;
+    }
+
+    private static double pct(double fraction) {
+        return fraction * 100;
+    }
+}
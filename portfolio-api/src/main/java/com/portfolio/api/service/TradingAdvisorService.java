@@ -1,12 +1,14 @@
 package com.portfolio.api.service;
 
+import com.portfolio.analytics.QuantileKernel;
 import com.portfolio.api.dto.TradingAdvisorResponse;
+import com.portfolio.api.model.IntradayPriceBar;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -15,10 +17,13 @@ import java.util.*;
 public class TradingAdvisorService {
     private final StockPriceHistoryService priceHistoryService;
     private final MarketDataService marketDataService;
+    private final IntradayBarService intradayBarService;
 
-    public TradingAdvisorService(StockPriceHistoryService priceHistoryService, MarketDataService marketDataService) {
+    public TradingAdvisorService(StockPriceHistoryService priceHistoryService, MarketDataService marketDataService,
+                                 IntradayBarService intradayBarService) {
         this.priceHistoryService = priceHistoryService;
         this.marketDataService = marketDataService;
+        this.intradayBarService = intradayBarService;
     }
 
     public TradingAdvisorResponse analyze(String symbol, BigDecimal positionValue, int lookbackDays) {
@@ -38,36 +43,33 @@ public class TradingAdvisorService {
         String ticker = symbol == null ? "" : symbol.toUpperCase().trim();
         if (ticker.isBlank()) throw new IllegalArgumentException("Ticker is required");
 
-        LocalDate toDate = LocalDate.now();
-        LocalDate fromDate = toDate.minusDays(Math.max(lookbackDays, 10));
-        long fromEpoch = fromDate.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
-        long toEpoch = toDate.atTime(23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+        // Hourly bars come from the local intraday store; only the delta since the last stored bar hits a provider
+        LocalDateTime toTime = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime fromTime = toTime.minusDays(Math.max(lookbackDays, 10));
+        int synced = intradayBarService.sync(ticker, IntradayPriceBar.ONE_HOUR, fromTime);
+        List<IntradayPriceBar> bars = intradayBarService.getStoredBars(ticker, IntradayPriceBar.ONE_HOUR, fromTime, toTime);
 
-        Map<String, Object> candles = marketDataService.getStockCandles(ticker, interval, fromEpoch, toEpoch);
-        @SuppressWarnings("unchecked")
-        List<Number> closesRaw = candles == null ? null : (List<Number>) candles.get("c");
-        @SuppressWarnings("unchecked")
-        List<Number> timestamps = candles == null ? null : (List<Number>) candles.get("t");
-
-        if (candles == null || !"ok".equals(candles.get("s")) || closesRaw == null || timestamps == null || closesRaw.size() < 30) {
+        if (bars.size() < 30) {
             throw new IllegalArgumentException("Not enough hourly historical data for " + ticker);
         }
 
-        int size = Math.min(closesRaw.size(), timestamps.size());
+        int size = bars.size();
         double[] closes = new double[size];
-        for (int i = 0; i < size; i++) closes[i] = closesRaw.get(i).doubleValue();
+        for (int i = 0; i < size; i++) closes[i] = bars.get(i).getClosePrice().doubleValue();
 
-        TradingAdvisorResponse resp = buildBaseResponse(ticker, positionValue, closes, true);
+        TradingAdvisorResponse resp = buildBaseResponse(ticker, positionValue, closes,
+                ReturnSeriesStore.Window.of(returns(closes)), true);
+        resp.setStoredRecords(intradayBarService.getBarCount(ticker, IntradayPriceBar.ONE_HOUR));
 
         List<TradingAdvisorResponse.ChartPoint> chart = new ArrayList<>();
         for (int i = 0; i < size; i++) {
-            String ts = Instant.ofEpochSecond(timestamps.get(i).longValue())
+            String ts = bars.get(i).getBarTime()
                     .atOffset(ZoneOffset.UTC)
                     .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
             chart.add(new TradingAdvisorResponse.ChartPoint(ts, bd(closes[i])));
         }
         resp.setChart(chart);
-        resp.setRecordsSynced(0);
+        resp.setRecordsSynced(synced);
         return resp;
     }
 
@@ -83,7 +85,8 @@ public class TradingAdvisorService {
 
         if (closes.length < 30) throw new IllegalArgumentException("Not enough historical data for " + ticker);
 
-        TradingAdvisorResponse resp = buildBaseResponse(ticker, positionValue, closes, crypto);
+        ReturnSeriesStore.Window rets = priceHistoryService.getReturnWindow(ticker, from, to);
+        TradingAdvisorResponse resp = buildBaseResponse(ticker, positionValue, closes, rets, crypto);
         resp.setRecordsSynced(synced);
         resp.setStoredRecords(priceHistoryService.getRecordCount(ticker));
 
@@ -97,7 +100,8 @@ public class TradingAdvisorService {
         return resp;
     }
 
-    private TradingAdvisorResponse buildBaseResponse(String ticker, BigDecimal positionValue, double[] closes, boolean crypto) {
+    private TradingAdvisorResponse buildBaseResponse(String ticker, BigDecimal positionValue, double[] closes,
+                                                     ReturnSeriesStore.Window rets, boolean crypto) {
         double last = closes[closes.length - 1];
         TradingAdvisorResponse resp = new TradingAdvisorResponse();
         resp.setTicker(ticker);
@@ -131,7 +135,7 @@ public class TradingAdvisorService {
         double ema26 = ema(closes, 26);
         double macd = ema12 - ema26;
         double signal9 = macd;
-        double annualVol = annualizedVol(returns(closes));
+        double annualVol = annualizedVol(rets);
         ind.setSma20(bd(sma20));
         ind.setEma20(bd(ema20));
         ind.setRsi14(bd(rsi14));
@@ -140,9 +144,9 @@ public class TradingAdvisorService {
         ind.setAnnualizedVolatility(bd(annualVol));
         resp.setIndicators(ind);
 
-        double[] rets = returns(closes);
-        double var95 = historicalVar(rets, 0.95) * positionValue.doubleValue();
-        double var99 = historicalVar(rets, 0.99) * positionValue.doubleValue();
+        double[] vars = historicalVar(rets, 0.95, 0.99);
+        double var95 = vars[0] * positionValue.doubleValue();
+        double var99 = vars[1] * positionValue.doubleValue();
         TradingAdvisorResponse.Risk risk = new TradingAdvisorResponse.Risk();
         risk.setVar95(bd(Math.abs(var95)));
         risk.setVar99(bd(Math.abs(var99)));
@@ -222,20 +226,33 @@ public class TradingAdvisorService {
         return 100 - (100 / (1 + rs));
     }
 
-    private double annualizedVol(double[] r) {
-        if (r.length < 2) return 0;
-        double m = Arrays.stream(r).average().orElse(0);
+    private double annualizedVol(ReturnSeriesStore.Window r) {
+        int n = r.length();
+        if (n < 2) return 0;
+        double m = 0;
+        for (int i = 0; i < n; i++) m += r.simple(i);
+        m /= n;
         double var = 0;
-        for (double x : r) var += (x - m) * (x - m);
-        double sd = Math.sqrt(var / (r.length - 1));
+        for (int i = 0; i < n; i++) var += (r.simple(i) - m) * (r.simple(i) - m);
+        double sd = Math.sqrt(var / (n - 1));
         return sd * Math.sqrt(252);
     }
 
-    private double historicalVar(double[] r, double confidence) {
-        if (r.length == 0) return 0;
-        double[] c = Arrays.copyOf(r, r.length);
-        Arrays.sort(c);
-        int idx = Math.max(0, (int) Math.floor((1.0 - confidence) * c.length) - 1);
-        return Math.min(c[idx], 0);
+    /**
+     * Lower-tail return at each confidence, all selected in one pass over a single copy of the window.
+     */
+    private double[] historicalVar(ReturnSeriesStore.Window r, double... confidences) {
+        double[] out = new double[confidences.length];
+        if (r.isEmpty()) return out;
+        double[] c = r.toSimpleArray(); // partitioned in place below; the window is shared
+        int[] ranks = new int[confidences.length];
+        for (int i = 0; i < confidences.length; i++) {
+            ranks[i] = Math.max(0, (int) Math.floor((1.0 - confidences[i]) * c.length) - 1);
+        }
+        QuantileKernel.Selection sel = QuantileKernel.select(c, 0, c.length, ranks);
+        for (int i = 0; i < confidences.length; i++) {
+            out[i] = Math.min(sel.value(ranks[i]), 0);
+        }
+        return out;
     }
 }
@@ -32,8 +32,9 @@ public class ValuationService {
         String baseCurrency = portfolio.getBaseCurrency();
         List<ValuationResponse.HoldingValuation> valuations = new ArrayList<>();
 
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalMarket = BigDecimal.ZERO;
+        // Arithmetic runs on doubles; each reported figure is rounded to cents and converted once
+        double totalCost = 0;
+        double totalMarket = 0;
 
         for (Holding h : portfolio.getHoldings()) {
             ValuationResponse.HoldingValuation hv = new ValuationResponse.HoldingValuation();
@@ -59,34 +60,27 @@ public class ValuationService {
             }
             hv.setFxRate(fxRate);
 
+            double quantity = h.getQuantity().doubleValue();
+            double fx = fxRate.doubleValue();
+
             // Cost basis in base currency
-            BigDecimal costBasis = h.getQuantity()
-                    .multiply(h.getPurchasePrice())
-                    .multiply(fxRate)
-                    .setScale(2, RoundingMode.HALF_UP);
-            hv.setCostBasis(costBasis);
-            totalCost = totalCost.add(costBasis);
+            double costBasis = cents(quantity * h.getPurchasePrice().doubleValue() * fx);
+            hv.setCostBasis(money(costBasis));
+            totalCost += costBasis;
 
             // Market value in base currency
             if (currentPrice != null) {
-                BigDecimal marketValue = h.getQuantity()
-                        .multiply(currentPrice)
-                        .multiply(fxRate)
-                        .setScale(2, RoundingMode.HALF_UP);
-                hv.setMarketValue(marketValue);
-                totalMarket = totalMarket.add(marketValue);
-
-                BigDecimal gainLoss = marketValue.subtract(costBasis);
-                hv.setGainLoss(gainLoss);
-                hv.setGainLossPercent(
-                        costBasis.compareTo(BigDecimal.ZERO) > 0
-                                ? gainLoss.multiply(BigDecimal.valueOf(100)).divide(costBasis, 2, RoundingMode.HALF_UP)
-                                : BigDecimal.ZERO
-                );
+                double marketValue = cents(quantity * currentPrice.doubleValue() * fx);
+                hv.setMarketValue(money(marketValue));
+                totalMarket += marketValue;
+
+                double gainLoss = marketValue - costBasis;
+                hv.setGainLoss(money(gainLoss));
+                hv.setGainLossPercent(costBasis > 0 ? money(gainLoss * 100 / costBasis) : BigDecimal.ZERO);
             } else {
                 // No market data — use cost basis as fallback
-                hv.setMarketValue(costBasis);
-                totalMarket = totalMarket.add(costBasis);
+                hv.setMarketValue(money(costBasis));
+                totalMarket += costBasis;
                 hv.setGainLoss(BigDecimal.ZERO);
                 hv.setGainLossPercent(BigDecimal.ZERO);
             }
@@ -97,16 +91,22 @@ public class ValuationService {
         ValuationResponse response = new ValuationResponse();
         response.setPortfolioId(portfolioId);
         response.setBaseCurrency(baseCurrency);
-        response.setTotalCostBasis(totalCost);
-        response.setTotalMarketValue(totalMarket);
-        response.setTotalGainLoss(totalMarket.subtract(totalCost));
+        response.setTotalCostBasis(money(totalCost));
+        response.setTotalMarketValue(money(totalMarket));
+        response.setTotalGainLoss(money(totalMarket - totalCost));
         response.setTotalGainLossPercent(
-                totalCost.compareTo(BigDecimal.ZERO) > 0
-                        ? totalMarket.subtract(totalCost).multiply(BigDecimal.valueOf(100)).divide(totalCost, 2, RoundingMode.HALF_UP)
-                        : BigDecimal.ZERO
+                totalCost > 0 ? money((totalMarket - totalCost) * 100 / totalCost) : BigDecimal.ZERO
         );
         response.setHoldings(valuations);
 
         return response;
     }
+
+    private static double cents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
 }
@@ -0,0 +1,115 @@
+package com.portfolio.api.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class ReplicaHealthMonitorTest {
+
+    private DataSource replica;
+    private ResultSet lagResult;
+    private ReplicaHealthMonitor monitor;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        replica = Mockito.mock(DataSource.class);
+        Connection conn = Mockito.mock(Connection.class);
+        Statement st = Mockito.mock(Statement.class);
+        lagResult = Mockito.mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(conn);
+        when(conn.createStatement()).thenReturn(st);
+        when(st.executeQuery(anyString())).thenReturn(lagResult);
+        when(lagResult.next()).thenReturn(true);
+        monitor = new ReplicaHealthMonitor(replica, "SELECT lag", 30);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testLagWithinThresholdKeepsReplica() throws SQLException {
+        lag(30.0);
+        monitor.check();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals(Status.UP, monitor.health().getStatus());
+    }
+
+    @Test
+    public void testLagAboveThresholdFallsBackToPrimary() throws SQLException {
+        lag(30.5);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(Status.OUT_OF_SERVICE, monitor.health().getStatus());
+
+        lag(0.0);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+    }
+
+    @Test
+    public void testUnknownLagIsNotTreatedAsCaughtUp() throws SQLException {
+        when(lagResult.getDouble(1)).thenReturn(0.0);
+        when(lagResult.wasNull()).thenReturn(true);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(Status.OUT_OF_SERVICE, monitor.health().getStatus());
+    }
+
+    @Test
+    public void testUnreachableReplicaIsDown() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(Status.DOWN, monitor.health().getStatus());
+    }
+
+    @Test
+    public void testReadOnlyTransactionsRouteByReplicaHealth() throws SQLException {
+        DataSource primary = Mockito.mock(DataSource.class);
+        Connection primaryConn = Mockito.mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConn);
+        Connection replicaConn = replica.getConnection();
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, monitor);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        lag(1.0);
+        monitor.check();
+        assertSame(replicaConn, routing.getConnection());
+
+        lag(120.0);
+        monitor.check();
+        assertSame(primaryConn, routing.getConnection());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        lag(1.0);
+        monitor.check();
+        assertSame(primaryConn, routing.getConnection());
+    }
+
+    private void lag(double seconds) throws SQLException {
+        when(lagResult.getDouble(1)).thenReturn(seconds);
+        when(lagResult.wasNull()).thenReturn(false);
+    }
+}
@@ -0,0 +1,170 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.CorporateAction;
+import com.portfolio.api.model.StockPriceHistory;
+import com.portfolio.api.model.StockReturnHistory;
+import com.portfolio.api.repository.CorporateActionRepository;
+import com.portfolio.api.repository.StockPriceHistoryRepository;
+import com.portfolio.api.repository.StockReturnHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AdjustedReturnServiceTest {
+
+    private static final String TICKER = "ABC";
+    private static final LocalDate D1 = LocalDate.of(2024, 6, 3);
+    private static final LocalDate D2 = D1.plusDays(1);
+    private static final LocalDate D3 = D1.plusDays(2);
+    private static final LocalDate D4 = D1.plusDays(3);
+
+    private StockPriceHistoryRepository priceRepo;
+    private StockReturnHistoryRepository returnRepo;
+    private CorporateActionRepository actionRepo;
+    private ReturnSeriesStore store;
+    private OnlineRiskStats onlineRiskStats;
+    private AdjustedReturnService service;
+
+    @BeforeEach
+    public void setUp() {
+        priceRepo = Mockito.mock(StockPriceHistoryRepository.class);
+        returnRepo = Mockito.mock(StockReturnHistoryRepository.class);
+        actionRepo = Mockito.mock(CorporateActionRepository.class);
+        store = Mockito.mock(ReturnSeriesStore.class);
+        onlineRiskStats = Mockito.mock(OnlineRiskStats.class);
+        service = new AdjustedReturnService(priceRepo, returnRepo, actionRepo, store, onlineRiskStats);
+    }
+
+    @Test
+    public void testSplitDayIsNotAdjustedTwice() {
+        // Provider closes are split-adjusted: 2-for-1 on D2 shows as 50 -> 51, not 100 -> 51
+        StockReturnHistory row = new StockReturnHistory();
+        AdjustedReturnService.applyReturn(row, bar(D1, 50), bar(D2, 51), List.of(split(D2, 2)));
+
+        assertEquals(0.02, row.getAdjustedReturn(), 1e-12);
+        assertEquals(1.0, row.getAdjustmentFactor(), 1e-12);
+    }
+
+    @Test
+    public void testDividendDayAddsCashBack() {
+        StockReturnHistory row = new StockReturnHistory();
+        AdjustedReturnService.applyReturn(row, bar(D1, 100), bar(D2, 99), List.of(dividend(D2, 1)));
+
+        assertEquals(0.0, row.getAdjustedReturn(), 1e-12);
+        assertEquals(100.0 / 99, row.getAdjustmentFactor(), 1e-12);
+        assertEquals(0.0, row.getLogReturn(), 1e-12);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBackfilledBarsRematerializeWholeSeries() {
+        // Returns exist for D3 and D4; D1 and D2 were backfilled afterwards, so D2 has no return
+        StockReturnHistory r3 = stored(D3);
+        StockReturnHistory r4 = stored(D4);
+        when(returnRepo.findTopByTickerOrderByTradeDateDesc(TICKER)).thenReturn(Optional.of(r4));
+        when(returnRepo.countByTicker(TICKER)).thenReturn(2L);
+        when(priceRepo.countByTickerAndTradeDateLessThanEqual(TICKER, D4)).thenReturn(4L);
+        when(priceRepo.findByTickerOrderByTradeDateAsc(TICKER))
+                .thenReturn(List.of(bar(D1, 100), bar(D2, 110), bar(D3, 99), bar(D4, 99)));
+        when(returnRepo.findByTickerOrderByTradeDateAsc(TICKER)).thenReturn(List.of(r3, r4));
+        when(actionRepo.findByTickerAndExDateBetweenOrderByExDateAsc(eq(TICKER), any(), any()))
+                .thenReturn(List.of(dividend(D4, 1.98)));
+
+        assertEquals(3, service.refreshTicker(TICKER));
+
+        ArgumentCaptor<List<StockReturnHistory>> saved = ArgumentCaptor.forClass(List.class);
+        verify(returnRepo).saveAll(saved.capture());
+        List<StockReturnHistory> rows = saved.getValue();
+        assertEquals(D2, rows.get(0).getTradeDate());
+        assertEquals(0.10, rows.get(0).getAdjustedReturn(), 1e-12);
+        assertSame(r3, rows.get(1));
+        assertEquals(-0.10, r3.getAdjustedReturn(), 1e-12);
+        assertSame(r4, rows.get(2));
+        assertEquals(0.02, r4.getAdjustedReturn(), 1e-12);
+        verify(store).evict(TICKER);
+        verify(onlineRiskStats).onRewrite(TICKER);
+    }
+
+    @Test
+    public void testCompleteSeriesOnlyAppends() {
+        StockReturnHistory r2 = stored(D2);
+        when(returnRepo.findTopByTickerOrderByTradeDateDesc(TICKER)).thenReturn(Optional.of(r2));
+        when(returnRepo.countByTicker(TICKER)).thenReturn(1L);
+        when(priceRepo.countByTickerAndTradeDateLessThanEqual(TICKER, D2)).thenReturn(2L);
+        when(priceRepo.findByTickerAndTradeDateGreaterThanEqualOrderByTradeDateAsc(TICKER, D2))
+                .thenReturn(List.of(bar(D2, 100), bar(D3, 101)));
+
+        assertEquals(1, service.refreshTicker(TICKER));
+        verify(store).append(eq(TICKER), anyList());
+        verify(onlineRiskStats).onAppend(TICKER);
+    }
+
+    @Test
+    public void testDividendRecordedLateRewritesItsExDateReturn() {
+        StockReturnHistory r2 = stored(D2);
+        r2.setAdjustedReturn(-0.01);
+        CorporateAction div = dividend(D2, 1);
+        when(actionRepo.findByTickerAndActionTypeAndExDate(TICKER, CorporateAction.DIVIDEND, D2))
+                .thenReturn(Optional.empty());
+        when(actionRepo.save(any(CorporateAction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(priceRepo.findTopByTickerAndTradeDateGreaterThanEqualOrderByTradeDateAsc(TICKER, D2))
+                .thenReturn(Optional.of(bar(D2, 99)));
+        when(returnRepo.findByTickerAndTradeDate(TICKER, D2)).thenReturn(Optional.of(r2));
+        when(priceRepo.findTopByTickerAndTradeDateLessThanOrderByTradeDateDesc(TICKER, D2))
+                .thenReturn(Optional.of(bar(D1, 100)));
+        when(actionRepo.findByTickerAndExDateBetweenOrderByExDateAsc(TICKER, D2, D2)).thenReturn(List.of(div));
+
+        service.recordCorporateAction(div);
+
+        assertEquals(0.0, r2.getAdjustedReturn(), 1e-12);
+        verify(returnRepo).save(r2);
+        verify(store).rewrite(eq(TICKER), eq(D2), eq(r2.getAdjustedReturn()), any());
+    }
+
+    private static StockPriceHistory bar(LocalDate date, double close) {
+        StockPriceHistory bar = new StockPriceHistory();
+        bar.setTicker(TICKER);
+        bar.setTradeDate(date);
+        bar.setClosePrice(BigDecimal.valueOf(close));
+        return bar;
+    }
+
+    private static StockReturnHistory stored(LocalDate date) {
+        StockReturnHistory row = new StockReturnHistory();
+        row.setTicker(TICKER);
+        row.setTradeDate(date);
+        return row;
+    }
+
+    private static CorporateAction split(LocalDate exDate, double ratio) {
+        CorporateAction a = new CorporateAction();
+        a.setTicker(TICKER);
+        a.setActionType(CorporateAction.SPLIT);
+        a.setExDate(exDate);
+        a.setSplitRatio(BigDecimal.valueOf(ratio));
+        return a;
+    }
+
+    private static CorporateAction dividend(LocalDate exDate, double amount) {
+        CorporateAction a = new CorporateAction();
+        a.setTicker(TICKER);
+        a.setActionType(CorporateAction.DIVIDEND);
+        a.setExDate(exDate);
+        a.setDividendAmount(BigDecimal.valueOf(amount));
+        return a;
+    }
+}
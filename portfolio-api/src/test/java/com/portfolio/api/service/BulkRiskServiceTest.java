@@ -0,0 +1,62 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.dto.BulkRiskRequest;
+import com.portfolio.api.dto.BulkRiskResponse;
+import com.portfolio.api.repository.PortfolioRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkRiskServiceTest {
+
+    private final PortfolioRepository portfolioRepository = mock(PortfolioRepository.class);
+    private final StockPriceHistoryService priceHistoryService = mock(StockPriceHistoryService.class);
+    private final BulkRiskService service = new BulkRiskService(portfolioRepository, priceHistoryService,
+            mock(RiskAnalyticsService.class), mock(ReturnMatrixBuilder.class), 2);
+
+    @Test
+    public void testExplicitListOverLimitIsRejectedBeforeLoading() {
+        BulkRiskRequest request = new BulkRiskRequest();
+        request.setPortfolioIds(List.of(1L, 2L, 3L));
+
+        assertThrows(IllegalArgumentException.class, () -> service.computeBulk(request, "admin@example.com", true));
+        verify(portfolioRepository, never()).findWithHoldingsByIdIn(any());
+    }
+
+    @Test
+    public void testAllVisiblePortfoliosAreCappedToLowestIds() {
+        when(portfolioRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(portfolioRepository.findWithHoldingsByIdIn(any())).thenReturn(List.of());
+        when(priceHistoryService.getReturnWindow(anyString(), any(), any())).thenReturn(ReturnSeriesStore.Window.EMPTY);
+
+        BulkRiskResponse resp = service.computeBulk(new BulkRiskRequest(), "admin@example.com", true);
+
+        verify(portfolioRepository).findWithHoldingsByIdIn(List.of(1L, 2L));
+        assertTrue(resp.isTruncated());
+        assertEquals(List.of(1L, 2L), resp.getPortfolios().stream().map(BulkRiskResponse.PortfolioRisk::getPortfolioId).toList());
+    }
+
+    @Test
+    public void testOwnPortfoliosUnderLimitAreNotTruncated() {
+        when(portfolioRepository.findIdsByUserEmail("user@example.com")).thenReturn(List.of(5L));
+        when(portfolioRepository.findWithHoldingsByIdIn(any())).thenReturn(List.of());
+        when(priceHistoryService.getReturnWindow(anyString(), any(), any())).thenReturn(ReturnSeriesStore.Window.EMPTY);
+
+        BulkRiskResponse resp = service.computeBulk(new BulkRiskRequest(), "user@example.com", false);
+
+        verify(portfolioRepository, never()).findAllIds();
+        assertFalse(resp.isTruncated());
+        assertEquals(1, resp.getPortfolios().size());
+    }
+}
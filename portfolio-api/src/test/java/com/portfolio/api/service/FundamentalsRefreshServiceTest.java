@@ -0,0 +1,90 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.StockFundamentals;
+import com.portfolio.api.repository.StockFundamentalsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FundamentalsRefreshServiceTest {
+
+    private final MarketDataService marketData = mock(MarketDataService.class);
+    private final StockFundamentalsRepository repository = mock(StockFundamentalsRepository.class);
+    private final ScreeningEngine engine = mock(ScreeningEngine.class);
+    private final FundamentalsRefreshService service = new FundamentalsRefreshService(marketData, repository, engine,
+            List.of("US"), 55, 2, 10);
+
+    @Test
+    public void testProviderFailureKeepsPreviousDataAndEmptyResponseIsNoData() {
+        StockFundamentals ok = stock("AAPL"), empty = stock("ZZZZ"), outage = screenable("MSFT"), fresh = stock("NEWW");
+        // The second page returns the same rows, now stamped by this run, which ends it
+        when(repository.findStalest(any())).thenReturn(List.of(ok, empty, outage, fresh));
+        when(marketData.getStockSymbols(anyString())).thenReturn(List.of());
+        when(marketData.fetchCompanyProfile("AAPL")).thenReturn(Map.of("name", "Apple Inc"));
+        when(marketData.fetchQuote("AAPL")).thenReturn(Map.of("c", 190.5, "dp", 1.2));
+        when(marketData.fetchCompanyProfile("ZZZZ")).thenReturn(Map.of());
+        when(marketData.fetchBasicFinancials("ZZZZ")).thenReturn(Map.of("metric", Map.of()));
+        when(marketData.fetchQuote("ZZZZ")).thenReturn(Map.of("c", 0));
+        when(marketData.fetchQuote("MSFT")).thenThrow(new ResourceAccessException("Read timed out"));
+        when(marketData.fetchCompanyProfile("NEWW")).thenThrow(new ResourceAccessException("429 Too Many Requests"));
+
+        Map<String, Object> summary = service.refresh();
+
+        assertEquals(1, summary.get("refreshed"));
+        assertEquals(1, summary.get("noData"));
+        assertEquals(2, summary.get("failed"));
+        assertEquals(StockFundamentals.OK, ok.getFetchStatus());
+        assertEquals(StockFundamentals.NO_DATA, empty.getFetchStatus());
+        // Still screenable on yesterday's figures, just moved to the back of the refresh order
+        assertEquals(StockFundamentals.OK, outage.getFetchStatus());
+        assertEquals(25.0, outage.getPeRatio());
+        assertEquals(410.0, outage.getCurrentPrice());
+        assertEquals(StockFundamentals.ERROR, fresh.getFetchStatus());
+        assertNotNull(fresh.getFetchedAt());
+        verify(engine).rebuild();
+    }
+
+    @Test
+    public void testChunkThatFailsEntirelyEndsTheRun() {
+        StockFundamentals a = screenable("MSFT"), b = screenable("AAPL");
+        when(repository.findStalest(any())).thenReturn(List.of(a, b));
+        when(marketData.getStockSymbols(anyString())).thenReturn(List.of());
+        when(marketData.fetchCompanyProfile(anyString())).thenThrow(new ResourceAccessException("Connection refused"));
+
+        Map<String, Object> summary = service.refresh();
+
+        assertEquals(2, summary.get("failed"));
+        assertEquals(StockFundamentals.OK, a.getFetchStatus());
+        assertEquals(StockFundamentals.OK, b.getFetchStatus());
+        verify(repository, times(1)).findStalest(any());
+        verify(engine).rebuild();
+    }
+
+    private static StockFundamentals stock(String ticker) {
+        StockFundamentals f = new StockFundamentals();
+        f.setTicker(ticker);
+        f.setExchange("US");
+        return f;
+    }
+
+    private static StockFundamentals screenable(String ticker) {
+        StockFundamentals f = stock(ticker);
+        f.setPeRatio(25.0);
+        f.setCurrentPrice(410.0);
+        f.setFetchStatus(StockFundamentals.OK);
+        f.setFetchedAt(LocalDateTime.now().minusDays(1));
+        return f;
+    }
+}
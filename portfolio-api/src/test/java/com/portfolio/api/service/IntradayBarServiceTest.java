@@ -0,0 +1,78 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.IntradayPriceBar;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntradayBarServiceTest {
+
+    private static final LocalDateTime OPEN = LocalDateTime.of(2024, 6, 3, 13, 30);
+
+    @Test
+    public void testHourlyBucketsAlignToSessionOpen() {
+        assertEquals(OPEN, IntradayBarService.bucketOf(OPEN.plusMinutes(59), 60, 30));
+        assertEquals(OPEN.plusHours(1), IntradayBarService.bucketOf(OPEN.plusMinutes(60), 60, 30));
+        assertEquals(OPEN.minusMinutes(30), IntradayBarService.bucketOf(OPEN.plusMinutes(29), 60, 0));
+        assertEquals(OPEN.plusMinutes(5), IntradayBarService.bucketOf(OPEN.plusMinutes(9), 5, 0));
+    }
+
+    @Test
+    public void testRollupAggregatesClosedBucketsOnly() {
+        // 13:30 .. 14:44 one-minute bars; the 14:30 bucket is still open at 14:45
+        List<IntradayPriceBar> base = new ArrayList<>();
+        for (int m = 0; m < 75; m++) {
+            base.add(bar(OPEN.plusMinutes(m), 100 + m, 1));
+        }
+
+        Map<LocalDateTime, IntradayPriceBar> hourly =
+                IntradayBarService.aggregate(base, 60, 30, OPEN, OPEN.plusMinutes(75));
+
+        assertEquals(1, hourly.size());
+        IntradayPriceBar h = hourly.get(OPEN);
+        assertEquals(0, new BigDecimal("100").compareTo(h.getOpenPrice()));
+        assertEquals(0, new BigDecimal("159").compareTo(h.getClosePrice()));
+        assertEquals(0, new BigDecimal("159.5").compareTo(h.getHighPrice()));
+        assertEquals(0, new BigDecimal("99.5").compareTo(h.getLowPrice()));
+        assertEquals(60.0, h.getVolume(), 1e-9);
+        assertTrue(h.isRolledUp());
+        assertEquals(60, h.getResolutionMinutes());
+
+        // Once the fetch reaches 15:30 the second bucket is closed and rolled up from the bars it has
+        assertEquals(2, IntradayBarService.aggregate(base, 60, 30, OPEN, OPEN.plusHours(2)).size());
+    }
+
+    @Test
+    public void testRollupSkipsBucketWithMissingLeadingBars() {
+        // Minute bars only stored from 13:45, so the 13:30 bucket would be partial
+        List<IntradayPriceBar> base = new ArrayList<>();
+        for (int m = 15; m < 120; m++) {
+            base.add(bar(OPEN.plusMinutes(m), 100, 1));
+        }
+
+        Map<LocalDateTime, IntradayPriceBar> hourly =
+                IntradayBarService.aggregate(base, 60, 30, OPEN.plusMinutes(15), OPEN.plusHours(2));
+
+        assertEquals(List.of(OPEN.plusHours(1)), new ArrayList<>(hourly.keySet()));
+        assertEquals(60.0, hourly.get(OPEN.plusHours(1)).getVolume(), 1e-9);
+    }
+
+    private static IntradayPriceBar bar(LocalDateTime time, double close, double volume) {
+        IntradayPriceBar b = new IntradayPriceBar();
+        b.setBarTime(time);
+        b.setResolutionMinutes(1);
+        b.setOpenPrice(BigDecimal.valueOf(close));
+        b.setHighPrice(BigDecimal.valueOf(close + 0.5));
+        b.setLowPrice(BigDecimal.valueOf(close - 0.5));
+        b.setClosePrice(BigDecimal.valueOf(close));
+        b.setVolume(volume);
+        return b;
+    }
+}
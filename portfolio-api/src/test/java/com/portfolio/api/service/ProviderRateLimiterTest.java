@@ -0,0 +1,56 @@
+package com.portfolio.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProviderRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    public void testBurstsUpToPerSecondLimitThenWaitsForNextSecond() {
+        ProviderRateLimiter limiter = new ProviderRateLimiter(30, 60, 30);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(now, limiter.reserve(now));
+        }
+        assertEquals(now + SECOND, limiter.reserve(now));
+    }
+
+    @Test
+    public void testPerMinuteBudgetHoldsAcrossBursts() {
+        ProviderRateLimiter limiter = new ProviderRateLimiter(30, 60, 30);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 30; i++) {
+            limiter.reserve(now);
+        }
+        for (int i = 0; i < 30; i++) {
+            assertEquals(now + SECOND, limiter.reserve(now + SECOND));
+        }
+        // Sixty starts spent in the first second: the next token is the first start's, a minute later
+        assertEquals(now + MINUTE, limiter.reserve(now + 2 * SECOND));
+    }
+
+    @Test
+    public void testTokensComeBackAfterTheirWindow() {
+        ProviderRateLimiter limiter = new ProviderRateLimiter(2, 60, 2);
+        long now = System.nanoTime();
+
+        limiter.reserve(now);
+        limiter.reserve(now);
+        assertEquals(now + 3 * SECOND, limiter.reserve(now + 3 * SECOND));
+    }
+
+    @Test
+    public void testRejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new ProviderRateLimiter(0, 60, 30));
+        assertThrows(IllegalArgumentException.class, () -> new ProviderRateLimiter(30, 60, 0));
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.dto.RiskAnalyticsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RiskResultCacheTest {
+
+    private static final RiskResultCache.Key KEY = new RiskResultCache.Key(1L, 0.95, 1, 252);
+    private static final RiskResultCache.Fingerprint PRINT = new RiskResultCache.Fingerprint(
+            Map.of("AAPL", BigDecimal.TEN), LocalDate.of(2024, 6, 3), Map.of("AAPL", 7L));
+
+    @Test
+    public void testHitsAreIndependentUnroundedCopies() {
+        RiskResultCache cache = new RiskResultCache(300, 10);
+        RiskAnalyticsResponse response = response();
+        cache.put(KEY, PRINT, response);
+
+        // Mutating the instance that was cached, or a hit, does not reach later hits
+        response.getVar().setParametric(99.0);
+        RiskAnalyticsResponse first = cache.get(KEY, PRINT);
+        first.getConfidenceLadder().clear();
+        first.setPortfolioName("changed");
+        RiskAnalyticsResponse second = cache.get(KEY, PRINT);
+
+        assertNotSame(first, second);
+        assertEquals("Growth", second.getPortfolioName());
+        assertEquals(0.0123456789, second.getVar().getParametric());
+        assertEquals(1, second.getConfidenceLadder().size());
+        assertEquals(0.99, second.getConfidenceLadder().get(0).getConfidenceLevel());
+        assertTrue(Double.isNaN(second.getCvar99()));
+    }
+
+    @Test
+    public void testDifferentFingerprintMisses() {
+        RiskResultCache cache = new RiskResultCache(300, 10);
+        cache.put(KEY, PRINT, response());
+
+        assertNull(cache.get(KEY, new RiskResultCache.Fingerprint(PRINT.holdings(), PRINT.asOf(), Map.of("AAPL", 8L))));
+        assertEquals(0, cache.size());
+    }
+
+    private static RiskAnalyticsResponse response() {
+        RiskAnalyticsResponse r = new RiskAnalyticsResponse();
+        r.setPortfolioId(1L);
+        r.setPortfolioName("Growth");
+        r.setCvar99(Double.NaN);
+        RiskAnalyticsResponse.VaRMetrics var = new RiskAnalyticsResponse.VaRMetrics();
+        var.setParametric(0.0123456789);
+        r.setVar(var);
+        RiskAnalyticsResponse.ConfidenceLevelRisk rung = new RiskAnalyticsResponse.ConfidenceLevelRisk();
+        rung.setConfidenceLevel(0.99);
+        rung.setHistoricalVar(0.031);
+        r.setConfidenceLadder(new ArrayList<>(List.of(rung)));
+        return r;
+    }
+}
@@ -0,0 +1,66 @@
+package com.portfolio.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.config.FinnhubConfig;
+import com.portfolio.api.dto.SectorReportResponse;
+import com.portfolio.api.repository.ScreenerReportRepository;
+import com.portfolio.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScreenerServiceTest {
+
+    private static final long REPORT_TIMEOUT_SECONDS = 20;
+    private static final long ROUND_TRIP_MILLIS = 250;
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+
+    @Test
+    public void testSectorReportFinishesInsideTimeoutUnderDefaultLimits() {
+        FinnhubConfig config = new FinnhubConfig();
+        config.setBaseUrl("https://finnhub.test/api/v1");
+        config.setApiKey("key");
+        // The application.yml defaults: 30 calls/second, 60 calls/minute, 30 in flight
+        MarketDataService marketData = new MarketDataService(restTemplate, config, new ProviderRateLimiter(30, 60, 30));
+        ScreenerService service = new ScreenerService(marketData, mock(ScreenerReportRepository.class),
+                mock(ScreeningEngine.class), mock(UserRepository.class), new ObjectMapper(), REPORT_TIMEOUT_SECONDS);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenAnswer(inv -> {
+            Thread.sleep(ROUND_TRIP_MILLIS);
+            String url = inv.getArgument(0);
+            if (url.contains("/quote")) return Map.of("c", 100.0, "dp", 1.5);
+            if (url.contains("/stock/profile2")) return Map.of("name", "Company", "marketCapitalization", 1000.0);
+            return Map.of("metric", Map.of("peNormalizedAnnual", 20.0));
+        });
+
+        long start = System.nanoTime();
+        SectorReportResponse report = service.generateSectorReport("Technology");
+        long elapsed = System.nanoTime() - start;
+
+        // 31 calls: SPY plus profile, quote and financials for ten tickers
+        verify(restTemplate, times(31)).getForObject(anyString(), eq(Map.class));
+        // Thirty go out in the first burst and the last one a second later, far inside the report timeout
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(5), "took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+        assertEquals(10, report.getStockCount());
+        assertEquals(0, new BigDecimal("20.00").compareTo(report.getAveragePE()));
+        assertEquals(0, new BigDecimal("1.5").compareTo(report.getSpPerformancePercent()));
+        report.getTopPerformers().forEach(p -> {
+            assertNotNull(p.getName());
+            assertNotNull(p.getCurrentPrice());
+            assertNotNull(p.getPeRatio());
+        });
+    }
+}
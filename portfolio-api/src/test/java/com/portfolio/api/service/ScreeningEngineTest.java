@@ -0,0 +1,76 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.dto.ScreenCriteriaRequest;
+import com.portfolio.api.dto.ScreenResultResponse;
+import com.portfolio.api.model.StockFundamentals;
+import com.portfolio.api.repository.StockFundamentalsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScreeningEngineTest {
+
+    private final ScreeningEngine engine = engine();
+
+    private static ScreeningEngine engine() {
+        StockFundamentalsRepository repository = mock(StockFundamentalsRepository.class);
+        when(repository.findByListedTrueAndFetchStatus(StockFundamentals.OK)).thenReturn(List.of(
+                stock("AAA", 300, 10), stock("BBB", 200, 30), stock("CCC", 100, 20)));
+        return new ScreeningEngine(repository, 16, 500);
+    }
+
+    @Test
+    public void testCursorContinuesTheSameScreen() {
+        ScreenResultResponse first = engine.screen(request(null));
+        ScreenResultResponse second = engine.screen(request(first.getNextCursor()));
+
+        assertEquals("AAA", first.getStocks().get(0).getTicker());
+        assertNotNull(first.getNextCursor());
+        assertEquals("BBB", second.getStocks().get(0).getTicker());
+    }
+
+    @Test
+    public void testCursorIsRejectedUnderAnotherSortOrCriteria() {
+        String cursor = engine.screen(request(null)).getNextCursor();
+
+        ScreenCriteriaRequest otherSort = request(cursor);
+        otherSort.setSortBy("peRatio");
+        assertThrows(IllegalArgumentException.class, () -> engine.screen(otherSort));
+
+        ScreenCriteriaRequest otherDirection = request(cursor);
+        otherDirection.setSortDirection("asc");
+        assertThrows(IllegalArgumentException.class, () -> engine.screen(otherDirection));
+
+        ScreenCriteriaRequest otherCriteria = request(cursor);
+        otherCriteria.setPeRatioMax(new BigDecimal("25"));
+        assertThrows(IllegalArgumentException.class, () -> engine.screen(otherCriteria));
+    }
+
+    private static ScreenCriteriaRequest request(String cursor) {
+        ScreenCriteriaRequest r = new ScreenCriteriaRequest();
+        r.setSortBy("marketCap");
+        r.setSortDirection("desc");
+        r.setPageSize(1);
+        r.setCursor(cursor);
+        return r;
+    }
+
+    private static StockFundamentals stock(String ticker, double marketCap, double pe) {
+        StockFundamentals f = new StockFundamentals();
+        f.setTicker(ticker);
+        f.setExchange("US");
+        f.setMarketCap(marketCap);
+        f.setPeRatio(pe);
+        f.setFetchStatus(StockFundamentals.OK);
+        f.setFetchedAt(LocalDateTime.of(2024, 6, 3, 1, 0));
+        return f;
+    }
+}
@@ -0,0 +1,73 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.dto.RiskAnalyticsResponse.StressScenario;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StressTestServiceTest {
+
+    private static final LocalDate PEAK = LocalDate.of(2020, 2, 19);
+
+    /** Store holding the same returns for every ticker: +1% into the peak, then -10% and -20%. */
+    private static ReturnSeriesStore store() {
+        int[] days = {(int) PEAK.toEpochDay(), (int) PEAK.plusDays(1).toEpochDay(), (int) PEAK.plusDays(2).toEpochDay()};
+        double[] simple = {0.01, -0.10, -0.20};
+        ReturnSeriesStore store = mock(ReturnSeriesStore.class);
+        when(store.window(anyString(), any(), any())).thenAnswer(inv -> {
+            int from = (int) ((LocalDate) inv.getArgument(1)).toEpochDay();
+            int to = (int) ((LocalDate) inv.getArgument(2)).toEpochDay();
+            int lo = (int) Arrays.stream(days).filter(d -> d < from).count();
+            int hi = (int) Arrays.stream(days).filter(d -> d <= to).count();
+            return new ReturnSeriesStore.Window(days, simple, simple, lo, Math.max(0, hi - lo), 1);
+        });
+        return store;
+    }
+
+    @Test
+    public void testReplayCompoundsFromTheDayAfterStart() {
+        StressTestService service = new StressTestService(store(), 0.8);
+        StressTestService.Scenario crash = new StressTestService.Scenario("Crash", "", PEAK, PEAK.plusDays(2), -30.0);
+
+        StressScenario s = service.run(List.of("AAPL"), new double[]{1.0}, new double[]{1.0},
+                1000, 1.0, List.of(crash)).get(0);
+
+        assertEquals(2, s.getTradingDays());
+        assertEquals(0.9 * 0.8 - 1, s.getEstimatedLossPercent() / 100, 1e-12);
+        assertEquals(280, s.getEstimatedLoss(), 1e-9);
+    }
+
+    @Test
+    public void testSingleDayScenarioReplaysThatDay() {
+        StressTestService service = new StressTestService(store(), 0.8);
+        LocalDate day = PEAK.plusDays(1);
+        StressTestService.Scenario crash = new StressTestService.Scenario("One day", "", day, day, -20.0);
+
+        StressScenario s = service.run(List.of("AAPL"), new double[]{1.0}, new double[]{1.0},
+                1000, 1.0, List.of(crash)).get(0);
+
+        assertEquals(1, s.getTradingDays());
+        assertEquals(100, s.getEstimatedLoss(), 1e-9);
+    }
+
+    @Test
+    public void testHypotheticalShockKeepsTheSign() {
+        StressTestService service = new StressTestService(store(), 0.8);
+        StressTestService.Scenario shock = new StressTestService.Scenario("Shock", "", null, null, -20.0);
+
+        StressScenario s = service.run(List.of("AAPL"), new double[]{1.0}, new double[]{-0.5},
+                1000, -0.5, List.of(shock)).get(0);
+
+        assertEquals("HYPOTHETICAL", s.getMethod());
+        assertEquals(10.0, s.getEstimatedLossPercent(), 1e-12);
+        assertEquals(-100, s.getEstimatedLoss(), 1e-9);
+    }
+}
@@ -1,15 +1,33 @@
 package com.portfolio.batch.config;
 
+import com.portfolio.analytics.ReturnMatrix;
+import com.portfolio.batch.correlation.CorrelationIndexSettings;
+import com.portfolio.batch.correlation.CorrelationIndexTasklet;
+import com.portfolio.batch.risk.RiskSnapshot;
+import com.portfolio.batch.risk.RiskSnapshotProcessor;
+import com.portfolio.batch.risk.RiskSnapshotSettings;
+import com.portfolio.batch.risk.RiskSnapshotWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+
 /**
  * Spring Batch configuration for portfolio analysis batch jobs.
  *
@@ -22,39 +40,138 @@ import org.springframework.transaction.PlatformTransactionManager;
 @Configuration
 public class BatchConfig {
 
+    @Value("${batch.risk-snapshot.chunk-size:10}")
+    private int chunkSize;
+
+    @Value("${batch.risk-snapshot.threads:4}")
+    private int threads;
+
     /**
-     * Main portfolio analysis job that runs deep data processing,
-     * generates recommendations, and computes correlation analysis.
+     * Main portfolio analysis job. Its first step precomputes the nightly risk
+     * snapshot for every portfolio (FR-RA-012); the second rebuilds the
+     * universe-wide correlation index used for hedge suggestions.
      *
-     * @param jobRepository       the Spring Batch job repository
-     * @param portfolioAnalysisStep the main analysis step
+     * @param jobRepository        the Spring Batch job repository
+     * @param riskSnapshotStep     the risk snapshot step
+     * @param correlationIndexStep the correlation index step
      * @return configured Job instance
      */
     @Bean
-    public Job portfolioAnalysisJob(JobRepository jobRepository, Step portfolioAnalysisStep) {
+    public Job portfolioAnalysisJob(JobRepository jobRepository, Step riskSnapshotStep, Step correlationIndexStep) {
         return new JobBuilder("portfolioAnalysisJob", jobRepository)
                 .incrementer(new RunIdIncrementer())
-                .start(portfolioAnalysisStep)
+                .start(riskSnapshotStep)
+                .next(correlationIndexStep)
                 .build();
     }
 
     /**
-     * Portfolio analysis step that processes holdings in chunks.
+     * Computes risk and correlation metrics per portfolio and stores them in
+     * portfolio_risk_snapshot. Portfolio ids are paged in chunks and chunks are
+     * processed concurrently on {@code batch.risk-snapshot.threads} workers.
      *
      * @param jobRepository      the Spring Batch job repository
      * @param transactionManager the transaction manager
      * @return configured Step instance
      */
     @Bean
-    public Step portfolioAnalysisStep(JobRepository jobRepository,
-                                       PlatformTransactionManager transactionManager) {
-        return new StepBuilder("portfolioAnalysisStep", jobRepository)
-                .tasklet((contribution, chunkContext) -> {
-                    // Placeholder: actual batch logic will be implemented with
-                    // Spark-based data analysis, correlation computation, and
-                    // recommendation generation
-                    return org.springframework.batch.repeat.RepeatStatus.FINISHED;
-                }, transactionManager)
+    public Step riskSnapshotStep(JobRepository jobRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 JdbcPagingItemReader<Long> portfolioIdReader,
+                                 RiskSnapshotProcessor riskSnapshotProcessor,
+                                 RiskSnapshotWriter riskSnapshotWriter,
+                                 ThreadPoolTaskExecutor riskSnapshotTaskExecutor) {
+        return new StepBuilder("riskSnapshotStep", jobRepository)
+                .<Long, RiskSnapshot>chunk(chunkSize, transactionManager)
+                .reader(portfolioIdReader)
+                .processor(riskSnapshotProcessor)
+                .writer(riskSnapshotWriter)
+                .taskExecutor(riskSnapshotTaskExecutor)
+                .build();
+    }
+
+    /**
+     * Pages portfolio ids. Thread-safe; restart state is not kept since the step is rerunnable as a whole.
+     */
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Long> portfolioIdReader(DataSource dataSource) {
+        return new JdbcPagingItemReaderBuilder<Long>()
+                .name("portfolioIdReader")
+                .dataSource(dataSource)
+                .selectClause("SELECT id")
+                .fromClause("FROM portfolios")
+                .sortKeys(Map.of("id", Order.ASCENDING))
+                .rowMapper((rs, rowNum) -> rs.getLong(1))
+                .pageSize(chunkSize)
+                .saveState(false)
                 .build();
     }
+
+    /**
+     * Step-scoped so each run starts with an empty return-series cache and its own as-of date.
+     */
+    @Bean
+    @StepScope
+    public RiskSnapshotProcessor riskSnapshotProcessor(
+            DataSource dataSource,
+            @Value("${batch.risk-snapshot.confidence-level:0.95}") double confidenceLevel,
+            @Value("${batch.risk-snapshot.time-horizon-days:1}") int timeHorizonDays,
+            @Value("${batch.risk-snapshot.lookback-days:252}") int lookbackDays,
+            @Value("${batch.risk-snapshot.benchmark:SPY}") String benchmark,
+            @Value("${batch.risk-snapshot.monte-carlo.paths:10000}") int monteCarloPaths,
+            @Value("${batch.risk-snapshot.monte-carlo.seed:42}") long monteCarloSeed,
+            @Value("${batch.risk-snapshot.monte-carlo.mode:multivariate}") String monteCarloMode,
+            @Value("${batch.risk-snapshot.missing-data:drop}") String missingData) {
+        RiskSnapshotSettings settings = new RiskSnapshotSettings(confidenceLevel, timeHorizonDays, lookbackDays,
+                benchmark, monteCarloPaths, monteCarloSeed, "multivariate".equalsIgnoreCase(monteCarloMode),
+                ReturnMatrix.MissingData.parse(missingData));
+        return new RiskSnapshotProcessor(new JdbcTemplate(dataSource), settings, LocalDate.now());
+    }
+
+    /**
+     * Pairwise correlations across every ticker with stored returns, reduced to each ticker's top-k
+     * negatively correlated and least correlated peers in correlation_index (FR-CH-004, FR-CH-005).
+     *
+     * @param jobRepository      the Spring Batch job repository
+     * @param transactionManager the transaction manager
+     * @return configured Step instance
+     */
+    @Bean
+    public Step correlationIndexStep(JobRepository jobRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     CorrelationIndexTasklet correlationIndexTasklet) {
+        return new StepBuilder("correlationIndexStep", jobRepository)
+                .tasklet(correlationIndexTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public CorrelationIndexTasklet correlationIndexTasklet(
+            DataSource dataSource,
+            @Value("${batch.correlation-index.lookback-days:252}") int lookbackDays,
+            @Value("${batch.correlation-index.top-k:10}") int topK,
+            @Value("${batch.correlation-index.min-coverage:0.9}") double minCoverage,
+            @Value("${batch.correlation-index.min-observations:60}") int minObservations,
+            @Value("${batch.correlation-index.missing-data:zero-fill}") String missingData) {
+        CorrelationIndexSettings settings = new CorrelationIndexSettings(lookbackDays, topK, minCoverage,
+                minObservations, ReturnMatrix.MissingData.parse(missingData));
+        return new CorrelationIndexTasklet(new JdbcTemplate(dataSource), settings, LocalDate.now());
+    }
+
+    @Bean
+    public RiskSnapshotWriter riskSnapshotWriter(DataSource dataSource) {
+        return new RiskSnapshotWriter(dataSource);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor riskSnapshotTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("risk-snapshot-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,19 @@
+package com.portfolio.batch.correlation;
+
+import com.portfolio.analytics.ReturnMatrix;
+
+/**
+ * Parameters of the nightly correlation index (batch.correlation-index.*).
+ *
+ * @param topK            peers stored per ticker and relation
+ * @param minCoverage     share of the window's trade dates a ticker needs to be indexed; dates it lacks are
+ *                        filled by {@code missingData}
+ * @param minObservations aligned dates required before anything is written
+ * @param missingData     batch.correlation-index.missing-data, independent of the risk snapshot's policy
+ */
+public record CorrelationIndexSettings(int lookbackDays,
+                                       int topK,
+                                       double minCoverage,
+                                       int minObservations,
+                                       ReturnMatrix.MissingData missingData) {
+}
@@ -0,0 +1,150 @@
+package com.portfolio.batch.correlation;
+
+import com.portfolio.analytics.CorrelationIndex;
+import com.portfolio.analytics.CorrelationMatrix;
+import com.portfolio.analytics.ReturnMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the universe-wide correlation index behind data-driven hedge suggestions (FR-CH-004, FR-CH-005).
+ *
+ * Reads the adjusted returns of every stored ticker over the lookback in one ordered scan, joins them on trade
+ * date ({@link ReturnMatrix}), computes the full correlation matrix ({@link CorrelationMatrix}) and keeps, per
+ * ticker, its top-k most negatively correlated (NEGATIVE) and least correlated (UNCORRELATED) peers. The new
+ * index replaces the previous one in the step's transaction, so the API never sees a half-written index.
+ *
+ * Tickers covering less than {@code minCoverage} of the window's trade dates are left out, and the rest are
+ * joined under the job's own missing-data policy (zero-fill by default): with DROP, one ticker missing a date or
+ * ending early would shorten the common window for the whole universe.
+ */
+public class CorrelationIndexTasklet implements Tasklet {
+
+    private static final Logger log = LoggerFactory.getLogger(CorrelationIndexTasklet.class);
+
+    static final String NEGATIVE = "NEGATIVE";
+    static final String UNCORRELATED = "UNCORRELATED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CorrelationIndexSettings settings;
+    private final LocalDate asOfDate;
+
+    public CorrelationIndexTasklet(JdbcTemplate jdbcTemplate, CorrelationIndexSettings settings, LocalDate asOfDate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        this.asOfDate = asOfDate;
+    }
+
+    /** One ticker's returns as read, grown in place while scanning. */
+    private static final class Series {
+        final String ticker;
+        int[] days = new int[256];
+        double[] returns = new double[256];
+        int length;
+
+        Series(String ticker) {
+            this.ticker = ticker;
+        }
+
+        void add(int day, double r) {
+            if (length == days.length) {
+                days = Arrays.copyOf(days, length * 2);
+                returns = Arrays.copyOf(returns, length * 2);
+            }
+            days[length] = day;
+            returns[length] = r;
+            length++;
+        }
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        List<Series> universe = load();
+        long tradeDates = universe.stream()
+                .flatMapToInt(s -> Arrays.stream(s.days, 0, s.length))
+                .distinct().count();
+        int required = (int) Math.ceil(tradeDates * settings.minCoverage());
+        List<Series> indexed = universe.stream().filter(s -> s.length >= Math.max(2, required)).toList();
+        if (indexed.size() < 2) {
+            log.warn("Correlation index skipped: {} tickers with enough history", indexed.size());
+            return RepeatStatus.FINISHED;
+        }
+
+        int k = indexed.size();
+        String[] names = new String[k];
+        int[][] days = new int[k][];
+        double[][] rets = new double[k][];
+        int[] lengths = new int[k];
+        for (int i = 0; i < k; i++) {
+            Series s = indexed.get(i);
+            names[i] = s.ticker;
+            days[i] = s.days;
+            rets[i] = s.returns;
+            lengths[i] = s.length;
+        }
+        ReturnMatrix matrix = ReturnMatrix.align(names, days, rets, new int[k], lengths, settings.missingData());
+        if (matrix.length() < settings.minObservations()) {
+            log.warn("Correlation index skipped: {} aligned trade dates ({}) across {} tickers, {} required",
+                    matrix.length(), matrix.policy(), k, settings.minObservations());
+            return RepeatStatus.FINISHED;
+        }
+
+        int n = matrix.size();
+        double[][] columns = new double[n][];
+        for (int i = 0; i < n; i++) columns[i] = matrix.column(i);
+        double[][] corr = CorrelationMatrix.compute(columns, new int[n], matrix.length());
+
+        List<Object[]> rows = new ArrayList<>(n * settings.topK() * 2);
+        for (int i = 0; i < n; i++) {
+            addRows(rows, matrix, corr[i], i, NEGATIVE, CorrelationIndex.mostNegative(corr[i], i, settings.topK()));
+            addRows(rows, matrix, corr[i], i, UNCORRELATED, CorrelationIndex.leastCorrelated(corr[i], i, settings.topK()));
+        }
+
+        // Only the latest index is kept
+        jdbcTemplate.update("DELETE FROM correlation_index WHERE as_of_date <= ?", asOfDate);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO correlation_index " +
+                "(as_of_date, ticker, relation, peer_rank, peer_ticker, correlation, observations) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rows);
+        contribution.incrementWriteCount(rows.size());
+        log.info("Correlation index as of {}: {} tickers over {} trade dates, {} rows ({} of {} tickers had too little history)",
+                asOfDate, n, matrix.length(), rows.size(), universe.size() - k, universe.size());
+        return RepeatStatus.FINISHED;
+    }
+
+    private void addRows(List<Object[]> rows, ReturnMatrix matrix, double[] corr, int i, String relation, int[] peers) {
+        for (int r = 0; r < peers.length; r++) {
+            int j = peers[r];
+            rows.add(new Object[]{asOfDate, matrix.name(i), relation, r + 1, matrix.name(j), corr[j], matrix.length()});
+        }
+    }
+
+    private List<Series> load() {
+        List<Series> universe = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT ticker, trade_date, adjusted_return FROM stock_return_history " +
+                "WHERE trade_date BETWEEN ? AND ? ORDER BY ticker, trade_date",
+                rs -> {
+                    String ticker = rs.getString(1);
+                    Series s = universe.isEmpty() ? null : universe.get(universe.size() - 1);
+                    if (s == null || !s.ticker.equals(ticker)) {
+                        s = new Series(ticker);
+                        universe.add(s);
+                    }
+                    s.add((int) rs.getDate(2).toLocalDate().toEpochDay(), rs.getDouble(3));
+                },
+                asOfDate.minusDays(settings.lookbackDays()), asOfDate);
+        return universe;
+    }
+}
@@ -33,9 +33,9 @@ public class PortfolioAnalysisJobScheduler {
     }
 
     /**
-     * Runs portfolio analysis daily at 2:00 AM.
+     * Runs portfolio analysis daily at 7:00 AM, after the 6:00 AM price ingest has loaded the previous close.
      */
-    @Scheduled(cron = "${batch.schedule.portfolio-analysis:0 0 2 * * *}")
+    @Scheduled(cron = "${batch.schedule.portfolio-analysis:0 0 7 * * *}")
     public void runDailyAnalysis() {
         try {
             JobParameters params = new JobParametersBuilder()
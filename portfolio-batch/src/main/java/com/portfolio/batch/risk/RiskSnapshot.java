@@ -0,0 +1,34 @@
+package com.portfolio.batch.risk;
+
+import com.portfolio.analytics.RiskMetrics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One computed portfolio_risk_snapshot row plus its per-holding rows, handed from
+ * {@link RiskSnapshotProcessor} to {@link RiskSnapshotWriter}.
+ */
+public record RiskSnapshot(Long portfolioId,
+                           LocalDate asOfDate,
+                           double confidenceLevel,
+                           int timeHorizonDays,
+                           int lookbackDays,
+                           String holdingsHash,
+                           BigDecimal portfolioValue,
+                           LocalDate maxDrawdownPeakDate,
+                           LocalDate maxDrawdownTroughDate,
+                           RiskMetrics metrics,
+                           List<HoldingRow> holdings) {
+
+    /**
+     * {@code expectedShortfall} and {@code simulatedComponentVar} come from the Monte Carlo draws (multivariate
+     * mode only); the marginal / component / incremental figures are parametric.
+     */
+    public record HoldingRow(String ticker, double weight, Double beta, Double expectedShortfall, Double percentOfTotal,
+                             Double marginalVar, Double componentVar, Double incrementalVar,
+                             Double marginalEs, Double componentEs, Double incrementalEs,
+                             Double simulatedComponentVar) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.portfolio.batch.risk;
+
+import com.portfolio.analytics.HoldingsFingerprint;
+import com.portfolio.analytics.PortfolioRiskCalculator;
+import com.portfolio.analytics.ReturnMatrix;
+import com.portfolio.analytics.RiskMetrics;
+import com.portfolio.analytics.VarDecomposition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the standard risk metrics for one portfolio (FR-RA-012).
+ *
+ * Mirrors the API's live path: STOCK/ETF holdings, materialized adjusted returns over the lookback, joined
+ * with the benchmark on trade date ({@link ReturnMatrix}, same missing-data policy as the API), and {@link PortfolioRiskCalculator} for the math. Weights use the latest
+ * stored close. Return series and closes are shared by portfolios holding the same ticker, so each is read
+ * once per run; the processor is step-scoped and safe for the step's worker threads.
+ *
+ * Portfolios without usable data are filtered (null) rather than failing the chunk.
+ */
+public class RiskSnapshotProcessor implements ItemProcessor<Long, RiskSnapshot> {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskSnapshotProcessor.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PortfolioRiskCalculator calculator = new PortfolioRiskCalculator();
+    private final RiskSnapshotSettings settings;
+    private final LocalDate asOfDate;
+    private final LocalDate windowStart;
+
+    private final Map<String, Series> returnCache = new ConcurrentHashMap<>();
+    private final Map<String, Optional<BigDecimal>> closeCache = new ConcurrentHashMap<>();
+
+    public RiskSnapshotProcessor(JdbcTemplate jdbcTemplate, RiskSnapshotSettings settings, LocalDate asOfDate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        this.asOfDate = asOfDate;
+        this.windowStart = asOfDate.minusDays(settings.lookbackDays());
+    }
+
+    private record Series(int[] epochDays, double[] returns) {
+        static final Series EMPTY = new Series(new int[0], new double[0]);
+    }
+
+    @Override
+    public RiskSnapshot process(Long portfolioId) {
+        try {
+            return compute(portfolioId);
+        } catch (RuntimeException e) {
+            log.warn("Risk snapshot skipped for portfolio {}: {}", portfolioId, e.getMessage());
+            return null;
+        }
+    }
+
+    private RiskSnapshot compute(Long portfolioId) {
+        Map<String, BigDecimal> quantities = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT ticker, SUM(quantity) FROM holdings " +
+                "WHERE portfolio_id = ? AND asset_type IN ('STOCK', 'ETF') AND ticker IS NOT NULL AND ticker <> '' " +
+                "GROUP BY ticker",
+                rs -> { quantities.put(rs.getString(1), rs.getBigDecimal(2)); },
+                portfolioId);
+        if (quantities.isEmpty()) {
+            return null;
+        }
+
+        // Market values and weights from the latest stored close
+        Map<String, BigDecimal> marketValues = new LinkedHashMap<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        List<String> tickers = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> e : quantities.entrySet()) {
+            if (returns(e.getKey()).returns().length == 0) continue;
+            tickers.add(e.getKey());
+            BigDecimal close = latestClose(e.getKey()).orElse(null);
+            if (close == null) continue;
+            BigDecimal mv = close.multiply(e.getValue());
+            marketValues.put(e.getKey(), mv);
+            totalValue = totalValue.add(mv);
+        }
+        if (tickers.isEmpty() || totalValue.signum() == 0) {
+            return null;
+        }
+
+        // Join the holdings and the benchmark on trade date
+        boolean hasBenchmark = returns(settings.benchmark()).returns().length > 0;
+        List<String> names = new ArrayList<>(tickers);
+        if (hasBenchmark && !names.contains(settings.benchmark())) names.add(settings.benchmark());
+        int k = names.size();
+        int[][] days = new int[k][];
+        double[][] rets = new double[k][];
+        int[] lengths = new int[k];
+        for (int i = 0; i < k; i++) {
+            Series s = returns(names.get(i));
+            days[i] = s.epochDays();
+            rets[i] = s.returns();
+            lengths[i] = s.returns().length;
+        }
+        ReturnMatrix matrix = ReturnMatrix.align(names.toArray(String[]::new), days, rets, new int[k], lengths,
+                settings.missingData());
+        if (matrix.isEmpty()) {
+            return null;
+        }
+
+        int n = tickers.size();
+        double[][] series = new double[n][];
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            String t = tickers.get(i);
+            series[i] = matrix.column(matrix.indexOf(t));
+            BigDecimal mv = marketValues.get(t);
+            weights[i] = mv == null ? 0.0 : mv.divide(totalValue, 8, RoundingMode.HALF_UP).doubleValue();
+        }
+        double[] bench = hasBenchmark ? matrix.column(matrix.indexOf(settings.benchmark())) : null;
+
+        double value = totalValue.doubleValue();
+        RiskMetrics m = calculator.compute(new PortfolioRiskCalculator.Input(
+                tickers.toArray(String[]::new), series, new int[n], matrix.length(), weights, bench, 0,
+                value, settings.confidenceLevel(), settings.timeHorizonDays(),
+                settings.monteCarloPaths(), settings.monteCarloSeed(), settings.multivariate()));
+
+        double[] contrib = m.getTailContributions();
+        double contribTotal = 0;
+        if (contrib != null) {
+            for (double c : contrib) contribTotal += c;
+        }
+        VarDecomposition.Result d = m.getVarDecomposition();
+        double[] varContrib = m.getVarContributions();
+        List<RiskSnapshot.HoldingRow> rows = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Double beta = m.getHoldingBetas() != null ? m.getHoldingBetas()[i] : null;
+            Double es = contrib != null ? -contrib[i] * value : null;
+            Double pct = contrib != null && Math.abs(contribTotal) > 1e-12 ? contrib[i] / contribTotal * 100 : null;
+            rows.add(new RiskSnapshot.HoldingRow(tickers.get(i), weights[i], beta, es, pct,
+                    d != null ? d.marginalVar()[i] : null, d != null ? d.componentVar()[i] : null,
+                    d != null ? d.incrementalVar()[i] : null, d != null ? d.marginalEs()[i] : null,
+                    d != null ? d.componentEs()[i] : null, d != null ? d.incrementalEs()[i] : null,
+                    varContrib != null ? -varContrib[i] * value : null));
+        }
+
+        return new RiskSnapshot(portfolioId, asOfDate, settings.confidenceLevel(), settings.timeHorizonDays(),
+                settings.lookbackDays(), HoldingsFingerprint.of(quantities), totalValue,
+                drawdownDate(matrix, m.getMaxDrawdownPeakIndex()), drawdownDate(matrix, m.getMaxDrawdownTroughIndex()),
+                m, rows);
+    }
+
+    /**
+     * Same convention as the API: index 0 is the window start, index i the close after the i-th aligned return.
+     */
+    private static LocalDate drawdownDate(ReturnMatrix matrix, int index) {
+        return LocalDate.ofEpochDay(matrix.epochDay(Math.max(0, index - 1)));
+    }
+
+    private Series returns(String ticker) {
+        return returnCache.computeIfAbsent(ticker, t -> {
+            List<Integer> days = new ArrayList<>();
+            List<Double> values = new ArrayList<>();
+            jdbcTemplate.query(
+                    "SELECT trade_date, adjusted_return FROM stock_return_history " +
+                    "WHERE ticker = ? AND trade_date BETWEEN ? AND ? ORDER BY trade_date",
+                    rs -> {
+                        days.add((int) rs.getDate(1).toLocalDate().toEpochDay());
+                        values.add(rs.getDouble(2));
+                    },
+                    t, windowStart, asOfDate);
+            if (values.isEmpty()) return Series.EMPTY;
+            int[] d = new int[values.size()];
+            double[] r = new double[values.size()];
+            for (int i = 0; i < r.length; i++) {
+                d[i] = days.get(i);
+                r[i] = values.get(i);
+            }
+            return new Series(d, r);
+        });
+    }
+
+    private Optional<BigDecimal> latestClose(String ticker) {
+        return closeCache.computeIfAbsent(ticker, t -> jdbcTemplate.query(
+                "SELECT close_price FROM stock_price_history WHERE ticker = ? ORDER BY trade_date DESC LIMIT 1",
+                rs -> rs.next() ? Optional.of(rs.getBigDecimal(1)) : Optional.<BigDecimal>empty(), t));
+    }
+}
@@ -0,0 +1,17 @@
+package com.portfolio.batch.risk;
+
+import com.portfolio.analytics.ReturnMatrix;
+
+/**
+ * Parameters the nightly snapshot is computed for (batch.risk-snapshot.*). They must match the API's
+ * request defaults for the snapshot to be served without a live recompute.
+ */
+public record RiskSnapshotSettings(double confidenceLevel,
+                                   int timeHorizonDays,
+                                   int lookbackDays,
+                                   String benchmark,
+                                   int monteCarloPaths,
+                                   long monteCarloSeed,
+                                   boolean multivariate,
+                                   ReturnMatrix.MissingData missingData) {
+}
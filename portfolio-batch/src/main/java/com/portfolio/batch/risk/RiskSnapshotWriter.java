@@ -0,0 +1,112 @@
+package com.portfolio.batch.risk;
+
+import com.portfolio.analytics.RiskMetrics;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes portfolio_risk_snapshot rows with their holdings and confidence ladder. A rerun on the same day replaces
+ * the earlier snapshot for the same parameters (holdings and ladder rows go with it via ON DELETE CASCADE).
+ */
+public class RiskSnapshotWriter implements ItemWriter<RiskSnapshot> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpleJdbcInsert snapshotInsert;
+
+    public RiskSnapshotWriter(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.snapshotInsert = new SimpleJdbcInsert(dataSource)
+                .withTableName("portfolio_risk_snapshot")
+                .usingGeneratedKeyColumns("id");
+    }
+
+    @Override
+    public void write(Chunk<? extends RiskSnapshot> chunk) {
+        for (RiskSnapshot s : chunk) {
+            jdbcTemplate.update(
+                    "DELETE FROM portfolio_risk_snapshot WHERE portfolio_id = ? AND as_of_date = ? " +
+                    "AND confidence_level = ? AND time_horizon_days = ? AND lookback_days = ?",
+                    s.portfolioId(), s.asOfDate(), s.confidenceLevel(), s.timeHorizonDays(), s.lookbackDays());
+
+            long snapshotId = snapshotInsert.executeAndReturnKey(columns(s)).longValue();
+
+            List<Object[]> rows = new ArrayList<>();
+            for (RiskSnapshot.HoldingRow h : s.holdings()) {
+                rows.add(new Object[]{snapshotId, h.ticker(), h.weight(), h.beta(), h.expectedShortfall(), h.percentOfTotal(),
+                        h.marginalVar(), h.componentVar(), h.incrementalVar(),
+                        h.marginalEs(), h.componentEs(), h.incrementalEs(), h.simulatedComponentVar()});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO portfolio_risk_snapshot_holding " +
+                    "(snapshot_id, ticker, weight, beta, expected_shortfall, percent_of_total, " +
+                    "marginal_var, component_var, incremental_var, marginal_es, component_es, incremental_es, " +
+                    "simulated_component_var) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    rows);
+
+            RiskMetrics m = s.metrics();
+            if (m.getLadderConfidence() != null) {
+                List<Object[]> ladder = new ArrayList<>();
+                for (int k = 0; k < m.getLadderConfidence().length; k++) {
+                    ladder.add(new Object[]{snapshotId, m.getLadderConfidence()[k],
+                            m.getLadderHistoricalVar()[k], m.getLadderHistoricalCvar()[k],
+                            m.getLadderMonteCarloVar()[k], m.getLadderMonteCarloCvar()[k]});
+                }
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO portfolio_risk_snapshot_ladder " +
+                        "(snapshot_id, confidence_level, historical_var, historical_cvar, monte_carlo_var, monte_carlo_cvar) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                        ladder);
+            }
+        }
+    }
+
+    private Map<String, Object> columns(RiskSnapshot s) {
+        RiskMetrics m = s.metrics();
+        Map<String, Object> c = new LinkedHashMap<>();
+        c.put("portfolio_id", s.portfolioId());
+        c.put("as_of_date", s.asOfDate());
+        c.put("confidence_level", s.confidenceLevel());
+        c.put("time_horizon_days", s.timeHorizonDays());
+        c.put("lookback_days", s.lookbackDays());
+        c.put("holdings_hash", s.holdingsHash());
+        c.put("observations", m.getObservations());
+        c.put("portfolio_value", s.portfolioValue());
+        c.put("var_historical", m.getHistoricalVar());
+        c.put("var_parametric", m.getParametricVar());
+        c.put("var_monte_carlo", m.getMonteCarloVar());
+        c.put("cvar_95", m.getCvar95());
+        c.put("cvar_99", m.getCvar99());
+        c.put("daily_volatility", m.getDailyVolatility());
+        c.put("annualized_volatility", m.getAnnualizedVolatility());
+        c.put("beta", m.getBeta());
+        c.put("alpha", m.getAlpha());
+        c.put("sharpe_ratio", m.getSharpeRatio());
+        c.put("sortino_ratio", m.getSortinoRatio());
+        c.put("treynor_ratio", m.getTreynorRatio());
+        c.put("max_drawdown", m.getMaxDrawdown());
+        c.put("max_drawdown_peak_date", s.maxDrawdownPeakDate());
+        c.put("max_drawdown_trough_date", s.maxDrawdownTroughDate());
+        c.put("average_correlation", m.getAverageCorrelation());
+        c.put("diversification_ratio", m.getDiversificationRatio());
+        c.put("mc_mode", m.isMultivariate() ? "MULTIVARIATE" : "UNIVARIATE");
+        c.put("mc_simulations", m.getSimulations());
+        c.put("mc_mean_return", m.getMonteCarloMean());
+        c.put("mc_percentile_5", m.getMonteCarloPercentile5());
+        c.put("mc_percentile_25", m.getMonteCarloPercentile25());
+        c.put("mc_median", m.getMonteCarloMedian());
+        c.put("mc_percentile_75", m.getMonteCarloPercentile75());
+        c.put("mc_percentile_95", m.getMonteCarloPercentile95());
+        c.put("mc_expected_shortfall", m.getMonteCarloExpectedShortfall());
+        c.put("computed_at", LocalDateTime.now());
+        return c;
+    }
+}
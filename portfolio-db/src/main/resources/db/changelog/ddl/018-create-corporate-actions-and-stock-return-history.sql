@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset portfolio:018-create-corporate-actions-and-stock-return-history
+--comment: Corporate actions (splits/dividends) and the materialized split/dividend-adjusted daily return series (FR-AS-003, FR-AS-004)
+CREATE TABLE corporate_actions (
+    id              BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    ticker          VARCHAR(50)   NOT NULL,
+    action_type     VARCHAR(20)   NOT NULL,
+    ex_date         DATE          NOT NULL,
+    split_ratio     DECIMAL(19,8),
+    dividend_amount DECIMAL(19,6),
+    source          VARCHAR(50)   NOT NULL DEFAULT 'MANUAL',
+    created_at      TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_corporate_action UNIQUE (ticker, action_type, ex_date)
+);
+
+CREATE INDEX idx_corporate_action_ticker_date ON corporate_actions(ticker, ex_date);
+
+CREATE TABLE stock_return_history (
+    id                BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    ticker            VARCHAR(50)      NOT NULL,
+    trade_date        DATE             NOT NULL,
+    adjusted_return   DOUBLE PRECISION NOT NULL,
+    adjustment_factor DOUBLE PRECISION NOT NULL DEFAULT 1,
+    computed_at       TIMESTAMP        NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_stock_return_ticker_date UNIQUE (ticker, trade_date)
+);
+
+CREATE INDEX idx_stock_return_ticker_date ON stock_return_history(ticker, trade_date);
+
+--rollback DROP TABLE IF EXISTS stock_return_history; DROP TABLE IF EXISTS corporate_actions;
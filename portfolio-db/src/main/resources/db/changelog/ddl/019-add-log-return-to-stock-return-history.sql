@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset portfolio:019-add-log-return-to-stock-return-history
+--comment: Store the log return next to the simple adjusted return so analytics never difference closes at request time
+
+ALTER TABLE stock_return_history ADD COLUMN log_return DOUBLE PRECISION;
+
+UPDATE stock_return_history SET log_return = LN(1 + adjusted_return) WHERE adjusted_return > -1;
+
+--rollback ALTER TABLE stock_return_history DROP COLUMN IF EXISTS log_return;
@@ -0,0 +1,24 @@
+--liquibase formatted sql
+
+--changeset portfolio:020-create-intraday-price-bar-table
+--comment: Intraday OHLCV bars (1m, 5m, 60m) synced by delta and rolled up to coarser resolutions, pruned per-resolution retention
+
+CREATE TABLE intraday_price_bar (
+    id                  BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    ticker              VARCHAR(50)      NOT NULL,
+    resolution_minutes  INT              NOT NULL,
+    bar_time            TIMESTAMP        NOT NULL,
+    open_price          DECIMAL(19,8),
+    high_price          DECIMAL(19,8),
+    low_price           DECIMAL(19,8),
+    close_price         DECIMAL(19,8)    NOT NULL,
+    volume              DOUBLE PRECISION,
+    rolled_up           BOOLEAN          NOT NULL DEFAULT FALSE,
+    fetched_at          TIMESTAMP        NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_intraday_bar UNIQUE (ticker, resolution_minutes, bar_time)
+);
+
+CREATE INDEX idx_intraday_bar_ticker_res_time ON intraday_price_bar(ticker, resolution_minutes, bar_time);
+CREATE INDEX idx_intraday_bar_res_time ON intraday_price_bar(resolution_minutes, bar_time);
+
+--rollback DROP TABLE IF EXISTS intraday_price_bar;
@@ -0,0 +1,62 @@
+--liquibase formatted sql
+
+--changeset portfolio:021-create-portfolio-risk-snapshot-tables
+--comment: Nightly precomputed risk metrics per portfolio (FR-RA-012), written by portfolio-batch and served by the API for matching parameters
+
+CREATE TABLE portfolio_risk_snapshot (
+    id                        BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    portfolio_id              BIGINT           NOT NULL,
+    as_of_date                DATE             NOT NULL,
+    confidence_level          DOUBLE PRECISION NOT NULL,
+    time_horizon_days         INT              NOT NULL,
+    lookback_days             INT              NOT NULL,
+    holdings_hash             VARCHAR(64)      NOT NULL,
+    observations              INT              NOT NULL,
+    portfolio_value           DECIMAL(19,4)    NOT NULL,
+    var_historical            DOUBLE PRECISION,
+    var_parametric            DOUBLE PRECISION,
+    var_monte_carlo           DOUBLE PRECISION,
+    cvar_95                   DOUBLE PRECISION,
+    cvar_99                   DOUBLE PRECISION,
+    daily_volatility          DOUBLE PRECISION,
+    annualized_volatility     DOUBLE PRECISION,
+    beta                      DOUBLE PRECISION,
+    alpha                     DOUBLE PRECISION,
+    sharpe_ratio              DOUBLE PRECISION,
+    sortino_ratio             DOUBLE PRECISION,
+    treynor_ratio             DOUBLE PRECISION,
+    max_drawdown              DOUBLE PRECISION,
+    max_drawdown_peak_date    DATE,
+    max_drawdown_trough_date  DATE,
+    average_correlation       DOUBLE PRECISION,
+    diversification_ratio     DOUBLE PRECISION,
+    mc_mode                   VARCHAR(20),
+    mc_simulations            INT,
+    mc_mean_return            DOUBLE PRECISION,
+    mc_percentile_5           DOUBLE PRECISION,
+    mc_percentile_25          DOUBLE PRECISION,
+    mc_median                 DOUBLE PRECISION,
+    mc_percentile_75          DOUBLE PRECISION,
+    mc_percentile_95          DOUBLE PRECISION,
+    mc_expected_shortfall     DOUBLE PRECISION,
+    computed_at               TIMESTAMP        NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_risk_snapshot UNIQUE (portfolio_id, as_of_date, confidence_level, time_horizon_days, lookback_days),
+    CONSTRAINT fk_risk_snapshot_portfolio FOREIGN KEY (portfolio_id) REFERENCES portfolios(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_risk_snapshot_portfolio_date ON portfolio_risk_snapshot(portfolio_id, as_of_date);
+
+CREATE TABLE portfolio_risk_snapshot_holding (
+    id                    BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    snapshot_id           BIGINT           NOT NULL,
+    ticker                VARCHAR(50)      NOT NULL,
+    weight                DOUBLE PRECISION NOT NULL,
+    beta                  DOUBLE PRECISION,
+    expected_shortfall    DOUBLE PRECISION,
+    percent_of_total      DOUBLE PRECISION,
+    CONSTRAINT fk_risk_snapshot_holding_snapshot FOREIGN KEY (snapshot_id) REFERENCES portfolio_risk_snapshot(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_risk_snapshot_holding_snapshot ON portfolio_risk_snapshot_holding(snapshot_id);
+
+--rollback DROP TABLE IF EXISTS portfolio_risk_snapshot_holding; DROP TABLE IF EXISTS portfolio_risk_snapshot;
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset portfolio:022-add-var-decomposition-to-risk-snapshot-holding
+--comment: Per-holding marginal, component and incremental VaR/ES in nightly risk snapshots, so served snapshots carry the same breakdown as live results
+
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN marginal_var DOUBLE PRECISION;
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN component_var DOUBLE PRECISION;
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN incremental_var DOUBLE PRECISION;
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN marginal_es DOUBLE PRECISION;
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN component_es DOUBLE PRECISION;
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN incremental_es DOUBLE PRECISION;
+ALTER TABLE portfolio_risk_snapshot_holding ADD COLUMN simulated_component_var DOUBLE PRECISION;
+
+--rollback ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS simulated_component_var; ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS incremental_es; ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS component_es; ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS marginal_es; ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS incremental_var; ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS component_var; ALTER TABLE portfolio_risk_snapshot_holding DROP COLUMN IF EXISTS marginal_var;
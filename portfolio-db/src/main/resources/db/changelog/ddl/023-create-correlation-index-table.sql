@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset portfolio:023-create-correlation-index-table
+--comment: Nightly universe-wide correlation index (FR-CH-004, FR-CH-005): per ticker, its most negatively correlated and least correlated peers, written by portfolio-batch
+
+CREATE TABLE correlation_index (
+    id              BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    as_of_date      DATE             NOT NULL,
+    ticker          VARCHAR(50)      NOT NULL,
+    relation        VARCHAR(20)      NOT NULL,
+    peer_rank       INT              NOT NULL,
+    peer_ticker     VARCHAR(50)      NOT NULL,
+    correlation     DOUBLE PRECISION NOT NULL,
+    observations    INT              NOT NULL,
+    computed_at     TIMESTAMP        NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_correlation_index UNIQUE (as_of_date, ticker, relation, peer_rank)
+);
+
+CREATE INDEX idx_correlation_index_ticker_date ON correlation_index(ticker, as_of_date);
+
+--rollback DROP TABLE IF EXISTS correlation_index;
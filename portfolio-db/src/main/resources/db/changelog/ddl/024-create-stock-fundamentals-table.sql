@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset portfolio:024-create-stock-fundamentals-table
+--comment: Local snapshot of profile, metric and quote fundamentals for every listed common stock, refreshed stalest-first by a nightly job so custom screens (FR-SC-008) run without provider calls
+
+CREATE TABLE stock_fundamentals (
+    id                  BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    ticker              VARCHAR(50)      NOT NULL,
+    exchange            VARCHAR(20)      NOT NULL,
+    name                VARCHAR(255),
+    industry            VARCHAR(100),
+    country             VARCHAR(50),
+    currency            VARCHAR(10),
+    market_cap          DOUBLE PRECISION,
+    pe_ratio            DOUBLE PRECISION,
+    eps                 DOUBLE PRECISION,
+    dividend_yield      DOUBLE PRECISION,
+    beta                DOUBLE PRECISION,
+    week_high_52        DOUBLE PRECISION,
+    week_low_52         DOUBLE PRECISION,
+    current_price       DOUBLE PRECISION,
+    change_percent      DOUBLE PRECISION,
+    listed              BOOLEAN          NOT NULL DEFAULT TRUE,
+    fetch_status        VARCHAR(20),
+    fetched_at          TIMESTAMP,
+    CONSTRAINT uq_stock_fundamentals UNIQUE (ticker, exchange)
+);
+
+CREATE INDEX idx_stock_fundamentals_listed_fetched ON stock_fundamentals(listed, fetched_at);
+
+--rollback DROP TABLE IF EXISTS stock_fundamentals;
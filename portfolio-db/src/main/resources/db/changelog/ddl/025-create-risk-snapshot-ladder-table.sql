@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+--changeset portfolio:025-create-risk-snapshot-ladder-table
+--comment: VaR / CVaR confidence ladder of each nightly risk snapshot, so served snapshots carry the same ladder as live results
+
+CREATE TABLE portfolio_risk_snapshot_ladder (
+    id                    BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    snapshot_id           BIGINT           NOT NULL,
+    confidence_level      DOUBLE PRECISION NOT NULL,
+    historical_var        DOUBLE PRECISION,
+    historical_cvar       DOUBLE PRECISION,
+    monte_carlo_var       DOUBLE PRECISION,
+    monte_carlo_cvar      DOUBLE PRECISION,
+    CONSTRAINT fk_risk_snapshot_ladder_snapshot FOREIGN KEY (snapshot_id) REFERENCES portfolio_risk_snapshot(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_risk_snapshot_ladder_snapshot ON portfolio_risk_snapshot_ladder(snapshot_id);
+
+--rollback DROP TABLE IF EXISTS portfolio_risk_snapshot_ladder;
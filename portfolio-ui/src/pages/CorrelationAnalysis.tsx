@@ -30,6 +30,14 @@ interface RollingCorrelation {
   trend: string;
 }
 
+interface CorrelationCluster {
+  id: number;
+  tickers: string[];
+  weight: number;
+  riskContribution: number;
+  averageCorrelation: number | null;
+}
+
 interface CorrelationData {
   portfolioId: number;
   portfolioName: string;
@@ -44,6 +52,8 @@ interface CorrelationData {
   rollingCorrelations: Record<string, RollingCorrelation>;
   diversificationScore: number;
   diversificationRating: string;
+  effectiveNumberOfBets: number;
+  clusters: CorrelationCluster[];
 }
 
 interface Portfolio {
@@ -489,11 +499,37 @@ const CorrelationAnalysis: React.FC = () => {
                   {data.diversificationRating}
                 </div>
                 <div style={{ fontSize: '0.85rem', color: '#888', maxWidth: 500, margin: '0 auto' }}>
-                  Score from 0-100 based on average absolute correlation between holdings.
-                  Higher scores indicate better diversification (lower cross-asset correlation).
+                  Score from 0-100 based on the effective number of independent bets
+                  ({fmt(data.effectiveNumberOfBets, 2)} of {data.holdingCount} holdings).
+                  Higher scores indicate risk spread across holdings that do not move together.
                 </div>
               </div>
 
+              <h4 style={{ color: '#333' }}>Correlation Clusters</h4>
+              <table style={{ width: '100%', borderCollapse: 'collapse' }}>
+                <thead>
+                  <tr style={{ borderBottom: '2px solid #e0e0e0' }}>
+                    <th style={{ textAlign: 'left', padding: '0.6rem 0.5rem', color: '#666', fontSize: '0.8rem' }}>Cluster</th>
+                    <th style={{ textAlign: 'right', padding: '0.6rem 0.5rem', color: '#666', fontSize: '0.8rem' }}>Weight</th>
+                    <th style={{ textAlign: 'right', padding: '0.6rem 0.5rem', color: '#666', fontSize: '0.8rem' }}>Share of Risk</th>
+                    <th style={{ textAlign: 'right', padding: '0.6rem 0.5rem', color: '#666', fontSize: '0.8rem' }}>Avg Correlation</th>
+                  </tr>
+                </thead>
+                <tbody>
+                  {data.clusters.map((c) => (
+                    <tr key={c.id} style={{ borderBottom: '1px solid #f0f0f0' }}>
+                      <td style={{ padding: '0.6rem 0.5rem' }}><strong>{c.tickers.join(', ')}</strong></td>
+                      <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{fmt(c.weight * 100, 1)}%</td>
+                      <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right', fontWeight: 600,
+                        color: c.riskContribution > 0.5 ? '#e53935' : '#333' }}>
+                        {fmt(c.riskContribution * 100, 1)}%
+                      </td>
+                      <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{fmt(c.averageCorrelation, 2)}</td>
+                    </tr>
+                  ))}
+                </tbody>
+              </table>
+
               <div style={{ marginTop: '2rem', display: 'grid', gridTemplateColumns: '1fr 1fr', gap: '1.5rem' }}>
                 <div style={{ background: '#fafafa', padding: '1.25rem', borderRadius: 8 }}>
                   <h4 style={{ marginTop: 0, color: '#e53935' }}>Concentration Risks</h4>
@@ -16,12 +16,28 @@ interface HoldingBeta {
   weight: number;
 }
 
+interface HoldingVarContribution {
+  ticker: string;
+  weight: number;
+  marginalVar: number;
+  componentVar: number;
+  componentVarPercent?: number;
+  incrementalVar: number;
+  componentEs: number;
+  incrementalEs: number;
+  simulatedComponentVar?: number;
+}
+
 interface StressScenario {
   name: string;
   description: string;
-  marketShockPercent: number;
+  method: 'HISTORICAL' | 'HYPOTHETICAL';
+  startDate?: string;
+  endDate?: string;
+  marketShockPercent?: number;
   estimatedLoss: number;
   estimatedLossPercent: number;
+  maxDrawdownPercent?: number;
 }
 
 interface MonteCarloResult {
@@ -42,6 +58,7 @@ interface RiskData {
   var: VaRMetrics;
   cvar95: number;
   cvar99: number;
+  varContributions?: HoldingVarContribution[];
   annualizedVolatility: number;
   dailyVolatility: number;
   portfolioBeta: number;
@@ -381,6 +398,37 @@ const RiskAnalytics: React.FC = () => {
                   <div style={{ fontSize: '0.75rem', color: '#b71c1c', marginTop: 4 }}>Average loss in the worst 1% of scenarios</div>
                 </div>
               </div>
+              {riskData.varContributions && riskData.varContributions.length > 0 && (
+                <>
+                  <h4 style={{ marginTop: '1.5rem', marginBottom: '0.5rem' }}>VaR Contribution by Holding</h4>
+                  <p style={{ color: '#666', fontSize: '0.8rem', marginTop: 0 }}>
+                    Component VaR sums to the parametric VaR. Incremental VaR is the change if the position were sold; negative values mark hedges.
+                  </p>
+                  <table style={{ width: '100%', borderCollapse: 'collapse' }}>
+                    <thead>
+                      <tr style={{ borderBottom: '2px solid #e0e0e0' }}>
+                        {['Ticker', 'Weight', 'Marginal VaR / $', 'Component VaR', '% of VaR', 'Incremental VaR', 'Component ES', 'Simulated Component VaR'].map((h, i) => (
+                          <th key={h} style={{ textAlign: i === 0 ? 'left' : 'right', padding: '0.6rem 0.5rem', color: '#666', fontSize: '0.8rem' }}>{h}</th>
+                        ))}
+                      </tr>
+                    </thead>
+                    <tbody>
+                      {riskData.varContributions.map(c => (
+                        <tr key={c.ticker} style={{ borderBottom: '1px solid #f0f0f0' }}>
+                          <td style={{ padding: '0.6rem 0.5rem', fontWeight: 600 }}>{c.ticker}</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{fmt(c.weight * 100)}%</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{fmt(c.marginalVar, 4)}</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right', fontWeight: 600 }}>{fmtUsd(c.componentVar)}</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{c.componentVarPercent != null ? `${fmt(c.componentVarPercent)}%` : '—'}</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right', color: c.incrementalVar < 0 ? '#43a047' : undefined }}>{fmtUsd(c.incrementalVar)}</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{fmtUsd(c.componentEs)}</td>
+                          <td style={{ padding: '0.6rem 0.5rem', textAlign: 'right' }}>{c.simulatedComponentVar != null ? fmtUsd(c.simulatedComponentVar) : '—'}</td>
+                        </tr>
+                      ))}
+                    </tbody>
+                  </table>
+                </>
+              )}
             </div>
           )}
 
@@ -436,7 +484,9 @@ const RiskAnalytics: React.FC = () => {
             <div style={card}>
               <h3 style={{ marginTop: 0 }}>Stress Testing — Historical Scenarios</h3>
               <p style={{ color: '#666', fontSize: '0.85rem', marginBottom: '1rem' }}>
-                Estimated portfolio impact under historical market crash scenarios, scaled by portfolio beta ({fmt(riskData.portfolioBeta)}).
+                Current holdings replayed through historical market windows using each holding's own stored returns.
+                Holdings without history for a window use beta × benchmark; scenarios with no stored data fall back to
+                the market shock scaled by portfolio beta ({fmt(riskData.portfolioBeta)}).
               </p>
               <div style={{ display: 'grid', gap: '1rem' }}>
                 {(riskData.stressTests || []).map(s => (
@@ -444,11 +494,17 @@ const RiskAnalytics: React.FC = () => {
                     <div style={{ flex: 1 }}>
                       <div style={{ fontWeight: 600, fontSize: '1rem' }}>{s.name}</div>
                       <div style={{ fontSize: '0.8rem', color: '#888', marginTop: 4 }}>{s.description}</div>
-                      <div style={{ fontSize: '0.8rem', color: '#999', marginTop: 2 }}>Market shock: {fmt(s.marketShockPercent)}%</div>
+                      <div style={{ fontSize: '0.8rem', color: '#999', marginTop: 2 }}>
+                        {s.method === 'HISTORICAL'
+                          ? <>Replay {s.startDate} to {s.endDate}{s.marketShockPercent != null && <> · SPY {fmt(s.marketShockPercent)}%</>}{s.maxDrawdownPercent != null && <> · Max drawdown {fmt(s.maxDrawdownPercent)}%</>}</>
+                          : <>Market shock: {fmt(s.marketShockPercent)}% × beta</>}
+                      </div>
                     </div>
                     <div style={{ textAlign: 'right', minWidth: 160 }}>
-                      <div style={{ fontSize: '1.3rem', fontWeight: 700, color: '#e53935' }}>-{fmtUsd(s.estimatedLoss)}</div>
-                      <div style={{ fontSize: '0.85rem', color: '#e53935' }}>{fmt(s.estimatedLossPercent)}%</div>
+                      <div style={{ fontSize: '1.3rem', fontWeight: 700, color: s.estimatedLoss > 0 ? '#e53935' : '#43a047' }}>
+                        {s.estimatedLoss > 0 ? '-' : '+'}{fmtUsd(Math.abs(s.estimatedLoss))}
+                      </div>
+                      <div style={{ fontSize: '0.85rem', color: s.estimatedLoss > 0 ? '#e53935' : '#43a047' }}>{fmt(s.estimatedLossPercent)}%</div>
                     </div>
                   </div>
                 ))}
@@ -38,7 +38,7 @@ interface ScreenedStock {
   peRatio: number | null; eps: number | null; dividendYield: number | null; beta: number | null;
   weekHigh52: number | null; weekLow52: number | null;
 }
-interface ScreenResult { totalMatches: number; stocks: ScreenedStock[]; }
+interface ScreenResult { totalMatches: number; nextCursor?: string | null; stocks: ScreenedStock[]; }
 
 interface SavedReportSummary { id: number; reportType: string; target: string; createdAt: string; }
 
@@ -71,8 +71,9 @@ const Screener: React.FC = () => {
   const [sectorLoading, setSectorLoading] = useState(false);
 
   // Custom screen state
-  const [screenCriteria, setScreenCriteria] = useState({ sector: '', peRatioMax: '', dividendYieldMin: '', marketCapMin: '', betaMax: '', priceMax: '' });
+  const [screenCriteria, setScreenCriteria] = useState({ sector: '', peRatioMax: '', dividendYieldMin: '', marketCapMin: '', betaMax: '', priceMax: '', sortBy: 'marketCap' });
   const [screenResult, setScreenResult] = useState<ScreenResult | null>(null);
+  const [screenRequest, setScreenRequest] = useState<Record<string, unknown> | null>(null);
   const [screenLoading, setScreenLoading] = useState(false);
 
   // Saved reports
@@ -102,19 +103,29 @@ const Screener: React.FC = () => {
     setSectorLoading(false);
   };
 
-  const runCustomScreen = async () => {
-    setScreenLoading(true); setScreenResult(null);
-    const body: Record<string, unknown> = {};
-    if (screenCriteria.sector) body.sector = screenCriteria.sector;
-    if (screenCriteria.peRatioMax) body.peRatioMax = parseFloat(screenCriteria.peRatioMax);
-    if (screenCriteria.dividendYieldMin) body.dividendYieldMin = parseFloat(screenCriteria.dividendYieldMin);
-    if (screenCriteria.marketCapMin) body.marketCapMin = parseFloat(screenCriteria.marketCapMin);
-    if (screenCriteria.betaMax) body.betaMax = parseFloat(screenCriteria.betaMax);
-    if (screenCriteria.priceMax) body.priceMax = parseFloat(screenCriteria.priceMax);
+  // Pass the previous page's cursor to append the next page. Later pages resend the first page's request,
+  // not the form as edited since, so they continue the same screen the server evaluated and cached.
+  const runCustomScreen = async (cursor?: string) => {
+    let body: Record<string, unknown>;
+    if (cursor) {
+      if (!screenRequest) return;
+      body = { ...screenRequest, cursor };
+    } else {
+      body = { sortBy: screenCriteria.sortBy, sortDirection: 'desc' };
+      if (screenCriteria.sector) body.sector = screenCriteria.sector;
+      if (screenCriteria.peRatioMax) body.peRatioMax = parseFloat(screenCriteria.peRatioMax);
+      if (screenCriteria.dividendYieldMin) body.dividendYieldMin = parseFloat(screenCriteria.dividendYieldMin);
+      if (screenCriteria.marketCapMin) body.marketCapMin = parseFloat(screenCriteria.marketCapMin);
+      if (screenCriteria.betaMax) body.betaMax = parseFloat(screenCriteria.betaMax);
+      if (screenCriteria.priceMax) body.priceMax = parseFloat(screenCriteria.priceMax);
+      setScreenRequest(body);
+      setScreenResult(null);
+    }
+    setScreenLoading(true);
     try {
       const res = await apiClient.post('/v1/screener/screen', body);
-      setScreenResult(res.data);
-    } catch { setScreenResult({ totalMatches: 0, stocks: [] }); }
+      setScreenResult(prev => cursor && prev ? { ...res.data, stocks: [...prev.stocks, ...res.data.stocks] } : res.data);
+    } catch { if (!cursor) setScreenResult({ totalMatches: 0, stocks: [] }); }
     setScreenLoading(false);
   };
 
@@ -494,8 +505,20 @@ const Screener: React.FC = () => {
                 <input type="number" step="any" placeholder="e.g. 100" value={screenCriteria.priceMax}
                   onChange={e => setScreenCriteria({ ...screenCriteria, priceMax: e.target.value })} style={inputStyle} />
               </div>
+              <div>
+                <label style={{ fontSize: '0.85rem', fontWeight: 600 }}>Sort By (highest first)</label>
+                <select value={screenCriteria.sortBy} onChange={e => setScreenCriteria({ ...screenCriteria, sortBy: e.target.value })} style={inputStyle}>
+                  <option value="marketCap">Market Cap</option>
+                  <option value="dividendYield">Dividend Yield</option>
+                  <option value="peRatio">P/E Ratio</option>
+                  <option value="eps">EPS</option>
+                  <option value="beta">Beta</option>
+                  <option value="currentPrice">Price</option>
+                  <option value="changePercent">Change</option>
+                </select>
+              </div>
             </div>
-            <button onClick={runCustomScreen} disabled={screenLoading} style={btnStyle}>
+            <button onClick={() => runCustomScreen()} disabled={screenLoading} style={btnStyle}>
               {screenLoading ? 'Screening...' : 'Run Screen'}
             </button>
           </div>
@@ -538,6 +561,12 @@ const Screener: React.FC = () => {
                   </tbody>
                 </table>
               </div>
+              {screenResult.nextCursor && (
+                <button onClick={() => runCustomScreen(screenResult.nextCursor ?? undefined)} disabled={screenLoading}
+                  style={{ ...btnStyle, marginTop: '0.75rem' }}>
+                  {screenLoading ? 'Loading...' : `Load more (${screenResult.stocks.length} of ${screenResult.totalMatches})`}
+                </button>
+              )}
             </div>
           )}
         </div>
@@ -83,7 +83,7 @@ deploy_api() {
     local jar="$PROJECT_ROOT/portfolio-api/target/portfolio-api-1.0.0-SNAPSHOT.jar"
     if [[ ! -f "$jar" ]]; then
         log "Building API module ..."
-        mvn package -f "$PROJECT_ROOT/pom.xml" -pl portfolio-db,portfolio-api -am -P"$PROFILE" -DskipTests
+        mvn package -f "$PROJECT_ROOT/pom.xml" -pl portfolio-db,portfolio-analytics,portfolio-api -am -P"$PROFILE" -DskipTests
     fi
     log "Deploying portfolio-api to $REMOTE_HOST ..."
     scp "$jar" "$REMOTE:$REMOTE_BASE/api/portfolio-api.jar"
@@ -160,7 +160,7 @@ deploy_batch() {
     local jar="$PROJECT_ROOT/portfolio-batch/target/portfolio-batch-1.0.0-SNAPSHOT.jar"
     if [[ ! -f "$jar" ]]; then
         log "Building Batch module ..."
-        mvn package -f "$PROJECT_ROOT/pom.xml" -pl portfolio-db,portfolio-batch -am -P"$PROFILE" -DskipTests
+        mvn package -f "$PROJECT_ROOT/pom.xml" -pl portfolio-db,portfolio-analytics,portfolio-batch -am -P"$PROFILE" -DskipTests
     fi
     log "Deploying portfolio-batch to $REMOTE_HOST ..."
     scp "$jar" "$REMOTE:$REMOTE_BASE/batch/portfolio-batch.jar"